@@ -4,30 +4,68 @@ USE venue_db;
 DROP TABLE IF EXISTS venue;
 CREATE TABLE venue (
     id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    version BIGINT NOT NULL DEFAULT 0,
     name VARCHAR(255) NOT NULL,
+    name_key VARCHAR(255) NOT NULL,
     location VARCHAR(255),
     type ENUM('RM','MTF','OTF') NOT NULL,
-    status ENUM('OPEN','CLOSED') NOT NULL
+    status ENUM('OPEN','CLOSED') NOT NULL,
+    CONSTRAINT uk_venue_name_key UNIQUE (name_key),
+    INDEX idx_venue_status_type (status, type),
+    INDEX idx_venue_type (type)
 );
 
 DROP TABLE IF EXISTS instrument;
 CREATE TABLE instrument (
     id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    version BIGINT NOT NULL DEFAULT 0,
     symbol VARCHAR(50) NOT NULL,
+    symbol_key VARCHAR(50) NOT NULL,
     name VARCHAR(255) NOT NULL,
     venue_id BIGINT NOT NULL,
     type ENUM('STOCK','BOND','DERIVATIVE','FX') NOT NULL,
+    trading_state ENUM('ACTIVE','HALTED','SUSPENDED') NOT NULL DEFAULT 'ACTIVE',
+    CONSTRAINT uk_instrument_symbol_key UNIQUE (symbol_key),
+    INDEX idx_instrument_venue_trading_state (venue_id, trading_state),
+    INDEX idx_instrument_venue_symbol_key (venue_id, symbol_key),
+    INDEX idx_instrument_type_symbol_key (type, symbol_key),
     FOREIGN KEY (venue_id) REFERENCES venue(id)
 );
 
-INSERT INTO venue (name, location, type, status) VALUES
-('NYSE', 'New York, USA', 'RM', 'OPEN'),
-('NASDAQ', 'New York, USA', 'MTF', 'OPEN'),
-('UBS Trading Venue', 'Zurich, Switzerland', 'OTF', 'CLOSED');
+DROP TABLE IF EXISTS trading_session;
+DROP TABLE IF EXISTS trading_holiday;
+DROP TABLE IF EXISTS trading_calendar;
+CREATE TABLE trading_calendar (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    version BIGINT NOT NULL DEFAULT 0,
+    venue_id BIGINT NOT NULL,
+    time_zone VARCHAR(255) NOT NULL,
+    CONSTRAINT uk_trading_calendar_venue UNIQUE (venue_id)
+);
+
+CREATE TABLE trading_session (
+    calendar_id BIGINT NOT NULL,
+    day_of_week ENUM('MONDAY','TUESDAY','WEDNESDAY','THURSDAY','FRIDAY','SATURDAY','SUNDAY') NOT NULL,
+    opens_at TIME NOT NULL,
+    closes_at TIME NOT NULL,
+    FOREIGN KEY (calendar_id) REFERENCES trading_calendar(id)
+);
+
+CREATE TABLE trading_holiday (
+    calendar_id BIGINT NOT NULL,
+    holiday DATE NOT NULL,
+    PRIMARY KEY (calendar_id, holiday),
+    FOREIGN KEY (calendar_id) REFERENCES trading_calendar(id)
+);
+
+INSERT INTO venue (name, name_key, location, type, status) VALUES
+('NYSE', 'NYSE', 'New York, USA', 'RM', 'OPEN'),
+('NASDAQ', 'NASDAQ', 'New York, USA', 'MTF', 'OPEN'),
+('UBS Trading Venue', 'UBS TRADING VENUE', 'Zurich, Switzerland', 'OTF', 'CLOSED');
 
-INSERT INTO instrument (symbol, name, venue_id, type) VALUES
-('AAPL', 'Apple Inc.', 2, 'STOCK'),
-('GOOGL', 'Alphabet Inc.', 2, 'STOCK'),
-('UBS1', 'UBS Bond 2025', 3, 'BOND'),
-('TSLA', 'Tesla Inc.', 2, 'STOCK');
+INSERT INTO instrument (symbol, symbol_key, name, venue_id, type) VALUES
+('AAPL', 'AAPL', 'Apple Inc.', 2, 'STOCK'),
+('GOOGL', 'GOOGL', 'Alphabet Inc.', 2, 'STOCK'),
+('UBS1', 'UBS1', 'UBS Bond 2025', 3, 'BOND'),
+('TSLA', 'TSLA', 'Tesla Inc.', 2, 'STOCK');
 
@@ -0,0 +1,92 @@
+package com.tobi.venuemgmt.benchmark;
+
+import com.tobi.venuemgmt.VenueManagementApiApplication;
+import com.tobi.venuemgmt.instrument.TradabilityIndexLoader;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Boots the application without a web server against an in-memory H2
+ * database, and bulk-loads reference data for repository benchmarks.
+ */
+public final class EmbeddedDatabaseApplication {
+
+    private static final int INSERT_BATCH_SIZE = 5_000;
+
+    private EmbeddedDatabaseApplication() {
+    }
+
+    public static ConfigurableApplicationContext start(String databaseName) {
+        return start(databaseName, Map.of());
+    }
+
+    /**
+     * Starts the application with the benchmark defaults, overridden by the given
+     * properties (e.g. to enable the web server), plus any extra bean sources.
+     */
+    public static ConfigurableApplicationContext start(String databaseName, Map<String, String> overrides,
+            Class<?>... extraSources) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("spring.main.web-application-type", "none");
+        properties.put("spring.main.banner-mode", "off");
+        properties.put("spring.datasource.url", "jdbc:h2:mem:" + databaseName + ";DB_CLOSE_DELAY=-1");
+        properties.put("spring.datasource.username", "sa");
+        properties.put("spring.datasource.password", "");
+        properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        properties.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+        properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        properties.put("spring.jpa.show-sql", "false");
+        properties.put("logging.level.root", "WARN");
+        // The reactive API opens its own port and pool; load tests that need it turn it on
+        properties.put("app.reactive.enabled", "false");
+        properties.putAll(overrides);
+
+        // Command-line arguments take precedence over application.properties
+        String[] args = properties.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+        Class<?>[] sources = new Class<?>[extraSources.length + 1];
+        sources[0] = VenueManagementApiApplication.class;
+        System.arraycopy(extraSources, 0, sources, 1, extraSources.length);
+        return SpringApplication.run(sources, args);
+    }
+
+    /**
+     * Inserts the given number of venues, spreading the instruments evenly
+     * across them, then reloads the in-memory tradability index.
+     * Venue IDs and instrument IDs both start at 1.
+     */
+    public static void load(ConfigurableApplicationContext context, int venues, int instruments) {
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+
+        List<Object[]> venueRows = new ArrayList<>(INSERT_BATCH_SIZE);
+        for (int v = 1; v <= venues; v++) {
+            String name = "Venue " + v;
+            venueRows.add(new Object[] { name, name.toUpperCase(), "Location " + (v % 50) });
+            if (venueRows.size() == INSERT_BATCH_SIZE || v == venues) {
+                jdbc.batchUpdate("INSERT INTO venue (name, name_key, location, type, status) "
+                        + "VALUES (?, ?, ?, 'RM', 'OPEN')", venueRows);
+                venueRows.clear();
+            }
+        }
+
+        List<Object[]> instrumentRows = new ArrayList<>(INSERT_BATCH_SIZE);
+        for (int i = 1; i <= instruments; i++) {
+            String symbol = "SYM" + i;
+            instrumentRows.add(new Object[] { symbol, symbol, "Instrument " + i, (long) (i % venues) + 1 });
+            if (instrumentRows.size() == INSERT_BATCH_SIZE || i == instruments) {
+                jdbc.batchUpdate("INSERT INTO instrument (symbol, symbol_key, name, venue_id, type) "
+                        + "VALUES (?, ?, ?, ?, 'STOCK')", instrumentRows);
+                instrumentRows.clear();
+            }
+        }
+
+        context.getBean(TradabilityIndexLoader.class).afterSingletonsInstantiated();
+    }
+}
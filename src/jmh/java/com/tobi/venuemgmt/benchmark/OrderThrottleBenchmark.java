@@ -0,0 +1,92 @@
+package com.tobi.venuemgmt.benchmark;
+
+import com.tobi.venuemgmt.instrument.OrderThrottle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OrderThrottle throughput at 1 to 64 threads, each sending orders across
+ * 64 venues and 64k instruments. stripes=1 puts every venue behind one
+ * lock, as a baseline for the default striping. Limits are set high enough
+ * that no order is rejected, so every call updates both buckets.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderThrottleBenchmark {
+
+    private static final int VENUES = 64;
+    private static final int INSTRUMENTS = 65_536;
+
+    @Param({ "1", "0" })
+    public int stripes;
+
+    private OrderThrottle throttle;
+
+    @State(Scope.Thread)
+    public static class Orders {
+
+        private int next;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            next = ThreadLocalRandom.current().nextInt(INSTRUMENTS);
+        }
+
+        long instrumentId() {
+            next = (next + 1) & (INSTRUMENTS - 1);
+            return next + 1;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        throttle = new OrderThrottle(1e9, Integer.MAX_VALUE, 1e9, Integer.MAX_VALUE, stripes);
+    }
+
+    private long acquire(Orders orders) {
+        long instrumentId = orders.instrumentId();
+        return throttle.tryAcquire(instrumentId, instrumentId % VENUES + 1);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long threads1(Orders orders) {
+        return acquire(orders);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long threads4(Orders orders) {
+        return acquire(orders);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public long threads16(Orders orders) {
+        return acquire(orders);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public long threads64(Orders orders) {
+        return acquire(orders);
+    }
+}
@@ -0,0 +1,99 @@
+package com.tobi.venuemgmt.benchmark;
+
+import com.tobi.venuemgmt.instrument.InstrumentService;
+import com.tobi.venuemgmt.instrument.OrderRequest;
+import com.tobi.venuemgmt.instrument.TradabilityIndex;
+import com.tobi.venuemgmt.instrument.TradabilityIndexLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * InstrumentService.processOrder on the in-memory fast path and on the
+ * repository fallback, plus the batch variant, against an embedded database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProcessOrderBenchmark {
+
+    private static final int VENUES = 20;
+    private static final int INSTRUMENTS = 10_000;
+
+    @Param({ "1000" })
+    public int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private InstrumentService instrumentService;
+    private TradabilityIndex tradabilityIndex;
+    private List<OrderRequest> batch;
+    private long nextInstrumentId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Rate limits off: the loop sends far more orders per instrument than they allow
+        context = EmbeddedDatabaseApplication.start("process-order", Map.of(
+                "app.orders.throttle.instrument.rate-per-second", "0",
+                "app.orders.throttle.venue.rate-per-second", "0"));
+        EmbeddedDatabaseApplication.load(context, VENUES, INSTRUMENTS);
+        instrumentService = context.getBean(InstrumentService.class);
+        tradabilityIndex = context.getBean(TradabilityIndex.class);
+
+        batch = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            batch.add(new OrderRequest("o" + i, (long) (i % INSTRUMENTS) + 1));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private long nextInstrument() {
+        nextInstrumentId = nextInstrumentId % INSTRUMENTS + 1;
+        return nextInstrumentId;
+    }
+
+    @Benchmark
+    public void processOrderIndexed() {
+        instrumentService.processOrder(nextInstrument());
+    }
+
+    @Benchmark
+    public void processOrderFallback() {
+        // Forget the instrument so the order takes the cached repository path
+        long instrumentId = nextInstrument();
+        tradabilityIndex.removeInstrument(instrumentId);
+        instrumentService.processOrder(instrumentId);
+    }
+
+    @Benchmark
+    public Object processOrderBatch() {
+        return instrumentService.processOrders(batch);
+    }
+
+    @TearDown(Level.Iteration)
+    public void restoreIndex() {
+        context.getBean(TradabilityIndexLoader.class).afterSingletonsInstantiated();
+    }
+}
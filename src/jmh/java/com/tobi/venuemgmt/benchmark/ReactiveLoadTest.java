@@ -0,0 +1,138 @@
+package com.tobi.venuemgmt.benchmark;
+
+import com.tobi.venuemgmt.reactive.ReactiveReadServer;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Drives the servlet API and the reactive API of one application side by
+ * side: 10k concurrent clients, each on its own connection, reading the
+ * same flat instrument lists per venue. Reports p50/p99 latency, errors,
+ * throughput and the peak number of platform threads in the JVM while the
+ * run was going (clients run on virtual threads and are not counted).
+ *
+ * Both servers, their databases and the clients share one JVM, so this
+ * needs about two file descriptors per client: raise the limit first, e.g.
+ * ulimit -n 65536.
+ *
+ * Run: mvn -Pbenchmark test-compile exec:exec@reactive-load-test
+ */
+public class ReactiveLoadTest {
+
+    private static final int CLIENTS = Integer.getInteger("load.clients", 10_000);
+    private static final int REQUESTS_PER_CLIENT = Integer.getInteger("load.requestsPerClient", 10);
+    private static final int VENUES = 200;
+    private static final int INSTRUMENTS = 20_000;
+    private static final String DATABASE = "reactive-load";
+
+    public static void main(String[] args) throws Exception {
+        ConfigurableApplicationContext context = EmbeddedDatabaseApplication.start(DATABASE, Map.ofEntries(
+                Map.entry("spring.main.web-application-type", "servlet"),
+                Map.entry("server.port", "0"),
+                Map.entry("server.tomcat.threads.max", "200"),
+                Map.entry("server.tomcat.max-connections", String.valueOf(CLIENTS * 2)),
+                Map.entry("server.tomcat.accept-count", String.valueOf(CLIENTS)),
+                Map.entry("spring.datasource.hikari.maximum-pool-size", "16"),
+                Map.entry("spring.datasource.hikari.connection-timeout", "2000"),
+                Map.entry("app.reactive.enabled", "true"),
+                Map.entry("app.reactive.port", "0"),
+                Map.entry("app.reactive.event-loop-threads", "4"),
+                // Same in-memory database as the JDBC URL
+                Map.entry("app.reactive.r2dbc.url", "r2dbc:h2:mem:///" + DATABASE + "?options=DB_CLOSE_DELAY=-1"),
+                Map.entry("app.reactive.r2dbc.pool.max-size", "16")));
+        try {
+            EmbeddedDatabaseApplication.load(context, VENUES, INSTRUMENTS);
+            String servletPort = context.getEnvironment().getProperty("local.server.port");
+            int reactivePort = context.getBean(ReactiveReadServer.class).port();
+
+            // The servlet list needs view=SHALLOW to return the same rows the reactive API does
+            Result servlet = drive("servlet", "http://localhost:" + servletPort, "?view=SHALLOW");
+            Result reactive = drive("reactive", "http://localhost:" + reactivePort, "");
+            System.out.println();
+            System.out.println(servlet);
+            System.out.println(reactive);
+        } finally {
+            context.close();
+        }
+        System.exit(0);
+    }
+
+    private static Result drive(String stack, String baseUrl, String query) throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        int total = CLIENTS * REQUESTS_PER_CLIENT;
+        AtomicLongArray latencies = new AtomicLongArray(total);
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+
+        threads.resetPeakThreadCount();
+        long start = System.nanoTime();
+        // The HTTP client's own work also runs on virtual threads, so only server threads show up in the peak
+        try (ExecutorService httpExecutor = Executors.newVirtualThreadPerTaskExecutor();
+                HttpClient client = HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .executor(httpExecutor)
+                        .connectTimeout(Duration.ofSeconds(30))
+                        .build();
+                ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < CLIENTS; c++) {
+                int clientId = c;
+                clients.submit(() -> {
+                    for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+                        long venueId = (clientId + r) % VENUES + 1;
+                        URI uri = URI.create(baseUrl + "/api/instruments/venue/" + venueId + query);
+                        long sent = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(HttpRequest.newBuilder(uri).build(),
+                                    HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        latencies.set(completed.getAndIncrement(), System.nanoTime() - sent);
+                    }
+                });
+            }
+        }
+        long elapsedNanos = System.nanoTime() - start;
+
+        long[] sorted = new long[completed.get()];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = latencies.get(i);
+        }
+        Arrays.sort(sorted);
+        return new Result(stack, sorted.length, errors.get(), percentile(sorted, 0.50), percentile(sorted, 0.99),
+                threads.getPeakThreadCount(), sorted.length * 1_000_000_000.0 / elapsedNanos);
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.round(percentile * (sorted.length - 1))];
+    }
+
+    private record Result(String stack, int requests, int errors, long p50Nanos, long p99Nanos, int peakThreads,
+            double requestsPerSecond) {
+
+        @Override
+        public String toString() {
+            return String.format("%-8s requests=%d errors=%d p50=%.2fms p99=%.2fms peakThreads=%d throughput=%.0f req/s",
+                    stack, requests, errors, p50Nanos / 1e6, p99Nanos / 1e6, peakThreads, requestsPerSecond);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.tobi.venuemgmt.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tobi.venuemgmt.instrument.InstrumentSummary;
+import com.tobi.venuemgmt.instrument.InstrumentType;
+import com.tobi.venuemgmt.referencedata.ReferenceDataCodec;
+import com.tobi.venuemgmt.referencedata.ReferenceDataSnapshot;
+import com.tobi.venuemgmt.venue.VenueStatus;
+import com.tobi.venuemgmt.venue.VenueSummary;
+import com.tobi.venuemgmt.venue.VenueType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON against the compact binary reference data format for the
+ * GET /api/reference-data payload. Payload sizes are printed in setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReferenceDataFormatBenchmark {
+
+    private static final String[] LOCATIONS = { "New York, USA", "London, UK", "Frankfurt, Germany",
+            "Zurich, Switzerland", "Tokyo, Japan", "Singapore" };
+
+    @Param({ "100000" })
+    public int instruments;
+
+    @Param({ "200" })
+    public int venues;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ReferenceDataSnapshot snapshot;
+    private byte[] json;
+    private byte[] binary;
+    private byte[] compressed;
+
+    @Setup
+    public void setUp() throws Exception {
+        VenueType[] venueTypes = VenueType.values();
+        VenueStatus[] statuses = VenueStatus.values();
+        InstrumentType[] instrumentTypes = InstrumentType.values();
+
+        List<VenueSummary> venueList = new ArrayList<>(venues);
+        for (int i = 1; i <= venues; i++) {
+            venueList.add(new VenueSummary((long) i, "Venue " + i, LOCATIONS[i % LOCATIONS.length],
+                    venueTypes[i % venueTypes.length], statuses[i % statuses.length]));
+        }
+        List<InstrumentSummary> instrumentList = new ArrayList<>(instruments);
+        for (int i = 1; i <= instruments; i++) {
+            instrumentList.add(new InstrumentSummary((long) i, "SYM" + i, "Instrument " + i,
+                    instrumentTypes[i % instrumentTypes.length], (long) (i % venues + 1)));
+        }
+        snapshot = new ReferenceDataSnapshot("benchmark", 0L, venueList, instrumentList);
+
+        json = encodeJson();
+        binary = encodeBinary();
+        compressed = encodeCompressedBinary();
+        System.out.printf("%nPayload at %d instruments: JSON %,d bytes, binary %,d bytes, compressed binary %,d bytes%n",
+                instruments, json.length, binary.length, compressed.length);
+    }
+
+    @Benchmark
+    public byte[] encodeJson() throws Exception {
+        return objectMapper.writeValueAsBytes(snapshot);
+    }
+
+    @Benchmark
+    public byte[] encodeBinary() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(binary == null ? 1 << 16 : binary.length);
+        ReferenceDataCodec.encode(snapshot, out);
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] encodeCompressedBinary() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(compressed == null ? 1 << 16 : compressed.length);
+        ReferenceDataCodec.encode(snapshot, out, true);
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public ReferenceDataSnapshot decodeJson() throws Exception {
+        return objectMapper.readValue(json, ReferenceDataSnapshot.class);
+    }
+
+    @Benchmark
+    public ReferenceDataSnapshot decodeBinary() throws Exception {
+        return ReferenceDataCodec.decode(new ByteArrayInputStream(binary));
+    }
+
+    @Benchmark
+    public ReferenceDataSnapshot decodeCompressedBinary() throws Exception {
+        return ReferenceDataCodec.decode(new ByteArrayInputStream(compressed));
+    }
+}
@@ -0,0 +1,89 @@
+package com.tobi.venuemgmt.benchmark;
+
+import com.tobi.venuemgmt.common.NameKey;
+import com.tobi.venuemgmt.instrument.InstrumentRepository;
+import com.tobi.venuemgmt.venue.VenueRepository;
+import com.tobi.venuemgmt.venue.VenueService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repository lookups and the venue duplicate check against an embedded
+ * database, at increasing table sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryLookupBenchmark {
+
+    @Param({ "1000", "100000" })
+    public int venues;
+
+    private ConfigurableApplicationContext context;
+    private VenueService venueService;
+    private VenueRepository venueRepository;
+    private InstrumentRepository instrumentRepository;
+    private long nextId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = EmbeddedDatabaseApplication.start("repository-lookup-" + venues);
+        EmbeddedDatabaseApplication.load(context, venues, venues);
+        venueService = context.getBean(VenueService.class);
+        venueRepository = context.getBean(VenueRepository.class);
+        instrumentRepository = context.getBean(InstrumentRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private long nextId() {
+        nextId = nextId % venues + 1;
+        return nextId;
+    }
+
+    @Benchmark
+    public boolean checkDuplicateVenue() {
+        // The query VenueService.checkDuplicateVenue runs on every create
+        return venueRepository.existsByNameKey(NameKey.normalize("Venue " + nextId()));
+    }
+
+    @Benchmark
+    public Object venueFindById() {
+        return venueRepository.findById(nextId());
+    }
+
+    @Benchmark
+    public Object venueFindByIdCached() {
+        return venueService.findVenueById(nextId());
+    }
+
+    @Benchmark
+    public Object instrumentFindById() {
+        return instrumentRepository.findById(nextId());
+    }
+
+    @Benchmark
+    public Object instrumentsByVenue() {
+        return instrumentRepository.findSummariesByVenueId(nextId());
+    }
+}
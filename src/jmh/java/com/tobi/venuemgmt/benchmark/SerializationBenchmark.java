@@ -0,0 +1,74 @@
+package com.tobi.venuemgmt.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tobi.venuemgmt.instrument.Instrument;
+import com.tobi.venuemgmt.instrument.InstrumentType;
+import com.tobi.venuemgmt.venue.Venue;
+import com.tobi.venuemgmt.venue.VenueStatus;
+import com.tobi.venuemgmt.venue.VenueType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the Venue/Instrument graph with @JsonIdentityInfo,
+ * as done by the DEEP list endpoints.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({ "1", "100", "10000" })
+    public int instruments;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private Venue venue;
+
+    @Setup
+    public void setUp() {
+        venue = new Venue();
+        venue.setId(1L);
+        venue.setName("NYSE");
+        venue.setLocation("New York, USA");
+        venue.setType(VenueType.RM);
+        venue.setStatus(VenueStatus.OPEN);
+
+        List<Instrument> list = new ArrayList<>(instruments);
+        for (int i = 1; i <= instruments; i++) {
+            Instrument instrument = new Instrument();
+            instrument.setId((long) i);
+            instrument.setSymbol("SYM" + i);
+            instrument.setName("Instrument " + i);
+            instrument.setType(InstrumentType.STOCK);
+            instrument.setVenue(venue);
+            list.add(instrument);
+        }
+        venue.setInstruments(list);
+    }
+
+    @Benchmark
+    public byte[] serializeVenue() throws Exception {
+        return objectMapper.writeValueAsBytes(venue);
+    }
+
+    @Benchmark
+    public byte[] serializeInstrumentList() throws Exception {
+        return objectMapper.writeValueAsBytes(venue.getInstruments());
+    }
+}
@@ -0,0 +1,134 @@
+package com.tobi.venuemgmt.benchmark;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures cold start as a client sees it: time from launching a fresh JVM to
+ * the first successful response from GET /api/venues. Runs the production
+ * artifact (mvn -Pproduction package) three ways:
+ * - plain: the jar as is;
+ * - aot: with the AOT-generated bean definitions (spring.aot.enabled);
+ * - aot+cds: AOT plus the class data sharing archive from the build's training run.
+ * Reports min, median and max over the runs of each.
+ *
+ * Every variant runs with the prod profile against the database in DB_URL,
+ * DB_USERNAME and DB_PASSWORD, like a real start.
+ *
+ * Run: mvn -Pproduction package && mvn -Pbenchmark test-compile exec:exec@startup-benchmark
+ * Options: -Dstartup.runs=5 -Dstartup.directory=target/cds
+ */
+public class StartupBenchmark {
+
+    private static final int RUNS = Integer.getInteger("startup.runs", 5);
+    private static final Path DIRECTORY = Path.of(System.getProperty("startup.directory", "target/cds"));
+    private static final String JAR = System.getProperty("startup.jar", "venue-management-api-0.0.1-SNAPSHOT.jar");
+    private static final String ARCHIVE = "application.jsa";
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(10);
+
+    public static void main(String[] args) throws Exception {
+        if (!Files.exists(DIRECTORY.resolve(JAR))) {
+            System.err.println("No " + DIRECTORY.resolve(JAR) + "; build it first with mvn -Pproduction package");
+            System.exit(1);
+        }
+        List<Result> results = new ArrayList<>();
+        results.add(measure("plain", List.of()));
+        results.add(measure("aot", List.of("-Dspring.aot.enabled=true")));
+        if (Files.exists(DIRECTORY.resolve(ARCHIVE))) {
+            results.add(measure("aot+cds", List.of("-Dspring.aot.enabled=true", "-XX:SharedArchiveFile=" + ARCHIVE)));
+        } else {
+            System.out.println("No " + ARCHIVE + " in " + DIRECTORY + " (built with -Dcds.skip=true?); skipping aot+cds");
+        }
+        System.out.println();
+        results.forEach(System.out::println);
+        System.exit(0);
+    }
+
+    private static Result measure(String variant, List<String> jvmArgs) throws Exception {
+        long[] samples = new long[RUNS];
+        for (int run = 0; run < RUNS; run++) {
+            samples[run] = timeToFirstRequest(jvmArgs);
+            System.out.printf("%-8s run %d: %d ms%n", variant, run + 1, samples[run] / 1_000_000);
+        }
+        Arrays.sort(samples);
+        return new Result(variant, samples[0], samples[samples.length / 2], samples[samples.length - 1]);
+    }
+
+    private static long timeToFirstRequest(List<String> jvmArgs) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        command.add("-Dspring.profiles.active=prod");
+        command.add("-jar");
+        command.add(JAR);
+        command.add("--server.port=" + port);
+        // Random ports, so a run never collides with the previous one shutting down
+        command.add("--management.server.port=0");
+        command.add("--app.reactive.port=0");
+        command.add("--app.audit.orders.enabled=false");
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/venues"))
+                .timeout(Duration.ofSeconds(5))
+                .build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(DIRECTORY.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            long deadline = start + TIMEOUT.toNanos();
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Application exited with " + process.exitValue()
+                            + " before answering; run " + String.join(" ", command) + " in " + DIRECTORY
+                            + " to see why");
+                }
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return System.nanoTime() - start;
+                    }
+                } catch (IOException e) {
+                    // Not listening yet
+                }
+                Thread.sleep(POLL_INTERVAL.toMillis());
+            }
+            throw new IllegalStateException("No response within " + TIMEOUT);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private record Result(String variant, long minNanos, long medianNanos, long maxNanos) {
+
+        @Override
+        public String toString() {
+            return String.format("%-8s time-to-first-request min=%dms median=%dms max=%dms",
+                    variant, minNanos / 1_000_000, medianNanos / 1_000_000, maxNanos / 1_000_000);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.tobi.venuemgmt.benchmark;
+
+import com.tobi.venuemgmt.instrument.InstrumentSummary;
+import com.tobi.venuemgmt.instrument.InstrumentType;
+import com.tobi.venuemgmt.instrument.SymbolIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * SymbolIndex autocomplete at 1M instruments: unfiltered, filtered by type
+ * and filtered by venue, with 1-3 character prefixes as typed in the
+ * order-entry UI. Runs in memory; no database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SymbolAutocompleteBenchmark {
+
+    private static final int VENUES = 50;
+    private static final int LIMIT = 10;
+    private static final InstrumentType[] TYPES = InstrumentType.values();
+
+    @Param({ "1000000" })
+    public int instruments;
+
+    private SymbolIndex index;
+    private String[] queries;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        index = new SymbolIndex();
+        index.load(LongStream.rangeClosed(1, instruments).mapToObj(id -> {
+            String letters = randomLetters(random, 3 + random.nextInt(3));
+            return new InstrumentSummary(id, letters + id, letters + " Holdings " + id,
+                    TYPES[random.nextInt(TYPES.length)], (long) random.nextInt(VENUES) + 1);
+        }));
+
+        queries = new String[1024];
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = randomLetters(random, 1 + random.nextInt(3));
+        }
+    }
+
+    private static String randomLetters(Random random, int length) {
+        StringBuilder letters = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            letters.append((char) ('A' + random.nextInt(26)));
+        }
+        return letters.toString();
+    }
+
+    private String nextQuery() {
+        return queries[next++ & (queries.length - 1)];
+    }
+
+    @Benchmark
+    public List<InstrumentSummary> prefix() {
+        return index.search(nextQuery(), null, null, LIMIT);
+    }
+
+    @Benchmark
+    public List<InstrumentSummary> prefixAndType() {
+        return index.search(nextQuery(), InstrumentType.BOND, null, LIMIT);
+    }
+
+    @Benchmark
+    public List<InstrumentSummary> prefixAndVenue() {
+        return index.search(nextQuery(), null, 7L, LIMIT);
+    }
+
+    @Benchmark
+    public List<InstrumentSummary> prefixTypeAndVenue() {
+        return index.search(nextQuery(), InstrumentType.FX, 7L, LIMIT);
+    }
+}
@@ -0,0 +1,118 @@
+package com.tobi.venuemgmt.benchmark;
+
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Compares request execution on platform threads and on virtual threads under
+ * a connection-heavy burst: many concurrent clients hitting database-backed
+ * endpoints. Reports p50/p99 latency, errors and the maximum number of
+ * requests the server had in flight at once.
+ *
+ * Run: mvn -Pbenchmark test-compile exec:exec@threading-load-test
+ */
+public class ThreadingModeLoadTest {
+
+    private static final int CLIENTS = Integer.getInteger("load.clients", 2_000);
+    private static final int REQUESTS_PER_CLIENT = Integer.getInteger("load.requestsPerClient", 20);
+    private static final int VENUES = 200;
+    private static final int INSTRUMENTS = 20_000;
+
+    public static void main(String[] args) throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+        System.out.println();
+        System.out.println(platform);
+        System.out.println(virtual);
+        System.exit(0);
+    }
+
+    private static Result run(boolean virtualThreads) throws Exception {
+        String mode = virtualThreads ? "virtual" : "platform";
+        ConfigurableApplicationContext context = EmbeddedDatabaseApplication.start("load-" + mode, Map.of(
+                "spring.main.web-application-type", "servlet",
+                "server.port", "0",
+                "spring.threads.virtual.enabled", String.valueOf(virtualThreads),
+                "server.tomcat.threads.max", "200",
+                "server.tomcat.max-connections", String.valueOf(CLIENTS * 2),
+                "spring.datasource.hikari.maximum-pool-size", "16",
+                "spring.datasource.hikari.connection-timeout", "2000"),
+                InFlightRequestCounter.class);
+        try {
+            EmbeddedDatabaseApplication.load(context, VENUES, INSTRUMENTS);
+            String port = context.getEnvironment().getProperty("local.server.port");
+            return drive(mode, "http://localhost:" + port, context.getBean(InFlightRequestCounter.class));
+        } finally {
+            context.close();
+        }
+    }
+
+    private static Result drive(String mode, String baseUrl, InFlightRequestCounter counter) throws Exception {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        int total = CLIENTS * REQUESTS_PER_CLIENT;
+        AtomicLongArray latencies = new AtomicLongArray(total);
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+
+        long start = System.nanoTime();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < CLIENTS; c++) {
+                int clientId = c;
+                clients.submit(() -> {
+                    for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+                        long venueId = (clientId + r) % VENUES + 1;
+                        URI uri = URI.create(baseUrl + "/api/instruments/page?size=50&venueId=" + venueId);
+                        long sent = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(HttpRequest.newBuilder(uri).build(),
+                                    HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        latencies.set(completed.getAndIncrement(), System.nanoTime() - sent);
+                    }
+                });
+            }
+        }
+        long elapsedNanos = System.nanoTime() - start;
+
+        long[] sorted = new long[completed.get()];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = latencies.get(i);
+        }
+        Arrays.sort(sorted);
+        return new Result(mode, sorted.length, errors.get(), percentile(sorted, 0.50), percentile(sorted, 0.99),
+                counter.maxInFlight(), sorted.length * 1_000_000_000.0 / elapsedNanos);
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.round(percentile * (sorted.length - 1))];
+    }
+
+    private record Result(String mode, int requests, int errors, long p50Nanos, long p99Nanos, int maxInFlight,
+            double requestsPerSecond) {
+
+        @Override
+        public String toString() {
+            return String.format("%-8s requests=%d errors=%d p50=%.2fms p99=%.2fms maxInFlight=%d throughput=%.0f req/s",
+                    mode, requests, errors, p50Nanos / 1e6, p99Nanos / 1e6, maxInFlight, requestsPerSecond);
+        }
+    }
+}
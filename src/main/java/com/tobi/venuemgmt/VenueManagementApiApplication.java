@@ -2,8 +2,12 @@ package com.tobi.venuemgmt;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
-@SpringBootApplication
+// R2DBC is set up by ReactiveApiConfig; Boot's ConnectionFactory bean would switch off the JPA DataSource
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
+@EnableScheduling
 public class VenueManagementApiApplication {
 
 	public static void main(String[] args) {
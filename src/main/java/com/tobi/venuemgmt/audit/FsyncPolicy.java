@@ -0,0 +1,13 @@
+package com.tobi.venuemgmt.audit;
+
+/**
+ * When the audit writer forces written records to disk.
+ */
+public enum FsyncPolicy {
+    /** Leave it to the operating system; records survive a process crash but not a power loss. */
+    NEVER,
+    /** Force at most once per configured interval. */
+    INTERVAL,
+    /** Force after every group commit; slowest, loses nothing that was written. */
+    EVERY_BATCH
+}
@@ -0,0 +1,60 @@
+package com.tobi.venuemgmt.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tobi.venuemgmt.common.NdjsonWriter;
+import com.tobi.venuemgmt.exception.InvalidRequestException;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Instant;
+
+@RestController
+@RequestMapping("/api/audit")
+@Tag(name = "Order Audit", description = "APIs for replaying the pre-trade order audit trail.")
+public class OrderAuditController {
+
+    private final OrderAuditReader orderAuditReader;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public OrderAuditController(OrderAuditReader orderAuditReader, ObjectMapper objectMapper) {
+        this.orderAuditReader = orderAuditReader;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Replays audited order decisions in a time range as newline-delimited
+     * JSON, in the order they were written.
+     */
+    @GetMapping(value = "/orders", produces = NdjsonWriter.MEDIA_TYPE)
+    @Operation(summary = "Replay the order audit trail", description = "Streams audited order decisions with a timestamp in [from, to) as NDJSON.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Replay started"),
+            @ApiResponse(responseCode = "400", description = "Invalid time range")
+    })
+    public ResponseEntity<StreamingResponseBody> replayOrders(
+            @Parameter(description = "Start of the range (inclusive), ISO-8601 instant") @RequestParam Instant from,
+            @Parameter(description = "End of the range (exclusive), ISO-8601 instant; defaults to now") @RequestParam(required = false) Instant to) {
+        Instant end = to != null ? to : Instant.now();
+        if (!from.isBefore(end)) {
+            throw new InvalidRequestException("'from' must be before 'to'.");
+        }
+        StreamingResponseBody body = out -> {
+            NdjsonWriter writer = new NdjsonWriter(objectMapper, out);
+            orderAuditReader.replay(from, end, writer::write);
+            writer.finish();
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NdjsonWriter.MEDIA_TYPE)).body(body);
+    }
+}
@@ -0,0 +1,302 @@
+package com.tobi.venuemgmt.audit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only audit log of pre-trade decisions.
+ *
+ * Request threads claim a slot in a preallocated ring with a single CAS, fill
+ * in primitive fields and publish the slot; they never lock, allocate or do
+ * I/O. If the ring is full the record is dropped and counted
+ * (audit.orders.dropped) rather than making the caller wait. One writer
+ * thread drains every published slot into a single FileChannel write (group
+ * commit), forces to disk according to the FsyncPolicy, and starts a new
+ * segment file once the current one reaches the configured size. Segments are
+ * named after the time they were opened; see OrderAuditReader.
+ *
+ * Request threads never wake the writer, so while the ring stays empty the
+ * writer polls it, parking twice as long after each empty poll up to
+ * MAX_IDLE_PARK_NANOS. Steady traffic is picked up within about 100
+ * microseconds and an idle log costs about a hundred wakeups a second; the
+ * first record after a quiet spell waits at most that long to be written.
+ */
+@Component
+public class OrderAuditLog implements InitializingBean, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderAuditLog.class);
+
+    static final String SEGMENT_PREFIX = "orders-";
+    static final String SEGMENT_SUFFIX = ".audit";
+
+    private static final int MAX_BATCH_RECORDS = 4096;
+    private static final long MIN_IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final long MAX_IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 5_000;
+
+    private final boolean enabled;
+    private final Path directory;
+    private final long segmentSizeBytes;
+    private final FsyncPolicy fsyncPolicy;
+    private final long fsyncIntervalNanos;
+
+    private final int mask;
+    private final long[] timestamps;
+    private final long[] instrumentIds;
+    private final long[] venueIds;
+    private final int[] outcomes;
+    // Sequence stored in each slot once its fields are written
+    private final AtomicLongArray published;
+    private final AtomicLong claimed = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    // Records before this sequence are on file and their slots can be reused
+    private volatile long written;
+    private volatile boolean running;
+
+    // Writer thread state
+    private Thread writer;
+    private FileChannel segment;
+    private long segmentBytes;
+    private boolean dirty;
+    private long lastForceNanos;
+
+    @Autowired
+    public OrderAuditLog(MeterRegistry meterRegistry,
+            @Value("${app.audit.orders.enabled:true}") boolean enabled,
+            @Value("${app.audit.orders.directory:audit}") Path directory,
+            @Value("${app.audit.orders.ring-capacity:65536}") int ringCapacity,
+            @Value("${app.audit.orders.segment-size-bytes:67108864}") long segmentSizeBytes,
+            @Value("${app.audit.orders.fsync:INTERVAL}") FsyncPolicy fsyncPolicy,
+            @Value("${app.audit.orders.fsync-interval-ms:1000}") long fsyncIntervalMillis) {
+        if (ringCapacity <= 0 || Integer.bitCount(ringCapacity) != 1) {
+            throw new IllegalArgumentException("Order audit ring capacity must be a power of two.");
+        }
+        if (segmentSizeBytes < OrderAuditRecord.RECORD_SIZE) {
+            throw new IllegalArgumentException("Order audit segment size must hold at least one record.");
+        }
+        this.enabled = enabled;
+        this.directory = directory;
+        this.segmentSizeBytes = segmentSizeBytes;
+        this.fsyncPolicy = fsyncPolicy;
+        this.fsyncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(fsyncIntervalMillis);
+        this.mask = ringCapacity - 1;
+        this.timestamps = new long[ringCapacity];
+        this.instrumentIds = new long[ringCapacity];
+        this.venueIds = new long[ringCapacity];
+        this.outcomes = new int[ringCapacity];
+        this.published = new AtomicLongArray(ringCapacity);
+        for (int i = 0; i < ringCapacity; i++) {
+            published.set(i, -1);
+        }
+        FunctionCounter.builder("audit.orders.dropped", dropped, LongAdder::sum)
+                .description("Order audit records dropped because the ring was full")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterPropertiesSet() throws IOException {
+        if (!enabled) {
+            log.info("Order audit log is disabled.");
+            return;
+        }
+        Files.createDirectories(directory);
+        running = true;
+        writer = new Thread(this::writeLoop, "order-audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("Order audit log writing to {} (fsync {}).", directory.toAbsolutePath(), fsyncPolicy);
+    }
+
+    /**
+     * Queues an audit record. Returns false if the log is not running or the
+     * ring is full; the caller is never blocked.
+     *
+     * @param venueId the venue, or 0 if not known
+     */
+    public boolean record(long instrumentId, long venueId, OrderOutcome outcome) {
+        if (!running) {
+            return false;
+        }
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - written > mask) {
+                dropped.increment();
+                return false;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+
+        int slot = (int) (sequence & mask);
+        timestamps[slot] = System.currentTimeMillis();
+        instrumentIds[slot] = instrumentId;
+        venueIds[slot] = venueId;
+        outcomes[slot] = outcome.ordinal();
+        published.setRelease(slot, sequence);
+        return true;
+    }
+
+    public long droppedCount() {
+        return dropped.sum();
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    private void writeLoop() {
+        // A batch never spans segments, so it is also capped at one segment's worth of records
+        long batchRecords = Math.min(Math.min(mask + 1, MAX_BATCH_RECORDS),
+                segmentSizeBytes / OrderAuditRecord.RECORD_SIZE);
+        ByteBuffer buffer = ByteBuffer.allocate((int) batchRecords * OrderAuditRecord.RECORD_SIZE);
+        CRC32C crc = new CRC32C();
+        lastForceNanos = System.nanoTime();
+        long idleParkNanos = MIN_IDLE_PARK_NANOS;
+        while (true) {
+            long next = written;
+            int count = 0;
+            buffer.clear();
+            while (buffer.remaining() >= OrderAuditRecord.RECORD_SIZE) {
+                long sequence = next + count;
+                int slot = (int) (sequence & mask);
+                if (published.getAcquire(slot) != sequence) {
+                    break;
+                }
+                OrderAuditRecord.encode(buffer, crc, sequence, timestamps[slot], instrumentIds[slot],
+                        venueIds[slot], outcomes[slot]);
+                count++;
+            }
+
+            if (count == 0) {
+                if (!running) {
+                    break;
+                }
+                forceIfDue();
+                LockSupport.parkNanos(idleParkNanos);
+                idleParkNanos = Math.min(idleParkNanos * 2, MAX_IDLE_PARK_NANOS);
+                continue;
+            }
+            idleParkNanos = MIN_IDLE_PARK_NANOS;
+
+            buffer.flip();
+            try {
+                append(buffer);
+            } catch (IOException e) {
+                log.error("Failed to write {} order audit records; dropping them.", count, e);
+                dropped.add(count);
+                closeSegment();
+            }
+            written = next + count;
+            if (fsyncPolicy == FsyncPolicy.EVERY_BATCH) {
+                force();
+            } else {
+                forceIfDue();
+            }
+        }
+        force();
+        closeSegment();
+    }
+
+    private void append(ByteBuffer buffer) throws IOException {
+        if (segment == null || segmentBytes + buffer.remaining() > segmentSizeBytes) {
+            rollSegment();
+        }
+        while (buffer.hasRemaining()) {
+            segmentBytes += segment.write(buffer);
+        }
+        dirty = true;
+    }
+
+    private void rollSegment() throws IOException {
+        if (segment != null) {
+            if (fsyncPolicy != FsyncPolicy.NEVER) {
+                force();
+            }
+            closeSegment();
+        }
+        // Names must be unique and sort by time; bump the timestamp on a clash
+        for (long start = System.currentTimeMillis(); ; start++) {
+            try {
+                segment = FileChannel.open(directory.resolve(segmentName(start)),
+                        StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+                segmentBytes = 0;
+                return;
+            } catch (FileAlreadyExistsException e) {
+                // try the next name
+            }
+        }
+    }
+
+    private void forceIfDue() {
+        if (fsyncPolicy == FsyncPolicy.INTERVAL && System.nanoTime() - lastForceNanos >= fsyncIntervalNanos) {
+            force();
+        }
+    }
+
+    private void force() {
+        if (segment == null || !dirty || fsyncPolicy == FsyncPolicy.NEVER) {
+            return;
+        }
+        try {
+            segment.force(false);
+            dirty = false;
+        } catch (IOException e) {
+            log.error("Failed to force order audit segment to disk.", e);
+        }
+        lastForceNanos = System.nanoTime();
+    }
+
+    private void closeSegment() {
+        if (segment == null) {
+            return;
+        }
+        try {
+            segment.close();
+        } catch (IOException e) {
+            log.warn("Failed to close order audit segment.", e);
+        }
+        segment = null;
+    }
+
+    static String segmentName(long startMillis) {
+        return String.format("%s%019d%s", SEGMENT_PREFIX, startMillis, SEGMENT_SUFFIX);
+    }
+
+    /**
+     * Stops accepting records, writes out everything already queued and closes
+     * the current segment.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        // It may be parked for a while if the ring has been empty
+        LockSupport.unpark(writer);
+        writer.join(SHUTDOWN_TIMEOUT_MILLIS);
+        if (writer.isAlive()) {
+            log.warn("Order audit writer did not finish within {} ms.", SHUTDOWN_TIMEOUT_MILLIS);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.tobi.venuemgmt.audit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Replays records from the order audit log segments.
+ *
+ * A segment only holds records written before the next segment was opened,
+ * so segments followed by one that opened at or before the start of the
+ * requested range are skipped without being read.
+ */
+@Component
+public class OrderAuditReader {
+
+    private static final int READ_BUFFER_RECORDS = 1024;
+
+    private final Path directory;
+
+    @Autowired
+    public OrderAuditReader(OrderAuditLog orderAuditLog) {
+        this(orderAuditLog.getDirectory());
+    }
+
+    OrderAuditReader(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Feeds every record with a timestamp in [from, to) to the consumer, in the
+     * order the records were written.
+     */
+    public void replay(Instant from, Instant to, Consumer<OrderAuditRecord> consumer) throws IOException {
+        List<Path> segments = segments();
+        long fromMillis = from.toEpochMilli();
+        for (int i = 0; i < segments.size(); i++) {
+            if (i + 1 < segments.size() && segmentStart(segments.get(i + 1)) <= fromMillis) {
+                continue;
+            }
+            replaySegment(segments.get(i), from, to, consumer);
+        }
+    }
+
+    List<Path> segments() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(OrderAuditReader::isSegment).sorted().toList();
+        }
+    }
+
+    private void replaySegment(Path segment, Instant from, Instant to, Consumer<OrderAuditRecord> consumer)
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_RECORDS * OrderAuditRecord.RECORD_SIZE);
+        CRC32C crc = new CRC32C();
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            while (channel.read(buffer) > 0) {
+                buffer.flip();
+                while (buffer.remaining() >= OrderAuditRecord.RECORD_SIZE) {
+                    OrderAuditRecord record = OrderAuditRecord.decode(buffer, crc);
+                    if (record == null) {
+                        // Torn write at the tail of the segment
+                        return;
+                    }
+                    if (!record.timestamp().isBefore(from) && record.timestamp().isBefore(to)) {
+                        consumer.accept(record);
+                    }
+                }
+                buffer.compact();
+            }
+        }
+    }
+
+    private static boolean isSegment(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(OrderAuditLog.SEGMENT_PREFIX) && name.endsWith(OrderAuditLog.SEGMENT_SUFFIX);
+    }
+
+    private static long segmentStart(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(OrderAuditLog.SEGMENT_PREFIX.length(),
+                name.length() - OrderAuditLog.SEGMENT_SUFFIX.length()));
+    }
+}
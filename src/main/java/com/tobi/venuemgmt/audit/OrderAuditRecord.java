@@ -0,0 +1,58 @@
+package com.tobi.venuemgmt.audit;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.zip.CRC32C;
+
+/**
+ * One audited pre-trade decision.
+ *
+ * On disk every record is RECORD_SIZE bytes: sequence, timestamp (epoch
+ * millis), instrument ID, venue ID (0 if unknown), outcome ordinal and a
+ * CRC32C of the preceding bytes. A record whose checksum does not match is a
+ * torn write at the end of a segment and ends that segment on replay.
+ */
+public record OrderAuditRecord(long sequence, Instant timestamp, Long instrumentId, Long venueId,
+        OrderOutcome outcome) {
+
+    static final int RECORD_SIZE = 40;
+    private static final int CHECKSUMMED_BYTES = RECORD_SIZE - Integer.BYTES;
+    private static final OrderOutcome[] OUTCOMES = OrderOutcome.values();
+
+    /**
+     * Writes one record at the buffer's position, which must be backed by an array.
+     */
+    static void encode(ByteBuffer buffer, CRC32C crc, long sequence, long timestampMillis, long instrumentId,
+            long venueId, int outcomeOrdinal) {
+        int start = buffer.position();
+        buffer.putLong(sequence)
+                .putLong(timestampMillis)
+                .putLong(instrumentId)
+                .putLong(venueId)
+                .putInt(outcomeOrdinal);
+        crc.reset();
+        crc.update(buffer.array(), buffer.arrayOffset() + start, CHECKSUMMED_BYTES);
+        buffer.putInt((int) crc.getValue());
+    }
+
+    /**
+     * Reads one record at the buffer's position, or returns null (leaving the
+     * position after the record) if its checksum does not match.
+     */
+    static OrderAuditRecord decode(ByteBuffer buffer, CRC32C crc) {
+        int start = buffer.position();
+        long sequence = buffer.getLong();
+        long timestampMillis = buffer.getLong();
+        long instrumentId = buffer.getLong();
+        long venueId = buffer.getLong();
+        int outcomeOrdinal = buffer.getInt();
+        int checksum = buffer.getInt();
+        crc.reset();
+        crc.update(buffer.array(), buffer.arrayOffset() + start, CHECKSUMMED_BYTES);
+        if ((int) crc.getValue() != checksum || outcomeOrdinal < 0 || outcomeOrdinal >= OUTCOMES.length) {
+            return null;
+        }
+        return new OrderAuditRecord(sequence, Instant.ofEpochMilli(timestampMillis), instrumentId,
+                venueId == 0 ? null : venueId, OUTCOMES[outcomeOrdinal]);
+    }
+}
@@ -0,0 +1,10 @@
+package com.tobi.venuemgmt.audit;
+
+public enum OrderOutcome {
+    ACCEPTED,
+    REJECTED_VENUE_CLOSED,
+    REJECTED_NOT_FOUND,
+    // Appended: audit records store the ordinal
+    REJECTED_THROTTLED,
+    REJECTED_INSTRUMENT_NOT_ACTIVE
+}
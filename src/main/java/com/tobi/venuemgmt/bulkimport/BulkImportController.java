@@ -0,0 +1,61 @@
+package com.tobi.venuemgmt.bulkimport;
+
+import com.tobi.venuemgmt.common.NdjsonWriter;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/api/import")
+@Tag(name = "Bulk Import", description = "APIs for onboarding venues and instruments in bulk from CSV or NDJSON.")
+public class BulkImportController {
+
+    private final BulkImportService bulkImportService;
+
+    @Autowired
+    public BulkImportController(BulkImportService bulkImportService) {
+        this.bulkImportService = bulkImportService;
+    }
+
+    /**
+     * Imports venues. CSV needs a header row with the columns name, location,
+     * type and (optionally) status; NDJSON needs one object per line with the
+     * same fields.
+     */
+    @PostMapping(value = "/venues", consumes = { ImportFormat.CSV_MEDIA_TYPE, NdjsonWriter.MEDIA_TYPE })
+    @Operation(summary = "Bulk import venues", description = "Imports venues from CSV or NDJSON and reports imported/rejected rows and throughput.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import finished; see the report for rejected rows"),
+            @ApiResponse(responseCode = "400", description = "Unsupported content type or malformed body")
+    })
+    public ResponseEntity<ImportReport> importVenues(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) throws IOException {
+        return ResponseEntity.ok(bulkImportService.importVenues(body, ImportFormat.fromContentType(contentType)));
+    }
+
+    /**
+     * Imports instruments. CSV needs a header row with the columns symbol, name,
+     * type and venueId; NDJSON needs one object per line with the same fields.
+     */
+    @PostMapping(value = "/instruments", consumes = { ImportFormat.CSV_MEDIA_TYPE, NdjsonWriter.MEDIA_TYPE })
+    @Operation(summary = "Bulk import instruments", description = "Imports instruments from CSV or NDJSON and reports imported/rejected rows and throughput.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import finished; see the report for rejected rows"),
+            @ApiResponse(responseCode = "400", description = "Unsupported content type or malformed body")
+    })
+    public ResponseEntity<ImportReport> importInstruments(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) throws IOException {
+        return ResponseEntity.ok(bulkImportService.importInstruments(body, ImportFormat.fromContentType(contentType)));
+    }
+}
@@ -0,0 +1,344 @@
+package com.tobi.venuemgmt.bulkimport;
+
+import com.tobi.venuemgmt.common.NameKey;
+import com.tobi.venuemgmt.instrument.InstrumentSummary;
+import com.tobi.venuemgmt.instrument.InstrumentType;
+import com.tobi.venuemgmt.instrument.SymbolIndex;
+import com.tobi.venuemgmt.instrument.TradabilityIndex;
+import com.tobi.venuemgmt.referencedata.ReferenceDataChangeLog;
+import com.tobi.venuemgmt.statistics.ReferenceDataStatistics;
+import com.tobi.venuemgmt.venue.VenueCache;
+import com.tobi.venuemgmt.venue.VenueStatus;
+import com.tobi.venuemgmt.venue.VenueSummary;
+import com.tobi.venuemgmt.venue.VenueType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Imports venues and instruments in bulk.
+ *
+ * Rows are validated in memory and against the database with set-based
+ * lookups (one IN query per chunk of keys, not one query per row), then
+ * written with JDBC batch inserts in a single transaction. Going through JDBC
+ * rather than Hibernate keeps MySQL AUTO_INCREMENT keys (read back with
+ * getGeneratedKeys) while still batching, which Hibernate cannot do for
+ * GenerationType.IDENTITY. Invalid rows are skipped and reported.
+ */
+@Service
+public class BulkImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkImportService.class);
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final int LOOKUP_CHUNK_SIZE = 1_000;
+
+    private static final String INSERT_VENUE =
+            "INSERT INTO venue (name, name_key, location, type, status, version) VALUES (?, ?, ?, ?, ?, 0)";
+    private static final String INSERT_INSTRUMENT =
+            "INSERT INTO instrument (symbol, symbol_key, name, venue_id, type, version) VALUES (?, ?, ?, ?, ?, 0)";
+
+    private final ImportRowReader rowReader;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final VenueCache venueCache;
+    private final TradabilityIndex tradabilityIndex;
+    private final ReferenceDataStatistics statistics;
+    private final SymbolIndex symbolIndex;
+    private final ReferenceDataChangeLog changeLog;
+    private final int batchSize;
+
+    @Autowired
+    public BulkImportService(ImportRowReader rowReader, JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate, VenueCache venueCache, TradabilityIndex tradabilityIndex,
+            ReferenceDataStatistics statistics, SymbolIndex symbolIndex, ReferenceDataChangeLog changeLog,
+            @Value("${app.import.batch-size:1000}") int batchSize) {
+        this.rowReader = rowReader;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.venueCache = venueCache;
+        this.tradabilityIndex = tradabilityIndex;
+        this.statistics = statistics;
+        this.symbolIndex = symbolIndex;
+        this.changeLog = changeLog;
+        this.batchSize = batchSize;
+    }
+
+    private record VenueRow(String name, String nameKey, String location, VenueType type, VenueStatus status) {
+    }
+
+    private record InstrumentRow(String symbol, String symbolKey, String name, Long venueId, InstrumentType type) {
+    }
+
+    public ImportReport importVenues(InputStream body, ImportFormat format) throws IOException {
+        long start = System.nanoTime();
+        List<Map<String, String>> rows = rowReader.read(body, format);
+        Rejections rejections = new Rejections();
+
+        Map<String, Integer> rowByKey = new HashMap<>();
+        Map<Integer, VenueRow> candidates = new HashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            int rowNumber = i + 1;
+            Map<String, String> row = rows.get(i);
+            String name = trimToNull(row.get("name"));
+            VenueType type = parseEnum(VenueType.class, row.get("type"));
+            String statusValue = trimToNull(row.get("status"));
+            VenueStatus status = statusValue == null ? VenueStatus.OPEN : parseEnum(VenueStatus.class, statusValue);
+
+            if (name == null) {
+                rejections.add(rowNumber, "name is required.");
+            } else if (type == null) {
+                rejections.add(rowNumber, "type must be one of RM, MTF, OTF.");
+            } else if (status == null) {
+                rejections.add(rowNumber, "status must be OPEN or CLOSED.");
+            } else {
+                String nameKey = NameKey.normalize(name);
+                Integer firstRow = rowByKey.putIfAbsent(nameKey, rowNumber);
+                if (firstRow != null) {
+                    rejections.add(rowNumber, "Duplicate of row " + firstRow + " ('" + name + "').");
+                } else {
+                    candidates.put(rowNumber, new VenueRow(name, nameKey, trimToNull(row.get("location")), type, status));
+                }
+            }
+        }
+
+        Set<String> existingKeys = findExisting("SELECT name_key FROM venue WHERE name_key IN (%s)",
+                rowByKey.keySet(), String.class);
+        List<VenueRow> accepted = new ArrayList<>(candidates.size());
+        for (int rowNumber = 1; rowNumber <= rows.size(); rowNumber++) {
+            VenueRow venue = candidates.get(rowNumber);
+            if (venue == null) {
+                continue;
+            }
+            if (existingKeys.contains(venue.nameKey())) {
+                rejections.add(rowNumber, "A venue with the name '" + venue.name() + "' already exists.");
+            } else {
+                accepted.add(venue);
+            }
+        }
+
+        // Logged in the insert's transaction, so the changes are sequenced as it commits
+        List<VenueSummary> created = transactionTemplate.execute(tx -> {
+            List<Long> ids = batchInsert(INSERT_VENUE, accepted, (ps, venue) -> {
+                ps.setString(1, venue.name());
+                ps.setString(2, venue.nameKey());
+                ps.setString(3, venue.location());
+                ps.setString(4, venue.type().name());
+                ps.setString(5, venue.status().name());
+            });
+            List<VenueSummary> venues = new ArrayList<>(ids.size());
+            for (int i = 0; i < ids.size(); i++) {
+                VenueRow venue = accepted.get(i);
+                venues.add(new VenueSummary(ids.get(i), venue.name(), venue.location(), venue.type(),
+                        venue.status()));
+            }
+            changeLog.venuesCreated(venues);
+            return venues;
+        });
+
+        for (VenueSummary venue : created) {
+            tradabilityIndex.putVenue(venue.id(), venue.status());
+            statistics.venueSaved(venue.id(), venue.location(), venue.type(), venue.status());
+        }
+        return report(format, rows.size(), created.size(), rejections, start);
+    }
+
+    public ImportReport importInstruments(InputStream body, ImportFormat format) throws IOException {
+        long start = System.nanoTime();
+        List<Map<String, String>> rows = rowReader.read(body, format);
+        Rejections rejections = new Rejections();
+
+        Map<String, Integer> rowByKey = new HashMap<>();
+        Set<Long> venueIds = new HashSet<>();
+        Map<Integer, InstrumentRow> candidates = new HashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            int rowNumber = i + 1;
+            Map<String, String> row = rows.get(i);
+            String symbol = trimToNull(row.get("symbol"));
+            String name = trimToNull(row.get("name"));
+            InstrumentType type = parseEnum(InstrumentType.class, row.get("type"));
+            Long venueId = parseLong(row.get("venueId"));
+
+            if (symbol == null) {
+                rejections.add(rowNumber, "symbol is required.");
+            } else if (name == null) {
+                rejections.add(rowNumber, "name is required.");
+            } else if (type == null) {
+                rejections.add(rowNumber, "type must be one of STOCK, BOND, DERIVATIVE, FX.");
+            } else if (venueId == null) {
+                rejections.add(rowNumber, "venueId must be a number.");
+            } else {
+                String symbolKey = NameKey.normalize(symbol);
+                Integer firstRow = rowByKey.putIfAbsent(symbolKey, rowNumber);
+                if (firstRow != null) {
+                    rejections.add(rowNumber, "Duplicate of row " + firstRow + " ('" + symbol + "').");
+                } else {
+                    venueIds.add(venueId);
+                    candidates.put(rowNumber, new InstrumentRow(symbol, symbolKey, name, venueId, type));
+                }
+            }
+        }
+
+        Set<String> existingSymbols = findExisting("SELECT symbol_key FROM instrument WHERE symbol_key IN (%s)",
+                rowByKey.keySet(), String.class);
+        Set<Long> knownVenues = findExisting("SELECT id FROM venue WHERE id IN (%s)", venueIds, Long.class);
+        List<InstrumentRow> accepted = new ArrayList<>(candidates.size());
+        for (int rowNumber = 1; rowNumber <= rows.size(); rowNumber++) {
+            InstrumentRow instrument = candidates.get(rowNumber);
+            if (instrument == null) {
+                continue;
+            }
+            if (existingSymbols.contains(instrument.symbolKey())) {
+                rejections.add(rowNumber, "Instrument with symbol " + instrument.symbol() + " already exists.");
+            } else if (!knownVenues.contains(instrument.venueId())) {
+                rejections.add(rowNumber, "Venue with ID " + instrument.venueId() + " not found.");
+            } else {
+                accepted.add(instrument);
+            }
+        }
+
+        // Logged in the insert's transaction, so the changes are sequenced as it commits
+        List<InstrumentSummary> created = transactionTemplate.execute(tx -> {
+            List<Long> ids = batchInsert(INSERT_INSTRUMENT, accepted, (ps, instrument) -> {
+                ps.setString(1, instrument.symbol());
+                ps.setString(2, instrument.symbolKey());
+                ps.setString(3, instrument.name());
+                ps.setLong(4, instrument.venueId());
+                ps.setString(5, instrument.type().name());
+            });
+            List<InstrumentSummary> instruments = new ArrayList<>(ids.size());
+            for (int i = 0; i < ids.size(); i++) {
+                InstrumentRow instrument = accepted.get(i);
+                instruments.add(new InstrumentSummary(ids.get(i), instrument.symbol(), instrument.name(),
+                        instrument.type(), instrument.venueId()));
+            }
+            changeLog.instrumentsCreated(instruments);
+            return instruments;
+        });
+
+        Set<Long> touchedVenues = new LinkedHashSet<>();
+        for (InstrumentSummary instrument : created) {
+            tradabilityIndex.putInstrument(instrument.id(), instrument.venueId());
+            statistics.instrumentSaved(instrument.id(), instrument.venueId(), instrument.type());
+            symbolIndex.put(instrument);
+            touchedVenues.add(instrument.venueId());
+        }
+        // Cached venues embed their instrument lists
+        touchedVenues.forEach(venueCache::evict);
+        return report(format, rows.size(), created.size(), rejections, start);
+    }
+
+    @FunctionalInterface
+    private interface RowBinder<T> {
+        void bind(PreparedStatement statement, T row) throws SQLException;
+    }
+
+    // Executes the insert in batches of batchSize and returns the generated IDs in row order
+    private <T> List<Long> batchInsert(String sql, List<T> rows, RowBinder<T> binder) {
+        return jdbcTemplate.execute((ConnectionCallback<List<Long>>) connection -> {
+            List<Long> ids = new ArrayList<>(rows.size());
+            try (PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                for (int from = 0; from < rows.size(); from += batchSize) {
+                    for (T row : rows.subList(from, Math.min(from + batchSize, rows.size()))) {
+                        binder.bind(statement, row);
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                    try (ResultSet keys = statement.getGeneratedKeys()) {
+                        while (keys.next()) {
+                            ids.add(keys.getLong(1));
+                        }
+                    }
+                }
+            }
+            return ids;
+        });
+    }
+
+    // Runs the lookup as one IN query per chunk of values and returns the values that exist
+    private <T> Set<T> findExisting(String sqlTemplate, Collection<T> values, Class<T> type) {
+        Set<T> existing = new HashSet<>();
+        List<T> all = new ArrayList<>(values);
+        for (int from = 0; from < all.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<T> chunk = all.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, all.size()));
+            String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+            existing.addAll(jdbcTemplate.queryForList(String.format(sqlTemplate, placeholders), type, chunk.toArray()));
+        }
+        return existing;
+    }
+
+    private ImportReport report(ImportFormat format, int received, int imported, Rejections rejections, long start) {
+        long elapsedNanos = System.nanoTime() - start;
+        double rowsPerSecond = elapsedNanos == 0 ? 0 : imported * 1_000_000_000.0 / elapsedNanos;
+        log.info("Bulk import ({}): {} received, {} imported, {} rejected in {} ms ({} rows/s).", format, received,
+                imported, rejections.count, elapsedNanos / 1_000_000, Math.round(rowsPerSecond));
+        return new ImportReport(format, received, imported, rejections.count, rejections.errors,
+                elapsedNanos / 1_000_000, rowsPerSecond);
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value) {
+        String trimmed = trimToNull(value);
+        if (trimmed == null) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, trimmed.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static Long parseLong(String value) {
+        String trimmed = trimToNull(value);
+        if (trimmed == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(trimmed);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // Counts every rejected row but keeps only the first few reasons
+    private static final class Rejections {
+        private final List<ImportReport.ImportError> errors = new ArrayList<>();
+        private int count;
+
+        void add(int row, String reason) {
+            count++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportReport.ImportError(row, reason));
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.tobi.venuemgmt.bulkimport;
+
+import com.tobi.venuemgmt.common.NdjsonWriter;
+import com.tobi.venuemgmt.exception.InvalidRequestException;
+import org.springframework.http.MediaType;
+
+/**
+ * Supported request body formats for bulk imports.
+ */
+public enum ImportFormat {
+    /**
+     * Comma-separated values with a header row naming the columns.
+     */
+    CSV,
+
+    /**
+     * One JSON object per line.
+     */
+    NDJSON;
+
+    public static final String CSV_MEDIA_TYPE = "text/csv";
+
+    public static ImportFormat fromContentType(String contentType) {
+        if (contentType != null) {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            if (mediaType.isCompatibleWith(MediaType.parseMediaType(CSV_MEDIA_TYPE))) {
+                return CSV;
+            }
+            if (mediaType.isCompatibleWith(MediaType.parseMediaType(NdjsonWriter.MEDIA_TYPE))) {
+                return NDJSON;
+            }
+        }
+        throw new InvalidRequestException("Bulk import requires Content-Type " + CSV_MEDIA_TYPE + " or "
+                + NdjsonWriter.MEDIA_TYPE + ".");
+    }
+}
@@ -0,0 +1,24 @@
+package com.tobi.venuemgmt.bulkimport;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import. Rejected rows are skipped; the rest are imported.
+ *
+ * @param errors the first rejected rows with their reasons (capped)
+ */
+public record ImportReport(
+        ImportFormat format,
+        int received,
+        int imported,
+        int rejected,
+        List<ImportError> errors,
+        long elapsedMillis,
+        double rowsPerSecond) {
+
+    /**
+     * @param row 1-based data row number in the request body (header excluded)
+     */
+    public record ImportError(int row, String reason) {
+    }
+}
@@ -0,0 +1,116 @@
+package com.tobi.venuemgmt.bulkimport;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tobi.venuemgmt.exception.InvalidRequestException;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads a CSV or NDJSON import body into rows of column name to raw value, so
+ * both formats go through the same validation.
+ */
+@Component
+public class ImportRowReader {
+
+    private final ObjectMapper objectMapper;
+
+    public ImportRowReader(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public List<Map<String, String>> read(InputStream body, ImportFormat format) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        return format == ImportFormat.CSV ? readCsv(reader) : readNdjson(reader);
+    }
+
+    private List<Map<String, String>> readCsv(BufferedReader reader) throws IOException {
+        String headerLine = reader.readLine();
+        if (headerLine == null) {
+            return List.of();
+        }
+        List<String> header = parseCsvLine(headerLine.replace("\uFEFF", ""));
+        List<Map<String, String>> rows = new ArrayList<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            List<String> values = parseCsvLine(line);
+            Map<String, String> row = new HashMap<>(header.size() * 2);
+            for (int i = 0; i < header.size(); i++) {
+                row.put(header.get(i).trim(), i < values.size() ? values.get(i) : null);
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    // Handles quoted fields with embedded commas and doubled quotes ("")
+    private static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    private List<Map<String, String>> readNdjson(BufferedReader reader) throws IOException {
+        List<Map<String, String>> rows = new ArrayList<>();
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(line);
+            } catch (IOException e) {
+                throw new InvalidRequestException("Line " + lineNumber + " is not valid JSON.");
+            }
+            if (!node.isObject()) {
+                throw new InvalidRequestException("Line " + lineNumber + " is not a JSON object.");
+            }
+            Map<String, String> row = new HashMap<>();
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                row.put(field.getKey(), field.getValue().isNull() ? null : field.getValue().asText());
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,16 @@
+package com.tobi.venuemgmt.common;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated list. Pass nextCursor back as the "after"
+ * parameter to fetch the following page; it is null on the last page.
+ */
+public record CursorPage<T>(List<T> items, Long nextCursor) {
+
+    public static <T> CursorPage<T> of(List<T> items, int pageSize, Function<T, Long> idOf) {
+        Long nextCursor = items.size() < pageSize ? null : idOf.apply(items.get(items.size() - 1));
+        return new CursorPage<>(items, nextCursor);
+    }
+}
@@ -0,0 +1,17 @@
+package com.tobi.venuemgmt.common;
+
+/**
+ * How much of the venue/instrument graph a list endpoint returns.
+ */
+public enum FetchView {
+    /**
+     * Flat rows only: venues without their instruments, instruments with just
+     * their venue ID. Served by a single projection query.
+     */
+    SHALLOW,
+
+    /**
+     * Full entities with their associations, loaded with fetch joins.
+     */
+    DEEP
+}
@@ -0,0 +1,24 @@
+package com.tobi.venuemgmt.common;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Builds the normalized form of a venue name or instrument symbol that the
+ * unique indexes are defined on: trimmed, inner whitespace collapsed and
+ * upper-cased. "nyse " and "NYSE" share a key; "NYSE Arca" does not.
+ */
+public final class NameKey {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private NameKey() {
+    }
+
+    public static String normalize(String value) {
+        if (value == null) {
+            return null;
+        }
+        return WHITESPACE.matcher(value.trim()).replaceAll(" ").toUpperCase(Locale.ROOT);
+    }
+}
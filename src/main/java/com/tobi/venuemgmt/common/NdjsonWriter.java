@@ -0,0 +1,47 @@
+package com.tobi.venuemgmt.common;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes objects to a response stream as newline-delimited JSON, one object
+ * per line, flushing every few hundred rows so the client sees data while the
+ * query is still running.
+ */
+public class NdjsonWriter {
+
+    public static final String MEDIA_TYPE = "application/x-ndjson";
+
+    private static final int FLUSH_EVERY_ROWS = 500;
+
+    private final JsonGenerator generator;
+    private int pendingRows;
+
+    public NdjsonWriter(ObjectMapper objectMapper, OutputStream out) throws IOException {
+        this.generator = objectMapper.getFactory().createGenerator(out);
+        this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.generator.setRootValueSeparator(new SerializedString("\n"));
+    }
+
+    public void write(Object row) {
+        try {
+            generator.writeObject(row);
+            if (++pendingRows >= FLUSH_EVERY_ROWS) {
+                generator.flush();
+                pendingRows = 0;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void finish() throws IOException {
+        generator.writeRaw('\n');
+        generator.flush();
+    }
+}
@@ -0,0 +1,32 @@
+package com.tobi.venuemgmt.common;
+
+import com.tobi.venuemgmt.exception.InvalidRequestException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Resolves the page size requested by a client against the configured default
+ * and maximum, so one request can never pull an unbounded page.
+ */
+@Component
+public class PageSizePolicy {
+
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    public PageSizePolicy(@Value("${app.pagination.default-page-size:100}") int defaultPageSize,
+            @Value("${app.pagination.max-page-size:1000}") int maxPageSize) {
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    public int resolve(Integer requestedSize) {
+        if (requestedSize == null) {
+            return defaultPageSize;
+        }
+        if (requestedSize < 1) {
+            throw new InvalidRequestException("Page size must be at least 1.");
+        }
+        return Math.min(requestedSize, maxPageSize);
+    }
+}
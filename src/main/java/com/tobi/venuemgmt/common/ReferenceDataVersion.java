@@ -0,0 +1,51 @@
+package com.tobi.venuemgmt.common;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version of the venue and instrument collections as a whole, used for the
+ * ETags of list responses. Every write bumps it once it has committed, so a
+ * conditional GET can be answered without reading the database: if the
+ * client's tag carries the current version, nothing has changed since.
+ *
+ * The counter lives in this instance only and starts again on restart; the
+ * start time is part of the tag so that tags from a previous run never match.
+ * Writes made by another instance or directly in the database are not seen.
+ */
+@Component
+public class ReferenceDataVersion {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong changes = new AtomicLong();
+
+    /**
+     * Records a committed change. Must be called after the write is visible
+     * to readers, never before, or a reader could tag old data with the new
+     * version.
+     */
+    public void bump() {
+        changes.incrementAndGet();
+    }
+
+    /**
+     * Identifies this run of the instance; changes with every restart.
+     */
+    public String epoch() {
+        return epoch;
+    }
+
+    public long current() {
+        return changes.get();
+    }
+
+    /**
+     * Strong ETag for the current version. The variant separates
+     * representations served from the same URL, e.g. the JSON and binary
+     * forms of the reference data.
+     */
+    public String etag(String variant) {
+        return "\"" + epoch + "-" + changes.get() + "-" + variant + "\"";
+    }
+}
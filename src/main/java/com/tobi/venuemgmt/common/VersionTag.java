@@ -0,0 +1,57 @@
+package com.tobi.venuemgmt.common;
+
+import java.util.Collection;
+
+/**
+ * Builds a strong ETag for an entity graph from the IDs and @Version values
+ * of the entities it contains. Any committed change to one of them changes
+ * the tag, so the tag can be computed from a cached graph without reading
+ * the row contents or serializing the response.
+ */
+public final class VersionTag {
+
+    private long hash = 0xcbf29ce484222325L;
+    private int entities;
+
+    public VersionTag add(BaseEntity entity) {
+        if (entity != null) {
+            mix(entity.getId() == null ? 0 : entity.getId());
+            mix(entity.getVersion());
+            entities++;
+        }
+        return this;
+    }
+
+    public VersionTag addAll(Collection<? extends BaseEntity> entities) {
+        if (entities != null) {
+            entities.forEach(this::add);
+        }
+        return this;
+    }
+
+    public String toETag() {
+        return "\"" + entities + "-" + Long.toHexString(hash) + "\"";
+    }
+
+    /**
+     * Strong comparison of an If-Match header against the current ETag: "*"
+     * or any listed tag equal to it matches; weak tags never do.
+     */
+    public static boolean matches(String ifMatch, String etag) {
+        for (String candidate : ifMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // FNV-1a over the eight bytes of the value
+    private void mix(long value) {
+        for (int shift = 0; shift < 64; shift += 8) {
+            hash ^= (value >>> shift) & 0xFF;
+            hash *= 0x100000001b3L;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.tobi.venuemgmt.common.cache;
+
+/**
+ * Point-in-time counters for a ReferenceDataCache.
+ *
+ * @param evictions     entries dropped because the cache was full
+ * @param invalidations entries dropped because the underlying row changed
+ */
+public record CacheStats(
+        String name,
+        int size,
+        int maxSize,
+        long hits,
+        long misses,
+        long evictions,
+        long invalidations) {
+
+    public double getHitRatio() {
+        long requests = hits + misses;
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+}
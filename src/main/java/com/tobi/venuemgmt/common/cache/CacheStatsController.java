@@ -0,0 +1,38 @@
+package com.tobi.venuemgmt.common.cache;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/cache")
+@Tag(name = "Cache", description = "Diagnostics for the in-memory reference-data caches.")
+public class CacheStatsController {
+
+    private final List<ReferenceDataCache<?>> caches;
+
+    @Autowired
+    public CacheStatsController(List<ReferenceDataCache<?>> caches) {
+        this.caches = caches;
+    }
+
+    /**
+     * Returns hit/miss/eviction counters for every reference-data cache.
+     */
+    @GetMapping("/stats")
+    @Operation(summary = "Get cache statistics", description = "Returns hit, miss, eviction and invalidation counters for each cache.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved statistics")
+    })
+    public ResponseEntity<List<CacheStats>> getCacheStats() {
+        return ResponseEntity.ok(caches.stream().map(ReferenceDataCache::stats).toList());
+    }
+}
@@ -0,0 +1,129 @@
+package com.tobi.venuemgmt.common.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A bounded, in-process LRU cache for reference data (venues, instruments)
+ * keyed by entity ID.
+ *
+ * Loads run outside the lock so a slow database round trip never blocks other
+ * readers. Every invalidation bumps a generation counter; a load that raced
+ * with an invalidation is returned to its caller but not stored, so the cache
+ * never keeps an entry older than the last write.
+ */
+public class ReferenceDataCache<V> {
+
+    private final String name;
+    private final int maxSize;
+    private final Map<Long, V> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    // Guarded by "entries"
+    private long generation;
+
+    public ReferenceDataCache(String name, int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache '" + name + "' must have a positive max size.");
+        }
+        this.name = name;
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, V> eldest) {
+                if (size() > ReferenceDataCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached value for the ID, or loads and caches it on a miss.
+     * Exceptions thrown by the loader (e.g. ResourceNotFoundException) propagate
+     * and nothing is cached.
+     */
+    public V get(Long id, Function<Long, V> loader) {
+        V cached;
+        long observedGeneration;
+        synchronized (entries) {
+            cached = entries.get(id);
+            observedGeneration = generation;
+        }
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        V loaded = loader.apply(id);
+        if (loaded != null) {
+            synchronized (entries) {
+                if (generation == observedGeneration) {
+                    entries.put(id, loaded);
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Removes a single entry. Called after the underlying row has been written.
+     */
+    public void evict(Long id) {
+        if (id == null) {
+            return;
+        }
+        synchronized (entries) {
+            generation++;
+            if (entries.remove(id) != null) {
+                invalidations.increment();
+            }
+        }
+    }
+
+    /**
+     * Removes every entry matching the predicate, e.g. all instruments of a venue.
+     */
+    public void evictIf(Predicate<V> predicate) {
+        synchronized (entries) {
+            generation++;
+            entries.values().removeIf(value -> {
+                if (predicate.test(value)) {
+                    invalidations.increment();
+                    return true;
+                }
+                return false;
+            });
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            generation++;
+            invalidations.add(entries.size());
+            entries.clear();
+        }
+    }
+
+    public CacheStats stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new CacheStats(name, size, maxSize, hits.sum(), misses.sum(), evictions.sum(), invalidations.sum());
+    }
+
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,184 @@
+package com.tobi.venuemgmt.common.collections;
+
+import java.util.function.LongPredicate;
+
+/**
+ * Open-addressing hash map from positive long keys to long values, with no
+ * boxing and no per-entry objects.
+ *
+ * Keys and values are interleaved in a single array (key at 2i, value at
+ * 2i + 1) so a reader always sees a consistent table, even when it races with
+ * a resize under an optimistic lock. Lookups are bounded by the table length
+ * and never throw or spin on a torn read; the caller is expected to validate
+ * its read afterwards.
+ *
+ * Not thread-safe for writers.
+ */
+public class LongLongHashMap {
+
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(long key, long value);
+    }
+
+    @FunctionalInterface
+    public interface EntryPredicate {
+        boolean test(long key, long value);
+    }
+
+    private static final long EMPTY = 0L;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private long[] table;
+    private int size;
+    private int resizeThreshold;
+
+    public LongLongHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    public long get(long key, long missingValue) {
+        // 0 marks empty slots and would match one; no key put can be <= 0
+        if (key <= 0) {
+            return missingValue;
+        }
+        long[] t = table;
+        int capacity = t.length >> 1;
+        int mask = capacity - 1;
+        int slot = hash(key) & mask;
+        for (int probes = 0; probes < capacity; probes++) {
+            long k = t[slot << 1];
+            if (k == key) {
+                return t[(slot << 1) + 1];
+            }
+            if (k == EMPTY) {
+                return missingValue;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return missingValue;
+    }
+
+    public void put(long key, long value) {
+        if (key <= 0) {
+            throw new IllegalArgumentException("Keys must be positive, got " + key);
+        }
+        int mask = (table.length >> 1) - 1;
+        int slot = hash(key) & mask;
+        while (true) {
+            long k = table[slot << 1];
+            if (k == key) {
+                table[(slot << 1) + 1] = value;
+                return;
+            }
+            if (k == EMPTY) {
+                table[(slot << 1) + 1] = value;
+                table[slot << 1] = key;
+                if (++size > resizeThreshold) {
+                    rehash(table.length);
+                }
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    public boolean remove(long key) {
+        if (key <= 0) {
+            return false;
+        }
+        int mask = (table.length >> 1) - 1;
+        int slot = hash(key) & mask;
+        while (true) {
+            long k = table[slot << 1];
+            if (k == EMPTY) {
+                return false;
+            }
+            if (k == key) {
+                table[slot << 1] = EMPTY;
+                size--;
+                compactAfterRemoval(slot, mask);
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Removes every entry whose value matches the predicate.
+     */
+    public void removeIfValue(LongPredicate predicate) {
+        removeIf((key, value) -> predicate.test(value));
+    }
+
+    /**
+     * Removes every entry that matches the predicate.
+     */
+    public void removeIf(EntryPredicate predicate) {
+        long[] old = table;
+        allocate(old.length >> 1);
+        size = 0;
+        for (int i = 0; i < old.length; i += 2) {
+            if (old[i] != EMPTY && !predicate.test(old[i], old[i + 1])) {
+                put(old[i], old[i + 1]);
+            }
+        }
+    }
+
+    /**
+     * Visits every entry, in no particular order. The consumer must not
+     * modify this map.
+     */
+    public void forEach(EntryConsumer consumer) {
+        long[] t = table;
+        for (int i = 0; i < t.length; i += 2) {
+            if (t[i] != EMPTY) {
+                consumer.accept(t[i], t[i + 1]);
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        allocate(table.length >> 1);
+        size = 0;
+    }
+
+    // Backward-shift deletion keeps probe chains intact without tombstones
+    private void compactAfterRemoval(int freedSlot, int mask) {
+        int slot = (freedSlot + 1) & mask;
+        while (table[slot << 1] != EMPTY) {
+            long key = table[slot << 1];
+            long value = table[(slot << 1) + 1];
+            table[slot << 1] = EMPTY;
+            size--;
+            put(key, value);
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private void rehash(int newCapacity) {
+        long[] old = table;
+        allocate(newCapacity);
+        size = 0;
+        for (int i = 0; i < old.length; i += 2) {
+            if (old[i] != EMPTY) {
+                put(old[i], old[i + 1]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        table = new long[capacity << 1];
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
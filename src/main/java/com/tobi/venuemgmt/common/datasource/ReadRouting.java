@@ -0,0 +1,104 @@
+package com.tobi.venuemgmt.common.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Per-thread routing state for read-only transactions. Reads normally go to a
+ * replica; they go to the primary while the thread is inside
+ * {@link #onPrimary(Supplier)}, or until the read-your-writes deadline set
+ * after a committed write has passed.
+ *
+ * The choice is made when a transaction runs its first statement, so
+ * onPrimary must be entered before that.
+ */
+public final class ReadRouting {
+
+    private static final ThreadLocal<State> STATE = new ThreadLocal<>();
+
+    // Set by WriteTrackingDataSource; 0 while reads are not split
+    private static volatile long readYourWritesMs;
+
+    private static final class State {
+        long primaryUntil;
+        int forced;
+    }
+
+    private ReadRouting() {
+    }
+
+    /**
+     * Runs the action with every read on this thread routed to the primary.
+     * For reads whose result outlives the request (caches, in-memory indexes)
+     * or feeds a write, where replica lag is not acceptable.
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        State state = state();
+        state.forced++;
+        try {
+            return action.get();
+        } finally {
+            state.forced--;
+            if (state.forced == 0 && state.primaryUntil == 0) {
+                STATE.remove();
+            }
+        }
+    }
+
+    public static boolean primaryRequired() {
+        State state = STATE.get();
+        return state != null && (state.forced > 0 || System.currentTimeMillis() < state.primaryUntil);
+    }
+
+    /**
+     * Sends this thread's reads to the primary until the given time (epoch
+     * millis). A later deadline already in place is kept.
+     */
+    public static void stickToPrimaryUntil(long epochMillis) {
+        State state = state();
+        state.primaryUntil = Math.max(state.primaryUntil, epochMillis);
+    }
+
+    /**
+     * Starts read-your-writes stickiness for a committed write: this thread's
+     * reads, and later requests carrying the {@link ReadYourWritesFilter}
+     * cookie set on the current response, go to the primary for the
+     * configured window. WriteTrackingDataSource calls it when a transaction
+     * commits; code that has another thread commit for it calls it once the
+     * write is acknowledged. Does nothing when reads are not split.
+     */
+    public static void markWritten() {
+        long windowMs = readYourWritesMs;
+        if (windowMs <= 0) {
+            return;
+        }
+        long until = System.currentTimeMillis() + windowMs;
+        stickToPrimaryUntil(until);
+        ReadYourWritesFilter.rememberInResponse(until);
+    }
+
+    static void readYourWritesWindow(long windowMs) {
+        readYourWritesMs = windowMs;
+    }
+
+    public static long primaryUntil() {
+        State state = STATE.get();
+        return state == null ? 0 : state.primaryUntil;
+    }
+
+    /**
+     * Forgets this thread's routing state. Called at the end of every request,
+     * so pooled threads do not carry it into the next one.
+     */
+    public static void reset() {
+        STATE.remove();
+    }
+
+    private static State state() {
+        State state = STATE.get();
+        if (state == null) {
+            state = new State();
+            STATE.set(state);
+        }
+        return state;
+    }
+}
@@ -0,0 +1,92 @@
+package com.tobi.venuemgmt.common.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Carries read-your-writes stickiness across requests. A request that commits
+ * a write gets a cookie holding the time until which its client's reads must
+ * stay on the primary; requests presenting it before then read from the
+ * primary, on whichever instance they land.
+ *
+ * The cookie is client input, so no deadline is honoured past one
+ * read-your-writes window from now. A deadline up to a window beyond that
+ * (clock skew between instances) is cut back to it; one further ahead, or a
+ * value that is not a number, cannot have come from this service and is
+ * ignored.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE = "vm-primary-until";
+
+    private final long readYourWritesMs;
+
+    public ReadYourWritesFilter(long readYourWritesMs) {
+        this.readYourWritesMs = readYourWritesMs;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long now = System.currentTimeMillis();
+        long until = primaryUntil(request);
+        if (until > now && until - now <= 2 * readYourWritesMs) {
+            ReadRouting.stickToPrimaryUntil(Math.min(until, now + readYourWritesMs));
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadRouting.reset();
+        }
+    }
+
+    // 0 if there is no usable cookie
+    private static long primaryUntil(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return 0;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Sets the cookie on the current response, if there is one and it has not
+     * been committed yet.
+     */
+    static void rememberInResponse(long until) {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return;
+        }
+        HttpServletResponse response = attributes.getResponse();
+        if (response == null || response.isCommitted()) {
+            return;
+        }
+        long maxAgeSeconds = Math.max(1, (until - System.currentTimeMillis() + 999) / 1000);
+        ResponseCookie cookie = ResponseCookie.from(COOKIE, Long.toString(until))
+                .path("/")
+                .httpOnly(true)
+                .sameSite("Lax")
+                .maxAge(maxAgeSeconds)
+                .build();
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+    }
+}
@@ -0,0 +1,142 @@
+package com.tobi.venuemgmt.common.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The data source behind read-only transactions. Connections come from the
+ * healthy replicas in turn; a replica that fails to hand out a connection is
+ * ejected and the next one is tried. With no healthy replica, or when
+ * {@link ReadRouting} requires it, reads go to the primary.
+ *
+ * Ejected replicas are readmitted by {@link #checkHealth()} once they accept
+ * connections again. Health is connectivity only: a replica that is up but
+ * lagging keeps serving reads, which is what read-your-writes stickiness is
+ * for.
+ */
+public class ReplicaPool extends AbstractDataSource implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaPool.class);
+
+    private static final class Replica {
+        final String name;
+        final DataSource dataSource;
+        volatile boolean healthy = true;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final int validationTimeoutSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * @param replicas replica data sources by name, in the order they take turns.
+     */
+    public ReplicaPool(DataSource primary, Map<String, DataSource> replicas, int validationTimeoutSeconds) {
+        this.primary = primary;
+        replicas.forEach((name, dataSource) -> this.replicas.add(new Replica(name, dataSource)));
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        int count = replicas.size();
+        if (count == 0 || ReadRouting.primaryRequired()) {
+            return primary.getConnection();
+        }
+        int start = Math.floorMod(next.getAndIncrement(), count);
+        for (int i = 0; i < count; i++) {
+            Replica replica = replicas.get((start + i) % count);
+            if (!replica.healthy) {
+                continue;
+            }
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException e) {
+                eject(replica, e);
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Replica connections use the credentials of their pools.");
+    }
+
+    /**
+     * Validates every replica, ejecting those that fail and readmitting those
+     * that pass again.
+     */
+    @Scheduled(initialDelayString = "${app.datasource.replica.health-check-interval-ms:5000}",
+            fixedDelayString = "${app.datasource.replica.health-check-interval-ms:5000}")
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            SQLException failure = null;
+            boolean valid;
+            try (Connection connection = replica.dataSource.getConnection()) {
+                valid = connection.isValid(validationTimeoutSeconds);
+            } catch (SQLException e) {
+                failure = e;
+                valid = false;
+            }
+            if (!valid) {
+                eject(replica, failure);
+            } else if (!replica.healthy) {
+                replica.healthy = true;
+                log.info("Replica {} is healthy again and takes reads.", replica.name);
+            }
+        }
+    }
+
+    public int healthyReplicas() {
+        int healthy = 0;
+        for (Replica replica : replicas) {
+            if (replica.healthy) {
+                healthy++;
+            }
+        }
+        return healthy;
+    }
+
+    public List<DataSource> replicas() {
+        return replicas.stream().map(replica -> replica.dataSource).toList();
+    }
+
+    private static void eject(Replica replica, SQLException cause) {
+        if (replica.healthy) {
+            replica.healthy = false;
+            log.warn("Ejected replica {}; its reads go to the other replicas or the primary. Cause: {}",
+                    replica.name, cause == null ? "connection not valid" : cause.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("Failed to close replica {}", replica.name, e);
+                }
+            }
+        }
+    }
+}
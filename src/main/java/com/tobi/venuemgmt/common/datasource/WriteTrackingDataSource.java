@@ -0,0 +1,49 @@
+package com.tobi.venuemgmt.common.datasource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Wraps the primary and starts read-your-writes stickiness when a read-write
+ * transaction that used it commits: reads on the same thread, and on later
+ * requests carrying the {@link ReadYourWritesFilter} cookie, go to the
+ * primary for the configured window, which should exceed the usual
+ * replication lag.
+ */
+public class WriteTrackingDataSource extends DelegatingDataSource {
+
+    public WriteTrackingDataSource(DataSource primary, long readYourWritesMs) {
+        super(primary);
+        ReadRouting.readYourWritesWindow(readYourWritesMs);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        trackWrite();
+        return super.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        trackWrite();
+        return super.getConnection(username, password);
+    }
+
+    private void trackWrite() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                ReadRouting.markWritten();
+            }
+        });
+    }
+}
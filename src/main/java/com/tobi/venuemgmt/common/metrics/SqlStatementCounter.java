@@ -0,0 +1,32 @@
+package com.tobi.venuemgmt.common.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread.
+ *
+ * Registered as Hibernate's statement inspector; the SQL is passed through
+ * unchanged. The count only ever grows, so callers take the difference
+ * between two reads. Statements issued through JdbcTemplate (bulk import,
+ * index loading) are not seen here.
+ */
+@Component
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final class Count {
+        long value;
+    }
+
+    private final ThreadLocal<Count> counts = ThreadLocal.withInitial(Count::new);
+
+    @Override
+    public String inspect(String sql) {
+        counts.get().value++;
+        return sql;
+    }
+
+    public long current() {
+        return counts.get().value;
+    }
+}
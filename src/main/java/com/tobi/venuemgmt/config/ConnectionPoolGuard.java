@@ -0,0 +1,96 @@
+package com.tobi.venuemgmt.config;
+
+import com.tobi.venuemgmt.common.datasource.ReplicaPool;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Enforces the connection pool sizing rules for the configured threading mode
+ * and refuses to start when they are broken.
+ *
+ * With virtual threads (spring.threads.virtual.enabled=true) request
+ * concurrency is no longer capped by the Tomcat thread pool, so the Hikari
+ * pool becomes the only bulkhead in front of MySQL. It must stay small (the
+ * database, not the app, sets the useful concurrency: roughly 2 x DB cores)
+ * and must time out quickly, so excess requests fail fast instead of piling up
+ * waiting for a connection.
+ *
+ * With platform threads a pool larger than the Tomcat thread pool can never be
+ * fully used and only holds idle connections open.
+ *
+ * With read/write routing the rules apply to the primary pool and to each
+ * replica pool.
+ */
+@Component
+public class ConnectionPoolGuard implements InitializingBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ConnectionPoolGuard.class);
+
+    private final DataSource dataSource;
+    private final ObjectProvider<ReplicaPool> replicaPool;
+    private final boolean virtualThreads;
+    private final int tomcatMaxThreads;
+    private final int maxPoolSizeForVirtualThreads;
+    private final long maxConnectionTimeoutMsForVirtualThreads;
+
+    @Autowired
+    public ConnectionPoolGuard(DataSource dataSource, ObjectProvider<ReplicaPool> replicaPool,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Value("${server.tomcat.threads.max:200}") int tomcatMaxThreads,
+            @Value("${app.datasource.virtual-threads.max-pool-size:32}") int maxPoolSizeForVirtualThreads,
+            @Value("${app.datasource.virtual-threads.max-connection-timeout-ms:2000}") long maxConnectionTimeoutMsForVirtualThreads) {
+        this.dataSource = dataSource;
+        this.replicaPool = replicaPool;
+        this.virtualThreads = virtualThreads;
+        this.tomcatMaxThreads = tomcatMaxThreads;
+        this.maxPoolSizeForVirtualThreads = maxPoolSizeForVirtualThreads;
+        this.maxConnectionTimeoutMsForVirtualThreads = maxConnectionTimeoutMsForVirtualThreads;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws SQLException {
+        List<DataSource> dataSources = new ArrayList<>();
+        dataSources.add(dataSource);
+        replicaPool.ifAvailable(pool -> dataSources.addAll(pool.replicas()));
+        for (DataSource candidate : dataSources) {
+            if (candidate.isWrapperFor(HikariDataSource.class)) {
+                check(candidate.unwrap(HikariDataSource.class));
+            }
+        }
+    }
+
+    private void check(HikariDataSource pool) {
+        String name = pool.getPoolName() != null ? pool.getPoolName() : "default";
+        int poolSize = pool.getMaximumPoolSize();
+        long connectionTimeoutMs = pool.getConnectionTimeout();
+
+        if (virtualThreads) {
+            if (poolSize > maxPoolSizeForVirtualThreads) {
+                throw new IllegalStateException("Virtual threads are enabled but spring.datasource.hikari.maximum-pool-size="
+                        + poolSize + " (pool " + name + ") exceeds app.datasource.virtual-threads.max-pool-size="
+                        + maxPoolSizeForVirtualThreads + ". Size the pool for the database, not for request concurrency.");
+            }
+            if (connectionTimeoutMs > maxConnectionTimeoutMsForVirtualThreads) {
+                throw new IllegalStateException("Virtual threads are enabled but spring.datasource.hikari.connection-timeout="
+                        + connectionTimeoutMs + "ms (pool " + name + ") exceeds app.datasource.virtual-threads.max-connection-timeout-ms="
+                        + maxConnectionTimeoutMsForVirtualThreads + ". Requests must fail fast when the pool is exhausted.");
+            }
+        } else if (poolSize > tomcatMaxThreads) {
+            log.warn("spring.datasource.hikari.maximum-pool-size={} (pool {}) exceeds server.tomcat.threads.max={}; "
+                    + "the extra connections can never be used.", poolSize, name, tomcatMaxThreads);
+        }
+        log.info("Request execution uses {} threads with connection pool {} of {} (timeout {}ms).",
+                virtualThreads ? "virtual" : "platform", name, poolSize, connectionTimeoutMs);
+    }
+}
@@ -0,0 +1,98 @@
+package com.tobi.venuemgmt.config;
+
+import com.tobi.venuemgmt.common.datasource.ReadYourWritesFilter;
+import com.tobi.venuemgmt.common.datasource.ReplicaPool;
+import com.tobi.venuemgmt.common.datasource.WriteTrackingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read/write splitting, enabled with app.datasource.routing.enabled=true.
+ *
+ * The application's DataSource is a LazyConnectionDataSourceProxy: a
+ * transaction only takes a physical connection at its first statement, from
+ * the {@link ReplicaPool} if it is read-only and from the primary otherwise.
+ * Replicas use the primary's credentials and pool settings.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "app.datasource.routing.enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName("primary");
+        return pool;
+    }
+
+    @Bean
+    public ReplicaPool replicaPool(HikariDataSource primaryDataSource, DataSourceProperties properties,
+            MeterRegistry meterRegistry,
+            @Value("${app.datasource.replica.urls:}") List<String> urls,
+            @Value("${app.datasource.replica.validation-timeout-seconds:1}") int validationTimeoutSeconds) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (String url : urls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            HikariDataSource replica = properties.initializeDataSourceBuilder().type(HikariDataSource.class)
+                    .url(url.trim()).build();
+            replica.setPoolName("replica-" + (replicas.size() + 1));
+            replica.setMaximumPoolSize(primaryDataSource.getMaximumPoolSize());
+            replica.setConnectionTimeout(primaryDataSource.getConnectionTimeout());
+            replica.setReadOnly(true);
+            replica.setMetricRegistry(meterRegistry);
+            replicas.put(replica.getPoolName(), replica);
+        }
+        ReplicaPool replicaPool = new ReplicaPool(primaryDataSource, replicas, validationTimeoutSeconds);
+        Gauge.builder("datasource.replicas.healthy", replicaPool, ReplicaPool::healthyReplicas)
+                .description("Replicas currently taking reads")
+                .register(meterRegistry);
+        return replicaPool;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaPool replicaPool,
+            @Value("${app.datasource.read-your-writes-ms:2000}") long readYourWritesMs) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(
+                new WriteTrackingDataSource(primaryDataSource, readYourWritesMs));
+        dataSource.setReadOnlyDataSource(replicaPool);
+        return dataSource;
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(
+            @Value("${app.datasource.read-your-writes-ms:2000}") long readYourWritesMs) {
+        return new ReadYourWritesFilter(readYourWritesMs);
+    }
+
+    /**
+     * Hibernate otherwise holds its first connection for the whole
+     * EntityManager, which open-in-view stretches to the whole request: a read
+     * followed by a write in one request would send the write to the replica.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionAfterTransaction() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+}
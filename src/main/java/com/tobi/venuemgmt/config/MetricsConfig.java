@@ -0,0 +1,42 @@
+package com.tobi.venuemgmt.config;
+
+import com.tobi.venuemgmt.common.metrics.SqlStatementCounter;
+import com.tobi.venuemgmt.common.metrics.SqlStatementMetricsInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Metrics that Spring Boot does not record on its own. Endpoint latency
+ * (http.server.requests) and repository latency
+ * (spring.data.repository.invocations) come from the actuator; their
+ * percentiles are set in application.properties.
+ */
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+    private final SqlStatementCounter sqlStatementCounter;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public MetricsConfig(SqlStatementCounter sqlStatementCounter, MeterRegistry meterRegistry) {
+        this.sqlStatementCounter = sqlStatementCounter;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounterCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, sqlStatementCounter);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new SqlStatementMetricsInterceptor(sqlStatementCounter, meterRegistry))
+                .addPathPatterns("/api/**");
+    }
+}
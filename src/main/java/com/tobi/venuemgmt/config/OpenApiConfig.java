@@ -0,0 +1,41 @@
+package com.tobi.venuemgmt.config;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Defers the OpenAPI documentation (springdoc) until it is first used. Its
+ * beans are marked lazy, so startup does not create the Swagger UI and
+ * api-docs machinery; the first request to /v3/api-docs or /swagger-ui does.
+ * Their request mappings are still registered at startup, by bean name.
+ *
+ * Turn off with app.openapi.lazy-init=false.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "app.openapi.lazy-init", havingValue = "true", matchIfMissing = true)
+public class OpenApiConfig {
+
+    private static final String SPRINGDOC_PACKAGE = "org.springdoc.";
+
+    // Static, so it runs before any configuration class is instantiated
+    @Bean
+    static BeanFactoryPostProcessor lazyOpenApiBeans() {
+        return beanFactory -> {
+            for (String name : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definition = beanFactory.getBeanDefinition(name);
+                if (isSpringdoc(definition.getBeanClassName()) || isSpringdoc(definition.getFactoryBeanName())) {
+                    definition.setLazyInit(true);
+                }
+            }
+        };
+    }
+
+    // Auto-configuration classes are registered under their class name, so
+    // @Bean methods of springdoc's configurations have it as factory bean name
+    private static boolean isSpringdoc(String className) {
+        return className != null && className.startsWith(SPRINGDOC_PACKAGE);
+    }
+}
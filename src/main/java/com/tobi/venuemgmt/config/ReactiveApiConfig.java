@@ -0,0 +1,72 @@
+package com.tobi.venuemgmt.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tobi.venuemgmt.common.PageSizePolicy;
+import com.tobi.venuemgmt.reactive.ReactiveConnections;
+import com.tobi.venuemgmt.reactive.ReactiveInstrumentRepository;
+import com.tobi.venuemgmt.reactive.ReactiveReadHandler;
+import com.tobi.venuemgmt.reactive.ReactiveReadServer;
+import com.tobi.venuemgmt.reactive.ReactiveVenueRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+
+import java.time.Duration;
+
+/**
+ * The reactive read API, enabled with app.reactive.enabled=true: WebFlux
+ * routes on their own Reactor Netty server, reading through R2DBC.
+ *
+ * Spring Boot's own R2DBC auto-configuration is excluded on the application
+ * class, and the pool is built here instead; see {@link ReactiveConnections}.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "app.reactive.enabled", havingValue = "true")
+@EnableR2dbcRepositories(basePackageClasses = ReactiveVenueRepository.class,
+        entityOperationsRef = "reactiveEntityTemplate")
+public class ReactiveApiConfig {
+
+    @Bean
+    public ReactiveConnections reactiveConnections(
+            @Value("${app.reactive.r2dbc.url}") String url,
+            @Value("${app.reactive.r2dbc.username:${spring.datasource.username:}}") String username,
+            @Value("${app.reactive.r2dbc.password:${spring.datasource.password:}}") String password,
+            @Value("${app.reactive.r2dbc.pool.max-size:16}") int maxSize,
+            @Value("${app.reactive.r2dbc.pool.max-acquire-time-ms:2000}") long maxAcquireTimeMs) {
+        return new ReactiveConnections(url, username, password, maxSize, Duration.ofMillis(maxAcquireTimeMs));
+    }
+
+    @Bean
+    public R2dbcEntityTemplate reactiveEntityTemplate(ReactiveConnections reactiveConnections) {
+        return new R2dbcEntityTemplate(reactiveConnections.connectionFactory());
+    }
+
+    @Bean
+    public ReactiveReadHandler reactiveReadHandler(ReactiveVenueRepository venueRepository,
+            ReactiveInstrumentRepository instrumentRepository, PageSizePolicy pageSizePolicy) {
+        return new ReactiveReadHandler(venueRepository, instrumentRepository, pageSizePolicy);
+    }
+
+    @Bean
+    public ReactiveReadServer reactiveReadServer(ReactiveReadHandler reactiveReadHandler, ObjectMapper objectMapper,
+            @Value("${app.reactive.address:0.0.0.0}") String address,
+            @Value("${app.reactive.port:8081}") int port,
+            @Value("${app.reactive.event-loop-threads:4}") int eventLoopThreads) {
+        // Same JSON as the servlet API: dates, naming and inclusion follow the application's ObjectMapper
+        HandlerStrategies strategies = HandlerStrategies.builder()
+                .codecs(codecs -> {
+                    codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                    codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                })
+                .build();
+        return new ReactiveReadServer(RouterFunctions.toHttpHandler(reactiveReadHandler.routes(), strategies),
+                address, port, eventLoopThreads);
+    }
+}
@@ -0,0 +1,22 @@
+package com.tobi.venuemgmt.config;
+
+import com.tobi.venuemgmt.referencedata.ReferenceDataMessageConverter;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Extra message converters. They are appended rather than declared as beans:
+ * Boot puts converter beans ahead of Jackson, which would make them win for
+ * Accept: *&#47;*.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new ReferenceDataMessageConverter());
+    }
+}
@@ -1,5 +1,14 @@
 package com.tobi.venuemgmt.exception;
 
+import com.tobi.venuemgmt.instrument.Instrument;
+import com.tobi.venuemgmt.venue.Venue;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -25,6 +34,23 @@ import java.util.stream.Collectors;
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public GlobalExceptionHandler(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    // Counts handled exceptions by type and resulting status (api.exceptions)
+    private void count(Exception ex, HttpStatus status) {
+        Counter.builder("api.exceptions")
+                .description("Exceptions handled by GlobalExceptionHandler")
+                .tag("exception", ex.getClass().getSimpleName())
+                .tag("status", String.valueOf(status.value()))
+                .register(meterRegistry)
+                .increment();
+    }
+
     /**
      * Handle ResourceNotFoundException (e.g., when a Venue or Instrument is not
      * found).
@@ -32,6 +58,7 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(ResourceNotFoundException.class)
     public ResponseEntity<ErrorDetails> handleResourceNotFound(ResourceNotFoundException ex, WebRequest request) {
+        count(ex, HttpStatus.NOT_FOUND);
         ErrorDetails errorDetails = new ErrorDetails(
                 LocalDateTime.now(),
                 HttpStatus.NOT_FOUND.value(),
@@ -49,21 +76,90 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(ResourceAlreadyExistsException.class)
     public ResponseEntity<ErrorDetails> handleResourceAlreadyExists(ResourceAlreadyExistsException ex,
             WebRequest request) {
+        count(ex, HttpStatus.CONFLICT);
+        return conflict(ex.getMessage(), request);
+    }
+
+    private ResponseEntity<ErrorDetails> conflict(String message, WebRequest request) {
         ErrorDetails errorDetails = new ErrorDetails(
                 LocalDateTime.now(),
                 HttpStatus.CONFLICT.value(),
                 "Conflict",
-                ex.getMessage(),
+                message,
                 request.getDescription(false));
         return new ResponseEntity<>(errorDetails, HttpStatus.CONFLICT);
     }
 
+    /**
+     * Handle optimistic lock failures: the entity was changed by another
+     * request between being read and written. Returns HTTP 409 Conflict; the
+     * client should re-read the entity and retry.
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorDetails> handleOptimisticLockingFailure(OptimisticLockingFailureException ex,
+            WebRequest request) {
+        count(ex, HttpStatus.CONFLICT);
+        return conflict("The resource was modified by another request. Reload it and retry.", request);
+    }
+
+    /**
+     * Handle PreconditionFailedException (If-Match does not match the current
+     * version of the resource).
+     * Returns HTTP 412 Precondition Failed.
+     */
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ErrorDetails> handlePreconditionFailed(PreconditionFailedException ex,
+            WebRequest request) {
+        count(ex, HttpStatus.PRECONDITION_FAILED);
+        ErrorDetails errorDetails = new ErrorDetails(
+                LocalDateTime.now(),
+                HttpStatus.PRECONDITION_FAILED.value(),
+                "Precondition Failed",
+                ex.getMessage(),
+                request.getDescription(false));
+        return new ResponseEntity<>(errorDetails, HttpStatus.PRECONDITION_FAILED);
+    }
+
+    /**
+     * Handle unique index violations that slip past the service-level checks
+     * (e.g. two concurrent creates with the same name). They are reported as
+     * ResourceAlreadyExistsException; other integrity violations fall through
+     * to the generic handler.
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ErrorDetails> handleDataIntegrityViolation(DataIntegrityViolationException ex,
+            WebRequest request) {
+        String constraintName = findConstraintName(ex);
+        if (constraintName != null) {
+            String lowerName = constraintName.toLowerCase();
+            if (lowerName.contains(Venue.NAME_KEY_CONSTRAINT)) {
+                count(ex, HttpStatus.CONFLICT);
+                return conflict("A venue with this name already exists.", request);
+            }
+            if (lowerName.contains(Instrument.SYMBOL_KEY_CONSTRAINT)) {
+                count(ex, HttpStatus.CONFLICT);
+                return conflict("An instrument with this symbol already exists.", request);
+            }
+        }
+        return handleGlobalException(ex, request);
+    }
+
+    private static String findConstraintName(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return violation.getConstraintName();
+            }
+        }
+        return null;
+    }
+
     /**
      * Handle InvalidRequestException (custom exception for bad input).
      * Returns HTTP 400 Bad Request.
      */
     @ExceptionHandler(InvalidRequestException.class)
     public ResponseEntity<ErrorDetails> handleInvalidRequest(InvalidRequestException ex, WebRequest request) {
+        count(ex, HttpStatus.BAD_REQUEST);
         ErrorDetails errorDetails = new ErrorDetails(
                 LocalDateTime.now(),
                 HttpStatus.BAD_REQUEST.value(),
@@ -81,6 +177,7 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, Object>> handleValidationErrors(MethodArgumentNotValidException ex,
             WebRequest request) {
+        count(ex, HttpStatus.BAD_REQUEST);
         List<Map<String, String>> fieldErrors = ex.getBindingResult().getFieldErrors().stream()
                 .map(error -> {
                     Map<String, String> err = new HashMap<>();
@@ -104,6 +201,22 @@ public class GlobalExceptionHandler {
     // Handler for the VenueClosedException
     @ExceptionHandler(VenueClosedException.class)
     public ResponseEntity<ErrorDetails> handleVenueClosedException(VenueClosedException ex, WebRequest request) {
+        count(ex, HttpStatus.BAD_REQUEST);
+        ErrorDetails errorDetails = new ErrorDetails(
+            LocalDateTime.now(),
+            HttpStatus.BAD_REQUEST.value(),
+            HttpStatus.BAD_REQUEST.getReasonPhrase(),
+            ex.getMessage(),
+            ((ServletWebRequest) request).getRequest().getRequestURI()
+        );
+        return new ResponseEntity<>(errorDetails, HttpStatus.BAD_REQUEST);
+    }
+
+    // Handler for the InstrumentNotActiveException (instrument halted or suspended)
+    @ExceptionHandler(InstrumentNotActiveException.class)
+    public ResponseEntity<ErrorDetails> handleInstrumentNotActiveException(InstrumentNotActiveException ex,
+            WebRequest request) {
+        count(ex, HttpStatus.BAD_REQUEST);
         ErrorDetails errorDetails = new ErrorDetails(
             LocalDateTime.now(),
             HttpStatus.BAD_REQUEST.value(),
@@ -114,12 +227,32 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorDetails, HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Handle OrderThrottledException (an instrument or venue order rate limit
+     * was exceeded).
+     * Returns HTTP 429 Too Many Requests with Retry-After in seconds.
+     */
+    @ExceptionHandler(OrderThrottledException.class)
+    public ResponseEntity<ErrorDetails> handleOrderThrottled(OrderThrottledException ex, WebRequest request) {
+        count(ex, HttpStatus.TOO_MANY_REQUESTS);
+        ErrorDetails errorDetails = new ErrorDetails(
+                LocalDateTime.now(),
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                "Too Many Requests",
+                ex.getMessage(),
+                request.getDescription(false));
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(errorDetails);
+    }
+
     /**
      * Fallback handler for all other unhandled exceptions.
      * Returns HTTP 500 Internal Server Error.
      */
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorDetails> handleGlobalException(Exception ex, WebRequest request) {
+        count(ex, HttpStatus.INTERNAL_SERVER_ERROR);
         ErrorDetails errorDetails = new ErrorDetails(
                 LocalDateTime.now(),
                 HttpStatus.INTERNAL_SERVER_ERROR.value(),
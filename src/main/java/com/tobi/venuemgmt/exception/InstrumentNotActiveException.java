@@ -0,0 +1,11 @@
+package com.tobi.venuemgmt.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InstrumentNotActiveException extends RuntimeException {
+    public InstrumentNotActiveException(String message) {
+        super(message);
+    }
+}
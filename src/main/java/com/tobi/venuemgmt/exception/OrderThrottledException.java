@@ -0,0 +1,27 @@
+package com.tobi.venuemgmt.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class OrderThrottledException extends RuntimeException {
+
+    private final long retryAfterNanos;
+
+    public OrderThrottledException(String message, long retryAfterNanos) {
+        // No stack trace: a flood throws one of these per rejected order
+        super(message, null, false, false);
+        this.retryAfterNanos = retryAfterNanos;
+    }
+
+    public long getRetryAfterNanos() {
+        return retryAfterNanos;
+    }
+
+    /**
+     * Whole seconds until a retry may succeed, rounded up, for Retry-After.
+     */
+    public long getRetryAfterSeconds() {
+        return Math.max(1, (retryAfterNanos + 999_999_999L) / 1_000_000_000L);
+    }
+}
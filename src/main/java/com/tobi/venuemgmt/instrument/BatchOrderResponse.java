@@ -0,0 +1,14 @@
+package com.tobi.venuemgmt.instrument;
+
+import java.util.List;
+
+/**
+ * Response for a batch order submission. Results are in request order.
+ */
+public record BatchOrderResponse(int accepted, int rejected, List<OrderResult> results) {
+
+    static BatchOrderResponse of(List<OrderResult> results) {
+        int accepted = (int) results.stream().filter(OrderResult::accepted).count();
+        return new BatchOrderResponse(accepted, results.size() - accepted, results);
+    }
+}
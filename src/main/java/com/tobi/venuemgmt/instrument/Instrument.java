@@ -1,15 +1,24 @@
 package com.tobi.venuemgmt.instrument;
 
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 import com.tobi.venuemgmt.common.BaseEntity;
+import com.tobi.venuemgmt.common.NameKey;
 import com.tobi.venuemgmt.venue.Venue;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.EnumType;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.Getter;
@@ -22,16 +31,45 @@ import lombok.Setter;
 @Data
 @Getter
 @Setter
+// The venue/trading-state index lets a venue-wide halt or resume touch only that venue's rows;
+// the others back the instrument search filters (InstrumentSearchRepository)
+@Table(name = "instrument",
+        uniqueConstraints = @UniqueConstraint(name = Instrument.SYMBOL_KEY_CONSTRAINT, columnNames = "symbol_key"),
+        indexes = {
+                @Index(name = "idx_instrument_venue_trading_state", columnList = "venue_id, trading_state"),
+                @Index(name = "idx_instrument_venue_symbol_key", columnList = "venue_id, symbol_key"),
+                @Index(name = "idx_instrument_type_symbol_key", columnList = "type, symbol_key")
+        })
 @JsonIdentityInfo(generator = ObjectIdGenerators.PropertyGenerator.class, property = "id")
 public class Instrument extends BaseEntity {
 
+    public static final String SYMBOL_KEY_CONSTRAINT = "uk_instrument_symbol_key";
+
     private String symbol;
+
+    // Normalized symbol backing the unique index; derived from symbol, never set directly
+    @JsonIgnore
+    @Column(name = "symbol_key", nullable = false)
+    private String symbolKey;
+
     private String name;
 
     @Enumerated(EnumType.STRING)
     private InstrumentType type;
 
+    // Changed through the trading-state endpoints only, never by a create or update body
+    @Enumerated(EnumType.STRING)
+    @Column(name = "trading_state", nullable = false, columnDefinition = "varchar(16) default 'ACTIVE'")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private InstrumentTradingState tradingState = InstrumentTradingState.ACTIVE;
+
     @ManyToOne
     @JoinColumn(name = "venue_id")
     private Venue venue;
+
+    @PrePersist
+    @PreUpdate
+    void normalizeSymbolKey() {
+        this.symbolKey = NameKey.normalize(symbol);
+    }
 }
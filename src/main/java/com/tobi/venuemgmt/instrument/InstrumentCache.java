@@ -0,0 +1,16 @@
+package com.tobi.venuemgmt.instrument;
+
+import com.tobi.venuemgmt.common.cache.ReferenceDataCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache of instruments by ID, sitting in front of InstrumentRepository.
+ */
+@Component
+public class InstrumentCache extends ReferenceDataCache<Instrument> {
+
+    public InstrumentCache(@Value("${app.cache.instruments.max-size:100000}") int maxSize) {
+        super("instruments", maxSize);
+    }
+}
@@ -1,14 +1,31 @@
 package com.tobi.venuemgmt.instrument;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tobi.venuemgmt.common.CursorPage;
+import com.tobi.venuemgmt.common.FetchView;
+import com.tobi.venuemgmt.common.NdjsonWriter;
+import com.tobi.venuemgmt.common.PageSizePolicy;
+import com.tobi.venuemgmt.common.ReferenceDataVersion;
+import com.tobi.venuemgmt.common.VersionTag;
+import com.tobi.venuemgmt.common.datasource.ReadRouting;
+import com.tobi.venuemgmt.exception.InvalidRequestException;
+import com.tobi.venuemgmt.exception.PreconditionFailedException;
+import com.tobi.venuemgmt.venue.Venue;
+import com.tobi.venuemgmt.venue.VenueStatus;
+import com.tobi.venuemgmt.venue.VenueType;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -18,35 +35,150 @@ import java.util.List;
 public class InstrumentController {
 
     private final InstrumentService instrumentService;
+    private final PageSizePolicy pageSizePolicy;
+    private final ObjectMapper objectMapper;
+    private final ReferenceDataVersion referenceDataVersion;
 
     @Autowired
-    public InstrumentController(InstrumentService instrumentService) {
+    public InstrumentController(InstrumentService instrumentService, PageSizePolicy pageSizePolicy,
+            ObjectMapper objectMapper, ReferenceDataVersion referenceDataVersion) {
         this.instrumentService = instrumentService;
+        this.pageSizePolicy = pageSizePolicy;
+        this.objectMapper = objectMapper;
+        this.referenceDataVersion = referenceDataVersion;
+    }
+
+    // Covers everything the DEEP representation embeds: the instrument, its venue and the venue's instruments
+    private static String etag(Instrument instrument) {
+        Venue venue = instrument.getVenue();
+        return new VersionTag().add(instrument).add(venue)
+                .addAll(venue == null ? null : venue.getInstruments())
+                .toETag();
     }
 
     /**
      * Retrieves all instruments available across all venues.
+     * With view=SHALLOW each instrument carries only its venue ID.
+     * The response carries an ETag; a request whose If-None-Match still
+     * matches gets 304 without a database query. Otherwise the instruments are
+     * read on the primary, so the body is never older than its ETag.
      */
     @GetMapping
-    @Operation(summary = "Get all instruments", description = "Returns a list of all financial instruments.")
+    @Operation(summary = "Get all instruments", description = "Returns a list of all financial instruments. Use view=SHALLOW to reference venues by ID only. Supports If-None-Match.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved list"),
+        @ApiResponse(responseCode = "304", description = "Unchanged since the ETag in If-None-Match")
+    })
+    public ResponseEntity<List<?>> getAllInstruments(
+            @Parameter(description = "SHALLOW for flat rows with venueId, DEEP (default) to embed venues") @RequestParam(defaultValue = "DEEP") FetchView view,
+            WebRequest request) {
+        String etag = referenceDataVersion.etag("instruments");
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        // The ETag is the primary's version, so a lagging replica must not supply the body
+        List<?> instruments = ReadRouting.onPrimary(() -> view == FetchView.SHALLOW
+                ? instrumentService.findAllInstrumentSummaries()
+                : instrumentService.findAllInstruments());
+        return ResponseEntity.ok().eTag(etag).body(instruments);
+    }
+
+    /**
+     * Returns one page of instruments ordered by ID, optionally for a single
+     * venue. Each page starts after the ID given as the cursor.
+     */
+    @GetMapping("/page")
+    @Operation(summary = "Get a page of instruments", description = "Keyset pagination over instruments ordered by ID. Pass the returned nextCursor as 'after' to get the next page.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved page"),
+        @ApiResponse(responseCode = "304", description = "Unchanged since the ETag in If-None-Match"),
+        @ApiResponse(responseCode = "400", description = "Invalid page size")
+    })
+    public ResponseEntity<CursorPage<InstrumentSummary>> getInstrumentPage(
+            @Parameter(description = "Return instruments with an ID greater than this cursor") @RequestParam(defaultValue = "0") long after,
+            @Parameter(description = "Maximum number of instruments to return") @RequestParam(required = false) Integer size,
+            @Parameter(description = "Only return instruments of this venue") @RequestParam(required = false) Long venueId,
+            WebRequest request) {
+        int pageSize = pageSizePolicy.resolve(size);
+        String etag = referenceDataVersion.etag("instruments");
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag)
+                .body(ReadRouting.onPrimary(() -> instrumentService.findInstrumentSummaryPage(venueId, after, pageSize)));
+    }
+
+    /**
+     * Searches instruments by any combination of filters, one keyset page at
+     * a time. Every filter combination is answered from an index.
+     */
+    @GetMapping("/search")
+    @Operation(summary = "Search instruments", description = "Filters instruments by venue, venue status, venue type, instrument type and symbol prefix, sorted by ID or symbol. Pass the returned nextCursor as 'after' with the same filters and sort to get the next page. Supports If-None-Match.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved page"),
+        @ApiResponse(responseCode = "304", description = "Unchanged since the ETag in If-None-Match"),
+        @ApiResponse(responseCode = "400", description = "Invalid page size, blank symbol prefix or a cursor that does not fit the sort")
+    })
+    public ResponseEntity<InstrumentSearchPage> searchInstruments(
+            @Parameter(description = "Only return instruments of this venue") @RequestParam(required = false) Long venueId,
+            @Parameter(description = "Only return instruments of venues with this status") @RequestParam(required = false) VenueStatus venueStatus,
+            @Parameter(description = "Only return instruments of venues of this type") @RequestParam(required = false) VenueType venueType,
+            @Parameter(description = "Only return instruments of this type") @RequestParam(required = false) InstrumentType type,
+            @Parameter(description = "Only return instruments whose symbol starts with this, ignoring case") @RequestParam(required = false) String symbol,
+            @Parameter(description = "ID (default) or SYMBOL") @RequestParam(defaultValue = "ID") InstrumentSort sort,
+            @Parameter(description = "Cursor from the previous page") @RequestParam(required = false) String after,
+            @Parameter(description = "Maximum number of instruments to return") @RequestParam(required = false) Integer size,
+            WebRequest request) {
+        int pageSize = pageSizePolicy.resolve(size);
+        String etag = referenceDataVersion.etag("instruments");
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        InstrumentCriteria criteria = new InstrumentCriteria(venueId, venueStatus, venueType, type, symbol);
+        return ResponseEntity.ok().eTag(etag)
+                .body(ReadRouting.onPrimary(
+                        () -> instrumentService.searchInstrumentSummaries(criteria, sort, after, pageSize)));
+    }
+
+    /**
+     * Streams instruments as newline-delimited JSON, one instrument per line,
+     * straight from a database cursor.
+     */
+    @GetMapping(value = "/stream", produces = NdjsonWriter.MEDIA_TYPE)
+    @Operation(summary = "Stream instruments", description = "Returns all instruments, or those of one venue, as NDJSON without materializing the full list in memory.")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Successfully retrieved list")
+        @ApiResponse(responseCode = "200", description = "Stream started")
     })
-    public ResponseEntity<List<Instrument>> getAllInstruments() {
-        return ResponseEntity.ok(instrumentService.findAllInstruments());
+    public ResponseEntity<StreamingResponseBody> streamInstruments(
+            @Parameter(description = "Only stream instruments of this venue") @RequestParam(required = false) Long venueId) {
+        StreamingResponseBody body = out -> {
+            NdjsonWriter writer = new NdjsonWriter(objectMapper, out);
+            instrumentService.streamInstrumentSummaries(venueId, writer::write);
+            writer.finish();
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NdjsonWriter.MEDIA_TYPE)).body(body);
     }
 
     /**
-     * Finds a single instrument by its unique ID.
+     * Finds a single instrument by its unique ID. The ETag is derived from the
+     * versions of the instrument and of the venue graph it embeds; send it back
+     * in If-Match when updating.
      */
     @GetMapping("/{id}")
-    @Operation(summary = "Get a single instrument by ID", description = "Returns a single instrument, if found.")
+    @Operation(summary = "Get a single instrument by ID", description = "Returns a single instrument, if found. Supports If-None-Match.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved instrument"),
+        @ApiResponse(responseCode = "304", description = "Unchanged since the ETag in If-None-Match"),
         @ApiResponse(responseCode = "404", description = "Instrument not found with the given ID")
     })
-    public ResponseEntity<Instrument> getInstrumentById(@Parameter(description = "ID of the instrument to retrieve") @PathVariable Long id) {
-        return ResponseEntity.ok(instrumentService.findInstrumentById(id));
+    public ResponseEntity<Instrument> getInstrumentById(@Parameter(description = "ID of the instrument to retrieve") @PathVariable Long id,
+            WebRequest request) {
+        Instrument instrument = instrumentService.findInstrumentById(id);
+        String etag = etag(instrument);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(instrument);
     }
 
     /**
@@ -56,13 +188,42 @@ public class InstrumentController {
     @Operation(summary = "Get instruments by Venue ID", description = "Returns a list of all instruments associated with a specific venue.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved list"),
+        @ApiResponse(responseCode = "304", description = "Unchanged since the ETag in If-None-Match"),
         @ApiResponse(responseCode = "404", description = "Venue not found with the given ID, so no instruments could be retrieved")
     })
-    public ResponseEntity<List<Instrument>> getInstrumentsByVenueId(@Parameter(description = "ID of the venue to filter instruments by") @PathVariable Long venueId) {
-        return ResponseEntity.ok(instrumentService.findInstrumentsByVenueId(venueId));
+    public ResponseEntity<List<?>> getInstrumentsByVenueId(
+            @Parameter(description = "ID of the venue to filter instruments by") @PathVariable Long venueId,
+            @Parameter(description = "SHALLOW for flat rows with venueId, DEEP (default) to embed venues") @RequestParam(defaultValue = "DEEP") FetchView view,
+            WebRequest request) {
+        String etag = referenceDataVersion.etag("instruments");
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        List<?> instruments = ReadRouting.onPrimary(() -> view == FetchView.SHALLOW
+                ? instrumentService.findInstrumentSummariesByVenueId(venueId)
+                : instrumentService.findInstrumentsByVenueId(venueId));
+        return ResponseEntity.ok().eTag(etag).body(instruments);
     }
 
 
+    /**
+     * Suggests instruments whose symbol or name starts with the query, for
+     * order-entry autocomplete. Served from memory; never scans the table.
+     */
+    @GetMapping("/autocomplete")
+    @Operation(summary = "Autocomplete instruments", description = "Returns up to 'limit' instruments whose symbol (first) or name starts with 'q', optionally filtered by type and venue.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved suggestions"),
+        @ApiResponse(responseCode = "400", description = "Blank query or limit out of range")
+    })
+    public ResponseEntity<List<InstrumentSummary>> autocompleteInstruments(
+            @Parameter(description = "Symbol or name prefix, case-insensitive") @RequestParam String q,
+            @Parameter(description = "Only instruments of this type") @RequestParam(required = false) InstrumentType type,
+            @Parameter(description = "Only instruments listed on this venue") @RequestParam(required = false) Long venueId,
+            @Parameter(description = "Maximum number of suggestions (1-100, default 10)") @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(instrumentService.autocompleteInstruments(q, type, venueId, limit));
+    }
+
     /**
      * Creates a new instrument. The request body must contain the instrument details,
      * including a valid venueId to associate it with.
@@ -81,19 +242,86 @@ public class InstrumentController {
     /**
      * Updates an existing instrument's details.
      * The service layer handles the logic of finding and updating the entity.
+     * With If-Match, the update only applies if the instrument still has that
+     * ETag; an update that races with another one fails with 409 either way.
      */
     @PutMapping("/{id}")
-    @Operation(summary = "Update an existing instrument", description = "Updates the details for an existing instrument identified by its ID.")
+    @Operation(summary = "Update an existing instrument", description = "Updates the details for an existing instrument identified by its ID. Send the ETag from a GET in If-Match to avoid overwriting someone else's change.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Instrument updated successfully"),
-        @ApiResponse(responseCode = "404", description = "Instrument not found with the given ID")
+        @ApiResponse(responseCode = "404", description = "Instrument not found with the given ID"),
+        @ApiResponse(responseCode = "409", description = "Instrument was modified concurrently"),
+        @ApiResponse(responseCode = "412", description = "Instrument no longer matches If-Match")
     })
     public ResponseEntity<Instrument> updateInstrument(
             @Parameter(description = "ID of the instrument to update") @PathVariable Long id, 
-            @RequestBody Instrument instrumentDetails) {
+            @RequestBody Instrument instrumentDetails,
+            @Parameter(description = "ETag of the version the update is based on") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = null;
+        if (ifMatch != null) {
+            Instrument current = instrumentService.findInstrumentForUpdate(id);
+            if (!VersionTag.matches(ifMatch, etag(current))) {
+                throw new PreconditionFailedException("Instrument with ID " + id + " has changed since it was read.");
+            }
+            expectedVersion = current.getVersion();
+        }
         // Best practice: The service handles the fetch-and-update logic.
-        Instrument updatedInstrument = instrumentService.updateInstrument(id, instrumentDetails);
-        return ResponseEntity.ok(updatedInstrument);
+        Instrument updatedInstrument = instrumentService.updateInstrument(id, instrumentDetails, expectedVersion);
+        return ResponseEntity.ok().eTag(etag(updatedInstrument)).body(updatedInstrument);
+    }
+
+    /**
+     * Halts, suspends or resumes trading in one instrument. Orders for an
+     * instrument that is not ACTIVE are rejected.
+     */
+    @PatchMapping("/{id}/trading-state")
+    @Operation(summary = "Update an instrument's trading state", description = "Sets the trading state of a single instrument to ACTIVE, HALTED or SUSPENDED.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Trading state updated successfully"),
+        @ApiResponse(responseCode = "404", description = "Instrument not found with the given ID")
+    })
+    public ResponseEntity<Instrument> updateTradingState(
+            @Parameter(description = "ID of the instrument to update") @PathVariable Long id,
+            @Parameter(description = "The new trading state for the instrument") @RequestParam InstrumentTradingState state) {
+        Instrument instrument = instrumentService.updateTradingState(id, state);
+        return ResponseEntity.ok().eTag(etag(instrument)).body(instrument);
+    }
+
+    /**
+     * Runs the pre-trade check for a single order. Rejections are errors:
+     * 404 for an unknown instrument, 400 for a closed venue or an instrument
+     * that is not ACTIVE, and 429, with Retry-After, when the instrument or
+     * its venue is over its rate limit.
+     */
+    @PostMapping("/orders")
+    @Operation(summary = "Submit an order", description = "Validates one order against instrument existence, venue status, instrument trading state and the per-instrument and per-venue rate limits.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Order accepted"),
+        @ApiResponse(responseCode = "400", description = "Order has no or a non-positive instrument ID, the instrument's venue is closed, or the instrument is not ACTIVE"),
+        @ApiResponse(responseCode = "404", description = "Instrument not found with the given ID"),
+        @ApiResponse(responseCode = "429", description = "Instrument or venue order rate limit exceeded")
+    })
+    public ResponseEntity<OrderResult> submitOrder(@RequestBody OrderRequest order) {
+        if (order.instrumentId() == null) {
+            throw new InvalidRequestException("Order must have an instrumentId.");
+        }
+        instrumentService.processOrder(order.instrumentId());
+        return ResponseEntity.ok(OrderResult.accepted(order));
+    }
+
+    /**
+     * Runs the pre-trade check for a batch of orders in one call.
+     * Every order gets an accept/reject result; a closed venue or unknown
+     * instrument rejects only the affected orders, not the whole batch.
+     */
+    @PostMapping("/orders/batch")
+    @Operation(summary = "Submit a batch of orders", description = "Validates many orders at once against instrument existence, venue status and instrument trading state, returning a result per order.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Batch processed; see per-order results"),
+        @ApiResponse(responseCode = "400", description = "Empty or oversized batch, or a null order in it")
+    })
+    public ResponseEntity<BatchOrderResponse> submitOrderBatch(@RequestBody List<OrderRequest> orders) {
+        return ResponseEntity.ok(instrumentService.processOrders(orders));
     }
 
     /**
@@ -0,0 +1,19 @@
+package com.tobi.venuemgmt.instrument;
+
+import com.tobi.venuemgmt.venue.VenueStatus;
+import com.tobi.venuemgmt.venue.VenueType;
+
+/**
+ * Filters for the instrument search. Every field is optional; the ones that
+ * are set must all match.
+ *
+ * @param symbolPrefix matched against the normalized symbol, so "aap" finds "AAPL".
+ */
+public record InstrumentCriteria(Long venueId, VenueStatus venueStatus, VenueType venueType, InstrumentType type,
+        String symbolPrefix) {
+
+    // Filters on the venue's own columns, resolved to venue IDs before instruments are queried
+    boolean hasVenueAttributes() {
+        return venueStatus != null || venueType != null;
+    }
+}
@@ -1,16 +1,102 @@
 package com.tobi.venuemgmt.instrument;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface InstrumentRepository extends JpaRepository<Instrument, Long> {
+public interface InstrumentRepository extends JpaRepository<Instrument, Long>, InstrumentSearchRepository {
 
+    // List finders fetch-join the venue; the venues' own instrument lists are
+    // then loaded in batches (hibernate.default_batch_fetch_size)
+    @Override
+    @EntityGraph(attributePaths = "venue")
+    List<Instrument> findAll();
+
+    @EntityGraph(attributePaths = "venue")
     List<Instrument> findByVenueId(Long venueId);
 
+    @EntityGraph(attributePaths = "venue")
     List<Instrument> findBySymbolContainingIgnoreCase(String symbol);
 
+    @EntityGraph(attributePaths = "venue")
     List<Instrument> findByType(InstrumentType type);
+
+    // Uniqueness check against the uk_instrument_symbol_key index
+    boolean existsBySymbolKey(String symbolKey);
+
+    @Query("SELECT new com.tobi.venuemgmt.instrument.InstrumentSummary(i.id, i.symbol, i.name, i.type, i.venue.id) "
+            + "FROM Instrument i")
+    List<InstrumentSummary> findAllSummaries();
+
+    @Query("SELECT new com.tobi.venuemgmt.instrument.InstrumentSummary(i.id, i.symbol, i.name, i.type, i.venue.id) "
+            + "FROM Instrument i WHERE i.venue.id = :venueId")
+    List<InstrumentSummary> findSummariesByVenueId(@Param("venueId") Long venueId);
+
+    @Query("SELECT i.venue.id FROM Instrument i WHERE i.id = :id")
+    Optional<Long> findVenueIdById(@Param("id") Long id);
+
+    // Keyset pagination: the Pageable only supplies the limit, the cursor is the last ID seen
+    @Query("SELECT new com.tobi.venuemgmt.instrument.InstrumentSummary(i.id, i.symbol, i.name, i.type, i.venue.id) "
+            + "FROM Instrument i WHERE i.id > :afterId ORDER BY i.id")
+    List<InstrumentSummary> findSummariesAfter(@Param("afterId") Long afterId, Pageable limit);
+
+    @Query("SELECT new com.tobi.venuemgmt.instrument.InstrumentSummary(i.id, i.symbol, i.name, i.type, i.venue.id) "
+            + "FROM Instrument i WHERE i.venue.id = :venueId AND i.id > :afterId ORDER BY i.id")
+    List<InstrumentSummary> findSummariesByVenueIdAfter(@Param("venueId") Long venueId,
+            @Param("afterId") Long afterId, Pageable limit);
+
+    // Must be consumed inside a transaction and closed
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.tobi.venuemgmt.instrument.InstrumentSummary(i.id, i.symbol, i.name, i.type, i.venue.id) "
+            + "FROM Instrument i ORDER BY i.id")
+    Stream<InstrumentSummary> streamAllSummaries();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.tobi.venuemgmt.instrument.InstrumentSummary(i.id, i.symbol, i.name, i.type, i.venue.id) "
+            + "FROM Instrument i WHERE i.venue.id = :venueId ORDER BY i.id")
+    Stream<InstrumentSummary> streamSummariesByVenueId(@Param("venueId") Long venueId);
+
+    @Query("SELECT i FROM Instrument i JOIN FETCH i.venue WHERE i.id IN :ids")
+    List<Instrument> findAllWithVenueByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Rows of [instrument id, venue id] used to build the in-memory tradability index
+    @Query("SELECT i.id, i.venue.id FROM Instrument i")
+    List<Object[]> findAllVenueIds();
+
+    // Rows of [instrument id, trading state], for the instruments not in the given state
+    @Query("SELECT i.id, i.tradingState FROM Instrument i WHERE i.tradingState <> :state")
+    List<Object[]> findTradingStatesOtherThan(@Param("state") InstrumentTradingState state);
+
+    // Venue-wide halt/resume in one statement, without loading the instruments;
+    // bumps the version as an entity update would
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_TIMEOUT, value = "30"))
+    @Query("UPDATE Instrument i SET i.tradingState = :to, i.version = i.version + 1 "
+            + "WHERE i.venue.id = :venueId AND i.tradingState = :from")
+    int updateTradingStateByVenueId(@Param("venueId") Long venueId, @Param("from") InstrumentTradingState from,
+            @Param("to") InstrumentTradingState to);
+
+    // The same for a batch of venues; answered from idx_instrument_venue_trading_state
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_TIMEOUT, value = "30"))
+    @Query("UPDATE Instrument i SET i.tradingState = :to, i.version = i.version + 1 "
+            + "WHERE i.venue.id IN :venueIds AND i.tradingState = :from")
+    int updateTradingStateByVenueIdIn(@Param("venueIds") Collection<Long> venueIds,
+            @Param("from") InstrumentTradingState from, @Param("to") InstrumentTradingState to);
 }
@@ -0,0 +1,16 @@
+package com.tobi.venuemgmt.instrument;
+
+import java.util.List;
+
+/**
+ * One page of instrument search results. The cursor is an instrument ID or a
+ * normalized symbol, depending on the sort; pass nextCursor back as "after"
+ * with the same filters and sort. It is null on the last page.
+ */
+public record InstrumentSearchPage(List<InstrumentSummary> items, String nextCursor) {
+
+    static InstrumentSearchPage of(List<InstrumentSummary> items, int pageSize, InstrumentSort sort) {
+        String nextCursor = items.size() < pageSize ? null : sort.cursorOf(items.get(items.size() - 1));
+        return new InstrumentSearchPage(items, nextCursor);
+    }
+}
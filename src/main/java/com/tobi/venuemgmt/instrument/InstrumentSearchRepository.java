@@ -0,0 +1,18 @@
+package com.tobi.venuemgmt.instrument;
+
+import java.util.List;
+
+/**
+ * Multi-criteria instrument search, mixed into InstrumentRepository. Built
+ * with the JPA Criteria API from InstrumentSpecifications so that only the
+ * predicates for the filters actually given end up in the SQL.
+ */
+public interface InstrumentSearchRepository {
+
+    /**
+     * Returns up to limit instruments matching the criteria, in sort order,
+     * after the keyset cursor (null for the first page). The cursor must be
+     * valid for the sort.
+     */
+    List<InstrumentSummary> search(InstrumentCriteria criteria, InstrumentSort sort, String after, int limit);
+}
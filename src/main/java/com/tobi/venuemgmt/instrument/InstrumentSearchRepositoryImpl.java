@@ -0,0 +1,74 @@
+package com.tobi.venuemgmt.instrument;
+
+import com.tobi.venuemgmt.venue.Venue;
+import com.tobi.venuemgmt.venue.VenueSpecifications;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Venue status and type filters are resolved to venue IDs with a query on
+ * the venue table first, so the instrument query itself only ever filters
+ * on instrument columns: venue_id, type and symbol_key, each leading a
+ * composite index (see Instrument and Venue for the indexes).
+ */
+class InstrumentSearchRepositoryImpl implements InstrumentSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<InstrumentSummary> search(InstrumentCriteria criteria, InstrumentSort sort, String after, int limit) {
+        List<Specification<Instrument>> specifications = new ArrayList<>();
+        if (criteria.hasVenueAttributes()) {
+            List<Long> venueIds = findVenueIds(criteria);
+            if (venueIds.isEmpty()) {
+                return List.of();
+            }
+            specifications.add(InstrumentSpecifications.venueIdIn(venueIds));
+        } else if (criteria.venueId() != null) {
+            specifications.add(InstrumentSpecifications.venueIdIs(criteria.venueId()));
+        }
+        if (criteria.type() != null) {
+            specifications.add(InstrumentSpecifications.typeIs(criteria.type()));
+        }
+        if (criteria.symbolPrefix() != null) {
+            specifications.add(InstrumentSpecifications.symbolKeyStartsWith(criteria.symbolPrefix()));
+        }
+        specifications.add(InstrumentSpecifications.after(sort, after));
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<InstrumentSummary> query = cb.createQuery(InstrumentSummary.class);
+        Root<Instrument> instrument = query.from(Instrument.class);
+        query.select(cb.construct(InstrumentSummary.class, instrument.get("id"), instrument.get("symbol"),
+                instrument.get("name"), instrument.get("type"), instrument.get("venue").get("id")))
+                .where(Specification.allOf(specifications).toPredicate(instrument, query, cb))
+                .orderBy(cb.asc(instrument.get(sort.attribute())));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    private List<Long> findVenueIds(InstrumentCriteria criteria) {
+        List<Specification<Venue>> specifications = new ArrayList<>();
+        if (criteria.venueId() != null) {
+            specifications.add(VenueSpecifications.idIs(criteria.venueId()));
+        }
+        if (criteria.venueStatus() != null) {
+            specifications.add(VenueSpecifications.statusIs(criteria.venueStatus()));
+        }
+        if (criteria.venueType() != null) {
+            specifications.add(VenueSpecifications.typeIs(criteria.venueType()));
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Venue> venue = query.from(Venue.class);
+        query.select(venue.get("id"))
+                .where(Specification.allOf(specifications).toPredicate(venue, query, cb));
+        return entityManager.createQuery(query).getResultList();
+    }
+}
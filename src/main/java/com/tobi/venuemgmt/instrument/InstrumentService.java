@@ -1,42 +1,149 @@
 package com.tobi.venuemgmt.instrument;
 
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.tobi.venuemgmt.audit.OrderAuditLog;
+import com.tobi.venuemgmt.audit.OrderOutcome;
+import com.tobi.venuemgmt.common.CursorPage;
+import com.tobi.venuemgmt.common.ReferenceDataVersion;
+import com.tobi.venuemgmt.common.NameKey;
+import com.tobi.venuemgmt.common.datasource.ReadRouting;
+import com.tobi.venuemgmt.referencedata.ReferenceDataChange;
+import com.tobi.venuemgmt.referencedata.ReferenceDataChangeLog;
+import com.tobi.venuemgmt.statistics.ReferenceDataStatistics;
 import com.tobi.venuemgmt.venue.Venue;
+import com.tobi.venuemgmt.venue.VenueCache;
 import com.tobi.venuemgmt.venue.VenueStatus;
+import com.tobi.venuemgmt.exception.InstrumentNotActiveException;
+import com.tobi.venuemgmt.exception.InvalidRequestException;
+import com.tobi.venuemgmt.exception.OrderThrottledException;
 import com.tobi.venuemgmt.exception.ResourceAlreadyExistsException;
 import com.tobi.venuemgmt.exception.ResourceNotFoundException;
 import com.tobi.venuemgmt.exception.VenueClosedException;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class InstrumentService {
 
+    private static final Logger log = LoggerFactory.getLogger(InstrumentService.class);
+
+    static final int MAX_ORDER_BATCH_SIZE = 50_000;
+    static final int DEFAULT_AUTOCOMPLETE_LIMIT = 10;
+    static final int MAX_AUTOCOMPLETE_LIMIT = 100;
+    // Keeps IN lists well under database parameter limits
+    private static final int ORDER_LOOKUP_CHUNK_SIZE = 1_000;
+
     private final InstrumentRepository instrumentRepository;
+    private final InstrumentCache instrumentCache;
+    private final VenueCache venueCache;
+    private final TradabilityIndex tradabilityIndex;
+    private final OrderAuditLog orderAuditLog;
+    private final ReferenceDataStatistics statistics;
+    private final SymbolIndex symbolIndex;
+    private final ReferenceDataChangeLog changeLog;
+    private final OrderThrottle orderThrottle;
+    private final ReferenceDataVersion referenceDataVersion;
+    private final TransactionTemplate transactionTemplate;
 
     @Autowired
-    public InstrumentService(InstrumentRepository instrumentRepository) {
+    public InstrumentService(InstrumentRepository instrumentRepository, InstrumentCache instrumentCache,
+            VenueCache venueCache, TradabilityIndex tradabilityIndex, OrderAuditLog orderAuditLog,
+            ReferenceDataStatistics statistics, SymbolIndex symbolIndex, ReferenceDataChangeLog changeLog,
+            OrderThrottle orderThrottle, ReferenceDataVersion referenceDataVersion,
+            TransactionTemplate transactionTemplate) {
         this.instrumentRepository = instrumentRepository;
+        this.instrumentCache = instrumentCache;
+        this.venueCache = venueCache;
+        this.tradabilityIndex = tradabilityIndex;
+        this.orderAuditLog = orderAuditLog;
+        this.statistics = statistics;
+        this.symbolIndex = symbolIndex;
+        this.changeLog = changeLog;
+        this.orderThrottle = orderThrottle;
+        this.referenceDataVersion = referenceDataVersion;
+        this.transactionTemplate = transactionTemplate;
     }
 
+    @Transactional(readOnly = true)
     public List<Instrument> findAllInstruments() {
         return instrumentRepository.findAll();
     }
 
+    /**
+     * Finds an instrument by ID, served from the instrument cache when possible.
+     * The returned instance is shared and must not be modified.
+     */
+    @Transactional(readOnly = true)
     public Instrument findInstrumentById(Long id) {
-        return instrumentRepository.findById(id)
+        return instrumentCache.get(id, this::loadInstrumentWithVenue);
+    }
+
+    /**
+     * Reads an instrument from the primary, bypassing the instrument cache,
+     * for a caller that goes on to update it, for example to check If-Match.
+     * With open-in-view the update changes this same instance before saving
+     * it, so it must not be one the cache shares.
+     */
+    @Transactional
+    public Instrument findInstrumentForUpdate(Long id) {
+        return loadInstrumentWithVenue(id);
+    }
+
+    private Instrument loadInstrumentWithVenue(Long id) {
+        Instrument instrument = loadInstrument(id);
+        // Cached instruments outlive the persistence context, so the venue graph must be loaded now
+        Venue venue = instrument.getVenue();
+        if (venue != null) {
+            Hibernate.initialize(venue);
+            Hibernate.initialize(venue.getInstruments());
+        }
+        return instrument;
+    }
+
+    // Mutators and the cache must not act on a copy from a lagging replica
+    private Instrument loadInstrument(Long id) {
+        return ReadRouting.onPrimary(() -> instrumentRepository.findById(id))
                 .orElseThrow(() -> new ResourceNotFoundException("Instrument with ID " + id + " not found."));
     }
 
     public Instrument saveInstrument(Instrument instrument) {
-        List<Instrument> existing = instrumentRepository.findBySymbolContainingIgnoreCase(instrument.getSymbol());
-        if (!existing.isEmpty()) {
+        // Exact match on the normalized symbol, answered from the unique index
+        if (instrumentRepository.existsBySymbolKey(NameKey.normalize(instrument.getSymbol()))) {
             throw new ResourceAlreadyExistsException(
                     "Instrument with symbol " + instrument.getSymbol() + " already exists.");
         }
-        return instrumentRepository.save(instrument);
+        boolean created = instrument.getId() == null;
+        Instrument savedInstrument = transactionTemplate.execute(transaction -> {
+            Instrument saved = saveFlushed(instrument);
+            changeLog.instrumentChanged(created ? ReferenceDataChange.Type.CREATE : ReferenceDataChange.Type.UPDATE,
+                    InstrumentSummary.of(saved));
+            return saved;
+        });
+        // The parent venue's cached instrument list no longer matches
+        evictVenue(savedInstrument.getVenue());
+        if (savedInstrument.getVenue() != null) {
+            tradabilityIndex.putInstrument(savedInstrument.getId(), savedInstrument.getVenue().getId());
+        }
+        recordStatistics(savedInstrument);
+        symbolIndex.put(InstrumentSummary.of(savedInstrument));
+        return savedInstrument;
     }
 
     /**
@@ -53,57 +160,390 @@ public class InstrumentService {
      *                                   ID.
      */
     public Instrument updateInstrument(Long id, Instrument instrumentDetails) {
+        return updateInstrument(id, instrumentDetails, null);
+    }
+
+    /**
+     * As {@link #updateInstrument(Long, Instrument)}, checked against the
+     * version the caller based its changes on. The save itself is also checked
+     * against the version that was read, so concurrent updates fail with
+     * ObjectOptimisticLockingFailureException instead of overwriting each other.
+     *
+     * @param expectedVersion the expected current version, or null for any.
+     */
+    public Instrument updateInstrument(Long id, Instrument instrumentDetails, Long expectedVersion) {
         // Find the existing instrument or throw an exception if not found.
-        Instrument existingInstrument = findInstrumentById(id);
+        Instrument existingInstrument = loadInstrument(id);
+        if (expectedVersion != null && existingInstrument.getVersion() != expectedVersion) {
+            throw new ObjectOptimisticLockingFailureException(Instrument.class, id);
+        }
+
+        Instrument savedInstrument;
+        try {
+            // Update only the descriptive, mutable fields.
+            existingInstrument.setName(instrumentDetails.getName());
+            existingInstrument.setType(instrumentDetails.getType());
 
-        // Update only the descriptive, mutable fields.
-        existingInstrument.setName(instrumentDetails.getName());
-        existingInstrument.setType(instrumentDetails.getType());
+            // Note: Symbol and Venue are intentionally not updated here.
+            // Changing these would be a more complex operation like a delist/relist.
+            savedInstrument = transactionTemplate.execute(transaction -> {
+                Instrument saved = saveFlushed(existingInstrument);
+                changeLog.instrumentChanged(ReferenceDataChange.Type.UPDATE, InstrumentSummary.of(saved));
+                return saved;
+            });
+        } finally {
+            // Also when the save fails, so a cached copy never outlives changes that were not written
+            instrumentCache.evict(id);
+            evictVenue(existingInstrument.getVenue());
+        }
+        recordStatistics(savedInstrument);
+        symbolIndex.put(InstrumentSummary.of(savedInstrument));
+        return savedInstrument;
+    }
 
-        // Note: Symbol and Venue are intentionally not updated here.
-        // Changing these would be a more complex operation like a delist/relist.
-        return instrumentRepository.save(existingInstrument);
+    /**
+     * Halts, suspends or resumes trading in a single instrument. Venue-wide
+     * halts and resumes go through VenueService instead.
+     *
+     * @throws InvalidRequestException   if no state is given.
+     * @throws ResourceNotFoundException if the instrument does not exist.
+     */
+    public Instrument updateTradingState(Long id, InstrumentTradingState state) {
+        if (state == null) {
+            throw new InvalidRequestException("Trading state must be one of ACTIVE, HALTED or SUSPENDED.");
+        }
+        Instrument instrument = loadInstrument(id);
+        instrument.setTradingState(state);
+        Instrument savedInstrument = instrumentRepository.save(instrument);
+        tradabilityIndex.putInstrumentState(id, state);
+        instrumentCache.evict(id);
+        evictVenue(savedInstrument.getVenue());
+        // Not part of the summaries the change log carries, but the ETags must still move
+        referenceDataVersion.bump();
+        return savedInstrument;
     }
 
     public void deleteInstrument(Long id) {
         // Check if the instrument exists before trying to delete to provide a clear
         // error.
-        if (!instrumentRepository.existsById(id)) {
+        if (!ReadRouting.onPrimary(() -> instrumentRepository.existsById(id))) {
             throw new ResourceNotFoundException("Instrument with ID " + id + " not found, cannot delete.");
         }
-        instrumentRepository.deleteById(id);
+        Optional<Long> venueId = instrumentRepository.findVenueIdById(id);
+        transactionTemplate.executeWithoutResult(transaction -> {
+            instrumentRepository.deleteById(id);
+            instrumentRepository.flush();
+            changeLog.instrumentDeleted(id);
+        });
+        tradabilityIndex.removeInstrument(id);
+        statistics.instrumentRemoved(id);
+        symbolIndex.remove(id);
+        instrumentCache.evict(id);
+        venueId.ifPresent(venueCache::evict);
     }
 
+    @Transactional(readOnly = true)
     public List<Instrument> findInstrumentsByVenueId(Long venueId) {
         return instrumentRepository.findByVenueId(venueId);
     }
 
+    @Transactional(readOnly = true)
+    public List<InstrumentSummary> findAllInstrumentSummaries() {
+        return instrumentRepository.findAllSummaries();
+    }
+
+    @Transactional(readOnly = true)
+    public List<InstrumentSummary> findInstrumentSummariesByVenueId(Long venueId) {
+        return instrumentRepository.findSummariesByVenueId(venueId);
+    }
+
+    /**
+     * Returns up to pageSize instruments with an ID greater than afterId, ordered
+     * by ID, optionally restricted to one venue.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<InstrumentSummary> findInstrumentSummaryPage(Long venueId, long afterId, int pageSize) {
+        PageRequest limit = PageRequest.ofSize(pageSize);
+        List<InstrumentSummary> rows = venueId == null
+                ? instrumentRepository.findSummariesAfter(afterId, limit)
+                : instrumentRepository.findSummariesByVenueIdAfter(venueId, afterId, limit);
+        return CursorPage.of(rows, pageSize, InstrumentSummary::id);
+    }
+
+    /**
+     * Searches instruments by any combination of venue, venue status, venue
+     * type, instrument type and symbol prefix, one keyset page at a time, in
+     * ID or symbol order.
+     *
+     * @param after the nextCursor of the previous page, or null for the first.
+     * @throws InvalidRequestException if the symbol prefix is blank or the cursor does not fit the sort.
+     */
+    @Transactional(readOnly = true)
+    public InstrumentSearchPage searchInstrumentSummaries(InstrumentCriteria criteria, InstrumentSort sort,
+            String after, int pageSize) {
+        String symbolPrefix = criteria.symbolPrefix();
+        if (symbolPrefix != null) {
+            if (symbolPrefix.isBlank()) {
+                throw new InvalidRequestException("Symbol prefix must not be blank.");
+            }
+            criteria = new InstrumentCriteria(criteria.venueId(), criteria.venueStatus(), criteria.venueType(),
+                    criteria.type(), NameKey.normalize(symbolPrefix));
+        }
+        if (after != null && sort == InstrumentSort.ID) {
+            try {
+                Long.parseLong(after);
+            } catch (NumberFormatException e) {
+                throw new InvalidRequestException("Cursor '" + after + "' is not an instrument ID.");
+            }
+        }
+        List<InstrumentSummary> rows = instrumentRepository.search(criteria, sort, after, pageSize);
+        return InstrumentSearchPage.of(rows, pageSize, sort);
+    }
+
+    /**
+     * Feeds instruments to the consumer, row by row, from a database cursor,
+     * optionally restricted to one venue. Memory use does not depend on how many
+     * instruments there are.
+     */
+    @Transactional(readOnly = true)
+    public void streamInstrumentSummaries(Long venueId, Consumer<InstrumentSummary> consumer) {
+        try (Stream<InstrumentSummary> rows = venueId == null
+                ? instrumentRepository.streamAllSummaries()
+                : instrumentRepository.streamSummariesByVenueId(venueId)) {
+            rows.forEach(consumer);
+        }
+    }
+
+    @Transactional(readOnly = true)
     public List<Instrument> findInstrumentsByType(InstrumentType type) {
         return instrumentRepository.findByType(type);
     }
 
+    @Transactional(readOnly = true)
     public List<Instrument> findInstrumentsBySymbol(String symbol) {
         return instrumentRepository.findBySymbolContainingIgnoreCase(symbol);
     }
 
+    /**
+     * Autocomplete over symbols and names, answered from the in-memory
+     * SymbolIndex. Symbol prefix matches come before name prefix matches.
+     *
+     * @throws InvalidRequestException if the query is blank or the limit is out of range.
+     */
+    public List<InstrumentSummary> autocompleteInstruments(String query, InstrumentType type, Long venueId,
+            Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new InvalidRequestException("Autocomplete query must not be blank.");
+        }
+        int resolvedLimit = limit == null ? DEFAULT_AUTOCOMPLETE_LIMIT : limit;
+        if (resolvedLimit < 1 || resolvedLimit > MAX_AUTOCOMPLETE_LIMIT) {
+            throw new InvalidRequestException(
+                    "Autocomplete limit must be between 1 and " + MAX_AUTOCOMPLETE_LIMIT + ".");
+        }
+        return symbolIndex.search(query, type, venueId, resolvedLimit);
+    }
+
+    /**
+     * Pre-trade check for a single order. The common case is answered from the
+     * TradabilityIndex without touching JPA or allocating; the database path is
+     * only taken when the index has no entry for the instrument or the order is
+     * about to be rejected (to build the error message). Every decision is
+     * written to the order audit log.
+     *
+     * Orders are throttled against the instrument's and its venue's rate
+     * limits once the index or the repository has shown that the instrument
+     * exists, so unknown IDs never create throttle buckets.
+     *
+     * @throws InvalidRequestException   if the ID is not positive.
+     * @throws OrderThrottledException   if the instrument or venue is over its rate limit.
+     * @throws ResourceNotFoundException if the instrument does not exist.
+     * @throws VenueClosedException      if the instrument's venue is not OPEN.
+     * @throws InstrumentNotActiveException if the instrument is halted or suspended.
+     */
     public void processOrder(Long instrumentId) {
+        if (instrumentId == null || instrumentId <= 0) {
+            throw new InvalidRequestException("Instrument ID must be a positive number.");
+        }
+        long venueId = tradabilityIndex.venueOf(instrumentId);
+        boolean indexed = venueId > 0;
+        if (indexed) {
+            throttle(instrumentId, venueId);
+            if (tradabilityIndex.check(instrumentId) == TradabilityIndex.Result.TRADABLE) {
+                orderAuditLog.record(instrumentId, venueId, OrderOutcome.ACCEPTED);
+                if (log.isDebugEnabled()) {
+                    log.debug("Order for instrument {} processed successfully.", instrumentId);
+                }
+                return;
+            }
+        }
+        processOrderFromRepository(instrumentId, indexed);
+    }
+
+    private void throttle(long instrumentId, long venueId) {
+        long retryAfter = orderThrottle.tryAcquire(instrumentId, venueId);
+        if (retryAfter != OrderThrottle.ALLOWED) {
+            orderAuditLog.record(instrumentId, venueId, OrderOutcome.REJECTED_THROTTLED);
+            throw new OrderThrottledException(throttledMessage(instrumentId, retryAfter), retryAfter);
+        }
+    }
+
+    private void processOrderFromRepository(Long instrumentId, boolean throttled) {
         // Retrieve the instrument and its associated venue
-        Instrument instrument = findInstrumentById(instrumentId);
+        Instrument instrument;
+        try {
+            instrument = findInstrumentById(instrumentId);
+        } catch (ResourceNotFoundException e) {
+            orderAuditLog.record(instrumentId, 0, OrderOutcome.REJECTED_NOT_FOUND);
+            throw e;
+        }
         Venue venue = instrument.getVenue();
+        if (!throttled) {
+            throttle(instrumentId, venue.getId());
+        }
+
+        // Repair the index so the next order for this instrument takes the fast path
+        tradabilityIndex.putInstrumentIfAbsent(instrument.getId(), venue.getId(), instrument.getTradingState());
+        tradabilityIndex.putVenueIfAbsent(venue.getId(), venue.getStatus());
 
         // Ensure the venue is open for trading
         if (venue.getStatus() != VenueStatus.OPEN) {
-            throw new VenueClosedException(
-                    "Cannot process order. Venue '" + venue.getName() + "' is currently " + venue.getStatus() + ".");
+            orderAuditLog.record(instrumentId, venue.getId(), OrderOutcome.REJECTED_VENUE_CLOSED);
+            throw new VenueClosedException(venueClosedMessage(venue));
+        }
+
+        // And the instrument itself is not halted or suspended
+        if (instrument.getTradingState() != InstrumentTradingState.ACTIVE) {
+            orderAuditLog.record(instrumentId, venue.getId(), OrderOutcome.REJECTED_INSTRUMENT_NOT_ACTIVE);
+            throw new InstrumentNotActiveException(instrumentNotActiveMessage(instrument));
+        }
+
+        orderAuditLog.record(instrumentId, venue.getId(), OrderOutcome.ACCEPTED);
+        log.debug("Order for instrument {} processed successfully at {}.", instrument.getSymbol(), venue.getName());
+    }
+
+    /**
+     * Pre-trade check for a batch of orders. Instrument IDs are de-duplicated and
+     * resolved with one set-based query per chunk of IDs, and each distinct
+     * venue's status is evaluated once. Orders are never thrown for individually;
+     * each gets an accept/reject result in request order. Each order found
+     * takes a token from its instrument's and venue's rate limits, and is
+     * rejected if either has run out.
+     *
+     * @throws InvalidRequestException if the batch is empty, too large or has a
+     *                                 null order.
+     */
+    @Transactional(readOnly = true)
+    public BatchOrderResponse processOrders(List<OrderRequest> orders) {
+        if (orders == null || orders.isEmpty()) {
+            throw new InvalidRequestException("Order batch must contain at least one order.");
+        }
+        if (orders.size() > MAX_ORDER_BATCH_SIZE) {
+            throw new InvalidRequestException(
+                    "Order batch of " + orders.size() + " exceeds the limit of " + MAX_ORDER_BATCH_SIZE + ".");
         }
 
-        // --- Simplified order processing logic ---
-        // In a real system, this could involve sending the order to a trading engine or
-        // message queue.
-        // Here, we simply log the successful processing.
-        System.out.println(
-                "Order for instrument " + instrument.getSymbol() + " processed successfully at " + venue.getName()
-                        + ".");
+        Set<Long> instrumentIds = new HashSet<>();
+        for (int i = 0; i < orders.size(); i++) {
+            OrderRequest order = orders.get(i);
+            if (order == null) {
+                throw new InvalidRequestException("Order at index " + i + " of the batch is null.");
+            }
+            if (order.instrumentId() != null) {
+                instrumentIds.add(order.instrumentId());
+            }
+        }
+
+        Map<Long, Instrument> instrumentsById = new HashMap<>(instrumentIds.size() * 2);
+        List<Long> ids = new ArrayList<>(instrumentIds);
+        // Decides orders and repairs the TradabilityIndex, so a lagging replica will not do
+        ReadRouting.onPrimary(() -> {
+            for (int from = 0; from < ids.size(); from += ORDER_LOOKUP_CHUNK_SIZE) {
+                List<Long> chunk = ids.subList(from, Math.min(from + ORDER_LOOKUP_CHUNK_SIZE, ids.size()));
+                for (Instrument instrument : instrumentRepository.findAllWithVenueByIdIn(chunk)) {
+                    instrumentsById.put(instrument.getId(), instrument);
+                }
+            }
+            return instrumentsById;
+        });
+
+        // One decision per venue: null means open, otherwise the rejection reason
+        Map<Long, String> venueRejections = new HashMap<>();
+        Set<Long> checkedVenues = new HashSet<>();
+        for (Instrument instrument : instrumentsById.values()) {
+            Venue venue = instrument.getVenue();
+            tradabilityIndex.putInstrumentIfAbsent(instrument.getId(), venue.getId(), instrument.getTradingState());
+            if (checkedVenues.add(venue.getId())) {
+                tradabilityIndex.putVenueIfAbsent(venue.getId(), venue.getStatus());
+                if (venue.getStatus() != VenueStatus.OPEN) {
+                    venueRejections.put(venue.getId(), venueClosedMessage(venue));
+                }
+            }
+        }
+
+        List<OrderResult> results = new ArrayList<>(orders.size());
+        for (OrderRequest order : orders) {
+            Instrument instrument = order.instrumentId() == null ? null : instrumentsById.get(order.instrumentId());
+            if (instrument == null) {
+                if (order.instrumentId() != null) {
+                    orderAuditLog.record(order.instrumentId(), 0, OrderOutcome.REJECTED_NOT_FOUND);
+                }
+                results.add(OrderResult.rejected(order,
+                        "Instrument with ID " + order.instrumentId() + " not found."));
+                continue;
+            }
+            Long venueId = instrument.getVenue().getId();
+            long retryAfter = orderThrottle.tryAcquire(instrument.getId(), venueId);
+            if (retryAfter != OrderThrottle.ALLOWED) {
+                orderAuditLog.record(instrument.getId(), venueId, OrderOutcome.REJECTED_THROTTLED);
+                results.add(OrderResult.rejected(order, throttledMessage(instrument.getId(), retryAfter)));
+                continue;
+            }
+            String rejection = venueRejections.get(venueId);
+            OrderOutcome outcome = rejection == null ? OrderOutcome.ACCEPTED : OrderOutcome.REJECTED_VENUE_CLOSED;
+            if (rejection == null && instrument.getTradingState() != InstrumentTradingState.ACTIVE) {
+                rejection = instrumentNotActiveMessage(instrument);
+                outcome = OrderOutcome.REJECTED_INSTRUMENT_NOT_ACTIVE;
+            }
+            orderAuditLog.record(instrument.getId(), venueId, outcome);
+            results.add(rejection == null ? OrderResult.accepted(order) : OrderResult.rejected(order, rejection));
+        }
+
+        BatchOrderResponse response = BatchOrderResponse.of(results);
+        log.debug("Processed order batch: {} accepted, {} rejected.", response.accepted(), response.rejected());
+        return response;
+    }
+
+    private static String throttledMessage(long instrumentId, long retryAfterNanos) {
+        return "Order rate limit exceeded for instrument " + instrumentId + ". Retry in "
+                + Math.max(1, retryAfterNanos / 1_000_000) + " ms.";
+    }
+
+    private static String venueClosedMessage(Venue venue) {
+        return "Cannot process order. Venue '" + venue.getName() + "' is currently " + venue.getStatus() + ".";
+    }
+
+    private static String instrumentNotActiveMessage(Instrument instrument) {
+        return "Cannot process order. Instrument '" + instrument.getSymbol() + "' is currently "
+                + instrument.getTradingState() + ".";
+    }
+
+    // The change log holds its lock through the commit, which must not be left a flush to wait on
+    private Instrument saveFlushed(Instrument instrument) {
+        Instrument saved = instrumentRepository.save(instrument);
+        instrumentRepository.flush();
+        return saved;
+    }
+
+    private void recordStatistics(Instrument instrument) {
+        if (instrument.getVenue() != null) {
+            statistics.instrumentSaved(instrument.getId(), instrument.getVenue().getId(), instrument.getType());
+        }
+    }
+
+    private void evictVenue(Venue venue) {
+        if (venue != null) {
+            venueCache.evict(venue.getId());
+        }
     }
 
 }
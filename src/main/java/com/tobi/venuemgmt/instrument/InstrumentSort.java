@@ -0,0 +1,27 @@
+package com.tobi.venuemgmt.instrument;
+
+import com.tobi.venuemgmt.common.NameKey;
+
+/**
+ * Orderings the instrument search supports. Each one sorts on a unique,
+ * indexed column, so the last row of a page is a complete keyset cursor.
+ */
+public enum InstrumentSort {
+
+    ID("id"),
+    SYMBOL("symbolKey");
+
+    private final String attribute;
+
+    InstrumentSort(String attribute) {
+        this.attribute = attribute;
+    }
+
+    String attribute() {
+        return attribute;
+    }
+
+    String cursorOf(InstrumentSummary instrument) {
+        return this == ID ? String.valueOf(instrument.id()) : NameKey.normalize(instrument.symbol());
+    }
+}
@@ -0,0 +1,67 @@
+package com.tobi.venuemgmt.instrument;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+
+/**
+ * Predicates the instrument search is composed from. Each one is written so
+ * that it can be answered from an index: equality and IN on indexed columns,
+ * and symbol prefixes as a range on symbol_key rather than a LIKE, which
+ * some databases cannot match against an index when the pattern is a bind
+ * parameter.
+ */
+public final class InstrumentSpecifications {
+
+    private InstrumentSpecifications() {
+    }
+
+    public static Specification<Instrument> venueIdIs(Long venueId) {
+        return (instrument, query, cb) -> cb.equal(instrument.get("venue").get("id"), venueId);
+    }
+
+    public static Specification<Instrument> venueIdIn(Collection<Long> venueIds) {
+        return (instrument, query, cb) -> instrument.get("venue").get("id").in(venueIds);
+    }
+
+    public static Specification<Instrument> typeIs(InstrumentType type) {
+        return (instrument, query, cb) -> cb.equal(instrument.get("type"), type);
+    }
+
+    /**
+     * Normalized symbols starting with the prefix, which must itself be
+     * normalized: symbolKey >= prefix and below the next possible prefix.
+     */
+    public static Specification<Instrument> symbolKeyStartsWith(String prefix) {
+        String upperBound = nextPrefix(prefix);
+        return (instrument, query, cb) -> upperBound == null
+                ? cb.greaterThanOrEqualTo(instrument.<String>get("symbolKey"), prefix)
+                : cb.and(cb.greaterThanOrEqualTo(instrument.<String>get("symbolKey"), prefix),
+                        cb.lessThan(instrument.<String>get("symbolKey"), upperBound));
+    }
+
+    /**
+     * Rows after the keyset cursor in the given sort order. Without a cursor
+     * this is still a range on the sort column (everything after 0 or the
+     * empty string), so the first page reads the same index as the others.
+     */
+    public static Specification<Instrument> after(InstrumentSort sort, String cursor) {
+        if (sort == InstrumentSort.ID) {
+            long afterId = cursor == null ? 0 : Long.parseLong(cursor);
+            return (instrument, query, cb) -> cb.greaterThan(instrument.<Long>get("id"), afterId);
+        }
+        String afterKey = cursor == null ? "" : cursor;
+        return (instrument, query, cb) -> cb.greaterThan(instrument.<String>get("symbolKey"), afterKey);
+    }
+
+    // The smallest string greater than every string starting with prefix, or null if there is none
+    static String nextPrefix(String prefix) {
+        for (int i = prefix.length() - 1; i >= 0; i--) {
+            char c = prefix.charAt(i);
+            if (c != Character.MAX_VALUE) {
+                return prefix.substring(0, i) + (char) (c + 1);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,13 @@
+package com.tobi.venuemgmt.instrument;
+
+/**
+ * Flat view of an instrument that refers to its venue by ID only, used for
+ * shallow list responses.
+ */
+public record InstrumentSummary(Long id, String symbol, String name, InstrumentType type, Long venueId) {
+
+    public static InstrumentSummary of(Instrument instrument) {
+        return new InstrumentSummary(instrument.getId(), instrument.getSymbol(), instrument.getName(),
+                instrument.getType(), instrument.getVenue() == null ? null : instrument.getVenue().getId());
+    }
+}
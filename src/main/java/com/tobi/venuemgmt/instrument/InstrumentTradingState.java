@@ -0,0 +1,25 @@
+package com.tobi.venuemgmt.instrument;
+
+/**
+ * Whether an instrument can be traded, independently of its venue's status.
+ * Orders are only accepted for ACTIVE instruments on OPEN venues.
+ */
+public enum InstrumentTradingState {
+
+    /**
+     * The instrument trades whenever its venue is open.
+     */
+    ACTIVE,
+
+    /**
+     * Trading is stopped, usually for the whole venue at once; resuming the
+     * venue makes its halted instruments ACTIVE again.
+     */
+    HALTED,
+
+    /**
+     * Trading is stopped for this instrument alone. Venue-wide halts and
+     * resumes leave it suspended.
+     */
+    SUSPENDED
+}
@@ -0,0 +1,10 @@
+package com.tobi.venuemgmt.instrument;
+
+/**
+ * A single order in a batch submission.
+ *
+ * @param clientOrderId caller-supplied reference echoed back in the result
+ * @param instrumentId  the instrument to trade
+ */
+public record OrderRequest(String clientOrderId, Long instrumentId) {
+}
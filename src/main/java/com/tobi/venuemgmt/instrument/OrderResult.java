@@ -0,0 +1,16 @@
+package com.tobi.venuemgmt.instrument;
+
+/**
+ * Outcome of one order in a batch submission. Rejected orders carry the same
+ * reason the single-order path would have thrown.
+ */
+public record OrderResult(String clientOrderId, Long instrumentId, boolean accepted, String reason) {
+
+    static OrderResult accepted(OrderRequest order) {
+        return new OrderResult(order.clientOrderId(), order.instrumentId(), true, null);
+    }
+
+    static OrderResult rejected(OrderRequest order, String reason) {
+        return new OrderResult(order.clientOrderId(), order.instrumentId(), false, reason);
+    }
+}
@@ -0,0 +1,168 @@
+package com.tobi.venuemgmt.instrument;
+
+import com.tobi.venuemgmt.common.collections.LongLongHashMap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Order rate limits per instrument and per venue, so one runaway client
+ * cannot flood a venue. An order takes a token from its instrument's bucket
+ * and from its venue's bucket, and is rejected if either is empty.
+ *
+ * Each bucket is one long: the theoretical arrival time of the next order
+ * under the configured rate (the generic cell rate algorithm). An order is
+ * allowed while that time is no more than burst intervals ahead of now.
+ *
+ * Buckets are spread over lock stripes by key, each stripe with its own lock
+ * and primitive map, so threads working on different venues rarely share a
+ * lock and a check does not allocate. A rate of 0 or less turns that limit
+ * off. A bucket whose theoretical arrival time has passed is full, the same
+ * as no bucket at all, so once a stripe has doubled in size since its last
+ * sweep such buckets are dropped. Memory follows the keys that have ordered
+ * within the last burst window, not every key ever seen.
+ */
+@Component
+public class OrderThrottle {
+
+    /** Returned by {@link #tryAcquire} when the order may proceed. */
+    public static final long ALLOWED = 0;
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    // Stripes are not swept until they hold this many buckets
+    private static final int MIN_SWEEP_SIZE = 1024;
+
+    private record Limit(long intervalNanos, long toleranceNanos) {
+
+        static Limit of(double ratePerSecond, int burst) {
+            if (ratePerSecond <= 0) {
+                return null;
+            }
+            long interval = Math.max(1, Math.round(NANOS_PER_SECOND / ratePerSecond));
+            return new Limit(interval, interval * Math.max(1, burst));
+        }
+    }
+
+    private static final class Stripe {
+        // Padding keeps the locks of neighbouring stripes off one cache line
+        long p1, p2, p3, p4, p5, p6, p7;
+        final LongLongHashMap nextArrival = new LongLongHashMap(64);
+        int sweepSize = MIN_SWEEP_SIZE;
+    }
+
+    private final Limit instrumentLimit;
+    private final Limit venueLimit;
+    private final Stripe[] instrumentStripes;
+    private final Stripe[] venueStripes;
+    private final int stripeMask;
+    private final LongSupplier nanoClock;
+
+    @Autowired
+    public OrderThrottle(@Value("${app.orders.throttle.instrument.rate-per-second:500}") double instrumentRate,
+            @Value("${app.orders.throttle.instrument.burst:100}") int instrumentBurst,
+            @Value("${app.orders.throttle.venue.rate-per-second:5000}") double venueRate,
+            @Value("${app.orders.throttle.venue.burst:1000}") int venueBurst,
+            @Value("${app.orders.throttle.stripes:0}") int stripes) {
+        this(instrumentRate, instrumentBurst, venueRate, venueBurst, stripes, System::nanoTime);
+    }
+
+    /**
+     * @param stripes lock stripes per limit, rounded up to a power of two; 0
+     *                for four per available processor.
+     */
+    OrderThrottle(double instrumentRate, int instrumentBurst, double venueRate, int venueBurst, int stripes,
+            LongSupplier nanoClock) {
+        this.instrumentLimit = Limit.of(instrumentRate, instrumentBurst);
+        this.venueLimit = Limit.of(venueRate, venueBurst);
+        int stripeCount = Integer.highestOneBit(Math.max(1,
+                (stripes > 0 ? stripes : Runtime.getRuntime().availableProcessors() * 4) * 2 - 1));
+        this.instrumentStripes = newStripes(stripeCount);
+        this.venueStripes = newStripes(stripeCount);
+        this.stripeMask = stripeCount - 1;
+        this.nanoClock = nanoClock;
+    }
+
+    private static Stripe[] newStripes(int count) {
+        Stripe[] stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe();
+        }
+        return stripes;
+    }
+
+    /**
+     * Takes a token for an order on the instrument and venue. Either token is
+     * only taken if both are available.
+     *
+     * @param venueId the instrument's venue, or a value below 1 if unknown,
+     *                in which case only the instrument limit applies.
+     * @return {@link #ALLOWED}, or the nanoseconds until the order would be allowed.
+     */
+    public long tryAcquire(long instrumentId, long venueId) {
+        long now = nanoClock.getAsLong();
+        long wait = instrumentLimit == null ? ALLOWED : acquire(instrumentStripes, instrumentLimit, instrumentId, now);
+        if (wait != ALLOWED || venueLimit == null || venueId < 1) {
+            return wait;
+        }
+        wait = acquire(venueStripes, venueLimit, venueId, now);
+        if (wait != ALLOWED && instrumentLimit != null) {
+            release(instrumentStripes, instrumentLimit, instrumentId);
+        }
+        return wait;
+    }
+
+    private long acquire(Stripe[] stripes, Limit limit, long key, long now) {
+        Stripe stripe = stripes[stripeIndex(key)];
+        synchronized (stripe) {
+            long next = Math.max(stripe.nextArrival.get(key, now), now) + limit.intervalNanos();
+            long wait = next - now - limit.toleranceNanos();
+            if (wait > 0) {
+                return wait;
+            }
+            stripe.nextArrival.put(key, next);
+            if (stripe.nextArrival.size() >= stripe.sweepSize) {
+                evictIdle(stripe, now);
+            }
+            return ALLOWED;
+        }
+    }
+
+    // Must hold the stripe's lock
+    private static void evictIdle(Stripe stripe, long now) {
+        stripe.nextArrival.removeIf((key, next) -> next <= now);
+        stripe.sweepSize = Math.max(MIN_SWEEP_SIZE, stripe.nextArrival.size() * 2);
+    }
+
+    /**
+     * Number of buckets held across both limits.
+     */
+    int bucketCount() {
+        int count = 0;
+        for (Stripe[] stripes : new Stripe[][] {instrumentStripes, venueStripes}) {
+            for (Stripe stripe : stripes) {
+                synchronized (stripe) {
+                    count += stripe.nextArrival.size();
+                }
+            }
+        }
+        return count;
+    }
+
+    private void release(Stripe[] stripes, Limit limit, long key) {
+        Stripe stripe = stripes[stripeIndex(key)];
+        synchronized (stripe) {
+            long next = stripe.nextArrival.get(key, Long.MIN_VALUE);
+            if (next != Long.MIN_VALUE) {
+                stripe.nextArrival.put(key, next - limit.intervalNanos());
+            }
+        }
+    }
+
+    private int stripeIndex(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & stripeMask;
+    }
+}
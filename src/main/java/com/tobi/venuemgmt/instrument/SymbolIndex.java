@@ -0,0 +1,189 @@
+package com.tobi.venuemgmt.instrument;
+
+import com.tobi.venuemgmt.common.NameKey;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+/**
+ * In-memory prefix index over instrument symbols and names, used for
+ * autocomplete instead of a leading-wildcard LIKE scan.
+ *
+ * Symbols and names are kept in sorted skip lists keyed by their normalized
+ * form (see NameKey), so a prefix is a range lookup: O(log n) to find the
+ * start, then one step per returned (or filtered-out) entry. Each venue has
+ * its own pair of lists as well, so a venue filter only walks that venue's
+ * instruments; a type filter walks the shared lists (types are few, so
+ * matches are dense).
+ *
+ * Readers do not lock. Writers are serialized so replacing an instrument's
+ * entries is atomic with respect to other writers; a concurrent reader may
+ * see the old or the new entry.
+ */
+@Component
+public class SymbolIndex {
+
+    // Sorts before any character, so "AAPL" comes before "AAPL.L" and exact matches first
+    private static final char ID_SEPARATOR = '\u0000';
+
+    private final PrefixLists all = new PrefixLists();
+    private final Map<Long, PrefixLists> byVenue = new ConcurrentHashMap<>();
+    private final Map<Long, InstrumentSummary> byId = new ConcurrentHashMap<>();
+
+    /**
+     * Symbol and name entries for one set of instruments.
+     */
+    private static final class PrefixLists {
+        private final ConcurrentSkipListMap<String, InstrumentSummary> bySymbol = new ConcurrentSkipListMap<>();
+        // Names are not unique; keyed by normalized name plus ID
+        private final ConcurrentSkipListMap<String, InstrumentSummary> byName = new ConcurrentSkipListMap<>();
+
+        void add(String symbolKey, String nameKey, InstrumentSummary instrument) {
+            bySymbol.put(symbolKey, instrument);
+            if (nameKey != null) {
+                byName.put(nameKey, instrument);
+            }
+        }
+
+        void remove(String symbolKey, String nameKey, InstrumentSummary instrument) {
+            bySymbol.remove(symbolKey, instrument);
+            if (nameKey != null) {
+                byName.remove(nameKey, instrument);
+            }
+        }
+
+        boolean isEmpty() {
+            return bySymbol.isEmpty();
+        }
+    }
+
+    /**
+     * Returns up to limit instruments whose symbol, or failing that name,
+     * starts with the query (case-insensitive). Symbol matches come first,
+     * shortest symbol first. Type and venue filters are optional.
+     */
+    public List<InstrumentSummary> search(String query, InstrumentType type, Long venueId, int limit) {
+        String prefix = NameKey.normalize(query);
+        List<InstrumentSummary> matches = new ArrayList<>(Math.min(limit, 16));
+        if (prefix == null || prefix.isEmpty() || limit <= 0) {
+            return matches;
+        }
+        PrefixLists lists = venueId == null ? all : byVenue.get(venueId);
+        if (lists == null) {
+            return matches;
+        }
+        collect(lists.bySymbol, prefix, type, limit, matches);
+        if (matches.size() < limit) {
+            collect(lists.byName, prefix, type, limit, matches);
+        }
+        return matches;
+    }
+
+    private static void collect(NavigableMap<String, InstrumentSummary> index, String prefix, InstrumentType type,
+            int limit, List<InstrumentSummary> matches) {
+        for (InstrumentSummary instrument : index.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+            if ((type == null || type == instrument.type()) && !containsId(matches, instrument.id())) {
+                matches.add(instrument);
+                if (matches.size() == limit) {
+                    return;
+                }
+            }
+        }
+    }
+
+    // Only called on lists of at most "limit" entries
+    private static boolean containsId(List<InstrumentSummary> matches, Long id) {
+        for (InstrumentSummary match : matches) {
+            if (match.id().equals(id)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds an instrument or replaces its previous entries.
+     */
+    public synchronized void put(InstrumentSummary instrument) {
+        if (instrument == null || instrument.id() == null || instrument.symbol() == null) {
+            return;
+        }
+        InstrumentSummary previous = byId.put(instrument.id(), instrument);
+        if (previous != null) {
+            unindex(previous);
+        }
+        String symbolKey = NameKey.normalize(instrument.symbol());
+        String nameKey = nameKey(instrument);
+        all.add(symbolKey, nameKey, instrument);
+        if (instrument.venueId() != null) {
+            byVenue.computeIfAbsent(instrument.venueId(), id -> new PrefixLists()).add(symbolKey, nameKey, instrument);
+        }
+    }
+
+    public synchronized void remove(Long instrumentId) {
+        if (instrumentId == null) {
+            return;
+        }
+        InstrumentSummary previous = byId.remove(instrumentId);
+        if (previous != null) {
+            unindex(previous);
+        }
+    }
+
+    /**
+     * Removes every instrument listed on the venue.
+     */
+    public synchronized void removeVenue(Long venueId) {
+        if (venueId == null) {
+            return;
+        }
+        PrefixLists venueLists = byVenue.remove(venueId);
+        if (venueLists == null) {
+            return;
+        }
+        for (InstrumentSummary instrument : venueLists.bySymbol.values()) {
+            byId.remove(instrument.id(), instrument);
+            all.remove(NameKey.normalize(instrument.symbol()), nameKey(instrument), instrument);
+        }
+    }
+
+    /**
+     * Replaces the whole index, e.g. from a full database scan at startup.
+     */
+    public synchronized void load(Stream<InstrumentSummary> instruments) {
+        byId.clear();
+        byVenue.clear();
+        all.bySymbol.clear();
+        all.byName.clear();
+        instruments.forEach(this::put);
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    private void unindex(InstrumentSummary instrument) {
+        String symbolKey = NameKey.normalize(instrument.symbol());
+        String nameKey = nameKey(instrument);
+        all.remove(symbolKey, nameKey, instrument);
+        if (instrument.venueId() != null) {
+            PrefixLists venueLists = byVenue.get(instrument.venueId());
+            if (venueLists != null) {
+                venueLists.remove(symbolKey, nameKey, instrument);
+                if (venueLists.isEmpty()) {
+                    byVenue.remove(instrument.venueId());
+                }
+            }
+        }
+    }
+
+    private static String nameKey(InstrumentSummary instrument) {
+        return instrument.name() == null ? null : NameKey.normalize(instrument.name()) + ID_SEPARATOR + instrument.id();
+    }
+}
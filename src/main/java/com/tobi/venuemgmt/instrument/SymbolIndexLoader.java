@@ -0,0 +1,37 @@
+package com.tobi.venuemgmt.instrument;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.stream.Stream;
+
+/**
+ * Fills the SymbolIndex from the database once all beans are created, before
+ * the web server starts accepting requests.
+ */
+@Component
+public class SymbolIndexLoader implements SmartInitializingSingleton {
+
+    private final SymbolIndex symbolIndex;
+    private final InstrumentRepository instrumentRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public SymbolIndexLoader(SymbolIndex symbolIndex, InstrumentRepository instrumentRepository,
+            TransactionTemplate transactionTemplate) {
+        this.symbolIndex = symbolIndex;
+        this.instrumentRepository = instrumentRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        transactionTemplate.executeWithoutResult(tx -> {
+            try (Stream<InstrumentSummary> instruments = instrumentRepository.streamAllSummaries()) {
+                symbolIndex.load(instruments);
+            }
+        });
+    }
+}
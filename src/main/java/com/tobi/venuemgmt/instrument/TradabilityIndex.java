@@ -0,0 +1,347 @@
+package com.tobi.venuemgmt.instrument;
+
+import com.tobi.venuemgmt.common.collections.LongLongHashMap;
+import com.tobi.venuemgmt.venue.VenueStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * In-memory answer to "is instrument X tradable right now", used by the order
+ * hot path instead of loading Instrument and Venue through JPA.
+ *
+ * Holds three primitive maps: instrument ID to venue ID, venue ID to
+ * VenueStatus ordinal, and instrument ID to InstrumentTradingState ordinal for
+ * the instruments that are not ACTIVE. Readers use an optimistic StampedLock
+ * read and do not allocate; writers (venue/instrument mutators and the
+ * startup loader) take the write lock. An UNKNOWN answer means the index has
+ * no opinion and the caller should fall back to the database.
+ */
+@Component
+public class TradabilityIndex {
+
+    public enum Result {
+        TRADABLE,
+        VENUE_CLOSED,
+        INSTRUMENT_NOT_ACTIVE,
+        UNKNOWN
+    }
+
+    private static final long MISSING = -1L;
+    private static final VenueStatus[] STATUSES = VenueStatus.values();
+    private static final long ACTIVE = InstrumentTradingState.ACTIVE.ordinal();
+
+    private final StampedLock lock = new StampedLock();
+    private final LongLongHashMap venueByInstrument = new LongLongHashMap(1024);
+    private final LongLongHashMap statusByVenue = new LongLongHashMap(64);
+    // Absent means ACTIVE
+    private final LongLongHashMap stateByInstrument = new LongLongHashMap(64);
+
+    public Result check(long instrumentId) {
+        long stamp = lock.tryOptimisticRead();
+        Result result = lookup(instrumentId);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                result = lookup(instrumentId);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the venue the index has for the instrument, or -1 if none.
+     */
+    public long venueOf(long instrumentId) {
+        long stamp = lock.tryOptimisticRead();
+        long venueId = venueByInstrument.get(instrumentId, MISSING);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                venueId = venueByInstrument.get(instrumentId, MISSING);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return venueId;
+    }
+
+    private Result lookup(long instrumentId) {
+        long venueId = venueByInstrument.get(instrumentId, MISSING);
+        if (venueId == MISSING) {
+            return Result.UNKNOWN;
+        }
+        long ordinal = statusByVenue.get(venueId, MISSING);
+        if (ordinal < 0 || ordinal >= STATUSES.length) {
+            return Result.UNKNOWN;
+        }
+        if (STATUSES[(int) ordinal] != VenueStatus.OPEN) {
+            return Result.VENUE_CLOSED;
+        }
+        return stateByInstrument.get(instrumentId, ACTIVE) == ACTIVE ? Result.TRADABLE : Result.INSTRUMENT_NOT_ACTIVE;
+    }
+
+    public void putVenue(Long venueId, VenueStatus status) {
+        if (venueId == null || status == null) {
+            return;
+        }
+        long stamp = lock.writeLock();
+        try {
+            statusByVenue.put(venueId, status.ordinal());
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Records several venue statuses under one write lock, so a reader sees
+     * either none or all of them.
+     */
+    public void putVenues(Map<Long, VenueStatus> statuses) {
+        long stamp = lock.writeLock();
+        try {
+            statuses.forEach((venueId, status) -> {
+                if (venueId != null && status != null) {
+                    statusByVenue.put(venueId, status.ordinal());
+                }
+            });
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Records a venue status only if the index has none yet. Used when repairing
+     * the index from a possibly stale read, so it never overwrites a newer status.
+     */
+    public void putVenueIfAbsent(Long venueId, VenueStatus status) {
+        if (venueId == null || status == null) {
+            return;
+        }
+        long stamp = lock.writeLock();
+        try {
+            if (statusByVenue.get(venueId, MISSING) == MISSING) {
+                statusByVenue.put(venueId, status.ordinal());
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Forgets a venue and every instrument listed on it.
+     */
+    public void removeVenue(Long venueId) {
+        if (venueId == null) {
+            return;
+        }
+        long stamp = lock.writeLock();
+        try {
+            statusByVenue.remove(venueId);
+            venueByInstrument.removeIfValue(v -> v == venueId);
+            stateByInstrument.removeIf((instrumentId, state) -> venueByInstrument.get(instrumentId, MISSING) == MISSING);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void putInstrument(Long instrumentId, Long venueId) {
+        if (instrumentId == null || venueId == null) {
+            return;
+        }
+        long stamp = lock.writeLock();
+        try {
+            venueByInstrument.put(instrumentId, venueId);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * As {@link #putInstrument(Long, Long)}, also recording the instrument's
+     * trading state, e.g. when repairing the index from a database read.
+     */
+    public void putInstrument(Long instrumentId, Long venueId, InstrumentTradingState state) {
+        if (instrumentId == null || venueId == null || state == null) {
+            return;
+        }
+        long stamp = lock.writeLock();
+        try {
+            venueByInstrument.put(instrumentId, venueId);
+            putState(instrumentId, state.ordinal());
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Records an instrument, its venue and its trading state only if the index
+     * has no entry for it yet. Used when repairing the index from a possibly
+     * stale read, so it never undoes a newer change such as a halt cascade.
+     */
+    public void putInstrumentIfAbsent(Long instrumentId, Long venueId, InstrumentTradingState state) {
+        if (instrumentId == null || venueId == null || state == null) {
+            return;
+        }
+        long stamp = lock.writeLock();
+        try {
+            if (venueByInstrument.get(instrumentId, MISSING) == MISSING) {
+                venueByInstrument.put(instrumentId, venueId);
+                putState(instrumentId, state.ordinal());
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void removeInstrument(Long instrumentId) {
+        if (instrumentId == null) {
+            return;
+        }
+        long stamp = lock.writeLock();
+        try {
+            venueByInstrument.remove(instrumentId);
+            stateByInstrument.remove(instrumentId);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void putInstrumentState(Long instrumentId, InstrumentTradingState state) {
+        if (instrumentId == null || state == null) {
+            return;
+        }
+        long stamp = lock.writeLock();
+        try {
+            putState(instrumentId, state.ordinal());
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Moves every instrument of the venue that is in state {@code from} to
+     * state {@code to}, under one write lock, so a reader sees either none or
+     * all of the venue's instruments change. Mirrors the set-based update of
+     * InstrumentRepository.updateTradingStateByVenueId.
+     *
+     * Halting scans every instrument the index holds; resuming only scans the
+     * instruments that are not ACTIVE.
+     */
+    public void cascadeInstrumentState(Long venueId, InstrumentTradingState from, InstrumentTradingState to) {
+        if (venueId == null) {
+            return;
+        }
+        cascadeInstrumentStates(List.of(venueId), from, to);
+    }
+
+    /**
+     * cascadeInstrumentState for several venues at once: one scan and one
+     * write lock for the whole batch, however many venues it holds.
+     */
+    public void cascadeInstrumentStates(Collection<Long> venueIds, InstrumentTradingState from,
+            InstrumentTradingState to) {
+        if (venueIds.isEmpty() || from == null || to == null || from == to) {
+            return;
+        }
+        // Used as a set; the value only marks presence
+        LongLongHashMap venues = new LongLongHashMap(venueIds.size());
+        for (Long venueId : venueIds) {
+            if (venueId != null) {
+                venues.put(venueId, 1L);
+            }
+        }
+        long fromOrdinal = from.ordinal();
+        long toOrdinal = to.ordinal();
+        long stamp = lock.writeLock();
+        try {
+            if (from == InstrumentTradingState.ACTIVE) {
+                venueByInstrument.forEach((instrumentId, venueId) -> {
+                    if (venues.get(venueId, MISSING) != MISSING
+                            && stateByInstrument.get(instrumentId, ACTIVE) == ACTIVE) {
+                        stateByInstrument.put(instrumentId, toOrdinal);
+                    }
+                });
+            } else if (to == InstrumentTradingState.ACTIVE) {
+                stateByInstrument.removeIf((instrumentId, state) -> state == fromOrdinal
+                        && venues.get(venueByInstrument.get(instrumentId, MISSING), MISSING) != MISSING);
+            } else {
+                LongLongHashMap moved = new LongLongHashMap(64);
+                stateByInstrument.forEach((instrumentId, state) -> {
+                    if (state == fromOrdinal
+                            && venues.get(venueByInstrument.get(instrumentId, MISSING), MISSING) != MISSING) {
+                        moved.put(instrumentId, toOrdinal);
+                    }
+                });
+                moved.forEach(stateByInstrument::put);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private void putState(long instrumentId, long ordinal) {
+        if (ordinal == ACTIVE) {
+            stateByInstrument.remove(instrumentId);
+        } else {
+            stateByInstrument.put(instrumentId, ordinal);
+        }
+    }
+
+    /**
+     * Replaces the whole index, e.g. from a full database scan at startup.
+     *
+     * @param venueStatuses     rows of [venue ID, VenueStatus]
+     * @param instrumentVenues  rows of [instrument ID, venue ID]
+     */
+    public void load(Iterable<Object[]> venueStatuses, Iterable<Object[]> instrumentVenues) {
+        load(venueStatuses, instrumentVenues, List.of());
+    }
+
+    /**
+     * As {@link #load(Iterable, Iterable)}, with the trading states of the
+     * instruments that are not ACTIVE.
+     *
+     * @param instrumentStates rows of [instrument ID, InstrumentTradingState]
+     */
+    public void load(Iterable<Object[]> venueStatuses, Iterable<Object[]> instrumentVenues,
+            Iterable<Object[]> instrumentStates) {
+        long stamp = lock.writeLock();
+        try {
+            statusByVenue.clear();
+            venueByInstrument.clear();
+            stateByInstrument.clear();
+            for (Object[] row : venueStatuses) {
+                if (row[0] != null && row[1] != null) {
+                    statusByVenue.put((Long) row[0], ((VenueStatus) row[1]).ordinal());
+                }
+            }
+            for (Object[] row : instrumentVenues) {
+                if (row[0] != null && row[1] != null) {
+                    venueByInstrument.put((Long) row[0], (Long) row[1]);
+                }
+            }
+            for (Object[] row : instrumentStates) {
+                if (row[0] != null && row[1] != null) {
+                    putState((Long) row[0], ((InstrumentTradingState) row[1]).ordinal());
+                }
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int instrumentCount() {
+        long stamp = lock.readLock();
+        try {
+            return venueByInstrument.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.tobi.venuemgmt.instrument;
+
+import com.tobi.venuemgmt.venue.VenueRepository;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fills the TradabilityIndex from the database once all beans are created,
+ * before the web server starts accepting orders.
+ */
+@Component
+public class TradabilityIndexLoader implements SmartInitializingSingleton {
+
+    private final TradabilityIndex tradabilityIndex;
+    private final VenueRepository venueRepository;
+    private final InstrumentRepository instrumentRepository;
+
+    @Autowired
+    public TradabilityIndexLoader(TradabilityIndex tradabilityIndex, VenueRepository venueRepository,
+            InstrumentRepository instrumentRepository) {
+        this.tradabilityIndex = tradabilityIndex;
+        this.venueRepository = venueRepository;
+        this.instrumentRepository = instrumentRepository;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        tradabilityIndex.load(venueRepository.findAllStatuses(), instrumentRepository.findAllVenueIds(),
+                instrumentRepository.findTradingStatesOtherThan(InstrumentTradingState.ACTIVE));
+    }
+}
@@ -0,0 +1,32 @@
+package com.tobi.venuemgmt.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Adds the optimistic-lock version column to venue and instrument tables
+ * created from a db/venue_db_dump.sql that predates it. Tables created by V1
+ * already have it and are left alone. In Java because MySQL has no
+ * ADD COLUMN IF NOT EXISTS.
+ */
+public class V2__AddMissingVersionColumns extends BaseJavaMigration {
+
+    private static final List<String> TABLES = List.of("venue", "instrument");
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        for (String table : TABLES) {
+            if (!SchemaInfo.hasColumn(connection, table, "version")) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("ALTER TABLE " + table + " ADD COLUMN version BIGINT NOT NULL DEFAULT 0");
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.tobi.venuemgmt.migration;
+
+import com.tobi.venuemgmt.common.NameKey;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Brings venue and instrument tables created from an older
+ * db/venue_db_dump.sql up to the schema of V1: the normalized name_key and
+ * symbol_key columns with their unique constraints, the instrument
+ * trading_state column and the composite indexes. Whatever the tables already
+ * have is left alone.
+ *
+ * The key columns are filled with NameKey.normalize, as the application fills
+ * them, before they become NOT NULL and unique. If two existing rows share a
+ * key the migration fails and names them; one must be renamed first.
+ */
+public class V3__AddMissingKeysAndIndexes extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        addKeyColumn(connection, "venue", "name", "name_key", 255, "uk_venue_name_key");
+        addKeyColumn(connection, "instrument", "symbol", "symbol_key", 50, "uk_instrument_symbol_key");
+        if (!SchemaInfo.hasColumn(connection, "instrument", "trading_state")) {
+            execute(connection, "ALTER TABLE instrument ADD COLUMN trading_state "
+                    + "ENUM('ACTIVE','HALTED','SUSPENDED') NOT NULL DEFAULT 'ACTIVE'");
+        }
+        addIndex(connection, "venue", "idx_venue_status_type", "status, type");
+        addIndex(connection, "venue", "idx_venue_type", "type");
+        addIndex(connection, "instrument", "idx_instrument_venue_trading_state", "venue_id, trading_state");
+        addIndex(connection, "instrument", "idx_instrument_venue_symbol_key", "venue_id, symbol_key");
+        addIndex(connection, "instrument", "idx_instrument_type_symbol_key", "type, symbol_key");
+    }
+
+    // Dumps got the key column and its unique constraint together, so both are added if the column is missing
+    private static void addKeyColumn(Connection connection, String table, String source, String column, int length,
+            String constraint) throws SQLException {
+        if (SchemaInfo.hasColumn(connection, table, column)) {
+            return;
+        }
+        execute(connection, "ALTER TABLE " + table + " ADD COLUMN " + column + " VARCHAR(" + length + ")");
+        Map<String, Long> idsByKey = new HashMap<>();
+        try (Statement select = connection.createStatement();
+                ResultSet rows = select.executeQuery("SELECT id, " + source + " FROM " + table);
+                PreparedStatement update = connection.prepareStatement(
+                        "UPDATE " + table + " SET " + column + " = ? WHERE id = ?")) {
+            while (rows.next()) {
+                long id = rows.getLong(1);
+                String key = NameKey.normalize(rows.getString(2));
+                Long other = idsByKey.putIfAbsent(key, id);
+                if (other != null) {
+                    throw new IllegalStateException("Cannot add " + constraint + ": " + table + " rows " + other
+                            + " and " + id + " both have the " + column + " '" + key + "'. Rename one and migrate again.");
+                }
+                update.setString(1, key);
+                update.setLong(2, id);
+                update.addBatch();
+            }
+            update.executeBatch();
+        }
+        execute(connection, "ALTER TABLE " + table + " MODIFY " + column + " VARCHAR(" + length + ") NOT NULL");
+        execute(connection, "ALTER TABLE " + table + " ADD CONSTRAINT " + constraint + " UNIQUE (" + column + ")");
+    }
+
+    private static void addIndex(Connection connection, String table, String index, String columns)
+            throws SQLException {
+        if (!SchemaInfo.hasIndex(connection, table, index)) {
+            execute(connection, "CREATE INDEX " + index + " ON " + table + " (" + columns + ")");
+        }
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.tobi.venuemgmt.reactive;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.time.Duration;
+
+/**
+ * The reactive API's R2DBC connection pool.
+ *
+ * Deliberately not a ConnectionFactory bean: Spring Boot backs its JDBC
+ * DataSource auto-configuration, which JPA runs on, off as soon as one is
+ * in the context.
+ */
+public class ReactiveConnections implements DisposableBean {
+
+    private final ConnectionPool pool;
+
+    public ReactiveConnections(String url, String username, String password, int maxSize,
+            Duration maxAcquireTime) {
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(url).mutate();
+        if (username != null && !username.isEmpty()) {
+            options.option(ConnectionFactoryOptions.USER, username);
+        }
+        if (password != null) {
+            options.option(ConnectionFactoryOptions.PASSWORD, password);
+        }
+        ConnectionFactory connectionFactory = ConnectionFactories.get(options.build());
+        this.pool = new ConnectionPool(ConnectionPoolConfiguration.builder(connectionFactory)
+                .name("reactive")
+                .initialSize(0)
+                .maxSize(maxSize)
+                .maxAcquireTime(maxAcquireTime)
+                .build());
+    }
+
+    public ConnectionFactory connectionFactory() {
+        return pool;
+    }
+
+    @Override
+    public void destroy() {
+        pool.dispose();
+    }
+}
@@ -0,0 +1,35 @@
+package com.tobi.venuemgmt.reactive;
+
+import com.tobi.venuemgmt.instrument.InstrumentSummary;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of the InstrumentRepository summary finders, read
+ * by the reactive API. Read-only: every query is explicit SQL against the
+ * instrument table, and nothing saves through this repository.
+ */
+public interface ReactiveInstrumentRepository extends R2dbcRepository<InstrumentSummary, Long> {
+
+    // venue_id maps to InstrumentSummary.venueId
+    String SELECT_SUMMARY = "SELECT id, symbol, name, type, venue_id FROM instrument ";
+
+    @Query(SELECT_SUMMARY + "ORDER BY id")
+    Flux<InstrumentSummary> findAllSummaries();
+
+    @Query(SELECT_SUMMARY + "WHERE venue_id = :venueId ORDER BY id")
+    Flux<InstrumentSummary> findSummariesByVenueId(@Param("venueId") long venueId);
+
+    // Keyset pagination, as in InstrumentRepository.findSummariesAfter
+    @Query(SELECT_SUMMARY + "WHERE id > :afterId ORDER BY id LIMIT :limit")
+    Flux<InstrumentSummary> findSummariesAfter(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    @Query(SELECT_SUMMARY + "WHERE venue_id = :venueId AND id > :afterId ORDER BY id LIMIT :limit")
+    Flux<InstrumentSummary> findSummariesByVenueIdAfter(@Param("venueId") long venueId, @Param("afterId") long afterId, @Param("limit") int limit);
+
+    @Query(SELECT_SUMMARY + "WHERE id = :id")
+    Mono<InstrumentSummary> findSummaryById(@Param("id") long id);
+}
@@ -0,0 +1,171 @@
+package com.tobi.venuemgmt.reactive;
+
+import com.tobi.venuemgmt.common.CursorPage;
+import com.tobi.venuemgmt.common.PageSizePolicy;
+import com.tobi.venuemgmt.exception.ErrorDetails;
+import com.tobi.venuemgmt.exception.InvalidRequestException;
+import com.tobi.venuemgmt.instrument.InstrumentSummary;
+import com.tobi.venuemgmt.venue.VenueSummary;
+import com.tobi.venuemgmt.venue.VenueType;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+/**
+ * Reactive read API for venues and instruments. Serves the same paths as
+ * the servlet controllers, on its own port, with the flat summary views
+ * (what the servlet API returns for view=SHALLOW).
+ *
+ * Lists are JSON arrays, or NDJSON when the client accepts
+ * application/x-ndjson; the /stream endpoints are always NDJSON. Streams
+ * are demand-driven: rows are requested from the database in batches of
+ * {@link #STREAM_BATCH_SIZE} as the client reads, so a slow client holds
+ * back its own query instead of buffering the result set in memory.
+ */
+public class ReactiveReadHandler {
+
+    static final int STREAM_BATCH_SIZE = 256;
+
+    private final ReactiveVenueRepository venueRepository;
+    private final ReactiveInstrumentRepository instrumentRepository;
+    private final PageSizePolicy pageSizePolicy;
+
+    public ReactiveReadHandler(ReactiveVenueRepository venueRepository,
+            ReactiveInstrumentRepository instrumentRepository, PageSizePolicy pageSizePolicy) {
+        this.venueRepository = venueRepository;
+        this.instrumentRepository = instrumentRepository;
+        this.pageSizePolicy = pageSizePolicy;
+    }
+
+    public RouterFunction<ServerResponse> routes() {
+        return RouterFunctions.route()
+                .GET("/api/venues", this::venues)
+                .GET("/api/venues/page", this::venuePage)
+                .GET("/api/venues/stream", request -> stream(venueRepository.findAllSummaries(), VenueSummary.class))
+                .GET("/api/venues/{id}", this::venue)
+                .GET("/api/instruments", request -> list(request, instrumentRepository.findAllSummaries(),
+                        InstrumentSummary.class))
+                .GET("/api/instruments/page", this::instrumentPage)
+                .GET("/api/instruments/stream", this::streamInstruments)
+                .GET("/api/instruments/venue/{venueId}", request -> list(request,
+                        instrumentRepository.findSummariesByVenueId(pathId(request, "venueId")),
+                        InstrumentSummary.class))
+                .GET("/api/instruments/{id}", this::instrument)
+                // Parameters are parsed as the handlers run; defer so what they throw becomes an error signal.
+                // Filters registered later wrap earlier ones, so this must come before the onError handlers.
+                .filter((request, next) -> Mono.defer(() -> next.handle(request)))
+                .onError(InvalidRequestException.class, (e, request) -> error(HttpStatus.BAD_REQUEST, e, request))
+                // Unparseable IDs and enum values
+                .onError(IllegalArgumentException.class, (e, request) -> error(HttpStatus.BAD_REQUEST, e, request))
+                .build();
+    }
+
+    private Mono<ServerResponse> venues(ServerRequest request) {
+        Flux<VenueSummary> venues;
+        if (request.queryParam("type").isPresent()) {
+            venues = venueRepository.findSummariesByType(VenueType.valueOf(request.queryParam("type").get()));
+        } else if (request.queryParam("name").isPresent()) {
+            venues = venueRepository.findSummariesByName(request.queryParam("name").get());
+        } else {
+            venues = venueRepository.findAllSummaries();
+        }
+        return list(request, venues, VenueSummary.class);
+    }
+
+    private Mono<ServerResponse> venuePage(ServerRequest request) {
+        int size = pageSize(request);
+        return page(venueRepository.findSummariesAfter(after(request), size), size, VenueSummary::id);
+    }
+
+    private Mono<ServerResponse> venue(ServerRequest request) {
+        long id = pathId(request, "id");
+        return venueRepository.findSummaryById(id)
+                .flatMap(venue -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(venue))
+                .switchIfEmpty(Mono.defer(() -> error(HttpStatus.NOT_FOUND,
+                        "Venue with ID " + id + " not found.", request)));
+    }
+
+    private Mono<ServerResponse> instrumentPage(ServerRequest request) {
+        int size = pageSize(request);
+        Long venueId = longParam(request, "venueId");
+        Flux<InstrumentSummary> instruments = venueId == null
+                ? instrumentRepository.findSummariesAfter(after(request), size)
+                : instrumentRepository.findSummariesByVenueIdAfter(venueId, after(request), size);
+        return page(instruments, size, InstrumentSummary::id);
+    }
+
+    private Mono<ServerResponse> streamInstruments(ServerRequest request) {
+        Long venueId = longParam(request, "venueId");
+        return stream(venueId == null
+                ? instrumentRepository.findAllSummaries()
+                : instrumentRepository.findSummariesByVenueId(venueId), InstrumentSummary.class);
+    }
+
+    private Mono<ServerResponse> instrument(ServerRequest request) {
+        long id = pathId(request, "id");
+        return instrumentRepository.findSummaryById(id)
+                .flatMap(instrument -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(instrument))
+                .switchIfEmpty(Mono.defer(() -> error(HttpStatus.NOT_FOUND,
+                        "Instrument with ID " + id + " not found.", request)));
+    }
+
+    private static <T> Mono<ServerResponse> list(ServerRequest request, Flux<T> items, Class<T> type) {
+        boolean ndjson = request.headers().accept().stream()
+                .anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype);
+        if (ndjson) {
+            return stream(items, type);
+        }
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).body(items, type);
+    }
+
+    private static <T> Mono<ServerResponse> stream(Flux<T> items, Class<T> type) {
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_NDJSON)
+                .body(items.limitRate(STREAM_BATCH_SIZE), type);
+    }
+
+    private static <T> Mono<ServerResponse> page(Flux<T> items, int size, Function<T, Long> idOf) {
+        return items.collectList()
+                .flatMap(list -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(CursorPage.of(list, size, idOf)));
+    }
+
+    private int pageSize(ServerRequest request) {
+        return pageSizePolicy.resolve(request.queryParam("size").map(Integer::valueOf).orElse(null));
+    }
+
+    private static long after(ServerRequest request) {
+        Long after = longParam(request, "after");
+        return after == null ? 0 : after;
+    }
+
+    private static Long longParam(ServerRequest request, String name) {
+        return request.queryParam(name).map(Long::valueOf).orElse(null);
+    }
+
+    private static long pathId(ServerRequest request, String name) {
+        return Long.parseLong(request.pathVariable(name));
+    }
+
+    private static Mono<ServerResponse> error(HttpStatus status, Throwable e, ServerRequest request) {
+        return error(status, e.getMessage(), request);
+    }
+
+    private static Mono<ServerResponse> error(HttpStatus status, String message, ServerRequest request) {
+        ErrorDetails errorDetails = new ErrorDetails(
+                LocalDateTime.now(),
+                status.value(),
+                status.getReasonPhrase(),
+                message,
+                request.path());
+        return ServerResponse.status(status).contentType(MediaType.APPLICATION_JSON).bodyValue(errorDetails);
+    }
+}
@@ -0,0 +1,80 @@
+package com.tobi.venuemgmt.reactive;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.LoopResources;
+
+import java.time.Duration;
+
+/**
+ * Reactor Netty server for the reactive API, next to the servlet container
+ * rather than instead of it. All requests on it run on a fixed number of
+ * event-loop threads, however many connections are open, so handlers must
+ * never block.
+ */
+public class ReactiveReadServer implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveReadServer.class);
+
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(10);
+
+    private final HttpHandler httpHandler;
+    private final String address;
+    private final int port;
+    private final int eventLoopThreads;
+
+    private volatile LoopResources loops;
+    private volatile DisposableServer server;
+
+    public ReactiveReadServer(HttpHandler httpHandler, String address, int port, int eventLoopThreads) {
+        this.httpHandler = httpHandler;
+        this.address = address;
+        this.port = port;
+        this.eventLoopThreads = eventLoopThreads;
+    }
+
+    @Override
+    public void start() {
+        // One thread accepts connections, the others serve them
+        loops = LoopResources.create("reactive-api", 1, eventLoopThreads, true);
+        server = HttpServer.create()
+                .host(address)
+                .port(port)
+                .runOn(loops)
+                .handle(new ReactorHttpHandlerAdapter(httpHandler))
+                .bindNow();
+        log.info("Reactive read API listening on {}:{} with {} event-loop threads.", address, server.port(),
+                eventLoopThreads);
+    }
+
+    @Override
+    public void stop() {
+        DisposableServer running = server;
+        if (running != null) {
+            running.disposeNow(SHUTDOWN_TIMEOUT);
+            server = null;
+        }
+        if (loops != null) {
+            loops.disposeLater().block(SHUTDOWN_TIMEOUT);
+            loops = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+
+    /**
+     * The bound port; differs from the configured one when that is 0.
+     */
+    public int port() {
+        DisposableServer running = server;
+        return running == null ? -1 : running.port();
+    }
+}
@@ -0,0 +1,35 @@
+package com.tobi.venuemgmt.reactive;
+
+import com.tobi.venuemgmt.venue.VenueSummary;
+import com.tobi.venuemgmt.venue.VenueType;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of the VenueRepository summary finders, read by
+ * the reactive API. Read-only: every query is explicit SQL against the venue
+ * table, and nothing saves through this repository.
+ */
+public interface ReactiveVenueRepository extends R2dbcRepository<VenueSummary, Long> {
+
+    String SELECT_SUMMARY = "SELECT id, name, location, type, status FROM venue ";
+
+    @Query(SELECT_SUMMARY + "ORDER BY id")
+    Flux<VenueSummary> findAllSummaries();
+
+    @Query(SELECT_SUMMARY + "WHERE type = :type ORDER BY id")
+    Flux<VenueSummary> findSummariesByType(@Param("type") VenueType type);
+
+    @Query(SELECT_SUMMARY + "WHERE LOWER(name) LIKE LOWER(CONCAT('%', :name, '%')) ORDER BY id")
+    Flux<VenueSummary> findSummariesByName(@Param("name") String name);
+
+    // Keyset pagination, as in VenueRepository.findSummariesAfter
+    @Query(SELECT_SUMMARY + "WHERE id > :afterId ORDER BY id LIMIT :limit")
+    Flux<VenueSummary> findSummariesAfter(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    @Query(SELECT_SUMMARY + "WHERE id = :id")
+    Mono<VenueSummary> findSummaryById(@Param("id") long id);
+}
@@ -0,0 +1,29 @@
+package com.tobi.venuemgmt.referencedata;
+
+import com.tobi.venuemgmt.instrument.InstrumentSummary;
+import com.tobi.venuemgmt.venue.VenueSummary;
+
+import java.time.Instant;
+
+/**
+ * One committed change to a venue or instrument. Every change except DELETE
+ * carries the full new state, so applying a change is an upsert or a delete
+ * by ID, and applying one that a replica already has is harmless. Deleting a
+ * venue also deletes its instruments; no separate instrument changes are
+ * recorded for them.
+ */
+public record ReferenceDataChange(long sequence, Instant changedAt, Type type, Entity entity, long id,
+        VenueSummary venue, InstrumentSummary instrument) {
+
+    public enum Type {
+        CREATE,
+        UPDATE,
+        STATUS,
+        DELETE
+    }
+
+    public enum Entity {
+        VENUE,
+        INSTRUMENT
+    }
+}
@@ -0,0 +1,174 @@
+package com.tobi.venuemgmt.referencedata;
+
+import com.tobi.venuemgmt.common.ReferenceDataVersion;
+import com.tobi.venuemgmt.instrument.InstrumentSummary;
+import com.tobi.venuemgmt.referencedata.ReferenceDataChange.Entity;
+import com.tobi.venuemgmt.referencedata.ReferenceDataChange.Type;
+import com.tobi.venuemgmt.venue.VenueSummary;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Sequenced log of venue and instrument changes, so replicas can sync by
+ * applying what changed since their last sequence instead of reloading the
+ * whole universe.
+ *
+ * Writers record a change inside the transaction that makes it. The log
+ * takes its commit lock just before that transaction commits and appends the
+ * change, under the ring's lock, once the commit has succeeded, so sequence
+ * order is commit order, a rolled back write is never logged and a reader
+ * never sees a gap that is later filled. Writers must flush before
+ * committing: the commit runs under the lock and must not wait on row locks
+ * held by another writer that is queued for it. A change recorded outside a
+ * transaction is appended at once.
+ *
+ * The log is a bounded ring held in memory: a replica that falls more
+ * than a ring's length behind, or that synced against an earlier run of this
+ * instance (a different epoch), must reload the snapshot. A snapshot carries
+ * the sequence read before its data, so replaying from there may repeat a few
+ * changes the snapshot already contains, which is harmless (see
+ * ReferenceDataChange).
+ *
+ * Every append also bumps ReferenceDataVersion, keeping list ETags in step
+ * with the log.
+ */
+@Component
+public class ReferenceDataChangeLog {
+
+    private final ReferenceDataVersion referenceDataVersion;
+    private final ReferenceDataChange[] ring;
+
+    // Held from just before a logged write commits until its changes are appended
+    private final ReentrantLock commitLock = new ReentrantLock();
+
+    // Guarded by "ring"; sequence of the last change, 0 before the first
+    private long lastSequence;
+
+    @Autowired
+    public ReferenceDataChangeLog(ReferenceDataVersion referenceDataVersion,
+            @Value("${app.reference-data.change-log.capacity:100000}") int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Change log capacity must be positive.");
+        }
+        this.referenceDataVersion = referenceDataVersion;
+        this.ring = new ReferenceDataChange[capacity];
+    }
+
+    public void venueChanged(Type type, VenueSummary venue) {
+        append(List.of(new Pending(type, Entity.VENUE, venue.id(), venue, null)));
+    }
+
+    public void venueDeleted(long venueId) {
+        append(List.of(new Pending(Type.DELETE, Entity.VENUE, venueId, null, null)));
+    }
+
+    public void venuesCreated(List<VenueSummary> venues) {
+        venuesChanged(Type.CREATE, venues);
+    }
+
+    public void venuesChanged(Type type, List<VenueSummary> venues) {
+        append(venues.stream()
+                .map(venue -> new Pending(type, Entity.VENUE, venue.id(), venue, null))
+                .toList());
+    }
+
+    public void instrumentChanged(Type type, InstrumentSummary instrument) {
+        append(List.of(new Pending(type, Entity.INSTRUMENT, instrument.id(), null, instrument)));
+    }
+
+    public void instrumentDeleted(long instrumentId) {
+        append(List.of(new Pending(Type.DELETE, Entity.INSTRUMENT, instrumentId, null, null)));
+    }
+
+    public void instrumentsCreated(List<InstrumentSummary> instruments) {
+        append(instruments.stream()
+                .map(instrument -> new Pending(Type.CREATE, Entity.INSTRUMENT, instrument.id(), null, instrument))
+                .toList());
+    }
+
+    public String epoch() {
+        return referenceDataVersion.epoch();
+    }
+
+    public long currentSequence() {
+        synchronized (ring) {
+            return lastSequence;
+        }
+    }
+
+    /**
+     * Returns up to limit changes after the given sequence, oldest first.
+     */
+    public ReferenceDataChanges changesSince(String epoch, long sequence, int limit) {
+        synchronized (ring) {
+            if (!epoch().equals(epoch) || sequence < 0 || sequence > lastSequence
+                    || lastSequence - sequence > ring.length) {
+                return new ReferenceDataChanges(epoch(), lastSequence, lastSequence, true, List.of());
+            }
+            long to = Math.min(lastSequence, sequence + limit);
+            List<ReferenceDataChange> changes = new ArrayList<>((int) (to - sequence));
+            for (long s = sequence + 1; s <= to; s++) {
+                changes.add(ring[(int) (s % ring.length)]);
+            }
+            return new ReferenceDataChanges(epoch(), to, lastSequence, false, changes);
+        }
+    }
+
+    private record Pending(Type type, Entity entity, long id, VenueSummary venue, InstrumentSummary instrument) {
+    }
+
+    private void append(List<Pending> pending) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            appendCommitted(pending);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            private boolean locked;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                commitLock.lock();
+                locked = true;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (!locked) {
+                    return;
+                }
+                try {
+                    if (status == STATUS_COMMITTED) {
+                        appendCommitted(pending);
+                    }
+                } finally {
+                    commitLock.unlock();
+                }
+            }
+        });
+    }
+
+    private void appendCommitted(List<Pending> pending) {
+        Instant now = Instant.now();
+        synchronized (ring) {
+            for (Pending change : pending) {
+                long sequence = lastSequence + 1;
+                ring[(int) (sequence % ring.length)] = new ReferenceDataChange(sequence, now, change.type(),
+                        change.entity(), change.id(), change.venue(), change.instrument());
+                lastSequence = sequence;
+            }
+        }
+        referenceDataVersion.bump();
+    }
+}
@@ -0,0 +1,14 @@
+package com.tobi.venuemgmt.referencedata;
+
+import java.util.List;
+
+/**
+ * A slice of the change log. Changes after the requested sequence up to and
+ * including "sequence"; ask again from "sequence" until it reaches
+ * "latestSequence". With resyncRequired the changes asked for are no longer
+ * available (or the epoch is from before a restart) and the replica must
+ * reload the snapshot.
+ */
+public record ReferenceDataChanges(String epoch, long sequence, long latestSequence, boolean resyncRequired,
+        List<ReferenceDataChange> changes) {
+}
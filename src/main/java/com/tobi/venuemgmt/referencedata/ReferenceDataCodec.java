@@ -0,0 +1,266 @@
+package com.tobi.venuemgmt.referencedata;
+
+import com.tobi.venuemgmt.instrument.InstrumentSummary;
+import com.tobi.venuemgmt.instrument.InstrumentType;
+import com.tobi.venuemgmt.venue.VenueStatus;
+import com.tobi.venuemgmt.venue.VenueSummary;
+import com.tobi.venuemgmt.venue.VenueType;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Compact binary encoding of a ReferenceDataSnapshot.
+ *
+ * Layout (all integers are unsigned LEB128 varints unless noted):
+ * <pre>
+ * magic "VMRD" (4 bytes), version (1 byte), flags (1 byte)
+ * -- the rest is deflate-compressed when flag COMPRESSED is set --
+ * change log epoch (string), change log sequence
+ * location table: count, then count strings
+ * venues: count, then per venue
+ *     id delta (zigzag), name, location (0 = null, else table index + 1),
+ *     type (1 byte), status (1 byte)
+ * instruments: count, then per instrument
+ *     id delta (zigzag), symbol, name, type (1 byte), venue ID (0 = null)
+ * </pre>
+ * Strings are a length + 1 (0 = null) followed by UTF-8 bytes. Enums are
+ * written as ordinal + 1 (0 = null), so appending constants is compatible;
+ * reordering them is not. IDs are deltas from the previous row, which keeps
+ * them to one or two bytes when rows come back roughly in ID order.
+ */
+public final class ReferenceDataCodec {
+
+    public static final String MEDIA_TYPE = "application/vnd.venuemgmt.refdata";
+
+    private static final byte[] MAGIC = { 'V', 'M', 'R', 'D' };
+    private static final int VERSION = 2;
+    private static final int COMPRESSED = 1;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final VenueType[] VENUE_TYPES = VenueType.values();
+    private static final VenueStatus[] VENUE_STATUSES = VenueStatus.values();
+    private static final InstrumentType[] INSTRUMENT_TYPES = InstrumentType.values();
+
+    private ReferenceDataCodec() {
+    }
+
+    public static void encode(ReferenceDataSnapshot snapshot, OutputStream out) throws IOException {
+        encode(snapshot, out, false);
+    }
+
+    /**
+     * Writes the snapshot, deflating everything after the header if compress
+     * is set. Fast compression is used: it removes most of the repetition left
+     * in symbols and names at a fraction of the cost of the default level.
+     */
+    public static void encode(ReferenceDataSnapshot snapshot, OutputStream out, boolean compress)
+            throws IOException {
+        out.write(MAGIC);
+        out.write(VERSION);
+        out.write(compress ? COMPRESSED : 0);
+        if (!compress) {
+            writeBody(snapshot, new DataOutputStream(out));
+            return;
+        }
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            DeflaterOutputStream deflated = new DeflaterOutputStream(out, deflater, BUFFER_SIZE);
+            // Buffered: the deflater is slow when fed one byte at a time
+            BufferedOutputStream buffered = new BufferedOutputStream(deflated, BUFFER_SIZE);
+            writeBody(snapshot, new DataOutputStream(buffered));
+            buffered.flush();
+            deflated.finish();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static void writeBody(ReferenceDataSnapshot snapshot, DataOutputStream data) throws IOException {
+        writeString(data, snapshot.epoch());
+        writeVarint(data, snapshot.sequence());
+
+        List<VenueSummary> venues = snapshot.venues() == null ? List.of() : snapshot.venues();
+        Map<String, Integer> locationIndex = new HashMap<>();
+        List<String> locations = new ArrayList<>();
+        for (VenueSummary venue : venues) {
+            if (venue.location() != null && locationIndex.putIfAbsent(venue.location(), locations.size()) == null) {
+                locations.add(venue.location());
+            }
+        }
+        writeVarint(data, locations.size());
+        for (String location : locations) {
+            writeString(data, location);
+        }
+
+        writeVarint(data, venues.size());
+        long previousId = 0;
+        for (VenueSummary venue : venues) {
+            previousId = writeIdDelta(data, venue.id(), previousId);
+            writeString(data, venue.name());
+            writeVarint(data, venue.location() == null ? 0 : locationIndex.get(venue.location()) + 1);
+            writeEnum(data, venue.type());
+            writeEnum(data, venue.status());
+        }
+
+        List<InstrumentSummary> instruments = snapshot.instruments() == null ? List.of() : snapshot.instruments();
+        writeVarint(data, instruments.size());
+        previousId = 0;
+        for (InstrumentSummary instrument : instruments) {
+            previousId = writeIdDelta(data, instrument.id(), previousId);
+            writeString(data, instrument.symbol());
+            writeString(data, instrument.name());
+            writeEnum(data, instrument.type());
+            writeVarint(data, instrument.venueId() == null ? 0 : instrument.venueId());
+        }
+        data.flush();
+    }
+
+    public static ReferenceDataSnapshot decode(InputStream in) throws IOException {
+        DataInputStream header = new DataInputStream(in);
+        byte[] magic = new byte[MAGIC.length];
+        header.readFully(magic);
+        int version = header.readUnsignedByte();
+        if (!Arrays.equals(magic, MAGIC) || version != VERSION) {
+            throw new IOException("Not a reference data payload (version " + VERSION + ").");
+        }
+        int flags = header.readUnsignedByte();
+        if ((flags & COMPRESSED) == 0) {
+            return readBody(header);
+        }
+        Inflater inflater = new Inflater();
+        try {
+            return readBody(new DataInputStream(
+                    new BufferedInputStream(new InflaterInputStream(in, inflater, BUFFER_SIZE), BUFFER_SIZE)));
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static ReferenceDataSnapshot readBody(DataInputStream data) throws IOException {
+        String epoch = readString(data);
+        long sequence = readVarint(data);
+
+        String[] locations = new String[readCount(data)];
+        for (int i = 0; i < locations.length; i++) {
+            locations[i] = readString(data);
+        }
+
+        int venueCount = readCount(data);
+        List<VenueSummary> venues = new ArrayList<>(venueCount);
+        long id = 0;
+        for (int i = 0; i < venueCount; i++) {
+            id += zigzagDecode(readVarint(data));
+            String name = readString(data);
+            int location = (int) readVarint(data);
+            venues.add(new VenueSummary(id, name, location == 0 ? null : locations[location - 1],
+                    readEnum(data, VENUE_TYPES), readEnum(data, VENUE_STATUSES)));
+        }
+
+        int instrumentCount = readCount(data);
+        List<InstrumentSummary> instruments = new ArrayList<>(instrumentCount);
+        id = 0;
+        for (int i = 0; i < instrumentCount; i++) {
+            id += zigzagDecode(readVarint(data));
+            String symbol = readString(data);
+            String name = readString(data);
+            InstrumentType type = readEnum(data, INSTRUMENT_TYPES);
+            long venueId = readVarint(data);
+            instruments.add(new InstrumentSummary(id, symbol, name, type, venueId == 0 ? null : venueId));
+        }
+        return new ReferenceDataSnapshot(epoch, sequence, venues, instruments);
+    }
+
+    private static long writeIdDelta(DataOutputStream data, Long id, long previousId) throws IOException {
+        long value = id == null ? 0 : id;
+        writeVarint(data, zigzagEncode(value - previousId));
+        return value;
+    }
+
+    private static void writeString(DataOutputStream data, String value) throws IOException {
+        if (value == null) {
+            writeVarint(data, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(data, bytes.length + 1L);
+        data.write(bytes);
+    }
+
+    private static String readString(DataInputStream data) throws IOException {
+        int length = readCount(data);
+        if (length == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length - 1];
+        data.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeEnum(DataOutputStream data, Enum<?> value) throws IOException {
+        data.writeByte(value == null ? 0 : value.ordinal() + 1);
+    }
+
+    private static <E extends Enum<E>> E readEnum(DataInputStream data, E[] values) throws IOException {
+        int ordinal = data.readUnsignedByte();
+        if (ordinal > values.length) {
+            throw new IOException("Unknown enum ordinal " + (ordinal - 1) + ".");
+        }
+        return ordinal == 0 ? null : values[ordinal - 1];
+    }
+
+    private static void writeVarint(DataOutputStream data, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            data.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        data.writeByte((int) value);
+    }
+
+    private static long readVarint(DataInputStream data) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = data.read();
+            if (b < 0) {
+                throw new EOFException("Truncated reference data payload.");
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint in reference data payload.");
+    }
+
+    private static int readCount(DataInputStream data) throws IOException {
+        long count = readVarint(data);
+        if (count > Integer.MAX_VALUE) {
+            throw new IOException("Count " + count + " is too large.");
+        }
+        return (int) count;
+    }
+
+    private static long zigzagEncode(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long zigzagDecode(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
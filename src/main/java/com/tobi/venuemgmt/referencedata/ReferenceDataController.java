@@ -0,0 +1,102 @@
+package com.tobi.venuemgmt.referencedata;
+
+import com.tobi.venuemgmt.common.PageSizePolicy;
+import com.tobi.venuemgmt.instrument.InstrumentService;
+import com.tobi.venuemgmt.venue.VenueService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+@RestController
+@RequestMapping("/api/reference-data")
+@Tag(name = "Reference Data", description = "Snapshot and change log for keeping replicas of venues and instruments in sync.")
+public class ReferenceDataController {
+
+    private final VenueService venueService;
+    private final InstrumentService instrumentService;
+    private final ReferenceDataChangeLog changeLog;
+    private final PageSizePolicy pageSizePolicy;
+
+    @Autowired
+    public ReferenceDataController(VenueService venueService, InstrumentService instrumentService,
+            ReferenceDataChangeLog changeLog, PageSizePolicy pageSizePolicy) {
+        this.venueService = venueService;
+        this.instrumentService = instrumentService;
+        this.changeLog = changeLog;
+        this.pageSizePolicy = pageSizePolicy;
+    }
+
+    /**
+     * Returns every venue and instrument in flat form, as JSON, with the change
+     * log position it reflects. Unchanged data is answered with 304 when
+     * If-None-Match carries the current ETag.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Download all reference data", description = "All venues and instruments in one response, with the change log epoch and sequence to sync from. Send Accept: application/vnd.venuemgmt.refdata for the compact, compressed binary form. Supports If-None-Match.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved reference data"),
+            @ApiResponse(responseCode = "304", description = "Unchanged since the ETag in If-None-Match")
+    })
+    public ResponseEntity<ReferenceDataSnapshot> getReferenceData(WebRequest request) {
+        return snapshot("json", request);
+    }
+
+    /**
+     * Same data in the compact, compressed binary form (see
+     * ReferenceDataCodec), selected with Accept: application/vnd.venuemgmt.refdata.
+     */
+    @GetMapping(produces = ReferenceDataCodec.MEDIA_TYPE)
+    @Operation(summary = "Download all reference data (binary)", description = "All venues and instruments in the compact, compressed binary format. Supports If-None-Match.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved reference data"),
+            @ApiResponse(responseCode = "304", description = "Unchanged since the ETag in If-None-Match")
+    })
+    public ResponseEntity<ReferenceDataSnapshot> getReferenceDataBinary(WebRequest request) {
+        return snapshot("binary", request);
+    }
+
+    /**
+     * Returns the changes after a sequence, for a replica that loaded a
+     * snapshot (or synced before) and wants to catch up. Served from memory.
+     */
+    @GetMapping("/changes")
+    @Operation(summary = "Get reference data changes", description = "Changes after 'since' in the given epoch, oldest first. Repeat from the returned sequence until it reaches latestSequence. If resyncRequired is set, reload the snapshot.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved changes"),
+            @ApiResponse(responseCode = "400", description = "Invalid limit")
+    })
+    public ResponseEntity<ReferenceDataChanges> getChanges(
+            @Parameter(description = "Epoch from the snapshot or previous change response") @RequestParam String epoch,
+            @Parameter(description = "Return changes with a sequence greater than this") @RequestParam long since,
+            @Parameter(description = "Maximum number of changes to return") @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(changeLog.changesSince(epoch, since, pageSizePolicy.resolve(limit)));
+    }
+
+    // The sequence is read before the data, so replaying changes after it
+    // brings the snapshot up to date. Each representation gets its own ETag,
+    // since both are served from one URL.
+    private ResponseEntity<ReferenceDataSnapshot> snapshot(String variant, WebRequest request) {
+        String epoch = changeLog.epoch();
+        long sequence = changeLog.currentSequence();
+        String etag = "\"" + epoch + "-" + sequence + "-" + variant + "\"";
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                .body(new ReferenceDataSnapshot(epoch, sequence, venueService.findAllVenueSummaries(),
+                        instrumentService.findAllInstrumentSummaries()));
+    }
+}
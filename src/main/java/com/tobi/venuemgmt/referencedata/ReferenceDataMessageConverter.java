@@ -0,0 +1,49 @@
+package com.tobi.venuemgmt.referencedata;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+
+/**
+ * Reads and writes ReferenceDataSnapshot in the ReferenceDataCodec format,
+ * compressed: the binary form is meant for bulk transfer to replicas.
+ * Registered after the Jackson converter, so JSON stays the default and the
+ * binary form is only used when a client asks for it in Accept.
+ */
+public class ReferenceDataMessageConverter extends AbstractHttpMessageConverter<ReferenceDataSnapshot> {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    public ReferenceDataMessageConverter() {
+        super(MediaType.parseMediaType(ReferenceDataCodec.MEDIA_TYPE));
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return ReferenceDataSnapshot.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected ReferenceDataSnapshot readInternal(Class<? extends ReferenceDataSnapshot> clazz,
+            HttpInputMessage inputMessage) throws IOException {
+        try {
+            return ReferenceDataCodec.decode(new BufferedInputStream(inputMessage.getBody(), BUFFER_SIZE));
+        } catch (IOException e) {
+            throw new HttpMessageNotReadableException(e.getMessage(), e, inputMessage);
+        }
+    }
+
+    @Override
+    protected void writeInternal(ReferenceDataSnapshot snapshot, HttpOutputMessage outputMessage)
+            throws IOException {
+        BufferedOutputStream out = new BufferedOutputStream(outputMessage.getBody(), BUFFER_SIZE);
+        ReferenceDataCodec.encode(snapshot, out, true);
+        out.flush();
+    }
+}
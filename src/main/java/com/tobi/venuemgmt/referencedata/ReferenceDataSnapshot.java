@@ -0,0 +1,16 @@
+package com.tobi.venuemgmt.referencedata;
+
+import com.tobi.venuemgmt.instrument.InstrumentSummary;
+import com.tobi.venuemgmt.venue.VenueSummary;
+
+import java.util.List;
+
+/**
+ * The full venue and instrument universe in flat form; instruments refer to
+ * their venue by ID. Epoch and sequence give the change log position the
+ * snapshot reflects: a replica applies the changes after that sequence to
+ * stay current.
+ */
+public record ReferenceDataSnapshot(String epoch, long sequence, List<VenueSummary> venues,
+        List<InstrumentSummary> instruments) {
+}
@@ -0,0 +1,93 @@
+package com.tobi.venuemgmt.session;
+
+import com.tobi.venuemgmt.venue.VenueStatus;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A trading calendar resolved for evaluation: is the venue open at an instant,
+ * and when does that next change.
+ *
+ * Session times are wall-clock times in the calendar's zone, so a DST change
+ * moves them in UTC. A time that falls in a DST gap moves forward by the
+ * length of the gap, and an ambiguous one takes the earlier offset.
+ */
+final class SessionSchedule {
+
+    record Boundary(Instant at, VenueStatus status) {
+    }
+
+    // Gives up looking for the next session after this many days of holidays or no sessions
+    private static final int MAX_DAYS_AHEAD = 366;
+
+    private final ZoneId zone;
+    private final Map<DayOfWeek, List<SessionWindow>> sessionsByDay = new EnumMap<>(DayOfWeek.class);
+    private final Set<LocalDate> holidays;
+
+    SessionSchedule(ZoneId zone, List<SessionWindow> sessions, Set<LocalDate> holidays) {
+        this.zone = zone;
+        for (SessionWindow session : sessions) {
+            sessionsByDay.computeIfAbsent(session.getDay(), day -> new ArrayList<>()).add(session);
+        }
+        sessionsByDay.values().forEach(day -> day.sort(Comparator.comparing(SessionWindow::getOpens)));
+        this.holidays = Set.copyOf(holidays);
+    }
+
+    static SessionSchedule of(TradingCalendar calendar) {
+        return new SessionSchedule(ZoneId.of(calendar.getTimeZone()), calendar.getSessions(),
+                calendar.getHolidays());
+    }
+
+    VenueStatus statusAt(Instant instant) {
+        LocalDate date = LocalDate.ofInstant(instant, zone);
+        for (SessionWindow session : sessionsOn(date)) {
+            if (!instant.isBefore(at(date, session.getOpens())) && instant.isBefore(at(date, session.getCloses()))) {
+                return VenueStatus.OPEN;
+            }
+        }
+        return VenueStatus.CLOSED;
+    }
+
+    /**
+     * Returns the first open or close strictly after the instant, or null if
+     * there is none within a year.
+     */
+    Boundary nextBoundaryAfter(Instant instant) {
+        LocalDate date = LocalDate.ofInstant(instant, zone);
+        for (int day = 0; day <= MAX_DAYS_AHEAD; day++, date = date.plusDays(1)) {
+            for (SessionWindow session : sessionsOn(date)) {
+                Instant opens = at(date, session.getOpens());
+                if (opens.isAfter(instant)) {
+                    return new Boundary(opens, VenueStatus.OPEN);
+                }
+                Instant closes = at(date, session.getCloses());
+                if (closes.isAfter(instant)) {
+                    return new Boundary(closes, VenueStatus.CLOSED);
+                }
+            }
+        }
+        return null;
+    }
+
+    private List<SessionWindow> sessionsOn(LocalDate date) {
+        if (holidays.contains(date)) {
+            return List.of();
+        }
+        return sessionsByDay.getOrDefault(date.getDayOfWeek(), List.of());
+    }
+
+    private Instant at(LocalDate date, LocalTime time) {
+        return ZonedDateTime.of(date, time, zone).toInstant();
+    }
+}
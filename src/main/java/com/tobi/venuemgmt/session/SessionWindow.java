@@ -0,0 +1,33 @@
+package com.tobi.venuemgmt.session;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+/**
+ * One trading session on a day of the week, in the calendar's time zone. The
+ * venue is open from opens (inclusive) to closes (exclusive).
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Embeddable
+public class SessionWindow {
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "day_of_week", nullable = false)
+    private DayOfWeek day;
+
+    @Column(name = "opens_at", nullable = false)
+    private LocalTime opens;
+
+    @Column(name = "closes_at", nullable = false)
+    private LocalTime closes;
+}
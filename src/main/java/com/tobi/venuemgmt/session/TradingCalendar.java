@@ -0,0 +1,50 @@
+package com.tobi.venuemgmt.session;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.tobi.venuemgmt.common.BaseEntity;
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A venue's trading hours: weekly sessions in a time zone, minus holidays.
+ * The session scheduler opens and closes the venue at the session boundaries.
+ */
+@NoArgsConstructor
+@Data
+@Entity
+@Table(name = "trading_calendar", uniqueConstraints = @UniqueConstraint(name = "uk_trading_calendar_venue", columnNames = "venue_id"))
+public class TradingCalendar extends BaseEntity {
+
+    // Set from the request path, never from the body
+    @Column(name = "venue_id", nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long venueId;
+
+    // IANA zone ID, e.g. "America/New_York"
+    @Column(name = "time_zone", nullable = false)
+    private String timeZone;
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "trading_session", joinColumns = @JoinColumn(name = "calendar_id"))
+    private List<SessionWindow> sessions = new ArrayList<>();
+
+    // Local dates on which the venue stays closed all day
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "trading_holiday", joinColumns = @JoinColumn(name = "calendar_id"))
+    @Column(name = "holiday", nullable = false)
+    private Set<LocalDate> holidays = new HashSet<>();
+}
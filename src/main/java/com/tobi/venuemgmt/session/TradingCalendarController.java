@@ -0,0 +1,70 @@
+package com.tobi.venuemgmt.session;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/venues/{venueId}/calendar")
+@Tag(name = "Trading Calendars", description = "Trading sessions and holidays that open and close venues automatically.")
+public class TradingCalendarController {
+
+    private final TradingCalendarService calendarService;
+
+    @Autowired
+    public TradingCalendarController(TradingCalendarService calendarService) {
+        this.calendarService = calendarService;
+    }
+
+    /**
+     * Returns the venue's trading calendar.
+     */
+    @GetMapping
+    @Operation(summary = "Get a venue's trading calendar", description = "Returns the sessions, time zone and holidays of a venue.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved calendar"),
+            @ApiResponse(responseCode = "404", description = "Venue has no calendar")
+    })
+    public ResponseEntity<TradingCalendar> getCalendar(
+            @Parameter(description = "ID of the venue") @PathVariable Long venueId) {
+        return ResponseEntity.ok(calendarService.findCalendar(venueId));
+    }
+
+    /**
+     * Creates or replaces the venue's trading calendar. From then on the venue
+     * opens and closes at its session boundaries.
+     */
+    @PutMapping
+    @Operation(summary = "Set a venue's trading calendar", description = "Creates or replaces the calendar. The venue's status is set from it immediately and at every session boundary after that.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Calendar saved"),
+            @ApiResponse(responseCode = "400", description = "Unknown time zone or invalid sessions"),
+            @ApiResponse(responseCode = "404", description = "Venue not found with the given ID")
+    })
+    public ResponseEntity<TradingCalendar> putCalendar(
+            @Parameter(description = "ID of the venue") @PathVariable Long venueId,
+            @RequestBody TradingCalendar calendar) {
+        return ResponseEntity.ok(calendarService.saveCalendar(venueId, calendar));
+    }
+
+    /**
+     * Removes the venue's trading calendar; its status is no longer changed
+     * automatically.
+     */
+    @DeleteMapping
+    @Operation(summary = "Remove a venue's trading calendar", description = "Stops automatic status changes. The venue keeps its current status.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Calendar removed"),
+            @ApiResponse(responseCode = "404", description = "Venue has no calendar")
+    })
+    public ResponseEntity<Void> deleteCalendar(
+            @Parameter(description = "ID of the venue") @PathVariable Long venueId) {
+        calendarService.deleteCalendar(venueId);
+        return ResponseEntity.noContent().build();
+    }
+}
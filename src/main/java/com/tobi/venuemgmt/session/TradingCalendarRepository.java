@@ -0,0 +1,25 @@
+package com.tobi.venuemgmt.session;
+
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TradingCalendarRepository extends JpaRepository<TradingCalendar, Long> {
+
+    // Loads sessions and holidays with the calendars instead of two queries per calendar
+    @Override
+    @EntityGraph(attributePaths = {"sessions", "holidays"})
+    List<TradingCalendar> findAll();
+
+    Optional<TradingCalendar> findByVenueId(Long venueId);
+
+    @Modifying
+    @Transactional
+    void deleteByVenueId(Long venueId);
+}
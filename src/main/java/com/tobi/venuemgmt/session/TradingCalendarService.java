@@ -0,0 +1,106 @@
+package com.tobi.venuemgmt.session;
+
+import com.tobi.venuemgmt.exception.InvalidRequestException;
+import com.tobi.venuemgmt.exception.ResourceNotFoundException;
+import com.tobi.venuemgmt.venue.VenueService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class TradingCalendarService {
+
+    private final TradingCalendarRepository calendarRepository;
+    private final VenueService venueService;
+    private final TradingSessionScheduler scheduler;
+
+    @Autowired
+    public TradingCalendarService(TradingCalendarRepository calendarRepository, VenueService venueService,
+            TradingSessionScheduler scheduler) {
+        this.calendarRepository = calendarRepository;
+        this.venueService = venueService;
+        this.scheduler = scheduler;
+    }
+
+    public TradingCalendar findCalendar(Long venueId) {
+        return calendarRepository.findByVenueId(venueId)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "No trading calendar for venue with ID " + venueId + "."));
+    }
+
+    /**
+     * Creates or replaces a venue's calendar. The venue's status is set from
+     * the new calendar straight away.
+     *
+     * @throws ResourceNotFoundException if the venue does not exist.
+     * @throws InvalidRequestException   if the zone is unknown or sessions overlap.
+     */
+    public TradingCalendar saveCalendar(Long venueId, TradingCalendar calendar) {
+        venueService.findVenueById(venueId);
+        validate(calendar);
+
+        TradingCalendar target = calendarRepository.findByVenueId(venueId).orElseGet(TradingCalendar::new);
+        target.setVenueId(venueId);
+        target.setTimeZone(calendar.getTimeZone());
+        target.getSessions().clear();
+        target.getSessions().addAll(calendar.getSessions());
+        target.getHolidays().clear();
+        if (calendar.getHolidays() != null) {
+            target.getHolidays().addAll(calendar.getHolidays());
+        }
+        TradingCalendar savedCalendar = calendarRepository.save(target);
+        scheduler.schedule(savedCalendar);
+        return savedCalendar;
+    }
+
+    /**
+     * Removes a venue's calendar. The venue keeps its current status.
+     */
+    public void deleteCalendar(Long venueId) {
+        TradingCalendar calendar = findCalendar(venueId);
+        calendarRepository.delete(calendar);
+        scheduler.unschedule(venueId);
+    }
+
+    // Sessions must lie within one day and must not overlap or touch on the same day
+    static void validate(TradingCalendar calendar) {
+        try {
+            ZoneId.of(calendar.getTimeZone());
+        } catch (DateTimeException | NullPointerException e) {
+            throw new InvalidRequestException("Unknown time zone '" + calendar.getTimeZone() + "'.");
+        }
+        if (calendar.getSessions() == null) {
+            throw new InvalidRequestException("A trading calendar needs a list of sessions.");
+        }
+        Map<DayOfWeek, List<SessionWindow>> byDay = new EnumMap<>(DayOfWeek.class);
+        for (SessionWindow session : calendar.getSessions()) {
+            if (session == null || session.getDay() == null || session.getOpens() == null
+                    || session.getCloses() == null) {
+                throw new InvalidRequestException("Each session needs a day, an opening and a closing time.");
+            }
+            if (!session.getOpens().isBefore(session.getCloses())) {
+                throw new InvalidRequestException("Session on " + session.getDay() + " closes at "
+                        + session.getCloses() + ", not after it opens at " + session.getOpens() + ".");
+            }
+            byDay.computeIfAbsent(session.getDay(), day -> new ArrayList<>()).add(session);
+        }
+        for (List<SessionWindow> sessions : byDay.values()) {
+            sessions.sort(Comparator.comparing(SessionWindow::getOpens));
+            for (int i = 1; i < sessions.size(); i++) {
+                SessionWindow previous = sessions.get(i - 1);
+                if (!previous.getCloses().isBefore(sessions.get(i).getOpens())) {
+                    throw new InvalidRequestException("Sessions on " + previous.getDay()
+                            + " overlap or touch; merge them into one session.");
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.tobi.venuemgmt.session;
+
+import com.tobi.venuemgmt.venue.VenueService;
+import com.tobi.venuemgmt.venue.VenueStatus;
+import com.tobi.venuemgmt.venue.VenueSummary;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Opens and closes venues at the boundaries of their trading calendars.
+ *
+ * All venues share one priority queue holding each venue's next boundary, and
+ * one thread that sleeps until the earliest. Everything due at that instant is
+ * applied as a single batch through VenueService.applyScheduledStatuses, so
+ * the venues that open together become tradable together. After firing, a
+ * venue's following boundary is queued.
+ *
+ * A calendar change bumps the venue's generation; queued boundaries from an
+ * older generation are dropped when they come up. A manual status change holds
+ * until the venue's next boundary. Calendars of deleted venues are removed the
+ * next time one of their boundaries fires.
+ */
+@Component
+public class TradingSessionScheduler implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(TradingSessionScheduler.class);
+
+    private record Scheduled(SessionSchedule schedule, long generation) {
+    }
+
+    // A retry re-applies a failed boundary without queuing the one after it again
+    private record Entry(Instant at, long venueId, VenueStatus status, long generation, boolean retry) {
+    }
+
+    private final TradingCalendarRepository calendarRepository;
+    private final VenueService venueService;
+    private final boolean enabled;
+    private final long retryDelayMs;
+    private final Clock clock;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition queueChanged = lock.newCondition();
+    // Guarded by lock
+    private final PriorityQueue<Entry> queue = new PriorityQueue<>(Comparator.comparing(Entry::at));
+    private final Map<Long, Scheduled> schedules = new HashMap<>();
+    private long generation;
+
+    private Thread thread;
+
+    @Autowired
+    public TradingSessionScheduler(TradingCalendarRepository calendarRepository, VenueService venueService,
+            @Value("${app.sessions.enabled:true}") boolean enabled,
+            @Value("${app.sessions.retry-delay-ms:5000}") long retryDelayMs) {
+        this(calendarRepository, venueService, enabled, retryDelayMs, Clock.systemUTC());
+    }
+
+    TradingSessionScheduler(TradingCalendarRepository calendarRepository, VenueService venueService,
+            boolean enabled, long retryDelayMs, Clock clock) {
+        this.calendarRepository = calendarRepository;
+        this.venueService = venueService;
+        this.enabled = enabled;
+        this.retryDelayMs = retryDelayMs;
+        this.clock = clock;
+    }
+
+    /**
+     * Loads every calendar, brings venue statuses in line with them (they may
+     * have crossed boundaries while the application was down) and starts the
+     * scheduler thread.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+        Instant now = clock.instant();
+        Map<Long, VenueStatus> current = new HashMap<>();
+        lock.lock();
+        try {
+            for (TradingCalendar calendar : calendarRepository.findAll()) {
+                SessionSchedule schedule = SessionSchedule.of(calendar);
+                current.put(calendar.getVenueId(), schedule.statusAt(now));
+                put(calendar.getVenueId(), schedule, now);
+            }
+        } finally {
+            lock.unlock();
+        }
+        apply(current);
+        log.info("Trading session scheduler started with {} venue calendars.", current.size());
+        thread = Thread.ofPlatform().name("trading-session-scheduler").daemon().start(this::run);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * Starts following a new or changed calendar and applies the status it
+     * gives for now.
+     */
+    public void schedule(TradingCalendar calendar) {
+        if (!enabled) {
+            return;
+        }
+        SessionSchedule schedule = SessionSchedule.of(calendar);
+        Instant now = clock.instant();
+        lock.lock();
+        try {
+            put(calendar.getVenueId(), schedule, now);
+            queueChanged.signal();
+        } finally {
+            lock.unlock();
+        }
+        apply(Map.of(calendar.getVenueId(), schedule.statusAt(now)));
+    }
+
+    /**
+     * Stops changing the venue's status; it keeps whatever status it has.
+     */
+    public void unschedule(long venueId) {
+        lock.lock();
+        try {
+            schedules.remove(venueId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Must hold lock
+    private void put(long venueId, SessionSchedule schedule, Instant after) {
+        Scheduled scheduled = new Scheduled(schedule, ++generation);
+        schedules.put(venueId, scheduled);
+        enqueueNext(venueId, scheduled, after);
+    }
+
+    // Must hold lock
+    private void enqueueNext(long venueId, Scheduled scheduled, Instant after) {
+        SessionSchedule.Boundary next = scheduled.schedule().nextBoundaryAfter(after);
+        if (next != null) {
+            queue.add(new Entry(next.at(), venueId, next.status(), scheduled.generation(), false));
+        }
+    }
+
+    /**
+     * Removes every boundary due at or before now and returns the statuses
+     * they set, queuing each venue's following boundary.
+     */
+    Map<Long, VenueStatus> takeDue(Instant now) {
+        Map<Long, VenueStatus> due = new HashMap<>();
+        lock.lock();
+        try {
+            Entry head;
+            while ((head = queue.peek()) != null && !head.at().isAfter(now)) {
+                queue.poll();
+                Scheduled scheduled = schedules.get(head.venueId());
+                if (scheduled == null || scheduled.generation() != head.generation()) {
+                    continue;
+                }
+                due.put(head.venueId(), head.status());
+                if (!head.retry()) {
+                    enqueueNext(head.venueId(), scheduled, head.at());
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return due;
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            Map<Long, VenueStatus> due;
+            try {
+                due = awaitDue();
+            } catch (InterruptedException e) {
+                return;
+            }
+            apply(due);
+        }
+    }
+
+    private Map<Long, VenueStatus> awaitDue() throws InterruptedException {
+        lock.lock();
+        try {
+            while (true) {
+                Instant now = clock.instant();
+                Map<Long, VenueStatus> due = takeDue(now);
+                if (!due.isEmpty()) {
+                    return due;
+                }
+                Entry head = queue.peek();
+                if (head == null) {
+                    queueChanged.await();
+                } else {
+                    queueChanged.awaitNanos(Duration.between(now, head.at()).toNanos());
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Applies a batch. A failed batch is retried after the retry delay, unless
+     * the venue's calendar has changed in the meantime.
+     */
+    void apply(Map<Long, VenueStatus> statuses) {
+        if (statuses.isEmpty()) {
+            return;
+        }
+        try {
+            Set<Long> unknown = new HashSet<>(statuses.keySet());
+            for (VenueSummary venue : venueService.applyScheduledStatuses(statuses)) {
+                unknown.remove(venue.id());
+            }
+            for (Long venueId : unknown) {
+                unschedule(venueId);
+                calendarRepository.deleteByVenueId(venueId);
+                log.info("Removed the trading calendar of deleted venue {}.", venueId);
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to apply scheduled status changes for {} venues; retrying in {}ms.",
+                    statuses.size(), retryDelayMs, e);
+            retry(statuses);
+        }
+    }
+
+    private void retry(Map<Long, VenueStatus> statuses) {
+        Instant at = clock.instant().plusMillis(retryDelayMs);
+        lock.lock();
+        try {
+            statuses.forEach((venueId, status) -> {
+                Scheduled scheduled = schedules.get(venueId);
+                if (scheduled != null) {
+                    queue.add(new Entry(at, venueId, status, scheduled.generation(), true));
+                }
+            });
+            queueChanged.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
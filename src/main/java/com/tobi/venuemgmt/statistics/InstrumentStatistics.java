@@ -0,0 +1,9 @@
+package com.tobi.venuemgmt.statistics;
+
+import com.tobi.venuemgmt.instrument.InstrumentType;
+
+import java.util.Map;
+
+public record InstrumentStatistics(long total, Map<InstrumentType, Long> byType,
+        Map<Long, Map<InstrumentType, Long>> byVenue) {
+}
@@ -0,0 +1,302 @@
+package com.tobi.venuemgmt.statistics;
+
+import com.tobi.venuemgmt.common.collections.LongLongHashMap;
+import com.tobi.venuemgmt.instrument.InstrumentRepository;
+import com.tobi.venuemgmt.instrument.InstrumentSummary;
+import com.tobi.venuemgmt.instrument.InstrumentType;
+import com.tobi.venuemgmt.venue.VenueRepository;
+import com.tobi.venuemgmt.venue.VenueStatus;
+import com.tobi.venuemgmt.venue.VenueSummary;
+import com.tobi.venuemgmt.venue.VenueType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Venue and instrument counts kept in memory, so dashboards never run
+ * GROUP BY scans.
+ *
+ * VenueService, InstrumentService and the bulk import report every
+ * create/update/delete here. The last known location/type/status of each venue
+ * and venue/type of each instrument is remembered, so a report only needs the
+ * new state and moves the counts from the old group to the new one. Reads
+ * cost O(number of groups) and are cached until the next write.
+ *
+ * The counts are rebuilt from the database at startup and on a schedule. A
+ * rebuild that raced with a write is discarded and retried on the next run.
+ */
+@Component
+public class ReferenceDataStatistics implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(ReferenceDataStatistics.class);
+
+    static final String NO_LOCATION = "UNSPECIFIED";
+
+    private static final VenueType[] VENUE_TYPES = VenueType.values();
+    private static final VenueStatus[] VENUE_STATUSES = VenueStatus.values();
+    private static final InstrumentType[] INSTRUMENT_TYPES = InstrumentType.values();
+    // Instrument entries pack the venue ID and type ordinal into one long
+    private static final int TYPE_BITS = 8;
+    private static final long MISSING = -1L;
+
+    private final VenueRepository venueRepository;
+    private final InstrumentRepository instrumentRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // Guarded by "this"
+    private Counts counts = new Counts();
+    private long modifications;
+
+    private volatile VenueStatistics venueSnapshot;
+    private volatile InstrumentStatistics instrumentSnapshot;
+
+    @Autowired
+    public ReferenceDataStatistics(VenueRepository venueRepository, InstrumentRepository instrumentRepository,
+            TransactionTemplate transactionTemplate) {
+        this.venueRepository = venueRepository;
+        this.instrumentRepository = instrumentRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    private record VenueGroup(String location, VenueType type, VenueStatus status) {
+    }
+
+    public synchronized void venueSaved(Long id, String location, VenueType type, VenueStatus status) {
+        if (id == null) {
+            return;
+        }
+        counts.putVenue(id, new VenueGroup(location == null ? NO_LOCATION : location, type, status));
+        modified();
+    }
+
+    /**
+     * Removes a venue together with its instruments (they are deleted with it).
+     */
+    public synchronized void venueRemoved(Long id) {
+        if (id == null) {
+            return;
+        }
+        counts.removeVenue(id);
+        modified();
+    }
+
+    public synchronized void instrumentSaved(Long id, Long venueId, InstrumentType type) {
+        if (id == null || venueId == null || type == null) {
+            return;
+        }
+        counts.putInstrument(id, venueId, type);
+        modified();
+    }
+
+    public synchronized void instrumentRemoved(Long id) {
+        if (id == null) {
+            return;
+        }
+        counts.removeInstrument(id);
+        modified();
+    }
+
+    private void modified() {
+        modifications++;
+        venueSnapshot = null;
+        instrumentSnapshot = null;
+    }
+
+    public VenueStatistics venueStatistics() {
+        VenueStatistics snapshot = venueSnapshot;
+        if (snapshot != null) {
+            return snapshot;
+        }
+        synchronized (this) {
+            if (venueSnapshot == null) {
+                venueSnapshot = counts.venueStatistics();
+            }
+            return venueSnapshot;
+        }
+    }
+
+    public InstrumentStatistics instrumentStatistics() {
+        InstrumentStatistics snapshot = instrumentSnapshot;
+        if (snapshot != null) {
+            return snapshot;
+        }
+        synchronized (this) {
+            if (instrumentSnapshot == null) {
+                instrumentSnapshot = counts.instrumentStatistics();
+            }
+            return instrumentSnapshot;
+        }
+    }
+
+    /**
+     * Instrument counts by type for one venue; all zero if the venue has none.
+     */
+    public synchronized Map<InstrumentType, Long> instrumentStatisticsForVenue(Long venueId) {
+        return toEnumMap(INSTRUMENT_TYPES, counts.instrumentsByVenue.get(venueId), InstrumentType.class);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        reconcile();
+    }
+
+    /**
+     * Rebuilds the counts from the database and replaces the in-memory ones,
+     * logging any drift. Skipped if a write happened during the rebuild.
+     */
+    @Scheduled(initialDelayString = "${app.stats.reconcile-interval-ms:300000}",
+            fixedDelayString = "${app.stats.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        long observedModifications;
+        synchronized (this) {
+            observedModifications = modifications;
+        }
+
+        Counts rebuilt = new Counts();
+        transactionTemplate.executeWithoutResult(tx -> {
+            try (Stream<VenueSummary> venues = venueRepository.streamAllSummaries()) {
+                venues.forEach(v -> rebuilt.putVenue(v.id(),
+                        new VenueGroup(v.location() == null ? NO_LOCATION : v.location(), v.type(), v.status())));
+            }
+            try (Stream<InstrumentSummary> instruments = instrumentRepository.streamAllSummaries()) {
+                instruments.forEach(i -> {
+                    if (i.venueId() != null && i.type() != null) {
+                        rebuilt.putInstrument(i.id(), i.venueId(), i.type());
+                    }
+                });
+            }
+        });
+
+        synchronized (this) {
+            if (modifications != observedModifications) {
+                log.debug("Statistics reconciliation skipped: counts changed while reading the database.");
+                return;
+            }
+            VenueStatistics before = counts.venueStatistics();
+            InstrumentStatistics instrumentsBefore = counts.instrumentStatistics();
+            VenueStatistics after = rebuilt.venueStatistics();
+            InstrumentStatistics instrumentsAfter = rebuilt.instrumentStatistics();
+            if (!before.equals(after) || !instrumentsBefore.equals(instrumentsAfter)) {
+                log.warn("Statistics drift corrected: venues {} -> {}, instruments {} -> {}.",
+                        before.total(), after.total(), instrumentsBefore.total(), instrumentsAfter.total());
+            }
+            counts = rebuilt;
+            venueSnapshot = after;
+            instrumentSnapshot = instrumentsAfter;
+        }
+    }
+
+    private static <E extends Enum<E>> Map<E, Long> toEnumMap(E[] values, long[] counts, Class<E> type) {
+        Map<E, Long> map = new EnumMap<>(type);
+        for (E value : values) {
+            map.put(value, counts == null ? 0L : counts[value.ordinal()]);
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    /**
+     * Per-entity state and the group counts derived from it. Not thread-safe.
+     */
+    private static final class Counts {
+        private final Map<Long, VenueGroup> venues = new HashMap<>();
+        private final Map<String, Long> venuesByLocation = new HashMap<>();
+        private final long[] venuesByType = new long[VENUE_TYPES.length];
+        private final long[] venuesByStatus = new long[VENUE_STATUSES.length];
+
+        private final LongLongHashMap instruments = new LongLongHashMap(1024);
+        private final Map<Long, long[]> instrumentsByVenue = new HashMap<>();
+        private final long[] instrumentsByType = new long[INSTRUMENT_TYPES.length];
+
+        void putVenue(Long id, VenueGroup group) {
+            VenueGroup previous = venues.put(id, group);
+            if (previous != null) {
+                countVenue(previous, -1);
+            }
+            countVenue(group, 1);
+        }
+
+        void removeVenue(Long id) {
+            VenueGroup previous = venues.remove(id);
+            if (previous != null) {
+                countVenue(previous, -1);
+            }
+            long[] byType = instrumentsByVenue.remove(id);
+            if (byType != null) {
+                for (int i = 0; i < byType.length; i++) {
+                    instrumentsByType[i] -= byType[i];
+                }
+                instruments.removeIfValue(entry -> entry >>> TYPE_BITS == id);
+            }
+        }
+
+        private void countVenue(VenueGroup group, int delta) {
+            venuesByLocation.merge(group.location(), (long) delta, (a, b) -> a + b == 0 ? null : a + b);
+            if (group.type() != null) {
+                venuesByType[group.type().ordinal()] += delta;
+            }
+            if (group.status() != null) {
+                venuesByStatus[group.status().ordinal()] += delta;
+            }
+        }
+
+        void putInstrument(long id, long venueId, InstrumentType type) {
+            long previous = instruments.get(id, MISSING);
+            if (previous != MISSING) {
+                countInstrument(previous >>> TYPE_BITS, (int) (previous & ((1 << TYPE_BITS) - 1)), -1);
+            }
+            instruments.put(id, venueId << TYPE_BITS | type.ordinal());
+            countInstrument(venueId, type.ordinal(), 1);
+        }
+
+        void removeInstrument(long id) {
+            long previous = instruments.get(id, MISSING);
+            if (previous != MISSING) {
+                instruments.remove(id);
+                countInstrument(previous >>> TYPE_BITS, (int) (previous & ((1 << TYPE_BITS) - 1)), -1);
+            }
+        }
+
+        private void countInstrument(long venueId, int typeOrdinal, int delta) {
+            long[] byType = instrumentsByVenue.computeIfAbsent(venueId, id -> new long[INSTRUMENT_TYPES.length]);
+            byType[typeOrdinal] += delta;
+            instrumentsByType[typeOrdinal] += delta;
+            if (delta < 0 && isEmpty(byType)) {
+                instrumentsByVenue.remove(venueId);
+            }
+        }
+
+        private static boolean isEmpty(long[] counts) {
+            for (long count : counts) {
+                if (count != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        VenueStatistics venueStatistics() {
+            return new VenueStatistics(venues.size(), Collections.unmodifiableMap(new TreeMap<>(venuesByLocation)),
+                    toEnumMap(VENUE_TYPES, venuesByType, VenueType.class),
+                    toEnumMap(VENUE_STATUSES, venuesByStatus, VenueStatus.class));
+        }
+
+        InstrumentStatistics instrumentStatistics() {
+            Map<Long, Map<InstrumentType, Long>> byVenue = new TreeMap<>();
+            instrumentsByVenue.forEach((venueId, byType) ->
+                    byVenue.put(venueId, toEnumMap(INSTRUMENT_TYPES, byType, InstrumentType.class)));
+            return new InstrumentStatistics(instruments.size(), toEnumMap(INSTRUMENT_TYPES, instrumentsByType,
+                    InstrumentType.class), Collections.unmodifiableMap(byVenue));
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.tobi.venuemgmt.statistics;
+
+import com.tobi.venuemgmt.instrument.InstrumentType;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/stats")
+@Tag(name = "Statistics", description = "Venue and instrument counts served from in-memory counters.")
+public class StatisticsController {
+
+    private final ReferenceDataStatistics statistics;
+
+    @Autowired
+    public StatisticsController(ReferenceDataStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    /**
+     * Returns venue counts by location, type and status.
+     */
+    @GetMapping("/venues")
+    @Operation(summary = "Venue statistics", description = "Venue counts by location, type and status.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved statistics")
+    })
+    public ResponseEntity<VenueStatistics> getVenueStatistics() {
+        return ResponseEntity.ok(statistics.venueStatistics());
+    }
+
+    /**
+     * Returns instrument counts by type, overall and per venue.
+     */
+    @GetMapping("/instruments")
+    @Operation(summary = "Instrument statistics", description = "Instrument counts by type, overall and per venue.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved statistics")
+    })
+    public ResponseEntity<InstrumentStatistics> getInstrumentStatistics() {
+        return ResponseEntity.ok(statistics.instrumentStatistics());
+    }
+
+    /**
+     * Returns instrument counts by type for a single venue.
+     */
+    @GetMapping("/venues/{venueId}/instruments")
+    @Operation(summary = "Instrument statistics for a venue", description = "Instrument counts by type for one venue; all zero for an unknown venue.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved statistics")
+    })
+    public ResponseEntity<Map<InstrumentType, Long>> getVenueInstrumentStatistics(
+            @Parameter(description = "ID of the venue") @PathVariable Long venueId) {
+        return ResponseEntity.ok(statistics.instrumentStatisticsForVenue(venueId));
+    }
+}
@@ -0,0 +1,10 @@
+package com.tobi.venuemgmt.statistics;
+
+import com.tobi.venuemgmt.venue.VenueStatus;
+import com.tobi.venuemgmt.venue.VenueType;
+
+import java.util.Map;
+
+public record VenueStatistics(long total, Map<String, Long> byLocation, Map<VenueType, Long> byType,
+        Map<VenueStatus, Long> byStatus) {
+}
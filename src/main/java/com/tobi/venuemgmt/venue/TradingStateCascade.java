@@ -0,0 +1,10 @@
+package com.tobi.venuemgmt.venue;
+
+import com.tobi.venuemgmt.instrument.InstrumentTradingState;
+
+/**
+ * Result of a venue-wide halt or resume: the state the venue's instruments
+ * were moved to and how many of them changed.
+ */
+public record TradingStateCascade(Long venueId, InstrumentTradingState tradingState, int instruments) {
+}
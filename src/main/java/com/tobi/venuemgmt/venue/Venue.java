@@ -1,14 +1,22 @@
 package com.tobi.venuemgmt.venue;
 
 import com.tobi.venuemgmt.common.BaseEntity;
+import com.tobi.venuemgmt.common.NameKey;
 import com.tobi.venuemgmt.instrument.Instrument;
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.EnumType;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.CascadeType;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
 import lombok.Data;
@@ -22,9 +30,25 @@ import java.util.List;
 @Data
 @Getter
 @Setter
+// Status and type back the venue filters of the instrument search
+@Table(name = "venue",
+        uniqueConstraints = @UniqueConstraint(name = Venue.NAME_KEY_CONSTRAINT, columnNames = "name_key"),
+        indexes = {
+                @Index(name = "idx_venue_status_type", columnList = "status, type"),
+                @Index(name = "idx_venue_type", columnList = "type")
+        })
 @JsonIdentityInfo(generator = ObjectIdGenerators.PropertyGenerator.class, property = "id")
 public class Venue extends BaseEntity {
+
+    public static final String NAME_KEY_CONSTRAINT = "uk_venue_name_key";
+
     private String name;
+
+    // Normalized name backing the unique index; derived from name, never set directly
+    @JsonIgnore
+    @Column(name = "name_key", nullable = false)
+    private String nameKey;
+
     private String location;
 
     @Enumerated(EnumType.STRING)
@@ -36,4 +60,9 @@ public class Venue extends BaseEntity {
     @OneToMany(mappedBy = "venue", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Instrument> instruments;
 
+    @PrePersist
+    @PreUpdate
+    void normalizeNameKey() {
+        this.nameKey = NameKey.normalize(name);
+    }
 }
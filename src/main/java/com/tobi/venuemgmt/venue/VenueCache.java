@@ -0,0 +1,16 @@
+package com.tobi.venuemgmt.venue;
+
+import com.tobi.venuemgmt.common.cache.ReferenceDataCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache of venues by ID, sitting in front of VenueRepository.
+ */
+@Component
+public class VenueCache extends ReferenceDataCache<Venue> {
+
+    public VenueCache(@Value("${app.cache.venues.max-size:10000}") int maxSize) {
+        super("venues", maxSize);
+    }
+}
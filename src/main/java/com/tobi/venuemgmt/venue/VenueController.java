@@ -1,14 +1,28 @@
 package com.tobi.venuemgmt.venue;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tobi.venuemgmt.common.CursorPage;
+import com.tobi.venuemgmt.common.FetchView;
+import com.tobi.venuemgmt.common.NdjsonWriter;
+import com.tobi.venuemgmt.common.PageSizePolicy;
+import com.tobi.venuemgmt.common.ReferenceDataVersion;
+import com.tobi.venuemgmt.common.VersionTag;
+import com.tobi.venuemgmt.common.datasource.ReadRouting;
+import com.tobi.venuemgmt.exception.PreconditionFailedException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -18,47 +32,156 @@ import java.util.List;
 public class VenueController {
 
     private final VenueService venueService;
+    private final PageSizePolicy pageSizePolicy;
+    private final ObjectMapper objectMapper;
+    private final VenueStatusFeed venueStatusFeed;
+    private final ReferenceDataVersion referenceDataVersion;
+    private final VenueStatusWriteCoalescer statusWriteCoalescer;
 
     @Autowired
-    public VenueController(VenueService venueService) {
+    public VenueController(VenueService venueService, PageSizePolicy pageSizePolicy, ObjectMapper objectMapper,
+            VenueStatusFeed venueStatusFeed, ReferenceDataVersion referenceDataVersion,
+            VenueStatusWriteCoalescer statusWriteCoalescer) {
         this.venueService = venueService;
+        this.pageSizePolicy = pageSizePolicy;
+        this.objectMapper = objectMapper;
+        this.venueStatusFeed = venueStatusFeed;
+        this.referenceDataVersion = referenceDataVersion;
+        this.statusWriteCoalescer = statusWriteCoalescer;
+    }
+
+    // Covers everything the representation embeds: the venue and its instruments
+    private static String etag(Venue venue) {
+        return new VersionTag().add(venue).addAll(venue.getInstruments()).toETag();
     }
 
     /**
      * Retrieves all venues. Can be filtered by type or name using request
      * parameters.
      * If no parameters are provided, it returns all venues.
+     * With view=SHALLOW the venues are returned without their instruments.
+     * The response carries an ETag; a request whose If-None-Match still
+     * matches gets 304 without a database query. Otherwise the venues are read
+     * on the primary, so the body is never older than its ETag.
      */
     @GetMapping
-    @Operation(summary = "Get all venues or filter by properties", description = "Returns a list of all venues. Optionally filters by 'type' or 'name'.")
+    @Operation(summary = "Get all venues or filter by properties", description = "Returns a list of all venues. Optionally filters by 'type' or 'name'. Use view=SHALLOW to omit instruments. Supports If-None-Match.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Successfully retrieved list")
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved list"),
+            @ApiResponse(responseCode = "304", description = "Unchanged since the ETag in If-None-Match")
     })
-    public ResponseEntity<List<Venue>> getAllVenues(
+    public ResponseEntity<List<?>> getAllVenues(
             @RequestParam(required = false) VenueType type, // Use VenueType enum
-            @RequestParam(required = false) String name) {
+            @RequestParam(required = false) String name,
+            @Parameter(description = "SHALLOW for flat venue rows, DEEP (default) to include instruments") @RequestParam(defaultValue = "DEEP") FetchView view,
+            WebRequest request) {
+        String etag = referenceDataVersion.etag("venues");
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        // The ETag is the primary's version, so a lagging replica must not supply the body
+        return ResponseEntity.ok().eTag(etag).body(ReadRouting.onPrimary(() -> findVenues(type, name, view)));
+    }
 
+    private List<?> findVenues(VenueType type, String name, FetchView view) {
+        if (view == FetchView.SHALLOW) {
+            if (type != null) {
+                return venueService.findVenueSummariesByType(type);
+            }
+            if (name != null) {
+                return venueService.findVenueSummariesByName(name);
+            }
+            return venueService.findAllVenueSummaries();
+        }
         if (type != null) {
-            return ResponseEntity.ok(venueService.findVenuesByType(type));
+            return venueService.findVenuesByType(type);
         }
         if (name != null) {
-            return ResponseEntity.ok(venueService.findVenuesByName(name));
+            return venueService.findVenuesByName(name);
+        }
+        return venueService.findAllVenues();
+    }
+
+    /**
+     * Returns one page of venues ordered by ID. Each page starts after the ID
+     * given as the cursor, so paging stays fast however deep the client goes.
+     */
+    @GetMapping("/page")
+    @Operation(summary = "Get a page of venues", description = "Keyset pagination over venues ordered by ID. Pass the returned nextCursor as 'after' to get the next page.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved page"),
+            @ApiResponse(responseCode = "304", description = "Unchanged since the ETag in If-None-Match"),
+            @ApiResponse(responseCode = "400", description = "Invalid page size")
+    })
+    public ResponseEntity<CursorPage<VenueSummary>> getVenuePage(
+            @Parameter(description = "Return venues with an ID greater than this cursor") @RequestParam(defaultValue = "0") long after,
+            @Parameter(description = "Maximum number of venues to return") @RequestParam(required = false) Integer size,
+            WebRequest request) {
+        int pageSize = pageSizePolicy.resolve(size);
+        String etag = referenceDataVersion.etag("venues");
+        if (request.checkNotModified(etag)) {
+            return null;
         }
-        return ResponseEntity.ok(venueService.findAllVenues());
+        return ResponseEntity.ok().eTag(etag)
+                .body(ReadRouting.onPrimary(() -> venueService.findVenueSummaryPage(after, pageSize)));
     }
 
     /**
-     * Finds a single venue by its unique ID.
+     * Streams every venue as newline-delimited JSON, one venue per line,
+     * straight from a database cursor.
+     */
+    @GetMapping(value = "/stream", produces = NdjsonWriter.MEDIA_TYPE)
+    @Operation(summary = "Stream all venues", description = "Returns all venues as NDJSON without materializing the full list in memory.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stream started")
+    })
+    public ResponseEntity<StreamingResponseBody> streamVenues() {
+        StreamingResponseBody body = out -> {
+            NdjsonWriter writer = new NdjsonWriter(objectMapper, out);
+            venueService.streamVenueSummaries(writer::write);
+            writer.finish();
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NdjsonWriter.MEDIA_TYPE)).body(body);
+    }
+
+    /**
+     * Subscribes to venue status changes as Server-Sent Events. Reconnecting
+     * clients send the last event ID they saw and receive what they missed; a
+     * "resync" event means the client must re-read venue state and reconnect
+     * from its ID. IDs from before a restart always get a resync.
+     */
+    @GetMapping(value = "/status-feed", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Subscribe to venue status changes", description = "Server-Sent Events feed of venue OPEN/CLOSED changes. Resume with the Last-Event-ID header or the 'since' parameter.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Feed opened")
+    })
+    public SseEmitter subscribeToVenueStatus(
+            @Parameter(description = "ID of the last event received, as epoch-sequence") @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            @Parameter(description = "Alternative to Last-Event-ID for clients that cannot set headers") @RequestParam(required = false) String since) {
+        return venueStatusFeed.subscribe(lastEventId != null ? lastEventId : since);
+    }
+
+    /**
+     * Finds a single venue by its unique ID. The ETag is derived from the
+     * versions of the venue and its instruments; send it back in If-Match when
+     * updating.
      */
     @GetMapping("/{id}")
-    @Operation(summary = "Get a single venue by ID", description = "Returns a single venue, if found.")
+    @Operation(summary = "Get a single venue by ID", description = "Returns a single venue, if found. Supports If-None-Match.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved venue"),
+            @ApiResponse(responseCode = "304", description = "Unchanged since the ETag in If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Venue not found with the given ID")
     })
     public ResponseEntity<Venue> getVenueById(
-            @Parameter(description = "ID of the venue to retrieve") @PathVariable Long id) {
-        return ResponseEntity.ok(venueService.findVenueById(id));
+            @Parameter(description = "ID of the venue to retrieve") @PathVariable Long id,
+            WebRequest request) {
+        Venue venue = venueService.findVenueById(id);
+        String etag = etag(venue);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(venue);
     }
 
     /**
@@ -77,26 +200,42 @@ public class VenueController {
     /**
      * Updates an existing venue's details.
      * The entire venue object is updated with the new data.
+     * With If-Match, the update only applies if the venue still has that ETag;
+     * an update that races with another one fails with 409 either way.
      */
     @PutMapping("/{id}")
-    @Operation(summary = "Update an existing venue", description = "Updates all details for an existing venue identified by its ID.")
+    @Operation(summary = "Update an existing venue", description = "Updates all details for an existing venue identified by its ID. Send the ETag from a GET in If-Match to avoid overwriting someone else's change.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Venue updated successfully"),
-            @ApiResponse(responseCode = "404", description = "Venue not found with the given ID")
+            @ApiResponse(responseCode = "404", description = "Venue not found with the given ID"),
+            @ApiResponse(responseCode = "409", description = "Venue was modified concurrently"),
+            @ApiResponse(responseCode = "412", description = "Venue no longer matches If-Match")
     })
     public ResponseEntity<Venue> updateVenue(
             @Parameter(description = "ID of the venue to update") @PathVariable Long id,
-            @RequestBody Venue updatedVenue) {
-        Venue venue = venueService.updateVenue(id, updatedVenue);
-        return ResponseEntity.ok(venue);
+            @RequestBody Venue updatedVenue,
+            @Parameter(description = "ETag of the version the update is based on") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = null;
+        if (ifMatch != null) {
+            Venue current = venueService.findVenueForUpdate(id);
+            if (!VersionTag.matches(ifMatch, etag(current))) {
+                throw new PreconditionFailedException("Venue with ID " + id + " has changed since it was read.");
+            }
+            expectedVersion = current.getVersion();
+        }
+        Venue venue = venueService.updateVenue(id, updatedVenue, expectedVersion);
+        return ResponseEntity.ok().eTag(etag(venue)).body(venue);
     }
 
     /**
      * Partially updates a venue's status. This is more efficient than a full PUT
-     * for just changing the operational status.
+     * for just changing the operational status. Changes arriving together are
+     * written in one transaction (see VenueStatusWriteCoalescer); the response
+     * is sent once this one is committed, with the venue read back from the
+     * primary.
      */
     @PatchMapping("/{id}/status")
-    @Operation(summary = "Update a venue's status", description = "Partially updates only the status of a specific venue.")
+    @Operation(summary = "Update a venue's status", description = "Partially updates only the status of a specific venue. Closing it halts its ACTIVE instruments; opening it resumes its HALTED ones. Responds once the change is committed; changes to the same venue within the coalescing window are written once, with the latest status.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Venue status updated successfully"),
             @ApiResponse(responseCode = "404", description = "Venue not found with the given ID")
@@ -104,8 +243,39 @@ public class VenueController {
     public ResponseEntity<Venue> updateVenueStatus(
             @Parameter(description = "ID of the venue to update") @PathVariable Long id,
             @Parameter(description = "The new status for the venue") @RequestParam VenueStatus status) {
-        Venue updatedVenue = venueService.updateVenueStatus(id, status);
-        return ResponseEntity.ok(updatedVenue);
+        statusWriteCoalescer.update(id, status);
+        // The batch writes summaries; the response keeps the full venue, as it always has
+        return ResponseEntity.ok(venueService.findVenueById(id));
+    }
+
+    /**
+     * Halts every ACTIVE instrument of a venue at once, with a single
+     * database update. The venue's own status is not changed.
+     */
+    @PostMapping("/{id}/instruments/halt")
+    @Operation(summary = "Halt all instruments of a venue", description = "Moves every ACTIVE instrument of the venue to HALTED in one set-based update and returns how many changed.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Instruments halted"),
+            @ApiResponse(responseCode = "404", description = "Venue not found with the given ID")
+    })
+    public ResponseEntity<TradingStateCascade> haltInstruments(
+            @Parameter(description = "ID of the venue whose instruments to halt") @PathVariable Long id) {
+        return ResponseEntity.ok(venueService.haltInstruments(id));
+    }
+
+    /**
+     * Makes every HALTED instrument of a venue ACTIVE again, with a single
+     * database update. Suspended instruments stay suspended.
+     */
+    @PostMapping("/{id}/instruments/resume")
+    @Operation(summary = "Resume all halted instruments of a venue", description = "Moves every HALTED instrument of the venue back to ACTIVE in one set-based update and returns how many changed.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Instruments resumed"),
+            @ApiResponse(responseCode = "404", description = "Venue not found with the given ID")
+    })
+    public ResponseEntity<TradingStateCascade> resumeInstruments(
+            @Parameter(description = "ID of the venue whose instruments to resume") @PathVariable Long id) {
+        return ResponseEntity.ok(venueService.resumeInstruments(id));
     }
 
     /**
@@ -1,26 +1,82 @@
 package com.tobi.venuemgmt.venue;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface VenueRepository extends JpaRepository<Venue, Long> {
 
+    // List finders fetch-join the instruments so serializing the result costs one query
+    @Override
+    @EntityGraph(attributePaths = "instruments")
+    List<Venue> findAll();
+
+    @EntityGraph(attributePaths = "instruments")
     List<Venue> findByType(VenueType type);
     
     List<Venue> findByStatus(String status);
 
+    @EntityGraph(attributePaths = "instruments")
     List<Venue> findByNameContainingIgnoreCase(String name);
 
+    // Uniqueness checks against the uk_venue_name_key index
+    boolean existsByNameKey(String nameKey);
+
+    boolean existsByNameKeyAndIdNot(String nameKey, Long id);
+
     List<Venue> findByLocationContainingIgnoreCase(String location);
 
     @Query("SELECT v FROM Venue v WHERE v.name LIKE %:name%")
     List<Venue> findByNamePartialMatch(@Param("name") String name);
 
-    @Query(value = "SELECT location, COUNT(*) FROM venue GROUP BY location", nativeQuery = true)
-    List<Object[]> countVenuesByLocation();
+
+    @Query("SELECT new com.tobi.venuemgmt.venue.VenueSummary(v.id, v.name, v.location, v.type, v.status) "
+            + "FROM Venue v")
+    List<VenueSummary> findAllSummaries();
+
+    @Query("SELECT new com.tobi.venuemgmt.venue.VenueSummary(v.id, v.name, v.location, v.type, v.status) "
+            + "FROM Venue v WHERE v.type = :type")
+    List<VenueSummary> findSummariesByType(@Param("type") VenueType type);
+
+    @Query("SELECT new com.tobi.venuemgmt.venue.VenueSummary(v.id, v.name, v.location, v.type, v.status) "
+            + "FROM Venue v WHERE LOWER(v.name) LIKE LOWER(CONCAT('%', :name, '%'))")
+    List<VenueSummary> findSummariesByName(@Param("name") String name);
+
+    // Keyset pagination: the Pageable only supplies the limit, the cursor is the last ID seen
+    @Query("SELECT new com.tobi.venuemgmt.venue.VenueSummary(v.id, v.name, v.location, v.type, v.status) "
+            + "FROM Venue v WHERE v.id > :afterId ORDER BY v.id")
+    List<VenueSummary> findSummariesAfter(@Param("afterId") Long afterId, Pageable limit);
+
+    // Must be consumed inside a transaction and closed
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.tobi.venuemgmt.venue.VenueSummary(v.id, v.name, v.location, v.type, v.status) "
+            + "FROM Venue v ORDER BY v.id")
+    Stream<VenueSummary> streamAllSummaries();
+
+    @Query("SELECT new com.tobi.venuemgmt.venue.VenueSummary(v.id, v.name, v.location, v.type, v.status) "
+            + "FROM Venue v WHERE v.id IN :ids")
+    List<VenueSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Set-based status change; bumps the version as an entity update would
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE Venue v SET v.status = :status, v.version = v.version + 1 WHERE v.id IN :ids")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("status") VenueStatus status);
+
+    // Rows of [id, status] used to build the in-memory tradability index
+    @Query("SELECT v.id, v.status FROM Venue v")
+    List<Object[]> findAllStatuses();
 }
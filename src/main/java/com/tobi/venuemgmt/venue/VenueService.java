@@ -1,78 +1,467 @@
 package com.tobi.venuemgmt.venue;
 
+import com.tobi.venuemgmt.common.CursorPage;
+import com.tobi.venuemgmt.common.NameKey;
+import com.tobi.venuemgmt.common.ReferenceDataVersion;
+import com.tobi.venuemgmt.common.datasource.ReadRouting;
 import com.tobi.venuemgmt.exception.ResourceAlreadyExistsException;
 import com.tobi.venuemgmt.exception.ResourceNotFoundException;
+import com.tobi.venuemgmt.instrument.InstrumentCache;
+import com.tobi.venuemgmt.instrument.InstrumentRepository;
+import com.tobi.venuemgmt.instrument.InstrumentTradingState;
+import com.tobi.venuemgmt.instrument.SymbolIndex;
+import com.tobi.venuemgmt.instrument.TradabilityIndex;
+import com.tobi.venuemgmt.referencedata.ReferenceDataChange;
+import com.tobi.venuemgmt.referencedata.ReferenceDataChangeLog;
+import com.tobi.venuemgmt.statistics.ReferenceDataStatistics;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class VenueService {
 
+    // Keeps IN lists well under database parameter limits
+    private static final int STATUS_BATCH_CHUNK_SIZE = 1_000;
+
     private final VenueRepository venueRepository;
+    private final VenueCache venueCache;
+    private final InstrumentCache instrumentCache;
+    private final TradabilityIndex tradabilityIndex;
+    private final VenueStatusFeed venueStatusFeed;
+    private final ReferenceDataStatistics statistics;
+    private final SymbolIndex symbolIndex;
+    private final ReferenceDataChangeLog changeLog;
+    private final InstrumentRepository instrumentRepository;
+    private final ReferenceDataVersion referenceDataVersion;
+    private final TransactionTemplate transactionTemplate;
 
     @Autowired
-    public VenueService(VenueRepository venueRepository) {
+    public VenueService(VenueRepository venueRepository, VenueCache venueCache, InstrumentCache instrumentCache,
+            TradabilityIndex tradabilityIndex, VenueStatusFeed venueStatusFeed, ReferenceDataStatistics statistics,
+            SymbolIndex symbolIndex, ReferenceDataChangeLog changeLog, InstrumentRepository instrumentRepository,
+            ReferenceDataVersion referenceDataVersion, TransactionTemplate transactionTemplate) {
         this.venueRepository = venueRepository;
+        this.venueCache = venueCache;
+        this.instrumentCache = instrumentCache;
+        this.tradabilityIndex = tradabilityIndex;
+        this.venueStatusFeed = venueStatusFeed;
+        this.statistics = statistics;
+        this.symbolIndex = symbolIndex;
+        this.changeLog = changeLog;
+        this.instrumentRepository = instrumentRepository;
+        this.referenceDataVersion = referenceDataVersion;
+        this.transactionTemplate = transactionTemplate;
     }
 
+    @Transactional(readOnly = true)
     public List<Venue> findAllVenues() {
         return venueRepository.findAll();
     }
 
+    /**
+     * Finds a venue by ID, served from the venue cache when possible.
+     * The returned instance is shared and must not be modified; mutators below
+     * always load a fresh copy from the repository.
+     */
+    @Transactional(readOnly = true)
     public Venue findVenueById(Long id) {
-        return venueRepository.findById(id)
+        return venueCache.get(id, this::loadVenueWithInstruments);
+    }
+
+    /**
+     * Reads a venue from the primary, bypassing the venue cache, for a caller
+     * that goes on to update it, for example to check If-Match. The update
+     * changes the instance it loads before saving it; with open-in-view that
+     * is the instance read here, which must not be one the cache shares.
+     */
+    @Transactional
+    public Venue findVenueForUpdate(Long id) {
+        return loadVenueWithInstruments(id);
+    }
+
+    private Venue loadVenueWithInstruments(Long id) {
+        Venue venue = loadVenue(id);
+        // Cached venues outlive the persistence context, so the lazy list must be loaded now
+        Hibernate.initialize(venue.getInstruments());
+        return venue;
+    }
+
+    // Mutators and the cache must not act on a copy from a lagging replica
+    private Venue loadVenue(Long id) {
+        return ReadRouting.onPrimary(() -> venueRepository.findById(id))
                 .orElseThrow(() -> new ResourceNotFoundException("Venue with ID " + id + " not found."));
     }
 
     public Venue saveVenue(Venue venue) {
 
-        checkDuplicateVenue(venue);
+        checkDuplicateVenue(venue.getName(), venue.getId());
 
-        if (venue.getId() == null) {
+        boolean created = venue.getId() == null;
+        if (created) {
             venue.setStatus(VenueStatus.OPEN);
         }
-        return venueRepository.save(venue);
+        Venue savedVenue = transactionTemplate.execute(transaction -> {
+            Venue saved = saveFlushed(venue);
+            changeLog.venueChanged(created ? ReferenceDataChange.Type.CREATE : ReferenceDataChange.Type.UPDATE,
+                    VenueSummary.of(saved));
+            return saved;
+        });
+        invalidate(savedVenue.getId());
+        tradabilityIndex.putVenue(savedVenue.getId(), savedVenue.getStatus());
+        recordStatistics(savedVenue);
+        return savedVenue;
     }
 
-     public Venue updateVenue(Long id, Venue updatedVenue) {
-        Venue venue = findVenueById(id); // Throws an exception if not found
+    public Venue updateVenue(Long id, Venue updatedVenue) {
+        return updateVenue(id, updatedVenue, null);
+    }
 
-        checkDuplicateVenue(updatedVenue);
+    /**
+     * Updates a venue's details. The save is checked against the version that
+     * was read, so a concurrent update makes it fail with
+     * ObjectOptimisticLockingFailureException instead of being overwritten.
+     *
+     * @param expectedVersion the version the caller based its changes on, or
+     *                        null to accept whatever version is current.
+     */
+    public Venue updateVenue(Long id, Venue updatedVenue, Long expectedVersion) {
+        Venue venue = loadVenue(id); // Throws an exception if not found
+        checkVersion(venue, expectedVersion);
 
-        venue.setName(updatedVenue.getName());
-        venue.setLocation(updatedVenue.getLocation());
-        venue.setType(updatedVenue.getType());
-        return venueRepository.save(venue);
+        checkDuplicateVenue(updatedVenue.getName(), id);
+
+        Venue savedVenue;
+        try {
+            venue.setName(updatedVenue.getName());
+            venue.setLocation(updatedVenue.getLocation());
+            venue.setType(updatedVenue.getType());
+            savedVenue = transactionTemplate.execute(transaction -> {
+                Venue saved = saveFlushed(venue);
+                changeLog.venueChanged(ReferenceDataChange.Type.UPDATE, VenueSummary.of(saved));
+                return saved;
+            });
+        } finally {
+            // Also when the save fails, so a cached copy never outlives changes that were not written
+            invalidate(id);
+        }
+        recordStatistics(savedVenue);
+        return savedVenue;
     }
 
     public void deleteVenue(Long id) {
-        venueRepository.deleteById(id);
+        transactionTemplate.executeWithoutResult(transaction -> {
+            venueRepository.deleteById(id);
+            venueRepository.flush();
+            changeLog.venueDeleted(id);
+        });
+        invalidate(id);
+        tradabilityIndex.removeVenue(id);
+        statistics.venueRemoved(id);
+        // The venue's instruments are deleted with it
+        symbolIndex.removeVenue(id);
+    }
+
+    /**
+     * Applies a batch of manual status changes in one transaction: one read
+     * of the current statuses, then one UPDATE per target status for the
+     * venues and one for their instruments. Venues already in the requested
+     * status are not written. Unknown venue IDs are ignored.
+     *
+     * Closing a venue halts its ACTIVE instruments and opening it resumes its
+     * HALTED ones; suspended instruments stay suspended. A venue with a
+     * trading calendar is next opened by its session boundary
+     * (applyScheduledStatuses), which resumes them too. As in
+     * cascadeTradingState, closing venues leave the TradabilityIndex before
+     * the database is written and opening ones join it after the commit.
+     *
+     * @return the venues found, with their new status, by ID.
+     */
+    public Map<Long, VenueSummary> updateVenueStatuses(Map<Long, VenueStatus> statuses) {
+        Map<Long, VenueSummary> found = new HashMap<>(statuses.size() * 2);
+        Map<VenueStatus, List<Long>> changedIds = new EnumMap<>(VenueStatus.class);
+        List<VenueSummary> changed = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(transaction -> {
+            inChunks(new ArrayList<>(statuses.keySet()), ids -> {
+                for (VenueSummary venue : venueRepository.findSummariesByIdIn(ids)) {
+                    VenueStatus status = statuses.get(venue.id());
+                    VenueSummary updated = new VenueSummary(venue.id(), venue.name(), venue.location(),
+                            venue.type(), status);
+                    found.put(venue.id(), updated);
+                    if (venue.status() != status) {
+                        changedIds.computeIfAbsent(status, s -> new ArrayList<>()).add(venue.id());
+                        changed.add(updated);
+                    }
+                }
+            });
+
+            List<Long> closing = changedIds.getOrDefault(VenueStatus.CLOSED, List.of());
+            tradabilityIndex.putVenues(statusMap(closing, VenueStatus.CLOSED));
+            tradabilityIndex.cascadeInstrumentStates(closing, InstrumentTradingState.ACTIVE,
+                    InstrumentTradingState.HALTED);
+            changedIds.forEach((status, venueIds) -> inChunks(venueIds, ids -> {
+                venueRepository.updateStatus(ids, status);
+                if (status == VenueStatus.CLOSED) {
+                    instrumentRepository.updateTradingStateByVenueIdIn(ids, InstrumentTradingState.ACTIVE,
+                            InstrumentTradingState.HALTED);
+                } else {
+                    instrumentRepository.updateTradingStateByVenueIdIn(ids, InstrumentTradingState.HALTED,
+                            InstrumentTradingState.ACTIVE);
+                }
+            }));
+            changeLog.venuesChanged(ReferenceDataChange.Type.STATUS, changed);
+        });
+        if (changed.isEmpty()) {
+            return found;
+        }
+
+        List<Long> opening = changedIds.getOrDefault(VenueStatus.OPEN, List.of());
+        tradabilityIndex.putVenues(statusMap(opening, VenueStatus.OPEN));
+        statusesCommitted(opening, changed);
+        return found;
+    }
+
+    // The change log holds its lock through the commit, which must not be left a flush to wait on
+    private Venue saveFlushed(Venue venue) {
+        Venue saved = venueRepository.save(venue);
+        venueRepository.flush();
+        return saved;
+    }
+
+    private static Map<Long, VenueStatus> statusMap(List<Long> venueIds, VenueStatus status) {
+        Map<Long, VenueStatus> statuses = new HashMap<>(venueIds.size() * 2);
+        for (Long venueId : venueIds) {
+            statuses.put(venueId, status);
+        }
+        return statuses;
+    }
+
+    private static void inChunks(List<Long> ids, Consumer<List<Long>> action) {
+        for (int from = 0; from < ids.size(); from += STATUS_BATCH_CHUNK_SIZE) {
+            action.accept(ids.subList(from, Math.min(from + STATUS_BATCH_CHUNK_SIZE, ids.size())));
+        }
+    }
+
+    /**
+     * Halts every ACTIVE instrument of the venue, leaving the venue's own
+     * status as it is.
+     *
+     * @throws ResourceNotFoundException if the venue does not exist.
+     */
+    public TradingStateCascade haltInstruments(Long id) {
+        requireVenue(id);
+        int changed = cascadeTradingState(id, InstrumentTradingState.ACTIVE, InstrumentTradingState.HALTED);
+        return new TradingStateCascade(id, InstrumentTradingState.HALTED, changed);
+    }
+
+    /**
+     * Makes every HALTED instrument of the venue ACTIVE again. Suspended
+     * instruments are left suspended.
+     *
+     * @throws ResourceNotFoundException if the venue does not exist.
+     */
+    public TradingStateCascade resumeInstruments(Long id) {
+        requireVenue(id);
+        int changed = cascadeTradingState(id, InstrumentTradingState.HALTED, InstrumentTradingState.ACTIVE);
+        return new TradingStateCascade(id, InstrumentTradingState.ACTIVE, changed);
+    }
+
+    /**
+     * Moves the venue's instruments from one trading state to another with a
+     * single UPDATE, without loading them, then drops the cached copies. The
+     * TradabilityIndex changes all of them at once, under one write lock:
+     * before the database when halting, so no order slips through while the
+     * update runs, and after it when resuming, so nothing trades that the
+     * database still has halted. A failed halt therefore leaves the index
+     * stricter than the database until it is retried.
+     *
+     * @return the number of instruments changed.
+     */
+    private int cascadeTradingState(Long venueId, InstrumentTradingState from, InstrumentTradingState to) {
+        boolean halting = to != InstrumentTradingState.ACTIVE;
+        if (halting) {
+            tradabilityIndex.cascadeInstrumentState(venueId, from, to);
+        }
+        int changed = instrumentRepository.updateTradingStateByVenueId(venueId, from, to);
+        if (!halting) {
+            tradabilityIndex.cascadeInstrumentState(venueId, from, to);
+        }
+        invalidate(venueId);
+        referenceDataVersion.bump();
+        return changed;
+    }
+
+    private void requireVenue(Long id) {
+        if (!ReadRouting.onPrimary(() -> venueRepository.existsById(id))) {
+            throw new ResourceNotFoundException("Venue with ID " + id + " not found.");
+        }
     }
 
-    public Venue updateVenueStatus(Long id, VenueStatus newStatus) {
-        Venue venue = findVenueById(id);
-        venue.setStatus(newStatus);
-        return venueRepository.save(venue); 
+    /**
+     * Applies a batch of status changes from the trading session scheduler.
+     * The TradabilityIndex switches every venue in the batch at once, before
+     * the database is written, so orders see the boundary as a single instant.
+     * The database is then updated with one statement per target status, in
+     * the same transaction as the read. Unknown venue IDs are ignored.
+     *
+     * A scheduled close leaves instrument trading states alone, since the
+     * closed venue already stops their orders. A scheduled open resumes the
+     * HALTED instruments of the venues it opens, as a manual open does, so
+     * instruments halted by a manual close trade again at the next session.
+     * As in cascadeTradingState, the index resumes them after the database.
+     *
+     * @return the venues found, with their new status.
+     */
+    public List<VenueSummary> applyScheduledStatuses(Map<Long, VenueStatus> statuses) {
+        Map<Long, VenueStatus> foundStatuses = new HashMap<>(statuses.size() * 2);
+        Map<VenueStatus, List<Long>> changedIds = new EnumMap<>(VenueStatus.class);
+        List<VenueSummary> changed = new ArrayList<>();
+        List<VenueSummary> result = new ArrayList<>(statuses.size());
+        transactionTemplate.executeWithoutResult(transaction -> {
+            inChunks(new ArrayList<>(statuses.keySet()), ids -> {
+                for (VenueSummary venue : venueRepository.findSummariesByIdIn(ids)) {
+                    VenueStatus status = statuses.get(venue.id());
+                    VenueSummary updated = new VenueSummary(venue.id(), venue.name(), venue.location(),
+                            venue.type(), status);
+                    foundStatuses.put(venue.id(), status);
+                    result.add(updated);
+                    if (venue.status() != status) {
+                        changedIds.computeIfAbsent(status, s -> new ArrayList<>()).add(venue.id());
+                        changed.add(updated);
+                    }
+                }
+            });
+
+            tradabilityIndex.putVenues(foundStatuses);
+            changedIds.forEach((status, venueIds) -> inChunks(venueIds, ids -> {
+                venueRepository.updateStatus(ids, status);
+                if (status == VenueStatus.OPEN) {
+                    instrumentRepository.updateTradingStateByVenueIdIn(ids, InstrumentTradingState.HALTED,
+                            InstrumentTradingState.ACTIVE);
+                }
+            }));
+            changeLog.venuesChanged(ReferenceDataChange.Type.STATUS, changed);
+        });
+        if (changed.isEmpty()) {
+            return result;
+        }
+
+        statusesCommitted(changedIds.getOrDefault(VenueStatus.OPEN, List.of()), changed);
+        return result;
     }
 
+    /**
+     * Brings the in-memory state in line with a committed batch of status
+     * changes: resumes the opened venues' instruments in the TradabilityIndex,
+     * drops the cached venues and their instruments, updates the statistics
+     * and publishes each change on the status feed.
+     */
+    private void statusesCommitted(List<Long> opening, List<VenueSummary> changed) {
+        tradabilityIndex.cascadeInstrumentStates(opening, InstrumentTradingState.HALTED,
+                InstrumentTradingState.ACTIVE);
+        Set<Long> changedVenueIds = new HashSet<>(changed.size() * 2);
+        for (VenueSummary venue : changed) {
+            changedVenueIds.add(venue.id());
+            venueCache.evict(venue.id());
+            statistics.venueSaved(venue.id(), venue.location(), venue.type(), venue.status());
+        }
+        // One pass over the instrument cache for the whole batch
+        instrumentCache.evictIf(instrument -> instrument.getVenue() != null
+                && changedVenueIds.contains(instrument.getVenue().getId()));
+        for (VenueSummary venue : changed) {
+            venueStatusFeed.publish(venue.id(), venue.status());
+        }
+    }
+
+    @Transactional(readOnly = true)
     public List<Venue> findVenuesByType(VenueType type) {
         return venueRepository.findByType(type);
     }
 
+    @Transactional(readOnly = true)
     public List<Venue> findVenuesByName(String name) {
         return venueRepository.findByNameContainingIgnoreCase(name);
     }
 
-    //Helper method to check for duplicate venue names
-    private void checkDuplicateVenue(Venue venue) {
-        List<Venue> existingVenues = venueRepository.findByNameContainingIgnoreCase(venue.getName());
-        if (!existingVenues.isEmpty()) {
-            // Check if the found venue is the same as the one being updated
-            if (venue.getId() == null || (existingVenues.size() > 1 || existingVenues.get(0).getId() != venue.getId())) {
-                throw new ResourceAlreadyExistsException("A venue with the name '" + venue.getName() + "' already exists.");
-            }
+    @Transactional(readOnly = true)
+    public List<VenueSummary> findAllVenueSummaries() {
+        return venueRepository.findAllSummaries();
+    }
+
+    @Transactional(readOnly = true)
+    public List<VenueSummary> findVenueSummariesByType(VenueType type) {
+        return venueRepository.findSummariesByType(type);
+    }
+
+    @Transactional(readOnly = true)
+    public List<VenueSummary> findVenueSummariesByName(String name) {
+        return venueRepository.findSummariesByName(name);
+    }
+
+    /**
+     * Returns up to pageSize venues with an ID greater than afterId, ordered by ID.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<VenueSummary> findVenueSummaryPage(long afterId, int pageSize) {
+        List<VenueSummary> rows = venueRepository.findSummariesAfter(afterId, PageRequest.ofSize(pageSize));
+        return CursorPage.of(rows, pageSize, VenueSummary::id);
+    }
+
+    /**
+     * Feeds every venue to the consumer, row by row, from a database cursor.
+     * Memory use does not depend on the number of venues.
+     */
+    @Transactional(readOnly = true)
+    public void streamVenueSummaries(Consumer<VenueSummary> consumer) {
+        try (Stream<VenueSummary> rows = venueRepository.streamAllSummaries()) {
+            rows.forEach(consumer);
+        }
+    }
+
+    private static void checkVersion(Venue venue, Long expectedVersion) {
+        if (expectedVersion != null && venue.getVersion() != expectedVersion) {
+            throw new ObjectOptimisticLockingFailureException(Venue.class, venue.getId());
+        }
+    }
+
+    private void recordStatistics(Venue venue) {
+        statistics.venueSaved(venue.getId(), venue.getLocation(), venue.getType(), venue.getStatus());
+    }
+
+    // Drops the venue and every cached instrument holding a copy of it
+    private void invalidate(Long venueId) {
+        venueCache.evict(venueId);
+        instrumentCache.evictIf(instrument -> instrument.getVenue() != null
+                && venueId.equals(instrument.getVenue().getId()));
+    }
+
+    // Helper method to check for duplicate venue names. Exact match on the
+    // normalized name, answered from the unique index; the venue being updated
+    // (if any) is excluded.
+    private void checkDuplicateVenue(String name, Long excludedId) {
+        String nameKey = NameKey.normalize(name);
+        if (nameKey == null) {
+            return;
+        }
+        boolean exists = excludedId == null
+                ? venueRepository.existsByNameKey(nameKey)
+                : venueRepository.existsByNameKeyAndIdNot(nameKey, excludedId);
+        if (exists) {
+            throw new ResourceAlreadyExistsException("A venue with the name '" + name + "' already exists.");
         }
     }
 }
@@ -0,0 +1,25 @@
+package com.tobi.venuemgmt.venue;
+
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Venue predicates used to narrow instrument searches by venue attributes.
+ * Each is backed by an index on the venue table.
+ */
+public final class VenueSpecifications {
+
+    private VenueSpecifications() {
+    }
+
+    public static Specification<Venue> idIs(Long id) {
+        return (venue, query, cb) -> cb.equal(venue.get("id"), id);
+    }
+
+    public static Specification<Venue> statusIs(VenueStatus status) {
+        return (venue, query, cb) -> cb.equal(venue.get("status"), status);
+    }
+
+    public static Specification<Venue> typeIs(VenueType type) {
+        return (venue, query, cb) -> cb.equal(venue.get("type"), type);
+    }
+}
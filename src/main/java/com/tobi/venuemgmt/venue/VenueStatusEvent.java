@@ -0,0 +1,11 @@
+package com.tobi.venuemgmt.venue;
+
+import java.time.Instant;
+
+/**
+ * A venue status change as published on the venue status feed. Sequence
+ * numbers increase by one per event and, with the feed's epoch, make up the
+ * SSE event ID.
+ */
+public record VenueStatusEvent(long sequence, Long venueId, VenueStatus status, Instant changedAt) {
+}
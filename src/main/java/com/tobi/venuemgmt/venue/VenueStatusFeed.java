@@ -0,0 +1,213 @@
+package com.tobi.venuemgmt.venue;
+
+import com.tobi.venuemgmt.common.ReferenceDataVersion;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes venue status changes to subscribers over Server-Sent Events.
+ *
+ * Events go into one bounded ring shared by all subscribers; each subscriber
+ * only keeps its position in the ring. Publishing never waits for a
+ * subscriber: sends happen on a per-subscriber virtual thread, and a
+ * subscriber that falls more than a ring's length behind is sent a "resync"
+ * event and disconnected. It must then re-read venue state and reconnect
+ * with the ID of the resync event. A client that reconnects with
+ * Last-Event-ID receives the events it missed, provided they are still in the
+ * ring.
+ *
+ * Event IDs are the epoch of this run of the instance (see
+ * ReferenceDataVersion) and the event's sequence, as "epoch-sequence".
+ * Sequences restart at 0 with every run, so an ID from another epoch is
+ * answered with a resync rather than matched against the new sequences.
+ */
+@Component
+public class VenueStatusFeed {
+
+    private static final Logger log = LoggerFactory.getLogger(VenueStatusFeed.class);
+
+    static final String STATUS_EVENT = "venue-status";
+    static final String RESYNC_EVENT = "resync";
+
+    private final String epoch;
+    private final VenueStatusEvent[] ring;
+    private final long emitterTimeoutMillis;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    // Guarded by "ring"; sequence of the last published event, 0 before the first
+    private long lastSequence;
+
+    public VenueStatusFeed(ReferenceDataVersion referenceDataVersion,
+            @Value("${app.venue-status-feed.buffer-size:1024}") int bufferSize,
+            @Value("${app.venue-status-feed.timeout-ms:1800000}") long emitterTimeoutMillis) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Venue status feed buffer size must be positive.");
+        }
+        this.epoch = referenceDataVersion.epoch();
+        this.ring = new VenueStatusEvent[bufferSize];
+        this.emitterTimeoutMillis = emitterTimeoutMillis;
+    }
+
+    /**
+     * Records a status change and wakes up the subscribers. Returns immediately.
+     */
+    public VenueStatusEvent publish(Long venueId, VenueStatus status) {
+        VenueStatusEvent event;
+        synchronized (ring) {
+            event = new VenueStatusEvent(lastSequence + 1, venueId, status, Instant.now());
+            ring[(int) (event.sequence() % ring.length)] = event;
+            lastSequence = event.sequence();
+        }
+        subscribers.forEach(this::scheduleSend);
+        return event;
+    }
+
+    /**
+     * Opens a feed. With a lastEventId the subscriber first receives every event
+     * published after it, or a resync if that is no longer possible; without
+     * one it receives only new events.
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter,
+                lastEventId != null ? sequenceOf(lastEventId) : currentSequence());
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        scheduleSend(subscriber);
+        return emitter;
+    }
+
+    public String epoch() {
+        return epoch;
+    }
+
+    String eventId(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    // The sequence of an event ID from this epoch, or -1 for any other ID
+    long sequenceOf(String eventId) {
+        int dash = eventId.lastIndexOf('-');
+        if (dash < 0 || !eventId.substring(0, dash).equals(epoch)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    public long currentSequence() {
+        synchronized (ring) {
+            return lastSequence;
+        }
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Returns the events published after the given event ID, oldest first, or
+     * null if the ID is from another epoch or some of the events have already
+     * been overwritten, and the caller has to resync.
+     */
+    List<VenueStatusEvent> eventsAfter(String eventId) {
+        return eventsAfter(sequenceOf(eventId));
+    }
+
+    private List<VenueStatusEvent> eventsAfter(long sequence) {
+        synchronized (ring) {
+            if (sequence < 0 || sequence > lastSequence || lastSequence - sequence > ring.length) {
+                return null;
+            }
+            List<VenueStatusEvent> events = new ArrayList<>((int) (lastSequence - sequence));
+            for (long s = sequence + 1; s <= lastSequence; s++) {
+                events.add(ring[(int) (s % ring.length)]);
+            }
+            return events;
+        }
+    }
+
+    private void scheduleSend(Subscriber subscriber) {
+        if (subscriber.sending.compareAndSet(false, true)) {
+            senders.execute(() -> send(subscriber));
+        }
+    }
+
+    // Sends until the subscriber is caught up. Only one send loop runs per subscriber.
+    private void send(Subscriber subscriber) {
+        try {
+            while (true) {
+                List<VenueStatusEvent> events = eventsAfter(subscriber.position);
+                if (events == null) {
+                    resync(subscriber);
+                    return;
+                }
+                for (VenueStatusEvent event : events) {
+                    subscriber.emitter.send(SseEmitter.event()
+                            .id(eventId(event.sequence()))
+                            .name(STATUS_EVENT)
+                            .data(event));
+                    subscriber.position = event.sequence();
+                }
+                subscriber.sending.set(false);
+                // An event published after the last read would otherwise wait for the next publish
+                if (subscriber.position == currentSequence() || !subscriber.sending.compareAndSet(false, true)) {
+                    return;
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // The client went away; the emitter callbacks remove it
+            subscribers.remove(subscriber);
+            subscriber.sending.set(false);
+        }
+    }
+
+    private void resync(Subscriber subscriber) throws IOException {
+        subscribers.remove(subscriber);
+        long sequence = currentSequence();
+        log.info("Venue status subscriber fell behind at sequence {}; sending resync at {}.", subscriber.position, sequence);
+        subscriber.emitter.send(SseEmitter.event()
+                .id(eventId(sequence))
+                .name(RESYNC_EVENT)
+                .data(Map.of("epoch", epoch, "sequence", sequence)));
+        subscriber.emitter.complete();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        senders.shutdownNow();
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final AtomicBoolean sending = new AtomicBoolean();
+        // Sequence of the last event sent, -1 to resync; only written by the send loop
+        private volatile long position;
+
+        Subscriber(SseEmitter emitter, long position) {
+            this.emitter = emitter;
+            this.position = position;
+        }
+    }
+}
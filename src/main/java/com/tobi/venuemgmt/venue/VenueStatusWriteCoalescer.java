@@ -0,0 +1,268 @@
+package com.tobi.venuemgmt.venue;
+
+import com.tobi.venuemgmt.common.datasource.ReadRouting;
+import com.tobi.venuemgmt.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Coalesces bursts of manual venue status changes into batched writes.
+ *
+ * Callers enqueue a change and get a future. A change waits at most the
+ * configured window, counted from the first change of its batch; a later
+ * change to the same venue replaces one still waiting, so a venue flipped
+ * several times within the window is written once, with the status it was
+ * given last. One writer thread applies each batch through
+ * VenueService.updateVenueStatuses, in a single transaction, and completes
+ * the futures of every change in it once the transaction has committed.
+ * Batches are written one at a time in the order they were taken, so a change
+ * is never overwritten by an earlier one.
+ *
+ * A failed batch fails every future in it; nothing is retried, and the
+ * writer goes on to the next batch whatever the failure. With a window
+ * of 0, or once the application is shutting down, changes are written on the
+ * caller's thread.
+ *
+ * Read-your-writes stickiness follows the thread that commits, which here is
+ * the writer, so update marks the caller's thread once its change is
+ * acknowledged; callers of submit must call ReadRouting.markWritten
+ * themselves.
+ */
+@Component
+public class VenueStatusWriteCoalescer implements InitializingBean, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(VenueStatusWriteCoalescer.class);
+
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 5_000;
+
+    // The last status requested for a venue, and everyone waiting for it
+    private static final class Pending {
+        VenueStatus status;
+        final List<CompletableFuture<VenueSummary>> waiters = new ArrayList<>(1);
+    }
+
+    private final VenueService venueService;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final long timeoutMillis;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    // Guarded by lock, in arrival order
+    private Map<Long, Pending> pending = new LinkedHashMap<>();
+    private long batchStartNanos;
+    private boolean running;
+
+    private final LongAdder requested = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+
+    private Thread writer;
+
+    @Autowired
+    public VenueStatusWriteCoalescer(VenueService venueService, MeterRegistry meterRegistry,
+            @Value("${app.venue-status-writes.window-ms:10}") long windowMillis,
+            @Value("${app.venue-status-writes.max-batch-size:5000}") int maxBatchSize,
+            @Value("${app.venue-status-writes.timeout-ms:10000}") long timeoutMillis) {
+        if (windowMillis < 0) {
+            throw new IllegalArgumentException("Venue status write window must not be negative.");
+        }
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Venue status write batch size must be positive.");
+        }
+        if (timeoutMillis <= 0) {
+            throw new IllegalArgumentException("Venue status write timeout must be positive.");
+        }
+        this.venueService = venueService;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.maxBatchSize = maxBatchSize;
+        this.timeoutMillis = timeoutMillis;
+        FunctionCounter.builder("venue.status.writes.requested", requested, LongAdder::sum)
+                .description("Venue status changes requested")
+                .register(meterRegistry);
+        FunctionCounter.builder("venue.status.writes.batches", batches, LongAdder::sum)
+                .description("Transactions that wrote coalesced venue status changes")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (windowNanos == 0) {
+            log.info("Venue status write coalescing is disabled.");
+            return;
+        }
+        lock.lock();
+        try {
+            running = true;
+        } finally {
+            lock.unlock();
+        }
+        writer = Thread.ofPlatform().name("venue-status-writer").daemon().start(this::writeLoop);
+    }
+
+    /**
+     * Writes whatever is still waiting, then stops the writer thread.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        lock.lock();
+        try {
+            running = false;
+            changed.signal();
+        } finally {
+            lock.unlock();
+        }
+        if (writer != null) {
+            writer.join(SHUTDOWN_TIMEOUT_MILLIS);
+        }
+    }
+
+    /**
+     * Queues a status change. The future completes with the venue as written
+     * once the change is committed (with a later status, if another change to
+     * the venue replaced this one), or exceptionally with
+     * ResourceNotFoundException if the venue does not exist.
+     */
+    public CompletableFuture<VenueSummary> submit(Long id, VenueStatus status) {
+        requested.increment();
+        CompletableFuture<VenueSummary> future = new CompletableFuture<>();
+        lock.lock();
+        try {
+            if (running) {
+                if (pending.isEmpty()) {
+                    batchStartNanos = System.nanoTime();
+                    changed.signal();
+                }
+                Pending change = pending.computeIfAbsent(id, venueId -> new Pending());
+                change.status = status;
+                change.waiters.add(future);
+                if (pending.size() >= maxBatchSize) {
+                    changed.signal();
+                }
+                return future;
+            }
+        } finally {
+            lock.unlock();
+        }
+        Pending change = new Pending();
+        change.status = status;
+        change.waiters.add(future);
+        write(Map.of(id, change));
+        return future;
+    }
+
+    /**
+     * Queues a status change and waits until it is committed, then sends this
+     * thread's reads, and its client's, to the primary as if it had committed
+     * the change itself.
+     *
+     * @return the venue as written.
+     * @throws ResourceNotFoundException if the venue does not exist.
+     * @throws IllegalStateException     if the change is not committed within
+     *                                   the configured timeout.
+     */
+    public VenueSummary update(Long id, VenueStatus status) {
+        CompletableFuture<VenueSummary> future = submit(id, status);
+        try {
+            VenueSummary venue = future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            ReadRouting.markWritten();
+            return venue;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            // The change stays queued and is still written
+            throw new IllegalStateException("Interrupted while waiting for the status of venue " + id + ".", e);
+        } catch (TimeoutException e) {
+            // As above; the caller just stops waiting for it
+            throw new IllegalStateException("Status of venue " + id + " was not written within " + timeoutMillis
+                    + " ms.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void writeLoop() {
+        while (true) {
+            Map<Long, Pending> batch;
+            try {
+                batch = awaitBatch();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            write(batch);
+            // Stickiness from the commit belongs to the callers, not to this thread
+            ReadRouting.reset();
+        }
+    }
+
+    // Returns an empty batch once stopped and drained
+    private Map<Long, Pending> awaitBatch() throws InterruptedException {
+        lock.lock();
+        try {
+            while (running && pending.isEmpty()) {
+                changed.await();
+            }
+            while (running && pending.size() < maxBatchSize) {
+                long remaining = batchStartNanos + windowNanos - System.nanoTime();
+                if (remaining <= 0) {
+                    break;
+                }
+                changed.awaitNanos(remaining);
+            }
+            Map<Long, Pending> batch = pending;
+            pending = new LinkedHashMap<>();
+            return batch;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void write(Map<Long, Pending> batch) {
+        Map<Long, VenueStatus> statuses = new HashMap<>(batch.size() * 2);
+        batch.forEach((venueId, change) -> statuses.put(venueId, change.status));
+        Map<Long, VenueSummary> written;
+        try {
+            written = venueService.updateVenueStatuses(statuses);
+            batches.increment();
+        } catch (Throwable e) {
+            // Errors too: the waiters must hear of it, and the writer must live on for the next batch
+            log.error("Failed to write status changes for {} venues.", batch.size(), e);
+            batch.values().forEach(change -> change.waiters.forEach(waiter -> waiter.completeExceptionally(e)));
+            return;
+        }
+        batch.forEach((venueId, change) -> {
+            VenueSummary venue = written.get(venueId);
+            if (venue == null) {
+                ResourceNotFoundException notFound =
+                        new ResourceNotFoundException("Venue with ID " + venueId + " not found.");
+                change.waiters.forEach(waiter -> waiter.completeExceptionally(notFound));
+            } else {
+                change.waiters.forEach(waiter -> waiter.complete(venue));
+            }
+        });
+    }
+}
@@ -0,0 +1,12 @@
+package com.tobi.venuemgmt.venue;
+
+/**
+ * Flat view of a venue without its instruments, used for shallow list responses.
+ */
+public record VenueSummary(Long id, String name, String location, VenueType type, VenueStatus status) {
+
+    public static VenueSummary of(Venue venue) {
+        return new VenueSummary(venue.getId(), venue.getName(), venue.getLocation(), venue.getType(),
+                venue.getStatus());
+    }
+}
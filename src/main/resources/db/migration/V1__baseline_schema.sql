@@ -0,0 +1,58 @@
+-- Schema of db/venue_db_dump.sql. Databases created from the dump are baselined
+-- at version 0 (spring.flyway.baseline-on-migrate) and then run this too, so every
+-- statement must be a no-op on the tables the dump already has: dumps from before
+-- the trading calendar tables get them here, V2 adds the version columns and V3
+-- the key columns, trading state and indexes that older dumps lack. Sample data
+-- stays in the dump; migrations only carry schema.
+
+CREATE TABLE IF NOT EXISTS venue (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    version BIGINT NOT NULL DEFAULT 0,
+    name VARCHAR(255) NOT NULL,
+    name_key VARCHAR(255) NOT NULL,
+    location VARCHAR(255),
+    type ENUM('RM','MTF','OTF') NOT NULL,
+    status ENUM('OPEN','CLOSED') NOT NULL,
+    CONSTRAINT uk_venue_name_key UNIQUE (name_key),
+    INDEX idx_venue_status_type (status, type),
+    INDEX idx_venue_type (type)
+);
+
+CREATE TABLE IF NOT EXISTS instrument (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    version BIGINT NOT NULL DEFAULT 0,
+    symbol VARCHAR(50) NOT NULL,
+    symbol_key VARCHAR(50) NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    venue_id BIGINT NOT NULL,
+    type ENUM('STOCK','BOND','DERIVATIVE','FX') NOT NULL,
+    trading_state ENUM('ACTIVE','HALTED','SUSPENDED') NOT NULL DEFAULT 'ACTIVE',
+    CONSTRAINT uk_instrument_symbol_key UNIQUE (symbol_key),
+    INDEX idx_instrument_venue_trading_state (venue_id, trading_state),
+    INDEX idx_instrument_venue_symbol_key (venue_id, symbol_key),
+    INDEX idx_instrument_type_symbol_key (type, symbol_key),
+    FOREIGN KEY (venue_id) REFERENCES venue(id)
+);
+
+CREATE TABLE IF NOT EXISTS trading_calendar (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    version BIGINT NOT NULL DEFAULT 0,
+    venue_id BIGINT NOT NULL,
+    time_zone VARCHAR(255) NOT NULL,
+    CONSTRAINT uk_trading_calendar_venue UNIQUE (venue_id)
+);
+
+CREATE TABLE IF NOT EXISTS trading_session (
+    calendar_id BIGINT NOT NULL,
+    day_of_week ENUM('MONDAY','TUESDAY','WEDNESDAY','THURSDAY','FRIDAY','SATURDAY','SUNDAY') NOT NULL,
+    opens_at TIME NOT NULL,
+    closes_at TIME NOT NULL,
+    FOREIGN KEY (calendar_id) REFERENCES trading_calendar(id)
+);
+
+CREATE TABLE IF NOT EXISTS trading_holiday (
+    calendar_id BIGINT NOT NULL,
+    holiday DATE NOT NULL,
+    PRIMARY KEY (calendar_id, holiday),
+    FOREIGN KEY (calendar_id) REFERENCES trading_calendar(id)
+);
@@ -0,0 +1,100 @@
+package com.tobi.venuemgmt.audit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderAuditLogTest {
+
+    private static final long TEN_RECORDS = 10L * OrderAuditRecord.RECORD_SIZE;
+
+    @TempDir
+    Path directory;
+
+    private OrderAuditLog startLog() throws Exception {
+        OrderAuditLog auditLog = new OrderAuditLog(new SimpleMeterRegistry(), true, directory, 1024, TEN_RECORDS,
+                FsyncPolicy.EVERY_BATCH, 1000);
+        auditLog.afterPropertiesSet();
+        return auditLog;
+    }
+
+    private List<OrderAuditRecord> replay(Instant from, Instant to) throws Exception {
+        List<OrderAuditRecord> records = new ArrayList<>();
+        new OrderAuditReader(directory).replay(from, to, records::add);
+        return records;
+    }
+
+    @Test
+    void whenRecordsWritten_thenReplayReturnsThemInOrderAcrossSegments() throws Exception {
+        OrderAuditLog auditLog = startLog();
+        for (long instrumentId = 1; instrumentId <= 25; instrumentId++) {
+            assertTrue(auditLog.record(instrumentId, 7L, OrderOutcome.ACCEPTED));
+        }
+        auditLog.record(26L, 0L, OrderOutcome.REJECTED_NOT_FOUND);
+        auditLog.destroy();
+
+        List<OrderAuditRecord> records = replay(Instant.EPOCH, Instant.now().plusSeconds(1));
+
+        assertEquals(26, records.size());
+        for (int i = 0; i < 25; i++) {
+            assertEquals(i + 1L, records.get(i).instrumentId());
+            assertEquals(7L, records.get(i).venueId());
+        }
+        assertNull(records.get(25).venueId());
+        assertEquals(OrderOutcome.REJECTED_NOT_FOUND, records.get(25).outcome());
+        assertTrue(new OrderAuditReader(directory).segments().size() >= 3);
+    }
+
+    @Test
+    void whenRangeExcludesRecords_thenNothingIsReplayed() throws Exception {
+        OrderAuditLog auditLog = startLog();
+        auditLog.record(1L, 7L, OrderOutcome.ACCEPTED);
+        auditLog.destroy();
+
+        Instant future = Instant.now().plusSeconds(60);
+        assertTrue(replay(future, future.plusSeconds(60)).isEmpty());
+    }
+
+    @Test
+    void whenSegmentEndsInTornRecord_thenReplayStopsBeforeIt() throws Exception {
+        OrderAuditLog auditLog = startLog();
+        auditLog.record(1L, 7L, OrderOutcome.ACCEPTED);
+        auditLog.destroy();
+
+        Path segment = new OrderAuditReader(directory).segments().get(0);
+        Files.write(segment, new byte[OrderAuditRecord.RECORD_SIZE], StandardOpenOption.APPEND);
+
+        assertEquals(1, replay(Instant.EPOCH, Instant.now().plusSeconds(1)).size());
+    }
+
+    @Test
+    void whenRecordFollowsAQuietSpell_thenItIsStillWritten() throws Exception {
+        OrderAuditLog auditLog = startLog();
+        // Long enough for the idle writer to back off all the way
+        Thread.sleep(200);
+
+        auditLog.record(1L, 7L, OrderOutcome.ACCEPTED);
+        long start = System.nanoTime();
+        auditLog.destroy();
+
+        assertTrue(System.nanoTime() - start < 1_000_000_000L, "Writer was slow to stop");
+        assertEquals(1, replay(Instant.EPOCH, Instant.now().plusSeconds(1)).size());
+    }
+
+    @Test
+    void whenLogIsNotStarted_thenRecordsAreRefused() {
+        OrderAuditLog auditLog = new OrderAuditLog(new SimpleMeterRegistry(), false, directory, 1024, TEN_RECORDS,
+                FsyncPolicy.NEVER, 1000);
+
+        assertFalse(auditLog.record(1L, 7L, OrderOutcome.ACCEPTED));
+    }
+}
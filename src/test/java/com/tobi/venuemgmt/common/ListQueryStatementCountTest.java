@@ -0,0 +1,121 @@
+package com.tobi.venuemgmt.common;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tobi.venuemgmt.instrument.Instrument;
+import com.tobi.venuemgmt.instrument.InstrumentRepository;
+import com.tobi.venuemgmt.instrument.InstrumentType;
+import com.tobi.venuemgmt.venue.Venue;
+import com.tobi.venuemgmt.venue.VenueRepository;
+import com.tobi.venuemgmt.venue.VenueStatus;
+import com.tobi.venuemgmt.venue.VenueType;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Guards against N+1 loading on the list endpoints: each list query plus the
+ * JSON serialization the controller would do must run a fixed number of SQL
+ * statements, independent of the number of rows.
+ */
+@DataJpaTest
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.default_batch_fetch_size=100",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=500",
+        "spring.jpa.show-sql=false"
+})
+public class ListQueryStatementCountTest {
+
+    private static final int VENUES = 10;
+    private static final int INSTRUMENTS_PER_VENUE = 1_000;
+
+    @Autowired
+    private VenueRepository venueRepository;
+
+    @Autowired
+    private InstrumentRepository instrumentRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        for (int v = 0; v < VENUES; v++) {
+            Venue venue = new Venue();
+            venue.setName("Venue " + v);
+            venue.setLocation("Location " + v);
+            venue.setType(VenueType.RM);
+            venue.setStatus(VenueStatus.OPEN);
+            venueRepository.save(venue);
+
+            List<Instrument> instruments = new ArrayList<>(INSTRUMENTS_PER_VENUE);
+            for (int i = 0; i < INSTRUMENTS_PER_VENUE; i++) {
+                Instrument instrument = new Instrument();
+                instrument.setSymbol("SYM" + v + "_" + i);
+                instrument.setName("Instrument " + v + "_" + i);
+                instrument.setType(InstrumentType.STOCK);
+                instrument.setVenue(venue);
+                instruments.add(instrument);
+            }
+            instrumentRepository.saveAll(instruments);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void deepVenueListRunsOneStatement() throws Exception {
+        List<Venue> venues = venueRepository.findAll();
+        objectMapper.writeValueAsString(venues);
+
+        assertEquals(VENUES, venues.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void deepInstrumentListRunsTwoStatements() throws Exception {
+        List<Instrument> instruments = instrumentRepository.findAll();
+        objectMapper.writeValueAsString(instruments);
+
+        assertEquals(VENUES * INSTRUMENTS_PER_VENUE, instruments.size());
+        // One fetch-join for instruments and venues, one batch load for the venues' instrument lists
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void shallowVenueListRunsOneStatement() throws Exception {
+        objectMapper.writeValueAsString(venueRepository.findAllSummaries());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void shallowInstrumentListRunsOneStatement() throws Exception {
+        objectMapper.writeValueAsString(instrumentRepository.findAllSummaries());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,57 @@
+package com.tobi.venuemgmt.common;
+
+import com.tobi.venuemgmt.instrument.Instrument;
+import com.tobi.venuemgmt.venue.Venue;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VersionTagTest {
+
+    private static Venue venue(long id, long version, Instrument... instruments) {
+        Venue venue = new Venue();
+        venue.setId(id);
+        venue.setVersion(version);
+        venue.setInstruments(List.of(instruments));
+        return venue;
+    }
+
+    private static Instrument instrument(long id, long version) {
+        Instrument instrument = new Instrument();
+        instrument.setId(id);
+        instrument.setVersion(version);
+        return instrument;
+    }
+
+    private static String tag(Venue venue) {
+        return new VersionTag().add(venue).addAll(venue.getInstruments()).toETag();
+    }
+
+    @Test
+    void whenGraphIsUnchanged_thenTagIsStable() {
+        assertEquals(tag(venue(1, 2, instrument(10, 0))), tag(venue(1, 2, instrument(10, 0))));
+    }
+
+    @Test
+    void whenAnyEntityInGraphChanges_thenTagChanges() {
+        String original = tag(venue(1, 2, instrument(10, 0)));
+
+        assertNotEquals(original, tag(venue(1, 3, instrument(10, 0))));
+        assertNotEquals(original, tag(venue(1, 2, instrument(10, 1))));
+        assertNotEquals(original, tag(venue(1, 2, instrument(10, 0), instrument(11, 0))));
+        assertNotEquals(original, tag(venue(1, 2)));
+    }
+
+    @Test
+    void whenIfMatchListsCurrentTagOrWildcard_thenItMatches() {
+        String etag = tag(venue(1, 2));
+
+        assertTrue(VersionTag.matches(etag, etag));
+        assertTrue(VersionTag.matches("\"other\", " + etag, etag));
+        assertTrue(VersionTag.matches("*", etag));
+        assertFalse(VersionTag.matches("W/" + etag, etag));
+        assertFalse(VersionTag.matches("\"other\"", etag));
+    }
+}
@@ -0,0 +1,39 @@
+package com.tobi.venuemgmt.common.collections;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LongLongHashMapTest {
+
+    private static final long MISSING = -1L;
+
+    @Test
+    void whenKeyIsZeroOrNegative_thenItIsNeverFound() {
+        LongLongHashMap map = new LongLongHashMap(4);
+        map.put(1L, 10L);
+
+        // Empty slots hold key 0, so a lookup of 0 must not land on one
+        assertEquals(MISSING, map.get(0L, MISSING));
+        assertEquals(MISSING, map.get(-1L, MISSING));
+        assertFalse(map.remove(0L));
+        assertEquals(1, map.size());
+        assertThrows(IllegalArgumentException.class, () -> map.put(0L, 1L));
+    }
+
+    @Test
+    void whenEntriesRemovedAndTableGrows_thenLookupsStayCorrect() {
+        LongLongHashMap map = new LongLongHashMap(4);
+        for (long key = 1; key <= 1_000; key++) {
+            map.put(key, key * 2);
+        }
+        for (long key = 1; key <= 1_000; key += 2) {
+            assertTrue(map.remove(key));
+        }
+
+        assertEquals(500, map.size());
+        assertEquals(MISSING, map.get(1L, MISSING));
+        assertEquals(4L, map.get(2L, MISSING));
+        assertEquals(2_000L, map.get(1_000L, MISSING));
+    }
+}
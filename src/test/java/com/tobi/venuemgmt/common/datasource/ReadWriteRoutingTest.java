@@ -0,0 +1,259 @@
+package com.tobi.venuemgmt.common.datasource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import jakarta.servlet.http.Cookie;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Routing against two in-memory H2 databases standing in for a primary and a
+ * replica. Each holds a row naming itself, so a read shows where it went.
+ */
+public class ReadWriteRoutingTest {
+
+    private static final String WHOAMI = "SELECT name FROM node";
+
+    /** A replica that can be taken down and brought back. */
+    private static class SwitchableDataSource extends DelegatingDataSource {
+        volatile boolean down;
+
+        SwitchableDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (down) {
+                throw new SQLException("Connection refused");
+            }
+            return super.getConnection();
+        }
+    }
+
+    private SwitchableDataSource replica;
+    private ReplicaPool replicaPool;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    private static DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("DROP TABLE IF EXISTS node");
+        jdbc.execute("DROP TABLE IF EXISTS venue");
+        jdbc.execute("CREATE TABLE node (name VARCHAR(32))");
+        jdbc.execute("CREATE TABLE venue (id BIGINT)");
+        jdbc.update("INSERT INTO node VALUES (?)", name);
+        return dataSource;
+    }
+
+    private void route(DataSource primary, Map<String, DataSource> replicas) {
+        replicaPool = new ReplicaPool(primary, replicas, 1);
+        LazyConnectionDataSourceProxy routing = new LazyConnectionDataSourceProxy(
+                new WriteTrackingDataSource(primary, 60_000));
+        routing.setReadOnlyDataSource(replicaPool);
+        jdbc = new JdbcTemplate(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    @BeforeEach
+    void setUp() {
+        replica = new SwitchableDataSource(database("replica"));
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica", replica);
+        route(database("primary"), replicas);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadRouting.reset();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    private String read() {
+        return readOnly.execute(tx -> jdbc.queryForObject(WHOAMI, String.class));
+    }
+
+    private void write() {
+        readWrite.executeWithoutResult(tx -> jdbc.update("INSERT INTO venue VALUES (1)"));
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplica() {
+        assertEquals("replica", read());
+    }
+
+    @Test
+    void readWriteTransactionsGoToThePrimary() {
+        write();
+
+        assertEquals(Integer.valueOf(1), readWrite.execute(tx -> jdbc.queryForObject("SELECT COUNT(*) FROM venue", Integer.class)));
+        assertEquals("primary", readWrite.execute(tx -> jdbc.queryForObject(WHOAMI, String.class)));
+    }
+
+    @Test
+    void readsAfterACommittedWriteStayOnThePrimary() {
+        write();
+
+        assertEquals("primary", read());
+
+        ReadRouting.reset();
+        assertEquals("replica", read());
+    }
+
+    @Test
+    void rolledBackWriteDoesNotMoveReads() {
+        readWrite.executeWithoutResult(tx -> {
+            jdbc.update("INSERT INTO venue VALUES (1)");
+            tx.setRollbackOnly();
+        });
+
+        assertEquals("replica", read());
+    }
+
+    @Test
+    void expiredStickinessReadsFromTheReplica() {
+        ReadRouting.stickToPrimaryUntil(System.currentTimeMillis() - 1);
+
+        assertEquals("replica", read());
+    }
+
+    @Test
+    void onPrimaryForcesReadsToThePrimary() {
+        assertEquals("primary", ReadRouting.onPrimary(this::read));
+        assertEquals("replica", read());
+    }
+
+    @Test
+    void failingReplicaIsEjectedAndReadsFallBackToThePrimary() {
+        replica.down = true;
+
+        assertEquals("primary", read());
+        assertEquals(0, replicaPool.healthyReplicas());
+
+        // Ejected replicas are not retried on the read path
+        replica.down = false;
+        assertEquals("primary", read());
+
+        replicaPool.checkHealth();
+        assertEquals(1, replicaPool.healthyReplicas());
+        assertEquals("replica", read());
+    }
+
+    @Test
+    void healthCheckEjectsReplicaThatStoppedAcceptingConnections() {
+        replica.down = true;
+
+        replicaPool.checkHealth();
+
+        assertEquals(0, replicaPool.healthyReplicas());
+        assertEquals("primary", read());
+    }
+
+    @Test
+    void readsAreSpreadOverHealthyReplicas() {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica", replica);
+        replicas.put("replica2", database("replica2"));
+        route(database("primary"), replicas);
+
+        List<String> nodes = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            nodes.add(read());
+        }
+
+        assertEquals(2, nodes.stream().filter("replica"::equals).count());
+        assertEquals(2, nodes.stream().filter("replica2"::equals).count());
+    }
+
+    private long primaryUntilWithCookie(String value) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(new Cookie(ReadYourWritesFilter.COOKIE, value));
+        long[] until = new long[1];
+        new ReadYourWritesFilter(60_000).doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> until[0] = ReadRouting.primaryUntil());
+        return until[0];
+    }
+
+    @Test
+    void cookieDeadlineIsCappedAtOneWindowFromNow() throws Exception {
+        long now = System.currentTimeMillis();
+
+        long until = primaryUntilWithCookie(Long.toString(now + 90_000));
+
+        assertTrue(until > now && until <= System.currentTimeMillis() + 60_000);
+    }
+
+    @Test
+    void malformedOrFarFutureCookieIsIgnored() throws Exception {
+        assertEquals(0, primaryUntilWithCookie("soon"));
+        assertEquals(0, primaryUntilWithCookie(Long.toString(Long.MAX_VALUE)));
+        assertEquals(0, primaryUntilWithCookie(Long.toString(System.currentTimeMillis() + 3_600_000)));
+    }
+
+    @Test
+    void writeCommittedOnAnotherThreadIsMarkedOnTheCallerThread() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(
+                new ServletRequestAttributes(new MockHttpServletRequest(), response));
+        Thread writer = new Thread(this::write);
+        writer.start();
+        writer.join();
+
+        assertEquals("replica", read());
+
+        ReadRouting.markWritten();
+
+        assertEquals("primary", read());
+        assertNotNull(response.getCookie(ReadYourWritesFilter.COOKIE));
+    }
+
+    @Test
+    void committedWriteSetsCookieThatSticksLaterRequestsToThePrimary() throws Exception {
+        MockHttpServletResponse writeResponse = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(
+                new ServletRequestAttributes(new MockHttpServletRequest(), writeResponse));
+        write();
+        RequestContextHolder.resetRequestAttributes();
+        ReadRouting.reset();
+
+        Cookie cookie = writeResponse.getCookie(ReadYourWritesFilter.COOKIE);
+        assertNotNull(cookie, writeResponse.getHeader(HttpHeaders.SET_COOKIE));
+        MockHttpServletRequest readRequest = new MockHttpServletRequest();
+        readRequest.setCookies(cookie);
+        String[] node = new String[1];
+
+        new ReadYourWritesFilter(60_000).doFilter(readRequest, new MockHttpServletResponse(),
+                (request, response) -> node[0] = read());
+
+        assertEquals("primary", node[0]);
+        // The filter clears the routing state when the request ends
+        assertEquals("replica", read());
+    }
+}
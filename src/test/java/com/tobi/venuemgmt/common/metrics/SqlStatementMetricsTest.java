@@ -0,0 +1,80 @@
+package com.tobi.venuemgmt.common.metrics;
+
+import com.tobi.venuemgmt.config.MetricsConfig;
+import com.tobi.venuemgmt.venue.VenueRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs known queries through Hibernate with the statement inspector wired as
+ * MetricsConfig wires it, and checks what the counter and the per-request
+ * metric report.
+ */
+@DataJpaTest
+@Import({SqlStatementCounter.class, MetricsConfig.class, SqlStatementMetricsTest.Metrics.class})
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+public class SqlStatementMetricsTest {
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private SqlStatementCounter counter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private VenueRepository venueRepository;
+
+    @Test
+    void whenRepositoryQueryRuns_thenCounterCountsOneStatement() {
+        long before = counter.current();
+
+        venueRepository.findAll();
+
+        assertEquals(1, counter.current() - before);
+    }
+
+    @Test
+    void whenRequestRunsQueries_thenTheirCountIsRecordedUnderItsPattern() {
+        SqlStatementMetricsInterceptor interceptor = new SqlStatementMetricsInterceptor(counter, meterRegistry);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/venues/1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/venues/{id}");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        Object handler = new Object();
+
+        interceptor.preHandle(request, response, handler);
+        venueRepository.findAll();
+        venueRepository.count();
+        interceptor.afterCompletion(request, response, handler, null);
+
+        DistributionSummary statements = meterRegistry.get(SqlStatementMetricsInterceptor.METRIC_NAME)
+                .tag("method", "GET")
+                .tag("uri", "/api/venues/{id}")
+                .summary();
+        assertEquals(1, statements.count());
+        assertEquals(2.0, statements.totalAmount());
+    }
+}
@@ -0,0 +1,55 @@
+package com.tobi.venuemgmt.exception;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tobi.venuemgmt.common.PageSizePolicy;
+import com.tobi.venuemgmt.common.ReferenceDataVersion;
+import com.tobi.venuemgmt.venue.VenueController;
+import com.tobi.venuemgmt.venue.VenueService;
+import com.tobi.venuemgmt.venue.VenueStatusFeed;
+import com.tobi.venuemgmt.venue.VenueStatusWriteCoalescer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class GlobalExceptionHandlerTest {
+
+    private final VenueService venueService = mock(VenueService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        VenueController controller = new VenueController(venueService, new PageSizePolicy(100, 1000),
+                new ObjectMapper(), mock(VenueStatusFeed.class), new ReferenceDataVersion(),
+                mock(VenueStatusWriteCoalescer.class));
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(new GlobalExceptionHandler(meterRegistry))
+                .build();
+    }
+
+    @Test
+    void whenVenueIsNotFound_thenApiExceptionsIsCountedWithTypeAndStatus() throws Exception {
+        when(venueService.findVenueById(99L))
+                .thenThrow(new ResourceNotFoundException("Venue with ID 99 not found."));
+
+        mockMvc.perform(get("/api/venues/99"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Venue with ID 99 not found."));
+
+        Counter exceptions = meterRegistry.get("api.exceptions")
+                .tag("exception", "ResourceNotFoundException")
+                .tag("status", "404")
+                .counter();
+        assertEquals(1.0, exceptions.count());
+    }
+}
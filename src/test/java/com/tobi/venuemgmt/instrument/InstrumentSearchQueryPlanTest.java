@@ -0,0 +1,177 @@
+package com.tobi.venuemgmt.instrument;
+
+import com.tobi.venuemgmt.venue.Venue;
+import com.tobi.venuemgmt.venue.VenueRepository;
+import com.tobi.venuemgmt.venue.VenueStatus;
+import com.tobi.venuemgmt.venue.VenueType;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Guards the instrument search against full scans: every supported filter
+ * combination, in both sort orders, must produce SQL that the database
+ * answers from an index. Plans come from EXPLAIN on the statements
+ * Hibernate actually ran.
+ */
+@DataJpaTest
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.tobi.venuemgmt.instrument.InstrumentSearchQueryPlanTest$SqlRecorder",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=500",
+        "spring.jpa.show-sql=false"
+})
+public class InstrumentSearchQueryPlanTest {
+
+    private static final int VENUES = 60;
+    private static final int INSTRUMENTS_PER_VENUE = 100;
+    private static final int PAGE_SIZE = 50;
+
+    /**
+     * Records the SQL of every statement Hibernate prepares.
+     */
+    public static class SqlRecorder implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+
+    @Autowired
+    private VenueRepository venueRepository;
+
+    @Autowired
+    private InstrumentRepository instrumentRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private final List<Instrument> instruments = new ArrayList<>();
+
+    private Long firstVenueId;
+
+    @BeforeEach
+    void setUp() {
+        VenueType[] venueTypes = VenueType.values();
+        InstrumentType[] instrumentTypes = InstrumentType.values();
+        for (int v = 0; v < VENUES; v++) {
+            Venue venue = new Venue();
+            venue.setName("Venue " + v);
+            venue.setLocation("Location " + v);
+            venue.setType(venueTypes[v % venueTypes.length]);
+            venue.setStatus(v % 2 == 0 ? VenueStatus.OPEN : VenueStatus.CLOSED);
+            venueRepository.save(venue);
+            if (firstVenueId == null) {
+                firstVenueId = venue.getId();
+            }
+
+            List<Instrument> batch = new ArrayList<>(INSTRUMENTS_PER_VENUE);
+            for (int i = 0; i < INSTRUMENTS_PER_VENUE; i++) {
+                Instrument instrument = new Instrument();
+                instrument.setSymbol(String.format(Locale.ROOT, "s%02d_%03d", v, i));
+                instrument.setName("Instrument " + v + "_" + i);
+                instrument.setType(instrumentTypes[i % instrumentTypes.length]);
+                instrument.setVenue(venue);
+                batch.add(instrument);
+            }
+            instruments.addAll(instrumentRepository.saveAll(batch));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        SqlRecorder.STATEMENTS.clear();
+    }
+
+    @Test
+    void everyFilterCombinationIsAnsweredFromAnIndex() throws Exception {
+        // Each bit of the mask switches one filter on
+        for (int mask = 0; mask < 32; mask++) {
+            InstrumentCriteria criteria = new InstrumentCriteria(
+                    (mask & 1) != 0 ? firstVenueId : null,
+                    (mask & 2) != 0 ? VenueStatus.OPEN : null,
+                    (mask & 4) != 0 ? VenueType.RM : null,
+                    (mask & 8) != 0 ? InstrumentType.STOCK : null,
+                    (mask & 16) != 0 ? "S0" : null);
+            for (InstrumentSort sort : InstrumentSort.values()) {
+                SqlRecorder.STATEMENTS.clear();
+                instrumentRepository.search(criteria, sort, null, PAGE_SIZE);
+                List<String> statements = new ArrayList<>(SqlRecorder.STATEMENTS);
+
+                assertFalse(statements.isEmpty(), "No query ran for " + criteria + " sorted by " + sort);
+                for (String sql : statements) {
+                    String plan = explain(sql);
+                    assertFalse(plan.contains("tableScan"),
+                            "Full scan for " + criteria + " sorted by " + sort + ":\n" + plan);
+                }
+            }
+        }
+    }
+
+    @Test
+    void pagingBySymbolReturnsEveryMatchOnceInOrder() {
+        InstrumentCriteria criteria = new InstrumentCriteria(null, VenueStatus.OPEN, null, InstrumentType.STOCK, "S1");
+        List<String> expected = instruments.stream()
+                .filter(instrument -> instrument.getVenue().getStatus() == VenueStatus.OPEN)
+                .filter(instrument -> instrument.getType() == InstrumentType.STOCK)
+                .map(Instrument::getSymbolKey)
+                .filter(symbolKey -> symbolKey.startsWith("S1"))
+                .sorted(Comparator.naturalOrder())
+                .toList();
+
+        List<String> actual = new ArrayList<>();
+        String after = null;
+        do {
+            InstrumentSearchPage page = InstrumentSearchPage.of(
+                    instrumentRepository.search(criteria, InstrumentSort.SYMBOL, after, PAGE_SIZE), PAGE_SIZE,
+                    InstrumentSort.SYMBOL);
+            page.items().forEach(instrument -> actual.add(instrument.symbol().toUpperCase(Locale.ROOT)));
+            after = page.nextCursor();
+        } while (after != null);
+
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, actual);
+    }
+
+    // EXPLAIN needs no parameter values; it runs on the test transaction's connection to see its rows
+    private String explain(String sql) throws Exception {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + sql)) {
+            int parameters = explain.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parameters; i++) {
+                explain.setObject(i, null);
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rows = explain.executeQuery()) {
+                while (rows.next()) {
+                    plan.append(rows.getString(1)).append('\n');
+                }
+            }
+            return plan.toString();
+        }
+    }
+}
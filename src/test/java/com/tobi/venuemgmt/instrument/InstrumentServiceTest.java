@@ -1,20 +1,38 @@
 package com.tobi.venuemgmt.instrument;
 
+import com.tobi.venuemgmt.audit.OrderAuditLog;
+import com.tobi.venuemgmt.audit.OrderOutcome;
+import com.tobi.venuemgmt.common.ReferenceDataVersion;
+import com.tobi.venuemgmt.common.datasource.ReadRouting;
+import com.tobi.venuemgmt.exception.InstrumentNotActiveException;
+import com.tobi.venuemgmt.exception.InvalidRequestException;
+import com.tobi.venuemgmt.exception.OrderThrottledException;
 import com.tobi.venuemgmt.exception.ResourceAlreadyExistsException;
 import com.tobi.venuemgmt.exception.ResourceNotFoundException;
+import com.tobi.venuemgmt.exception.VenueClosedException;
 import com.tobi.venuemgmt.instrument.Instrument;
 import com.tobi.venuemgmt.instrument.InstrumentRepository;
 import com.tobi.venuemgmt.instrument.InstrumentService;
 import com.tobi.venuemgmt.instrument.InstrumentType;
+import com.tobi.venuemgmt.referencedata.ReferenceDataChangeLog;
+import com.tobi.venuemgmt.statistics.ReferenceDataStatistics;
 import com.tobi.venuemgmt.venue.Venue;
+import com.tobi.venuemgmt.venue.VenueCache;
+import com.tobi.venuemgmt.venue.VenueStatus;
 
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,9 +46,47 @@ public class InstrumentServiceTest {
     @Mock
     private InstrumentRepository instrumentRepository;
 
+    @Spy
+    private InstrumentCache instrumentCache = new InstrumentCache(100);
+
+    @Spy
+    private VenueCache venueCache = new VenueCache(100);
+
+    @Spy
+    private TradabilityIndex tradabilityIndex = new TradabilityIndex();
+
+    @Mock
+    private OrderAuditLog orderAuditLog;
+
+    @Mock
+    private ReferenceDataStatistics statistics;
+
+    @Spy
+    private SymbolIndex symbolIndex = new SymbolIndex();
+
+    @Spy
+    private ReferenceDataVersion referenceDataVersion = new ReferenceDataVersion();
+
+    @Spy
+    private ReferenceDataChangeLog changeLog = new ReferenceDataChangeLog(referenceDataVersion, 100);
+
+    // Limits off; tests that need a rejection stub tryAcquire
+    @Spy
+    private OrderThrottle orderThrottle = new OrderThrottle(0, 0, 0, 0, 1);
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
     @InjectMocks
     private InstrumentService instrumentService;
 
+    // Routing state is per thread, and test threads are shared between classes
+    @BeforeEach
+    @AfterEach
+    void resetReadRouting() {
+        ReadRouting.reset();
+    }
+
     // Helper method to create a sample instrument
     private Instrument createSampleInstrument() {
         Venue venue = new Venue();
@@ -69,6 +125,18 @@ public class InstrumentServiceTest {
         assertEquals("AAPL", result.getSymbol());
     }
 
+    @Test
+    public void whenFindByIdTwice_thenSecondLookupIsServedFromCache() {
+        Instrument instrument = createSampleInstrument();
+        when(instrumentRepository.findById(1L)).thenReturn(Optional.of(instrument));
+
+        instrumentService.findInstrumentById(1L);
+        Instrument result = instrumentService.findInstrumentById(1L);
+
+        assertSame(instrument, result);
+        verify(instrumentRepository, times(1)).findById(1L);
+    }
+
     @Test
     public void whenFindByIdNotFound_thenThrowException() {
         when(instrumentRepository.findById(1L)).thenReturn(Optional.empty());
@@ -83,7 +151,7 @@ public class InstrumentServiceTest {
         newInstrument.setName("Tesla Inc.");
         newInstrument.setType(InstrumentType.STOCK);
 
-        when(instrumentRepository.findBySymbolContainingIgnoreCase("TSLA")).thenReturn(Collections.emptyList());
+        when(instrumentRepository.existsBySymbolKey("TSLA")).thenReturn(false);
         when(instrumentRepository.save(any(Instrument.class))).thenAnswer(invocation -> {
             Instrument i = invocation.getArgument(0);
             i.setId(2L);
@@ -99,13 +167,11 @@ public class InstrumentServiceTest {
 
     @Test
     void whenSaveDuplicateInstrument_thenThrowException() {
-        Instrument existingInstrument = createSampleInstrument();
         Instrument duplicateInstrument = new Instrument();
-        duplicateInstrument.setSymbol("AAPL");
+        duplicateInstrument.setSymbol("aapl");
         duplicateInstrument.setName("Apple Inc.");
 
-        when(instrumentRepository.findBySymbolContainingIgnoreCase("AAPL"))
-                .thenReturn(List.of(existingInstrument));
+        when(instrumentRepository.existsBySymbolKey("AAPL")).thenReturn(true);
 
         assertThrows(ResourceAlreadyExistsException.class, () -> instrumentService.saveInstrument(duplicateInstrument));
     }
@@ -127,6 +193,29 @@ public class InstrumentServiceTest {
         assertEquals(InstrumentType.BOND, result.getType());
     }
 
+    @Test
+    void whenUpdateInstrumentWithCurrentVersion_thenSavedAndCollectionVersionChanges() {
+        Instrument existingInstrument = createSampleInstrument();
+        existingInstrument.setVersion(4);
+        when(instrumentRepository.findById(1L)).thenReturn(Optional.of(existingInstrument));
+        when(instrumentRepository.save(existingInstrument)).thenReturn(existingInstrument);
+
+        instrumentService.updateInstrument(1L, new Instrument(), 4L);
+
+        assertEquals(1, referenceDataVersion.current());
+    }
+
+    @Test
+    void whenUpdateInstrumentWithStaleVersion_thenThrowAndDoNotSave() {
+        Instrument existingInstrument = createSampleInstrument();
+        existingInstrument.setVersion(4);
+        when(instrumentRepository.findById(1L)).thenReturn(Optional.of(existingInstrument));
+
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> instrumentService.updateInstrument(1L, new Instrument(), 3L));
+        verify(instrumentRepository, never()).save(any());
+    }
+
     @Test
     void whenDeleteInstrument_thenRepositoryDeleteCalled() {
         when(instrumentRepository.existsById(1L)).thenReturn(true);
@@ -137,6 +226,42 @@ public class InstrumentServiceTest {
         verify(instrumentRepository, times(1)).deleteById(1L);
     }
 
+    @Test
+    void whenInstrumentUpdated_thenAutocompleteReflectsNewDetails() {
+        Instrument existingInstrument = createSampleInstrument();
+        symbolIndex.put(InstrumentSummary.of(existingInstrument));
+        Instrument details = new Instrument();
+        details.setName("Apple Bond 2030");
+        details.setType(InstrumentType.BOND);
+        when(instrumentRepository.findById(1L)).thenReturn(Optional.of(existingInstrument));
+        when(instrumentRepository.save(existingInstrument)).thenReturn(existingInstrument);
+
+        instrumentService.updateInstrument(1L, details);
+
+        assertTrue(instrumentService.autocompleteInstruments("aa", InstrumentType.STOCK, null, null).isEmpty());
+        List<InstrumentSummary> matches = instrumentService.autocompleteInstruments("apple b", InstrumentType.BOND, 1L, 5);
+        assertEquals(1, matches.size());
+        assertEquals("Apple Bond 2030", matches.get(0).name());
+    }
+
+    @Test
+    void whenInstrumentDeleted_thenAutocompleteNoLongerReturnsIt() {
+        symbolIndex.put(InstrumentSummary.of(createSampleInstrument()));
+        when(instrumentRepository.existsById(1L)).thenReturn(true);
+
+        instrumentService.deleteInstrument(1L);
+
+        assertTrue(instrumentService.autocompleteInstruments("AAPL", null, null, null).isEmpty());
+    }
+
+    @Test
+    void whenAutocompleteQueryBlank_thenThrowException() {
+        assertThrows(InvalidRequestException.class,
+                () -> instrumentService.autocompleteInstruments(" ", null, null, null));
+        assertThrows(InvalidRequestException.class,
+                () -> instrumentService.autocompleteInstruments("A", null, null, 1000));
+    }
+
     @Test
     void whenFindByType_thenReturnFilteredInstruments() {
         Instrument instrument = createSampleInstrument();
@@ -158,4 +283,265 @@ public class InstrumentServiceTest {
         assertEquals(1, result.size());
         assertEquals("AAPL", result.get(0).getSymbol());
     }
+
+    @Test
+    void whenSearchBySymbolPrefix_thenPrefixIsNormalizedAndCursorIsLastSymbolKey() {
+        InstrumentSummary first = new InstrumentSummary(1L, "aapl", "Apple Inc.", InstrumentType.STOCK, 1L);
+        InstrumentSummary second = new InstrumentSummary(2L, "aapx", "Other", InstrumentType.STOCK, 1L);
+        InstrumentCriteria normalized = new InstrumentCriteria(null, VenueStatus.OPEN, null, null, "AAP");
+        when(instrumentRepository.search(normalized, InstrumentSort.SYMBOL, null, 2))
+                .thenReturn(List.of(first, second));
+
+        InstrumentSearchPage page = instrumentService.searchInstrumentSummaries(
+                new InstrumentCriteria(null, VenueStatus.OPEN, null, null, " aap"), InstrumentSort.SYMBOL, null, 2);
+
+        assertEquals(2, page.items().size());
+        assertEquals("AAPX", page.nextCursor());
+    }
+
+    @Test
+    void whenSearchWithInvalidInput_thenThrowWithoutQuerying() {
+        InstrumentCriteria blankPrefix = new InstrumentCriteria(null, null, null, null, " ");
+        InstrumentCriteria none = new InstrumentCriteria(null, null, null, null, null);
+
+        assertThrows(InvalidRequestException.class,
+                () -> instrumentService.searchInstrumentSummaries(blankPrefix, InstrumentSort.ID, null, 10));
+        assertThrows(InvalidRequestException.class,
+                () -> instrumentService.searchInstrumentSummaries(none, InstrumentSort.ID, "AAPL", 10));
+        verifyNoInteractions(instrumentRepository);
+    }
+
+    @Test
+    void whenProcessOrderOnIndexedOpenVenue_thenRepositoryIsNotTouched() {
+        tradabilityIndex.putVenue(1L, VenueStatus.OPEN);
+        tradabilityIndex.putInstrument(1L, 1L);
+
+        instrumentService.processOrder(1L);
+
+        verifyNoInteractions(instrumentRepository);
+        verify(orderAuditLog).record(1L, 1L, OrderOutcome.ACCEPTED);
+    }
+
+    @Test
+    void whenProcessOrderOnIndexedClosedVenue_thenThrowException() {
+        Instrument instrument = createSampleInstrument();
+        instrument.getVenue().setStatus(VenueStatus.CLOSED);
+        when(instrumentRepository.findById(1L)).thenReturn(Optional.of(instrument));
+        tradabilityIndex.putVenue(1L, VenueStatus.CLOSED);
+        tradabilityIndex.putInstrument(1L, 1L);
+
+        assertThrows(VenueClosedException.class, () -> instrumentService.processOrder(1L));
+        verify(orderAuditLog).record(1L, 1L, OrderOutcome.REJECTED_VENUE_CLOSED);
+    }
+
+    @Test
+    void whenProcessOrderForHaltedInstrument_thenThrowException() {
+        Instrument instrument = createSampleInstrument();
+        instrument.getVenue().setStatus(VenueStatus.OPEN);
+        instrument.setTradingState(InstrumentTradingState.HALTED);
+        when(instrumentRepository.findById(1L)).thenReturn(Optional.of(instrument));
+        tradabilityIndex.putVenue(1L, VenueStatus.OPEN);
+        tradabilityIndex.putInstrument(1L, 1L);
+        tradabilityIndex.putInstrumentState(1L, InstrumentTradingState.HALTED);
+
+        InstrumentNotActiveException e = assertThrows(InstrumentNotActiveException.class,
+                () -> instrumentService.processOrder(1L));
+
+        assertEquals("Cannot process order. Instrument 'AAPL' is currently HALTED.", e.getMessage());
+        verify(orderAuditLog).record(1L, 1L, OrderOutcome.REJECTED_INSTRUMENT_NOT_ACTIVE);
+    }
+
+    @Test
+    void whenUpdateTradingState_thenIndexCacheAndVersionFollow() {
+        Instrument instrument = createSampleInstrument();
+        instrument.getVenue().setStatus(VenueStatus.OPEN);
+        when(instrumentRepository.findById(1L)).thenReturn(Optional.of(instrument));
+        when(instrumentRepository.save(instrument)).thenReturn(instrument);
+        tradabilityIndex.putVenue(1L, VenueStatus.OPEN);
+        tradabilityIndex.putInstrument(1L, 1L);
+        instrumentService.findInstrumentById(1L);
+
+        Instrument result = instrumentService.updateTradingState(1L, InstrumentTradingState.SUSPENDED);
+
+        assertEquals(InstrumentTradingState.SUSPENDED, result.getTradingState());
+        assertEquals(TradabilityIndex.Result.INSTRUMENT_NOT_ACTIVE, tradabilityIndex.check(1L));
+        verify(instrumentCache).evict(1L);
+        assertEquals(1, referenceDataVersion.current());
+
+        instrumentService.updateTradingState(1L, InstrumentTradingState.ACTIVE);
+
+        assertEquals(TradabilityIndex.Result.TRADABLE, tradabilityIndex.check(1L));
+    }
+
+    @Test
+    void whenProcessOrderForUnindexedInstrument_thenFallBackAndRepairIndex() {
+        Instrument instrument = createSampleInstrument();
+        instrument.getVenue().setStatus(VenueStatus.OPEN);
+        when(instrumentRepository.findById(1L)).thenReturn(Optional.of(instrument));
+
+        instrumentService.processOrder(1L);
+
+        assertEquals(TradabilityIndex.Result.TRADABLE, tradabilityIndex.check(1L));
+    }
+
+    @Test
+    void whenProcessOrderBatch_thenInstrumentsResolvedOnceAndClosedVenuesRejected() {
+        Instrument open = createSampleInstrument();
+        open.getVenue().setStatus(VenueStatus.OPEN);
+
+        Venue closedVenue = new Venue();
+        closedVenue.setId(2L);
+        closedVenue.setName("UBS Trading Venue");
+        closedVenue.setStatus(VenueStatus.CLOSED);
+        Instrument closed = new Instrument();
+        closed.setId(3L);
+        closed.setSymbol("UBS1");
+        closed.setVenue(closedVenue);
+
+        when(instrumentRepository.findAllWithVenueByIdIn(any())).thenReturn(List.of(open, closed));
+
+        BatchOrderResponse response = instrumentService.processOrders(List.of(
+                new OrderRequest("o1", 1L),
+                new OrderRequest("o2", 3L),
+                new OrderRequest("o3", 1L),
+                new OrderRequest("o4", 99L)));
+
+        assertEquals(2, response.accepted());
+        assertEquals(2, response.rejected());
+        assertTrue(response.results().get(0).accepted());
+        assertEquals("Cannot process order. Venue 'UBS Trading Venue' is currently CLOSED.",
+                response.results().get(1).reason());
+        assertTrue(response.results().get(2).accepted());
+        assertEquals("Instrument with ID 99 not found.", response.results().get(3).reason());
+        verify(instrumentRepository, times(1)).findAllWithVenueByIdIn(any());
+        verify(orderAuditLog, times(2)).record(1L, 1L, OrderOutcome.ACCEPTED);
+        verify(orderAuditLog).record(99L, 0L, OrderOutcome.REJECTED_NOT_FOUND);
+    }
+
+    @Test
+    void whenProcessOrderBatchWithSuspendedInstrument_thenOnlyItsOrdersRejected() {
+        Instrument active = createSampleInstrument();
+        active.getVenue().setStatus(VenueStatus.OPEN);
+        Instrument suspended = new Instrument();
+        suspended.setId(2L);
+        suspended.setSymbol("MSFT");
+        suspended.setVenue(active.getVenue());
+        suspended.setTradingState(InstrumentTradingState.SUSPENDED);
+        when(instrumentRepository.findAllWithVenueByIdIn(any())).thenReturn(List.of(active, suspended));
+
+        BatchOrderResponse response = instrumentService.processOrders(List.of(
+                new OrderRequest("o1", 1L),
+                new OrderRequest("o2", 2L)));
+
+        assertTrue(response.results().get(0).accepted());
+        assertEquals("Cannot process order. Instrument 'MSFT' is currently SUSPENDED.",
+                response.results().get(1).reason());
+        assertEquals(TradabilityIndex.Result.INSTRUMENT_NOT_ACTIVE, tradabilityIndex.check(2L));
+        verify(orderAuditLog).record(2L, 1L, OrderOutcome.REJECTED_INSTRUMENT_NOT_ACTIVE);
+    }
+
+    @Test
+    void whenOrderBatchHasNullOrder_thenThrowInvalidRequest() {
+        List<OrderRequest> orders = new ArrayList<>();
+        orders.add(new OrderRequest("o1", 1L));
+        orders.add(null);
+
+        InvalidRequestException e = assertThrows(InvalidRequestException.class,
+                () -> instrumentService.processOrders(orders));
+
+        assertEquals("Order at index 1 of the batch is null.", e.getMessage());
+        verifyNoInteractions(instrumentRepository);
+    }
+
+    @Test
+    void whenProcessOrderBatch_thenInstrumentsAreReadFromPrimary() {
+        List<Boolean> onPrimary = new ArrayList<>();
+        when(instrumentRepository.findAllWithVenueByIdIn(any())).thenAnswer(invocation -> {
+            onPrimary.add(ReadRouting.primaryRequired());
+            return List.of();
+        });
+
+        instrumentService.processOrders(List.of(new OrderRequest("o1", 1L)));
+
+        assertEquals(List.of(true), onPrimary);
+        assertFalse(ReadRouting.primaryRequired());
+    }
+
+    @Test
+    void whenRepairReadIsStale_thenIndexKeepsNewerTradingState() {
+        Instrument staleCopy = createSampleInstrument();
+        staleCopy.getVenue().setStatus(VenueStatus.OPEN);
+        staleCopy.setTradingState(InstrumentTradingState.ACTIVE);
+        when(instrumentRepository.findAllWithVenueByIdIn(any())).thenReturn(List.of(staleCopy));
+        // Halted by a venue close after the read was taken
+        tradabilityIndex.putVenue(1L, VenueStatus.OPEN);
+        tradabilityIndex.putInstrument(1L, 1L);
+        tradabilityIndex.putInstrumentState(1L, InstrumentTradingState.HALTED);
+
+        instrumentService.processOrders(List.of(new OrderRequest("o1", 1L)));
+
+        assertEquals(TradabilityIndex.Result.INSTRUMENT_NOT_ACTIVE, tradabilityIndex.check(1L));
+    }
+
+    @Test
+    void whenProcessOrderOverRateLimit_thenThrowWithRetryAfterAndAudit() {
+        tradabilityIndex.putVenue(1L, VenueStatus.OPEN);
+        tradabilityIndex.putInstrument(1L, 1L);
+        doReturn(1_500_000_000L).when(orderThrottle).tryAcquire(1L, 1L);
+
+        OrderThrottledException e = assertThrows(OrderThrottledException.class,
+                () -> instrumentService.processOrder(1L));
+
+        assertEquals(2, e.getRetryAfterSeconds());
+        verify(orderAuditLog).record(1L, 1L, OrderOutcome.REJECTED_THROTTLED);
+        verify(orderAuditLog, never()).record(1L, 1L, OrderOutcome.ACCEPTED);
+    }
+
+    @Test
+    void whenProcessOrderWithNonPositiveId_thenRejectBeforeThrottling() {
+        assertThrows(InvalidRequestException.class, () -> instrumentService.processOrder(0L));
+        assertThrows(InvalidRequestException.class, () -> instrumentService.processOrder(-5L));
+
+        verify(orderThrottle, never()).tryAcquire(anyLong(), anyLong());
+        verifyNoInteractions(instrumentRepository);
+    }
+
+    @Test
+    void whenProcessOrderForUnknownInstrument_thenNoThrottleBucketIsTaken() {
+        when(instrumentRepository.findById(42L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> instrumentService.processOrder(42L));
+
+        verify(orderThrottle, never()).tryAcquire(anyLong(), anyLong());
+        verify(orderAuditLog).record(42L, 0L, OrderOutcome.REJECTED_NOT_FOUND);
+    }
+
+    @Test
+    void whenProcessOrderForUnindexedInstrument_thenThrottledOnceAgainstItsVenue() {
+        Instrument instrument = createSampleInstrument();
+        instrument.getVenue().setStatus(VenueStatus.OPEN);
+        when(instrumentRepository.findById(1L)).thenReturn(Optional.of(instrument));
+
+        instrumentService.processOrder(1L);
+
+        verify(orderThrottle, times(1)).tryAcquire(1L, 1L);
+    }
+
+    @Test
+    void whenProcessOrderBatchOverRateLimit_thenOnlyThrottledOrdersRejected() {
+        Instrument instrument = createSampleInstrument();
+        instrument.getVenue().setStatus(VenueStatus.OPEN);
+        when(instrumentRepository.findAllWithVenueByIdIn(any())).thenReturn(List.of(instrument));
+        doCallRealMethod().doReturn(1_000_000L).when(orderThrottle).tryAcquire(1L, 1L);
+
+        BatchOrderResponse response = instrumentService.processOrders(List.of(
+                new OrderRequest("o1", 1L),
+                new OrderRequest("o2", 1L)));
+
+        assertTrue(response.results().get(0).accepted());
+        assertEquals("Order rate limit exceeded for instrument 1. Retry in 1 ms.",
+                response.results().get(1).reason());
+        verify(orderAuditLog).record(1L, 1L, OrderOutcome.ACCEPTED);
+        verify(orderAuditLog).record(1L, 1L, OrderOutcome.REJECTED_THROTTLED);
+    }
 }
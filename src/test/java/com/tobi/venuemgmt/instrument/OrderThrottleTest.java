@@ -0,0 +1,75 @@
+package com.tobi.venuemgmt.instrument;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderThrottleTest {
+
+    private long now = 1_000_000_000L;
+
+    // 10 orders/s per instrument with a burst of 2, 100 orders/s per venue with a burst of 3
+    private final OrderThrottle throttle = new OrderThrottle(10, 2, 100, 3, 4, () -> now);
+
+    @Test
+    void whenBurstIsUsedUp_thenOrderIsRejectedWithWaitUntilNextToken() {
+        assertEquals(OrderThrottle.ALLOWED, throttle.tryAcquire(1L, 1L));
+        assertEquals(OrderThrottle.ALLOWED, throttle.tryAcquire(1L, 1L));
+
+        assertEquals(100_000_000L, throttle.tryAcquire(1L, 1L));
+    }
+
+    @Test
+    void whenTimePasses_thenTokensAreRefilled() {
+        throttle.tryAcquire(1L, 1L);
+        throttle.tryAcquire(1L, 1L);
+
+        now += 50_000_000L;
+        assertEquals(50_000_000L, throttle.tryAcquire(1L, 1L));
+        now += 50_000_000L;
+        assertEquals(OrderThrottle.ALLOWED, throttle.tryAcquire(1L, 1L));
+    }
+
+    @Test
+    void whenVenueLimitIsReached_thenOtherInstrumentsOnVenueAreRejectedAndKeepTheirTokens() {
+        assertEquals(OrderThrottle.ALLOWED, throttle.tryAcquire(1L, 1L));
+        assertEquals(OrderThrottle.ALLOWED, throttle.tryAcquire(2L, 1L));
+        assertEquals(OrderThrottle.ALLOWED, throttle.tryAcquire(3L, 1L));
+
+        assertTrue(throttle.tryAcquire(4L, 1L) > 0);
+        // The venue rejection did not cost instrument 4 a token
+        assertEquals(OrderThrottle.ALLOWED, throttle.tryAcquire(4L, 2L));
+        assertEquals(OrderThrottle.ALLOWED, throttle.tryAcquire(4L, 2L));
+        // Other venues are unaffected
+        assertEquals(OrderThrottle.ALLOWED, throttle.tryAcquire(5L, 2L));
+    }
+
+    @Test
+    void whenVenueIsUnknown_thenOnlyInstrumentLimitApplies() {
+        for (long instrumentId = 1; instrumentId <= 10; instrumentId++) {
+            assertEquals(OrderThrottle.ALLOWED, throttle.tryAcquire(instrumentId, 0L));
+        }
+    }
+
+    @Test
+    void whenBucketsGoIdle_thenTheyAreEvicted() {
+        // Each ID ordered once, then never again: its bucket is full one interval later
+        for (long instrumentId = 1; instrumentId <= 100_000; instrumentId++) {
+            assertEquals(OrderThrottle.ALLOWED, throttle.tryAcquire(instrumentId, 0L));
+            now += 1_000_000L;
+        }
+
+        assertTrue(throttle.bucketCount() < 4 * 2 * 1024, "buckets: " + throttle.bucketCount());
+        assertEquals(OrderThrottle.ALLOWED, throttle.tryAcquire(1L, 0L));
+        assertEquals(OrderThrottle.ALLOWED, throttle.tryAcquire(1L, 0L));
+    }
+
+    @Test
+    void whenLimitsAreDisabled_thenEveryOrderIsAllowed() {
+        OrderThrottle unlimited = new OrderThrottle(0, 0, 0, 0, 1, () -> now);
+
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(OrderThrottle.ALLOWED, unlimited.tryAcquire(1L, 1L));
+        }
+    }
+}
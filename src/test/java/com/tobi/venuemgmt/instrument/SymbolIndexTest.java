@@ -0,0 +1,56 @@
+package com.tobi.venuemgmt.instrument;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SymbolIndexTest {
+
+    private final SymbolIndex index = new SymbolIndex();
+
+    private static List<Long> ids(List<InstrumentSummary> matches) {
+        return matches.stream().map(InstrumentSummary::id).toList();
+    }
+
+    @Test
+    void whenSearching_thenSymbolMatchesComeFirstShortestFirst() {
+        index.load(Stream.of(
+                new InstrumentSummary(1L, "AAPL.L", "Apple London", InstrumentType.STOCK, 1L),
+                new InstrumentSummary(2L, "AAPL", "Apple Inc.", InstrumentType.STOCK, 2L),
+                new InstrumentSummary(3L, "XYZ", "Aa Holdings", InstrumentType.BOND, 1L),
+                new InstrumentSummary(4L, "MSFT", "Microsoft", InstrumentType.STOCK, 1L)));
+
+        assertEquals(List.of(2L, 1L, 3L), ids(index.search("aa", null, null, 10)));
+        assertEquals(List.of(2L), ids(index.search("aa", null, 2L, 10)));
+        assertEquals(List.of(3L), ids(index.search("aa", InstrumentType.BOND, null, 10)));
+        assertEquals(List.of(2L, 1L), ids(index.search("aa", null, null, 2)));
+        assertTrue(index.search("zz", null, null, 10).isEmpty());
+    }
+
+    @Test
+    void whenSymbolAndNameBothMatch_thenInstrumentIsReturnedOnce() {
+        index.put(new InstrumentSummary(1L, "APPLE", "Apple", InstrumentType.STOCK, 1L));
+
+        assertEquals(List.of(1L), ids(index.search("app", null, null, 10)));
+    }
+
+    @Test
+    void whenInstrumentReplacedOrRemoved_thenOldEntriesAreGone() {
+        index.put(new InstrumentSummary(1L, "VOD", "Vodafone", InstrumentType.STOCK, 1L));
+        index.put(new InstrumentSummary(2L, "BP", "BP plc", InstrumentType.STOCK, 2L));
+        index.put(new InstrumentSummary(1L, "VOD", "Vodafone Group", InstrumentType.BOND, 1L));
+
+        assertEquals(InstrumentType.BOND, index.search("vodafone g", null, null, 10).get(0).type());
+        assertEquals(2, index.size());
+
+        index.removeVenue(1L);
+        assertTrue(index.search("VOD", null, null, 10).isEmpty());
+
+        index.remove(2L);
+        assertEquals(0, index.size());
+        assertTrue(index.search("BP", null, null, 10).isEmpty());
+    }
+}
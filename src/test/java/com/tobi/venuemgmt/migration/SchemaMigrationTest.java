@@ -0,0 +1,149 @@
+package com.tobi.venuemgmt.migration;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.FlywayException;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the prod profile's Flyway setup against databases created from
+ * db/venue_db_dump.sql as it is now and as it was at the first release
+ * (db/venue_db_dump_baseline.sql in the test resources), and against an empty
+ * one. Each must end up with the schema the entities expect, keeping the rows
+ * it had.
+ */
+public class SchemaMigrationTest {
+
+    private static final Path DUMP = Path.of("db", "venue_db_dump.sql");
+    private static final Path BASELINE_DUMP = Path.of("src", "test", "resources", "db", "venue_db_dump_baseline.sql");
+
+    private static final List<String> VENUE_INDEXES = List.of("idx_venue_status_type", "idx_venue_type");
+    private static final List<String> INSTRUMENT_INDEXES = List.of("idx_instrument_venue_trading_state",
+            "idx_instrument_venue_symbol_key", "idx_instrument_type_symbol_key");
+
+    private static DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        return dataSource;
+    }
+
+    // The dump minus CREATE DATABASE and USE, which H2 does not have
+    private static void loadDump(DataSource dataSource, Path dump) throws Exception {
+        String script = Files.readAllLines(dump, StandardCharsets.UTF_8).stream()
+                .filter(line -> !line.startsWith("CREATE DATABASE") && !line.startsWith("USE "))
+                .collect(Collectors.joining("\n"));
+        new ResourceDatabasePopulator(new ByteArrayResource(script.getBytes(StandardCharsets.UTF_8)))
+                .execute(dataSource);
+    }
+
+    // Same settings as application-prod.properties
+    private static Flyway flyway(DataSource dataSource) {
+        return Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration", "classpath:com/tobi/venuemgmt/migration")
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load();
+    }
+
+    private static void assertCurrentSchema(DataSource dataSource) throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            for (String table : List.of("venue", "instrument")) {
+                assertTrue(SchemaInfo.hasColumn(connection, table, "version"), table);
+            }
+            assertTrue(SchemaInfo.hasColumn(connection, "venue", "name_key"));
+            assertTrue(SchemaInfo.hasColumn(connection, "instrument", "symbol_key"));
+            assertTrue(SchemaInfo.hasColumn(connection, "instrument", "trading_state"));
+            for (String index : VENUE_INDEXES) {
+                assertTrue(SchemaInfo.hasIndex(connection, "venue", index), index);
+            }
+            for (String index : INSTRUMENT_INDEXES) {
+                assertTrue(SchemaInfo.hasIndex(connection, "instrument", index), index);
+            }
+        }
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("INSERT INTO venue (name, name_key, type, status) VALUES ('LSE', 'LSE', 'RM', 'OPEN')");
+        Long venueId = jdbc.queryForObject("SELECT id FROM venue WHERE name_key = 'LSE'", Long.class);
+        jdbc.update("INSERT INTO trading_calendar (venue_id, time_zone) VALUES (?, 'Europe/London')", venueId);
+        Long calendarId = jdbc.queryForObject("SELECT id FROM trading_calendar WHERE venue_id = ?", Long.class,
+                venueId);
+        jdbc.update("INSERT INTO trading_session (calendar_id, day_of_week, opens_at, closes_at) "
+                + "VALUES (?, 'MONDAY', '08:00:00', '16:30:00')", calendarId);
+        jdbc.update("INSERT INTO trading_holiday (calendar_id, holiday) VALUES (?, '2025-12-25')", calendarId);
+        assertEquals(0L, jdbc.queryForObject("SELECT version FROM venue WHERE id = ?", Long.class, venueId));
+    }
+
+    @Test
+    void whenDatabaseCreatedFromDump_thenMigrationsApplyOnTopOfIt() throws Exception {
+        DataSource dataSource = database("dump");
+        loadDump(dataSource, DUMP);
+
+        flyway(dataSource).migrate();
+
+        assertEquals("3", flyway(dataSource).info().current().getVersion().getVersion());
+        assertEquals(Integer.valueOf(3),
+                new JdbcTemplate(dataSource).queryForObject("SELECT COUNT(*) FROM venue", Integer.class));
+        assertCurrentSchema(dataSource);
+    }
+
+    @Test
+    void whenDatabaseCreatedFromBaselineDump_thenMissingColumnsIndexesAndTablesAreAdded() throws Exception {
+        DataSource dataSource = database("baseline_dump");
+        loadDump(dataSource, BASELINE_DUMP);
+
+        flyway(dataSource).migrate();
+
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        assertEquals(Integer.valueOf(3), jdbc.queryForObject("SELECT COUNT(*) FROM venue", Integer.class));
+        assertEquals("UBS TRADING VENUE",
+                jdbc.queryForObject("SELECT name_key FROM venue WHERE name = 'UBS Trading Venue'", String.class));
+        assertEquals("GOOGL", jdbc.queryForObject("SELECT symbol_key FROM instrument WHERE symbol = 'GOOGL'",
+                String.class));
+        assertEquals(Integer.valueOf(4), jdbc.queryForObject(
+                "SELECT COUNT(*) FROM instrument WHERE trading_state = 'ACTIVE' AND version = 0", Integer.class));
+        assertThrows(DataIntegrityViolationException.class, () -> jdbc.update(
+                "INSERT INTO venue (name, name_key, type, status) VALUES ('nyse', 'NYSE', 'RM', 'OPEN')"));
+        assertCurrentSchema(dataSource);
+    }
+
+    @Test
+    void whenBaselineDumpHasNamesWithTheSameKey_thenMigrationFailsNamingThem() throws Exception {
+        DataSource dataSource = database("baseline_dump_duplicates");
+        loadDump(dataSource, BASELINE_DUMP);
+        new JdbcTemplate(dataSource).update(
+                "INSERT INTO venue (name, location, type, status) VALUES ('nyse ', 'New York, USA', 'RM', 'OPEN')");
+
+        FlywayException e = assertThrows(FlywayException.class, () -> flyway(dataSource).migrate());
+
+        Throwable cause = e;
+        while (!(cause instanceof IllegalStateException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        assertInstanceOf(IllegalStateException.class, cause, e.getMessage());
+        assertTrue(cause.getMessage().contains("'NYSE'"), cause.getMessage());
+    }
+
+    @Test
+    void whenDatabaseIsEmpty_thenMigrationsCreateTheSchema() throws Exception {
+        DataSource dataSource = database("empty");
+
+        flyway(dataSource).migrate();
+
+        assertEquals(0, flyway(dataSource).migrate().migrationsExecuted);
+        assertCurrentSchema(dataSource);
+    }
+}
@@ -0,0 +1,120 @@
+package com.tobi.venuemgmt.reactive;
+
+import com.tobi.venuemgmt.common.PageSizePolicy;
+import com.tobi.venuemgmt.instrument.InstrumentSummary;
+import com.tobi.venuemgmt.instrument.InstrumentType;
+import com.tobi.venuemgmt.venue.VenueStatus;
+import com.tobi.venuemgmt.venue.VenueSummary;
+import com.tobi.venuemgmt.venue.VenueType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ReactiveReadHandlerTest {
+
+    @Mock
+    private ReactiveVenueRepository venueRepository;
+
+    @Mock
+    private ReactiveInstrumentRepository instrumentRepository;
+
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        ReactiveReadHandler handler = new ReactiveReadHandler(venueRepository, instrumentRepository,
+                new PageSizePolicy(100, 1000));
+        client = WebTestClient.bindToRouterFunction(handler.routes()).build();
+    }
+
+    private static VenueSummary venue(long id) {
+        return new VenueSummary(id, "Venue " + id, "London", VenueType.MTF, VenueStatus.OPEN);
+    }
+
+    private static InstrumentSummary instrument(long id) {
+        return new InstrumentSummary(id, "SYM" + id, "Instrument " + id, InstrumentType.STOCK, 1L);
+    }
+
+    @Test
+    void whenListingVenuesByType_thenTypedFinderIsUsed() {
+        when(venueRepository.findSummariesByType(VenueType.MTF)).thenReturn(Flux.just(venue(1), venue(2)));
+
+        client.get().uri("/api/venues?type=MTF").exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBodyList(VenueSummary.class).hasSize(2);
+    }
+
+    @Test
+    void whenVenueIsMissing_thenNotFoundWithErrorDetails() {
+        when(venueRepository.findSummaryById(9L)).thenReturn(Mono.empty());
+
+        client.get().uri("/api/venues/9").exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(404)
+                .jsonPath("$.message").isEqualTo("Venue with ID 9 not found.")
+                .jsonPath("$.path").isEqualTo("/api/venues/9");
+    }
+
+    @Test
+    void whenRequestIsInvalid_thenBadRequest() {
+        client.get().uri("/api/venues?type=NOPE").exchange().expectStatus().isBadRequest();
+        client.get().uri("/api/instruments/abc").exchange().expectStatus().isBadRequest();
+        client.get().uri("/api/instruments/page?size=0").exchange().expectStatus().isBadRequest();
+        verifyNoInteractions(venueRepository, instrumentRepository);
+    }
+
+    @Test
+    void whenPageIsFull_thenNextCursorIsTheLastId() {
+        when(instrumentRepository.findSummariesByVenueIdAfter(1L, 10L, 2))
+                .thenReturn(Flux.just(instrument(11), instrument(12)));
+
+        client.get().uri("/api/instruments/page?venueId=1&after=10&size=2").exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.items.length()").isEqualTo(2)
+                .jsonPath("$.nextCursor").isEqualTo(12);
+    }
+
+    @Test
+    void whenClientAcceptsNdjson_thenListIsStreamedOnePerLine() {
+        when(instrumentRepository.findSummariesByVenueId(1L)).thenReturn(Flux.just(instrument(1), instrument(2)));
+
+        String body = client.get().uri("/api/instruments/venue/1").accept(MediaType.APPLICATION_NDJSON).exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class).returnResult().getResponseBody();
+
+        assertEquals(2, body.lines().count());
+    }
+
+    @Test
+    void whenStreaming_thenRowsAreRequestedFromTheDatabaseInBatches() {
+        long rows = ReactiveReadHandler.STREAM_BATCH_SIZE * 4L;
+        AtomicLong largestRequest = new AtomicLong();
+        when(instrumentRepository.findAllSummaries()).thenReturn(Flux.fromStream(
+                LongStream.rangeClosed(1, rows).mapToObj(ReactiveReadHandlerTest::instrument))
+                .doOnRequest(n -> largestRequest.accumulateAndGet(n, Math::max)));
+
+        String body = client.get().uri("/api/instruments/stream").exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).returnResult().getResponseBody();
+
+        assertEquals(rows, body.lines().count());
+        assertEquals(ReactiveReadHandler.STREAM_BATCH_SIZE, largestRequest.get());
+    }
+}
@@ -0,0 +1,118 @@
+package com.tobi.venuemgmt.referencedata;
+
+import com.tobi.venuemgmt.common.ReferenceDataVersion;
+import com.tobi.venuemgmt.instrument.InstrumentSummary;
+import com.tobi.venuemgmt.instrument.InstrumentType;
+import com.tobi.venuemgmt.venue.VenueStatus;
+import com.tobi.venuemgmt.venue.VenueSummary;
+import com.tobi.venuemgmt.venue.VenueType;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReferenceDataChangeLogTest {
+
+    private final ReferenceDataVersion referenceDataVersion = new ReferenceDataVersion();
+    private final ReferenceDataChangeLog changeLog = new ReferenceDataChangeLog(referenceDataVersion, 4);
+
+    private static VenueSummary venue(long id, VenueStatus status) {
+        return new VenueSummary(id, "Venue " + id, "London", VenueType.MTF, status);
+    }
+
+    @Test
+    void whenChangesAppended_thenTheyAreReturnedInSequenceOrder() {
+        changeLog.venueChanged(ReferenceDataChange.Type.CREATE, venue(1, VenueStatus.OPEN));
+        changeLog.instrumentChanged(ReferenceDataChange.Type.CREATE,
+                new InstrumentSummary(10L, "AAPL", "Apple Inc.", InstrumentType.STOCK, 1L));
+        changeLog.venueChanged(ReferenceDataChange.Type.STATUS, venue(1, VenueStatus.CLOSED));
+
+        ReferenceDataChanges changes = changeLog.changesSince(changeLog.epoch(), 1, 10);
+
+        assertFalse(changes.resyncRequired());
+        assertEquals(3, changes.sequence());
+        assertEquals(List.of(2L, 3L), changes.changes().stream().map(ReferenceDataChange::sequence).toList());
+        assertEquals(ReferenceDataChange.Entity.INSTRUMENT, changes.changes().get(0).entity());
+        assertEquals(VenueStatus.CLOSED, changes.changes().get(1).venue().status());
+    }
+
+    @Test
+    void whenLimitIsSmallerThanBacklog_thenClientPagesUpToLatestSequence() {
+        changeLog.venuesCreated(List.of(venue(1, VenueStatus.OPEN), venue(2, VenueStatus.OPEN),
+                venue(3, VenueStatus.OPEN)));
+
+        ReferenceDataChanges first = changeLog.changesSince(changeLog.epoch(), 0, 2);
+        ReferenceDataChanges second = changeLog.changesSince(changeLog.epoch(), first.sequence(), 2);
+
+        assertEquals(2, first.changes().size());
+        assertEquals(3, first.latestSequence());
+        assertEquals(1, second.changes().size());
+        assertEquals(second.latestSequence(), second.sequence());
+        assertEquals(1, referenceDataVersion.current());
+    }
+
+    @Test
+    void whenChangesWereOverwritten_thenResyncIsRequired() {
+        for (long id = 1; id <= 6; id++) {
+            changeLog.venueDeleted(id);
+        }
+
+        assertTrue(changeLog.changesSince(changeLog.epoch(), 1, 10).resyncRequired());
+        assertFalse(changeLog.changesSince(changeLog.epoch(), 2, 10).resyncRequired());
+    }
+
+    @Test
+    void whenEpochOrSequenceIsUnknown_thenResyncIsRequired() {
+        changeLog.venueDeleted(1);
+
+        assertTrue(changeLog.changesSince("other", 0, 10).resyncRequired());
+        assertTrue(changeLog.changesSince(changeLog.epoch(), 5, 10).resyncRequired());
+    }
+
+    @Test
+    void whenNothingChanged_thenEmptySliceAtCurrentSequence() {
+        ReferenceDataChanges changes = changeLog.changesSince(changeLog.epoch(), 0, 10);
+
+        assertFalse(changes.resyncRequired());
+        assertTrue(changes.changes().isEmpty());
+        assertEquals(0, changes.sequence());
+    }
+
+    @Test
+    void whenChangeIsRecordedInATransaction_thenItIsAppendedOnlyWhenItCommits() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            changeLog.venueChanged(ReferenceDataChange.Type.CREATE, venue(1, VenueStatus.OPEN));
+            assertEquals(0, changeLog.currentSequence());
+
+            TransactionSynchronizationUtils.triggerBeforeCommit(false);
+            TransactionSynchronizationUtils.invokeAfterCompletion(
+                    TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(1, changeLog.currentSequence());
+        assertEquals(1, referenceDataVersion.current());
+    }
+
+    @Test
+    void whenTransactionRollsBack_thenNothingIsAppended() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            changeLog.venueDeleted(1);
+            TransactionSynchronizationUtils.invokeAfterCompletion(
+                    TransactionSynchronizationManager.getSynchronizations(),
+                    TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(0, changeLog.currentSequence());
+        assertEquals(0, referenceDataVersion.current());
+    }
+}
@@ -0,0 +1,98 @@
+package com.tobi.venuemgmt.referencedata;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tobi.venuemgmt.instrument.InstrumentSummary;
+import com.tobi.venuemgmt.instrument.InstrumentType;
+import com.tobi.venuemgmt.venue.VenueStatus;
+import com.tobi.venuemgmt.venue.VenueSummary;
+import com.tobi.venuemgmt.venue.VenueType;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReferenceDataCodecTest {
+
+    private static byte[] encode(ReferenceDataSnapshot snapshot) throws IOException {
+        return encode(snapshot, false);
+    }
+
+    private static byte[] encode(ReferenceDataSnapshot snapshot, boolean compress) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ReferenceDataCodec.encode(snapshot, out, compress);
+        return out.toByteArray();
+    }
+
+    private static ReferenceDataSnapshot snapshot(int instrumentCount) {
+        List<VenueSummary> venues = List.of(
+                new VenueSummary(1L, "NYSE", "New York", VenueType.RM, VenueStatus.OPEN),
+                new VenueSummary(2L, "NYSE Arca", "New York", VenueType.MTF, VenueStatus.CLOSED),
+                new VenueSummary(5L, "Börse Zürich", null, null, VenueStatus.OPEN));
+        List<InstrumentSummary> instruments = new ArrayList<>(instrumentCount);
+        for (int i = 1; i <= instrumentCount; i++) {
+            instruments.add(new InstrumentSummary((long) i, "SYM" + i, "Instrument " + i,
+                    InstrumentType.values()[i % InstrumentType.values().length], (long) (i % 3 == 0 ? 5 : 1)));
+        }
+        return new ReferenceDataSnapshot("epoch", 42L, venues, instruments);
+    }
+
+    @Test
+    void whenRoundTripped_thenSnapshotIsUnchanged() throws IOException {
+        ReferenceDataSnapshot snapshot = snapshot(50);
+
+        ReferenceDataSnapshot decoded = ReferenceDataCodec.decode(new ByteArrayInputStream(encode(snapshot)));
+
+        assertEquals(snapshot, decoded);
+    }
+
+    @Test
+    void whenIdsAreUnorderedAndFieldsNull_thenRoundTripKeepsThem() throws IOException {
+        ReferenceDataSnapshot snapshot = new ReferenceDataSnapshot(null, 0L, List.of(), List.of(
+                new InstrumentSummary(900_000L, "A", null, null, null),
+                new InstrumentSummary(3L, "", "B", InstrumentType.BOND, 7L)));
+
+        ReferenceDataSnapshot decoded = ReferenceDataCodec.decode(new ByteArrayInputStream(encode(snapshot)));
+
+        assertEquals(snapshot, decoded);
+    }
+
+    @Test
+    void whenCompressed_thenRoundTripKeepsSnapshotAndPayloadShrinks() throws IOException {
+        ReferenceDataSnapshot snapshot = snapshot(10_000);
+
+        byte[] compressed = encode(snapshot, true);
+
+        assertEquals(snapshot, ReferenceDataCodec.decode(new ByteArrayInputStream(compressed)));
+        assertTrue(compressed.length * 2 < encode(snapshot).length);
+    }
+
+    @Test
+    void whenEncoded_thenPayloadIsMuchSmallerThanJson() throws IOException {
+        ReferenceDataSnapshot snapshot = snapshot(10_000);
+
+        int binary = encode(snapshot).length;
+        int json = new ObjectMapper().writeValueAsBytes(snapshot).length;
+
+        assertTrue(binary * 3 < json, "binary " + binary + " bytes vs JSON " + json + " bytes");
+    }
+
+    @Test
+    void whenPayloadIsNotReferenceData_thenDecodeFails() {
+        assertThrows(IOException.class,
+                () -> ReferenceDataCodec.decode(new ByteArrayInputStream("{\"venues\":[]}".getBytes())));
+    }
+
+    @Test
+    void whenPayloadIsTruncated_thenDecodeFails() throws IOException {
+        byte[] payload = encode(snapshot(10));
+        byte[] truncated = Arrays.copyOf(payload, payload.length - 4);
+
+        assertThrows(IOException.class, () -> ReferenceDataCodec.decode(new ByteArrayInputStream(truncated)));
+    }
+}
@@ -0,0 +1,92 @@
+package com.tobi.venuemgmt.session;
+
+import com.tobi.venuemgmt.venue.VenueStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SessionScheduleTest {
+
+    private static final ZoneId NEW_YORK = ZoneId.of("America/New_York");
+
+    private static List<SessionWindow> weekdays(LocalTime opens, LocalTime closes) {
+        return List.of(DayOfWeek.MONDAY, DayOfWeek.TUESDAY, DayOfWeek.WEDNESDAY, DayOfWeek.THURSDAY,
+                DayOfWeek.FRIDAY).stream().map(day -> new SessionWindow(day, opens, closes)).toList();
+    }
+
+    private static Instant newYork(String localDateTime) {
+        return ZonedDateTime.of(LocalDateTime.parse(localDateTime), NEW_YORK).toInstant();
+    }
+
+    private final SessionSchedule nyse = new SessionSchedule(NEW_YORK,
+            weekdays(LocalTime.of(9, 30), LocalTime.of(16, 0)), Set.of(LocalDate.of(2024, 7, 4)));
+
+    @Test
+    void openDuringSessionAndClosedOutsideIt() {
+        assertEquals(VenueStatus.CLOSED, nyse.statusAt(newYork("2024-07-02T09:29:59")));
+        assertEquals(VenueStatus.OPEN, nyse.statusAt(newYork("2024-07-02T09:30:00")));
+        assertEquals(VenueStatus.OPEN, nyse.statusAt(newYork("2024-07-02T15:59:59")));
+        assertEquals(VenueStatus.CLOSED, nyse.statusAt(newYork("2024-07-02T16:00:00")));
+    }
+
+    @Test
+    void closedAllDayOnHolidaysAndWeekends() {
+        assertEquals(VenueStatus.CLOSED, nyse.statusAt(newYork("2024-07-04T12:00:00")));
+        assertEquals(VenueStatus.CLOSED, nyse.statusAt(newYork("2024-07-06T12:00:00")));
+    }
+
+    @Test
+    void nextBoundaryIsTheCloseDuringASessionAndTheOpenOutsideOne() {
+        assertEquals(new SessionSchedule.Boundary(newYork("2024-07-02T16:00:00"), VenueStatus.CLOSED),
+                nyse.nextBoundaryAfter(newYork("2024-07-02T10:00:00")));
+        assertEquals(new SessionSchedule.Boundary(newYork("2024-07-03T09:30:00"), VenueStatus.OPEN),
+                nyse.nextBoundaryAfter(newYork("2024-07-02T16:00:00")));
+    }
+
+    @Test
+    void nextOpenSkipsHolidaysAndWeekends() {
+        assertEquals(new SessionSchedule.Boundary(newYork("2024-07-05T09:30:00"), VenueStatus.OPEN),
+                nyse.nextBoundaryAfter(newYork("2024-07-03T16:00:00")));
+        assertEquals(new SessionSchedule.Boundary(newYork("2024-07-08T09:30:00"), VenueStatus.OPEN),
+                nyse.nextBoundaryAfter(newYork("2024-07-05T16:00:00")));
+    }
+
+    @Test
+    void sessionTimesFollowDaylightSavingTime() {
+        Instant beforeChange = nyse.nextBoundaryAfter(newYork("2024-03-08T12:00:00")).at();
+        Instant afterChange = nyse.nextBoundaryAfter(newYork("2024-03-11T08:00:00")).at();
+
+        assertEquals(Instant.parse("2024-03-08T21:00:00Z"), beforeChange);
+        assertEquals(Instant.parse("2024-03-11T13:30:00Z"), afterChange);
+    }
+
+    @Test
+    void severalSessionsOnOneDay() {
+        SessionSchedule split = new SessionSchedule(ZoneId.of("Asia/Tokyo"), List.of(
+                new SessionWindow(DayOfWeek.MONDAY, LocalTime.of(12, 30), LocalTime.of(15, 0)),
+                new SessionWindow(DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(11, 30))), Set.of());
+        Instant lunch = ZonedDateTime.of(2024, 7, 1, 12, 0, 0, 0, ZoneId.of("Asia/Tokyo")).toInstant();
+
+        assertEquals(VenueStatus.CLOSED, split.statusAt(lunch));
+        assertEquals(VenueStatus.OPEN, split.nextBoundaryAfter(lunch).status());
+        assertEquals(lunch.plusSeconds(1800), split.nextBoundaryAfter(lunch).at());
+    }
+
+    @Test
+    void noSessionsMeansNoBoundary() {
+        SessionSchedule closed = new SessionSchedule(NEW_YORK, List.of(), Set.of());
+
+        assertEquals(VenueStatus.CLOSED, closed.statusAt(Instant.now()));
+        assertNull(closed.nextBoundaryAfter(Instant.now()));
+    }
+}
@@ -0,0 +1,160 @@
+package com.tobi.venuemgmt.session;
+
+import com.tobi.venuemgmt.venue.VenueService;
+import com.tobi.venuemgmt.venue.VenueStatus;
+import com.tobi.venuemgmt.venue.VenueSummary;
+import com.tobi.venuemgmt.venue.VenueType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TradingSessionSchedulerTest {
+
+    // A Monday
+    private static final Instant NOW = Instant.parse("2024-07-01T08:00:00Z");
+
+    @Mock
+    private TradingCalendarRepository calendarRepository;
+
+    @Mock
+    private VenueService venueService;
+
+    private TradingSessionScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new TradingSessionScheduler(calendarRepository, venueService, true, 1000,
+                Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    private static TradingCalendar calendar(long venueId, String timeZone, LocalTime opens, LocalTime closes) {
+        TradingCalendar calendar = new TradingCalendar();
+        calendar.setVenueId(venueId);
+        calendar.setTimeZone(timeZone);
+        calendar.setSessions(List.of(new SessionWindow(DayOfWeek.MONDAY, opens, closes)));
+        return calendar;
+    }
+
+    private static VenueSummary venue(long id, VenueStatus status) {
+        return new VenueSummary(id, "V" + id, "London", VenueType.RM, status);
+    }
+
+    // Every venue the scheduler asks about exists
+    private void venuesExist() {
+        when(venueService.applyScheduledStatuses(anyMap())).thenAnswer(invocation -> {
+            Map<Long, VenueStatus> statuses = invocation.getArgument(0);
+            return statuses.entrySet().stream().map(e -> venue(e.getKey(), e.getValue())).toList();
+        });
+    }
+
+    @Test
+    void scheduleAppliesTheCurrentStatus() {
+        when(venueService.applyScheduledStatuses(anyMap())).thenReturn(List.of(venue(1L, VenueStatus.CLOSED)));
+
+        scheduler.schedule(calendar(1L, "UTC", LocalTime.of(9, 0), LocalTime.of(17, 0)));
+
+        verify(venueService).applyScheduledStatuses(Map.of(1L, VenueStatus.CLOSED));
+    }
+
+    @Test
+    void venuesWithTheSameBoundaryAreOpenedInOneBatch() {
+        venuesExist();
+        scheduler.schedule(calendar(1L, "UTC", LocalTime.of(9, 0), LocalTime.of(17, 0)));
+        scheduler.schedule(calendar(2L, "Europe/London", LocalTime.of(10, 0), LocalTime.of(16, 30)));
+        scheduler.schedule(calendar(3L, "UTC", LocalTime.of(14, 30), LocalTime.of(21, 0)));
+
+        assertEquals(Map.of(), scheduler.takeDue(Instant.parse("2024-07-01T08:59:59Z")));
+        // 10:00 in London is 09:00 UTC in July
+        assertEquals(Map.of(1L, VenueStatus.OPEN, 2L, VenueStatus.OPEN),
+                scheduler.takeDue(Instant.parse("2024-07-01T09:00:00Z")));
+        assertEquals(Map.of(3L, VenueStatus.OPEN), scheduler.takeDue(Instant.parse("2024-07-01T14:30:00Z")));
+    }
+
+    @Test
+    void firedBoundaryQueuesTheNextOne() {
+        venuesExist();
+        scheduler.schedule(calendar(1L, "UTC", LocalTime.of(9, 0), LocalTime.of(17, 0)));
+
+        scheduler.takeDue(Instant.parse("2024-07-01T09:00:00Z"));
+
+        assertEquals(Map.of(1L, VenueStatus.CLOSED), scheduler.takeDue(Instant.parse("2024-07-01T17:00:00Z")));
+        // Next Monday
+        assertEquals(Map.of(), scheduler.takeDue(Instant.parse("2024-07-08T08:59:59Z")));
+        assertEquals(Map.of(1L, VenueStatus.OPEN), scheduler.takeDue(Instant.parse("2024-07-08T09:00:00Z")));
+    }
+
+    @Test
+    void changedCalendarReplacesQueuedBoundaries() {
+        venuesExist();
+        scheduler.schedule(calendar(1L, "UTC", LocalTime.of(9, 0), LocalTime.of(17, 0)));
+        scheduler.schedule(calendar(1L, "UTC", LocalTime.of(10, 0), LocalTime.of(17, 0)));
+
+        assertEquals(Map.of(), scheduler.takeDue(Instant.parse("2024-07-01T09:00:00Z")));
+        assertEquals(Map.of(1L, VenueStatus.OPEN), scheduler.takeDue(Instant.parse("2024-07-01T10:00:00Z")));
+    }
+
+    @Test
+    void unscheduledVenueIsNoLongerChanged() {
+        venuesExist();
+        scheduler.schedule(calendar(1L, "UTC", LocalTime.of(9, 0), LocalTime.of(17, 0)));
+
+        scheduler.unschedule(1L);
+
+        assertEquals(Map.of(), scheduler.takeDue(Instant.parse("2024-07-01T09:00:00Z")));
+    }
+
+    @Test
+    void calendarOfDeletedVenueIsRemoved() {
+        when(venueService.applyScheduledStatuses(anyMap())).thenReturn(List.of());
+
+        scheduler.schedule(calendar(1L, "UTC", LocalTime.of(9, 0), LocalTime.of(17, 0)));
+
+        verify(calendarRepository).deleteByVenueId(1L);
+        assertEquals(Map.of(), scheduler.takeDue(Instant.parse("2024-07-01T09:00:00Z")));
+    }
+
+    @Test
+    void failedBatchIsRetried() {
+        when(venueService.applyScheduledStatuses(anyMap()))
+                .thenReturn(List.of(venue(1L, VenueStatus.CLOSED)))
+                .thenThrow(new IllegalStateException("database down"));
+        scheduler.schedule(calendar(1L, "UTC", LocalTime.of(7, 0), LocalTime.of(17, 0)));
+
+        scheduler.apply(Map.of(1L, VenueStatus.OPEN));
+
+        // Retried one retry delay after the (fixed) current time
+        assertEquals(Map.of(1L, VenueStatus.OPEN), scheduler.takeDue(NOW.plusMillis(1000)));
+        verify(calendarRepository, never()).deleteByVenueId(any());
+    }
+
+    @Test
+    void startupBringsStatusesInLineWithCalendars() {
+        when(calendarRepository.findAll()).thenReturn(List.of(
+                calendar(1L, "UTC", LocalTime.of(7, 0), LocalTime.of(17, 0)),
+                calendar(2L, "UTC", LocalTime.of(9, 0), LocalTime.of(17, 0))));
+        when(venueService.applyScheduledStatuses(anyMap()))
+                .thenReturn(List.of(venue(1L, VenueStatus.OPEN), venue(2L, VenueStatus.CLOSED)));
+
+        scheduler.afterSingletonsInstantiated();
+        scheduler.stop();
+
+        verify(venueService).applyScheduledStatuses(Map.of(1L, VenueStatus.OPEN, 2L, VenueStatus.CLOSED));
+        assertEquals(Map.of(2L, VenueStatus.OPEN), scheduler.takeDue(Instant.parse("2024-07-01T09:00:00Z")));
+    }
+}
@@ -0,0 +1,105 @@
+package com.tobi.venuemgmt.statistics;
+
+import com.tobi.venuemgmt.instrument.InstrumentRepository;
+import com.tobi.venuemgmt.instrument.InstrumentSummary;
+import com.tobi.venuemgmt.instrument.InstrumentType;
+import com.tobi.venuemgmt.venue.VenueRepository;
+import com.tobi.venuemgmt.venue.VenueStatus;
+import com.tobi.venuemgmt.venue.VenueSummary;
+import com.tobi.venuemgmt.venue.VenueType;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ReferenceDataStatisticsTest {
+
+    @Mock
+    private VenueRepository venueRepository;
+
+    @Mock
+    private InstrumentRepository instrumentRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ReferenceDataStatistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = new ReferenceDataStatistics(venueRepository, instrumentRepository,
+                new TransactionTemplate(transactionManager));
+    }
+
+    @Test
+    void whenVenueUpdated_thenCountsMoveToNewGroup() {
+        statistics.venueSaved(1L, "London", VenueType.RM, VenueStatus.OPEN);
+        statistics.venueSaved(2L, "London", VenueType.MTF, VenueStatus.OPEN);
+
+        statistics.venueSaved(1L, "Zurich", VenueType.RM, VenueStatus.CLOSED);
+
+        VenueStatistics result = statistics.venueStatistics();
+        assertEquals(2, result.total());
+        assertEquals(Map.of("London", 1L, "Zurich", 1L), result.byLocation());
+        assertEquals(1L, result.byStatus().get(VenueStatus.CLOSED));
+        assertEquals(1L, result.byStatus().get(VenueStatus.OPEN));
+        assertEquals(0L, result.byType().get(VenueType.OTF));
+    }
+
+    @Test
+    void whenVenueRemoved_thenItsInstrumentsAreRemovedToo() {
+        statistics.venueSaved(1L, "London", VenueType.RM, VenueStatus.OPEN);
+        statistics.venueSaved(2L, null, VenueType.MTF, VenueStatus.OPEN);
+        statistics.instrumentSaved(10L, 1L, InstrumentType.STOCK);
+        statistics.instrumentSaved(11L, 1L, InstrumentType.BOND);
+        statistics.instrumentSaved(12L, 2L, InstrumentType.STOCK);
+
+        statistics.venueRemoved(1L);
+
+        VenueStatistics venues = statistics.venueStatistics();
+        InstrumentStatistics instruments = statistics.instrumentStatistics();
+        assertEquals(Map.of(ReferenceDataStatistics.NO_LOCATION, 1L), venues.byLocation());
+        assertEquals(1, instruments.total());
+        assertEquals(1L, instruments.byType().get(InstrumentType.STOCK));
+        assertEquals(0L, instruments.byType().get(InstrumentType.BOND));
+        assertEquals(Map.of(2L, statistics.instrumentStatisticsForVenue(2L)), instruments.byVenue());
+        assertEquals(0L, statistics.instrumentStatisticsForVenue(1L).get(InstrumentType.STOCK));
+    }
+
+    @Test
+    void whenInstrumentTypeChanged_thenCountsAreNotDoubled() {
+        statistics.instrumentSaved(10L, 1L, InstrumentType.STOCK);
+        statistics.instrumentSaved(10L, 1L, InstrumentType.FX);
+        statistics.instrumentRemoved(99L);
+
+        Map<InstrumentType, Long> byType = statistics.instrumentStatisticsForVenue(1L);
+        assertEquals(0L, byType.get(InstrumentType.STOCK));
+        assertEquals(1L, byType.get(InstrumentType.FX));
+        assertEquals(1, statistics.instrumentStatistics().total());
+    }
+
+    @Test
+    void whenReconciled_thenCountsMatchDatabase() {
+        statistics.venueSaved(5L, "Stale", VenueType.OTF, VenueStatus.OPEN);
+        when(venueRepository.streamAllSummaries()).thenReturn(Stream.of(
+                new VenueSummary(1L, "LSE", "London", VenueType.RM, VenueStatus.OPEN)));
+        when(instrumentRepository.streamAllSummaries()).thenReturn(Stream.of(
+                new InstrumentSummary(10L, "VOD", "Vodafone", InstrumentType.STOCK, 1L)));
+
+        statistics.reconcile();
+
+        assertEquals(Map.of("London", 1L), statistics.venueStatistics().byLocation());
+        assertEquals(1L, statistics.instrumentStatisticsForVenue(1L).get(InstrumentType.STOCK));
+    }
+}
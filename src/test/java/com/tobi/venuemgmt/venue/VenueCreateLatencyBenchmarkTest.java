@@ -0,0 +1,128 @@
+package com.tobi.venuemgmt.venue;
+
+import com.tobi.venuemgmt.common.ReferenceDataVersion;
+import com.tobi.venuemgmt.instrument.InstrumentCache;
+import com.tobi.venuemgmt.instrument.InstrumentRepository;
+import com.tobi.venuemgmt.instrument.SymbolIndex;
+import com.tobi.venuemgmt.instrument.TradabilityIndex;
+import com.tobi.venuemgmt.referencedata.ReferenceDataChangeLog;
+import com.tobi.venuemgmt.statistics.ReferenceDataStatistics;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Shows that creating a venue (duplicate check plus insert) costs the same with
+ * 1k or 1M existing venues, now that the check is an indexed exact match
+ * instead of a LIKE scan.
+ *
+ * Excluded from the default build; run with
+ * mvn test -Dgroups=benchmark -DexcludedGroups= -Dtest=VenueCreateLatencyBenchmarkTest
+ */
+@Tag("benchmark")
+@DataJpaTest
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+public class VenueCreateLatencyBenchmarkTest {
+
+    private static final int CREATES_PER_ROUND = 500;
+
+    @Autowired
+    private VenueRepository venueRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private int rowsLoaded;
+
+    @Test
+    void createLatencyStaysFlatFromOneThousandToOneMillionRows() throws Exception {
+        VenueService venueService = new VenueService(venueRepository, new VenueCache(16), new InstrumentCache(16),
+                new TradabilityIndex(), mock(VenueStatusFeed.class), mock(ReferenceDataStatistics.class),
+                new SymbolIndex(), new ReferenceDataChangeLog(new ReferenceDataVersion(), 1024),
+                mock(InstrumentRepository.class), new ReferenceDataVersion(),
+                new TransactionTemplate(transactionManager));
+
+        loadRowsUpTo(1_000);
+        long[] small = measureCreates(venueService, "small");
+
+        loadRowsUpTo(1_000_000);
+        long[] large = measureCreates(venueService, "large");
+
+        long smallMedian = percentile(small, 0.50);
+        long largeMedian = percentile(large, 0.50);
+        System.out.printf("venue create latency: 1k rows p50=%dus p99=%dus | 1M rows p50=%dus p99=%dus%n",
+                smallMedian / 1_000, percentile(small, 0.99) / 1_000,
+                largeMedian / 1_000, percentile(large, 0.99) / 1_000);
+
+        // A table scan would be ~1000x slower at 1M rows; allow generous noise
+        assertTrue(largeMedian < smallMedian * 3,
+                "Median create latency grew from " + smallMedian + "ns to " + largeMedian + "ns");
+    }
+
+    private long[] measureCreates(VenueService venueService, String round) {
+        long[] samples = new long[CREATES_PER_ROUND];
+        for (int i = 0; i < CREATES_PER_ROUND; i++) {
+            Venue venue = new Venue();
+            venue.setName("Bench " + round + " " + i);
+            venue.setLocation("Benchmark");
+            venue.setType(VenueType.MTF);
+
+            long start = System.nanoTime();
+            venueService.saveVenue(venue);
+            entityManager.flush();
+            samples[i] = System.nanoTime() - start;
+        }
+        entityManager.clear();
+        return samples;
+    }
+
+    // Bulk-load filler rows through the test transaction's connection
+    private void loadRowsUpTo(int targetRows) throws Exception {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO venue (name, name_key, location, type, status) VALUES (?, ?, ?, 'RM', 'OPEN')")) {
+            for (int i = rowsLoaded; i < targetRows; i++) {
+                String name = "Filler Venue " + i;
+                insert.setString(1, name);
+                insert.setString(2, name.toUpperCase());
+                insert.setString(3, "Location " + (i % 500));
+                insert.addBatch();
+                if (i % 10_000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        rowsLoaded = targetRows;
+    }
+
+    private static long percentile(long[] samples, double percentile) {
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.min(sorted.length - 1, Math.round(percentile * (sorted.length - 1)))];
+    }
+}
@@ -1,25 +1,44 @@
 package com.tobi.venuemgmt.venue;
 
+import com.tobi.venuemgmt.common.CursorPage;
+import com.tobi.venuemgmt.common.ReferenceDataVersion;
+import com.tobi.venuemgmt.common.datasource.ReadRouting;
 import com.tobi.venuemgmt.exception.ResourceAlreadyExistsException;
 import com.tobi.venuemgmt.exception.ResourceNotFoundException;
+import com.tobi.venuemgmt.instrument.Instrument;
+import com.tobi.venuemgmt.instrument.InstrumentCache;
+import com.tobi.venuemgmt.instrument.InstrumentRepository;
+import com.tobi.venuemgmt.instrument.InstrumentTradingState;
+import com.tobi.venuemgmt.instrument.SymbolIndex;
+import com.tobi.venuemgmt.instrument.TradabilityIndex;
+import com.tobi.venuemgmt.referencedata.ReferenceDataChange;
+import com.tobi.venuemgmt.referencedata.ReferenceDataChangeLog;
+import com.tobi.venuemgmt.statistics.ReferenceDataStatistics;
 import com.tobi.venuemgmt.venue.Venue;
 import com.tobi.venuemgmt.venue.VenueRepository;
 import com.tobi.venuemgmt.venue.VenueService;
 import com.tobi.venuemgmt.venue.VenueStatus;
 import com.tobi.venuemgmt.venue.VenueType;
 
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,9 +47,46 @@ public class VenueServiceTest {
     @Mock
     private VenueRepository venueRepository;
 
+    @Spy
+    private VenueCache venueCache = new VenueCache(100);
+
+    @Spy
+    private InstrumentCache instrumentCache = new InstrumentCache(100);
+
+    @Spy
+    private TradabilityIndex tradabilityIndex = new TradabilityIndex();
+
+    @Mock
+    private VenueStatusFeed venueStatusFeed;
+
+    @Mock
+    private ReferenceDataStatistics statistics;
+
+    @Mock
+    private SymbolIndex symbolIndex;
+
+    @Spy
+    private ReferenceDataVersion referenceDataVersion = new ReferenceDataVersion();
+
+    @Spy
+    private ReferenceDataChangeLog changeLog = new ReferenceDataChangeLog(referenceDataVersion, 100);
+
+    @Mock
+    private InstrumentRepository instrumentRepository;
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
     @InjectMocks
     private VenueService venueService;
 
+    // Routing state is per thread, and test threads are shared between classes
+    @BeforeEach
+    @AfterEach
+    void resetReadRouting() {
+        ReadRouting.reset();
+    }
+
     // Helper method to create a sample venue
     private Venue createSampleVenue() {
         Venue venue = new Venue();
@@ -65,6 +121,36 @@ public class VenueServiceTest {
         assertEquals("NYSE", result.getName());
     }
 
+    @Test
+    public void whenFindByIdTwice_thenSecondLookupIsServedFromCache() {
+        Venue venue = createSampleVenue();
+        when(venueRepository.findById(1L)).thenReturn(Optional.of(venue));
+
+        venueService.findVenueById(1L);
+        Venue result = venueService.findVenueById(1L);
+
+        assertSame(venue, result);
+        verify(venueRepository, times(1)).findById(1L);
+        assertEquals(1, venueCache.stats().hits());
+        assertEquals(1, venueCache.stats().misses());
+    }
+
+    @Test
+    public void whenUpdateVenueStatuses_thenCachedVenueIsInvalidated() {
+        Venue cached = createSampleVenue();
+        Venue fresh = createSampleVenue();
+        when(venueRepository.findById(1L)).thenReturn(Optional.of(cached), Optional.of(fresh));
+        when(venueRepository.findSummariesByIdIn(any())).thenReturn(List.of(
+                new VenueSummary(1L, "NYSE", "New York", VenueType.RM, VenueStatus.OPEN)));
+
+        venueService.findVenueById(1L);
+        venueService.updateVenueStatuses(Map.of(1L, VenueStatus.CLOSED));
+        Venue result = venueService.findVenueById(1L);
+
+        assertSame(fresh, result);
+        verify(venueRepository, times(2)).findById(1L);
+    }
+
     @Test
     public void whenFindByIdNotFound_thenThrowException() {
         when(venueRepository.findById(1L)).thenReturn(Optional.empty());
@@ -79,7 +165,7 @@ public class VenueServiceTest {
         newVenue.setLocation("London");
         newVenue.setType(VenueType.RM);
 
-        when(venueRepository.findByNameContainingIgnoreCase("LSE")).thenReturn(Collections.emptyList());
+        when(venueRepository.existsByNameKey("LSE")).thenReturn(false);
         when(venueRepository.save(any(Venue.class))).thenAnswer(invocation -> {
             Venue v = invocation.getArgument(0);
             v.setId(2L);
@@ -95,15 +181,39 @@ public class VenueServiceTest {
 
     @Test
     void whenSaveDuplicateVenue_thenThrowException() {
-        Venue existingVenue = createSampleVenue();
         Venue newVenueWitchDuplicateName = new Venue();
-        newVenueWitchDuplicateName.setName("NYSE");
+        newVenueWitchDuplicateName.setName(" nyse ");
         newVenueWitchDuplicateName.setLocation("New York");
-        when(venueRepository.findByNameContainingIgnoreCase("NYSE")).thenReturn(List.of(existingVenue));
+        when(venueRepository.existsByNameKey("NYSE")).thenReturn(true);
 
         assertThrows(ResourceAlreadyExistsException.class, () -> venueService.saveVenue(newVenueWitchDuplicateName));
     }
 
+    @Test
+    void whenSaveVenueWhoseNameContainsExistingName_thenVenueIsSaved() {
+        Venue newVenue = new Venue();
+        newVenue.setName("NYSE Arca");
+        when(venueRepository.existsByNameKey("NYSE ARCA")).thenReturn(false);
+        when(venueRepository.save(newVenue)).thenAnswer(invocation -> {
+            newVenue.setId(3L);
+            return newVenue;
+        });
+
+        assertSame(newVenue, venueService.saveVenue(newVenue));
+    }
+
+    @Test
+    void whenUpdateVenueToOwnName_thenCurrentVenueIsExcludedFromDuplicateCheck() {
+        Venue existingVenue = createSampleVenue();
+        Venue updatedVenue = new Venue();
+        updatedVenue.setName("NYSE");
+        when(venueRepository.findById(1L)).thenReturn(Optional.of(existingVenue));
+        when(venueRepository.existsByNameKeyAndIdNot("NYSE", 1L)).thenReturn(false);
+        when(venueRepository.save(existingVenue)).thenReturn(existingVenue);
+
+        assertSame(existingVenue, venueService.updateVenue(1L, updatedVenue));
+    }
+
     @Test
     void whenUpdateVenue_thenFieldsAreChanged() {
         Venue existingVenue = createSampleVenue();
@@ -123,14 +233,222 @@ public class VenueServiceTest {
     }
 
     @Test
-    void whenUpdateVenueStatus_thenStatusIsUpdated() {
+    void whenUpdateVenue_thenCollectionVersionChanges() {
+        Venue existingVenue = createSampleVenue();
+        when(venueRepository.findById(1L)).thenReturn(Optional.of(existingVenue));
+        when(venueRepository.save(existingVenue)).thenReturn(existingVenue);
+        String etag = referenceDataVersion.etag("venues");
+
+        venueService.updateVenue(1L, createSampleVenue());
+
+        assertNotEquals(etag, referenceDataVersion.etag("venues"));
+    }
+
+    @Test
+    void whenUpdateVenueWithStaleVersion_thenThrowAndDoNotSave() {
+        Venue existingVenue = createSampleVenue();
+        existingVenue.setVersion(3);
+        when(venueRepository.findById(1L)).thenReturn(Optional.of(existingVenue));
+
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> venueService.updateVenue(1L, createSampleVenue(), 2L));
+        verify(venueRepository, never()).save(any());
+        assertEquals(0, referenceDataVersion.current());
+    }
+
+    @Test
+    void whenFindVenueForUpdate_thenCacheIsBypassed() {
+        when(venueRepository.findById(1L)).thenReturn(Optional.of(createSampleVenue()));
+
+        venueService.findVenueForUpdate(1L);
+        venueService.findVenueById(1L);
+
+        verify(venueRepository, times(2)).findById(1L);
+        assertEquals(0, venueCache.stats().hits());
+    }
+
+    @Test
+    void whenUpdateVenueFails_thenCachedVenueIsStillInvalidated() {
+        // With open-in-view the update loads the instance the cache holds
         Venue venue = createSampleVenue();
         when(venueRepository.findById(1L)).thenReturn(Optional.of(venue));
-        when(venueRepository.save(venue)).thenReturn(venue);
+        when(venueRepository.save(venue)).thenThrow(new ObjectOptimisticLockingFailureException(Venue.class, 1L));
+        venueService.findVenueById(1L);
+        Venue updatedVenue = createSampleVenue();
+        updatedVenue.setName("Updated NYSE");
+
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> venueService.updateVenue(1L, updatedVenue));
+        venueService.findVenueById(1L);
+        verify(venueRepository, times(3)).findById(1L);
+        assertEquals(0, referenceDataVersion.current());
+    }
+
+    @Test
+    void whenUpdateVenueStatuses_thenStatusIsUpdated() {
+        when(venueRepository.findSummariesByIdIn(any())).thenReturn(List.of(
+                new VenueSummary(1L, "NYSE", "New York", VenueType.RM, VenueStatus.OPEN)));
+
+        tradabilityIndex.putInstrument(10L, 1L);
 
-        Venue result = venueService.updateVenueStatus(1L, VenueStatus.CLOSED);
+        VenueSummary result = venueService.updateVenueStatuses(Map.of(1L, VenueStatus.CLOSED)).get(1L);
 
-        assertEquals(VenueStatus.CLOSED, result.getStatus());
+        assertEquals(VenueStatus.CLOSED, result.status());
+        assertEquals(TradabilityIndex.Result.VENUE_CLOSED, tradabilityIndex.check(10L));
+        verify(venueStatusFeed).publish(1L, VenueStatus.CLOSED);
+        ReferenceDataChange change = changeLog.changesSince(changeLog.epoch(), 0, 10).changes().get(0);
+        assertEquals(ReferenceDataChange.Type.STATUS, change.type());
+        assertEquals(VenueStatus.CLOSED, change.venue().status());
+    }
+
+    @Test
+    void whenHaltInstruments_thenOneBulkUpdateAndIndexAndCachesFollow() {
+        when(venueRepository.existsById(1L)).thenReturn(true);
+        when(instrumentRepository.updateTradingStateByVenueId(1L, InstrumentTradingState.ACTIVE,
+                InstrumentTradingState.HALTED)).thenReturn(2);
+        tradabilityIndex.putVenue(1L, VenueStatus.OPEN);
+        tradabilityIndex.putVenue(2L, VenueStatus.OPEN);
+        tradabilityIndex.putInstrument(10L, 1L);
+        tradabilityIndex.putInstrument(11L, 1L);
+        tradabilityIndex.putInstrument(12L, 1L);
+        tradabilityIndex.putInstrument(20L, 2L);
+        tradabilityIndex.putInstrumentState(12L, InstrumentTradingState.SUSPENDED);
+        Instrument cached = new Instrument();
+        cached.setVenue(createSampleVenue());
+        instrumentCache.get(10L, id -> cached);
+
+        TradingStateCascade result = venueService.haltInstruments(1L);
+
+        assertEquals(2, result.instruments());
+        assertEquals(InstrumentTradingState.HALTED, result.tradingState());
+        assertEquals(TradabilityIndex.Result.INSTRUMENT_NOT_ACTIVE, tradabilityIndex.check(10L));
+        assertEquals(TradabilityIndex.Result.INSTRUMENT_NOT_ACTIVE, tradabilityIndex.check(11L));
+        assertEquals(TradabilityIndex.Result.TRADABLE, tradabilityIndex.check(20L));
+        assertNotSame(cached, instrumentCache.get(10L, id -> new Instrument()));
+        verify(instrumentRepository, never()).findByVenueId(any());
+        assertEquals(1, referenceDataVersion.current());
+
+        when(instrumentRepository.updateTradingStateByVenueId(1L, InstrumentTradingState.HALTED,
+                InstrumentTradingState.ACTIVE)).thenReturn(2);
+
+        venueService.resumeInstruments(1L);
+
+        assertEquals(TradabilityIndex.Result.TRADABLE, tradabilityIndex.check(10L));
+        assertEquals(TradabilityIndex.Result.TRADABLE, tradabilityIndex.check(11L));
+        // Suspended instruments are not resumed with the venue
+        assertEquals(TradabilityIndex.Result.INSTRUMENT_NOT_ACTIVE, tradabilityIndex.check(12L));
+    }
+
+    @Test
+    void whenHaltInstrumentsOfUnknownVenue_thenThrowAndDoNotUpdate() {
+        when(venueRepository.existsById(9L)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> venueService.haltInstruments(9L));
+        verifyNoInteractions(instrumentRepository);
+    }
+
+    @Test
+    void whenApplyScheduledStatuses_thenOnlyChangedVenuesAreWrittenAndPublished() {
+        when(venueRepository.findSummariesByIdIn(any())).thenReturn(List.of(
+                new VenueSummary(1L, "NYSE", "New York", VenueType.RM, VenueStatus.CLOSED),
+                new VenueSummary(2L, "LSE", "London", VenueType.RM, VenueStatus.OPEN)));
+        tradabilityIndex.putInstrument(10L, 1L);
+        tradabilityIndex.putVenue(1L, VenueStatus.CLOSED);
+
+        List<VenueSummary> result = venueService.applyScheduledStatuses(
+                Map.of(1L, VenueStatus.OPEN, 2L, VenueStatus.OPEN, 3L, VenueStatus.OPEN));
+
+        assertEquals(2, result.size());
+        assertEquals(TradabilityIndex.Result.TRADABLE, tradabilityIndex.check(10L));
+        verify(venueRepository).updateStatus(List.of(1L), VenueStatus.OPEN);
+        verify(venueStatusFeed).publish(1L, VenueStatus.OPEN);
+        verify(venueStatusFeed, never()).publish(eq(2L), any());
+        List<ReferenceDataChange> changes = changeLog.changesSince(changeLog.epoch(), 0, 10).changes();
+        assertEquals(1, changes.size());
+        assertEquals(ReferenceDataChange.Type.STATUS, changes.get(0).type());
+    }
+
+    @Test
+    void whenScheduledOpenFollowsManualClose_thenHaltedInstrumentsResume() {
+        when(venueRepository.findSummariesByIdIn(any())).thenReturn(
+                List.of(new VenueSummary(1L, "NYSE", "New York", VenueType.RM, VenueStatus.OPEN)),
+                List.of(new VenueSummary(1L, "NYSE", "New York", VenueType.RM, VenueStatus.CLOSED)));
+        tradabilityIndex.putVenue(1L, VenueStatus.OPEN);
+        tradabilityIndex.putInstrument(10L, 1L);
+        tradabilityIndex.putInstrument(11L, 1L);
+        tradabilityIndex.putInstrumentState(11L, InstrumentTradingState.SUSPENDED);
+
+        venueService.updateVenueStatuses(Map.of(1L, VenueStatus.CLOSED));
+        venueService.applyScheduledStatuses(Map.of(1L, VenueStatus.OPEN));
+
+        verify(instrumentRepository).updateTradingStateByVenueIdIn(List.of(1L), InstrumentTradingState.HALTED,
+                InstrumentTradingState.ACTIVE);
+        assertEquals(TradabilityIndex.Result.TRADABLE, tradabilityIndex.check(10L));
+        assertEquals(TradabilityIndex.Result.INSTRUMENT_NOT_ACTIVE, tradabilityIndex.check(11L));
+    }
+
+    @Test
+    void whenScheduledClose_thenInstrumentTradingStatesAreLeftAlone() {
+        when(venueRepository.findSummariesByIdIn(any())).thenReturn(List.of(
+                new VenueSummary(1L, "NYSE", "New York", VenueType.RM, VenueStatus.OPEN)));
+        tradabilityIndex.putVenue(1L, VenueStatus.OPEN);
+        tradabilityIndex.putInstrument(10L, 1L);
+
+        venueService.applyScheduledStatuses(Map.of(1L, VenueStatus.CLOSED));
+
+        verify(instrumentRepository, never()).updateTradingStateByVenueIdIn(any(), any(), any());
+        tradabilityIndex.putVenue(1L, VenueStatus.OPEN);
+        assertEquals(TradabilityIndex.Result.TRADABLE, tradabilityIndex.check(10L));
+    }
+
+    @Test
+    void whenApplyScheduledStatusesChangesNothing_thenNothingIsWritten() {
+        when(venueRepository.findSummariesByIdIn(any())).thenReturn(List.of(
+                new VenueSummary(1L, "NYSE", "New York", VenueType.RM, VenueStatus.OPEN)));
+
+        venueService.applyScheduledStatuses(Map.of(1L, VenueStatus.OPEN));
+
+        verify(venueRepository, never()).updateStatus(any(), any());
+        verifyNoInteractions(venueStatusFeed);
+    }
+
+    @Test
+    void whenUpdateVenueStatuses_thenChangedVenuesAreWrittenInOneTransaction() {
+        when(venueRepository.findSummariesByIdIn(any())).thenReturn(List.of(
+                new VenueSummary(1L, "NYSE", "New York", VenueType.RM, VenueStatus.OPEN),
+                new VenueSummary(2L, "LSE", "London", VenueType.RM, VenueStatus.OPEN),
+                new VenueSummary(3L, "XETRA", "Frankfurt", VenueType.RM, VenueStatus.CLOSED)));
+        tradabilityIndex.putVenue(1L, VenueStatus.OPEN);
+        tradabilityIndex.putInstrument(10L, 1L);
+
+        Map<Long, VenueSummary> result = venueService.updateVenueStatuses(
+                Map.of(1L, VenueStatus.CLOSED, 2L, VenueStatus.OPEN, 3L, VenueStatus.OPEN, 4L, VenueStatus.OPEN));
+
+        assertEquals(3, result.size());
+        assertEquals(VenueStatus.CLOSED, result.get(1L).status());
+        assertEquals(TradabilityIndex.Result.VENUE_CLOSED, tradabilityIndex.check(10L));
+        verify(transactionTemplate).executeWithoutResult(any());
+        verify(venueRepository).updateStatus(List.of(1L), VenueStatus.CLOSED);
+        verify(venueRepository).updateStatus(List.of(3L), VenueStatus.OPEN);
+        verify(instrumentRepository).updateTradingStateByVenueIdIn(List.of(1L), InstrumentTradingState.ACTIVE,
+                InstrumentTradingState.HALTED);
+        verify(instrumentRepository).updateTradingStateByVenueIdIn(List.of(3L), InstrumentTradingState.HALTED,
+                InstrumentTradingState.ACTIVE);
+        verify(venueStatusFeed).publish(1L, VenueStatus.CLOSED);
+        verify(venueStatusFeed).publish(3L, VenueStatus.OPEN);
+        verify(venueStatusFeed, never()).publish(eq(2L), any());
+    }
+
+    @Test
+    void whenUpdateVenueStatusesChangesNothing_thenNothingIsWritten() {
+        when(venueRepository.findSummariesByIdIn(any())).thenReturn(List.of(
+                new VenueSummary(1L, "NYSE", "New York", VenueType.RM, VenueStatus.OPEN)));
+
+        venueService.updateVenueStatuses(Map.of(1L, VenueStatus.OPEN));
+
+        verify(venueRepository, never()).updateStatus(any(), any());
+        verifyNoInteractions(instrumentRepository);
+        verifyNoInteractions(venueStatusFeed);
     }
 
     @Test
@@ -163,4 +481,27 @@ public class VenueServiceTest {
         assertEquals(1, result.size());
         assertEquals("NYSE", result.get(0).getName());
     }
+
+    @Test
+    void whenFindVenuePage_thenNextCursorIsLastIdOfFullPage() {
+        List<VenueSummary> rows = List.of(
+                new VenueSummary(5L, "NYSE", "New York", VenueType.RM, VenueStatus.OPEN),
+                new VenueSummary(7L, "LSE", "London", VenueType.RM, VenueStatus.OPEN));
+        when(venueRepository.findSummariesAfter(eq(3L), any())).thenReturn(rows);
+
+        CursorPage<VenueSummary> page = venueService.findVenueSummaryPage(3L, 2);
+
+        assertEquals(2, page.items().size());
+        assertEquals(7L, page.nextCursor());
+    }
+
+    @Test
+    void whenFindVenuePageShorterThanSize_thenThereIsNoNextCursor() {
+        when(venueRepository.findSummariesAfter(eq(7L), any())).thenReturn(List.of());
+
+        CursorPage<VenueSummary> page = venueService.findVenueSummaryPage(7L, 2);
+
+        assertTrue(page.items().isEmpty());
+        assertNull(page.nextCursor());
+    }
 }
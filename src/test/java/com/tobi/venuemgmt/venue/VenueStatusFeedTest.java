@@ -0,0 +1,55 @@
+package com.tobi.venuemgmt.venue;
+
+import com.tobi.venuemgmt.common.ReferenceDataVersion;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VenueStatusFeedTest {
+
+    private final VenueStatusFeed feed = new VenueStatusFeed(new ReferenceDataVersion(), 4, 1_000);
+
+    @Test
+    void whenEventsPublished_thenResumeReturnsEventsAfterSequence() {
+        feed.publish(1L, VenueStatus.CLOSED);
+        feed.publish(2L, VenueStatus.CLOSED);
+        feed.publish(1L, VenueStatus.OPEN);
+
+        List<VenueStatusEvent> events = feed.eventsAfter(feed.eventId(1));
+
+        assertEquals(List.of(2L, 3L), events.stream().map(VenueStatusEvent::sequence).toList());
+        assertEquals(VenueStatus.OPEN, events.get(1).status());
+        assertTrue(feed.eventsAfter(feed.eventId(3)).isEmpty());
+    }
+
+    @Test
+    void whenSubscriberFallsBehindBuffer_thenResyncIsRequired() {
+        for (long i = 1; i <= 6; i++) {
+            feed.publish(i, VenueStatus.CLOSED);
+        }
+
+        assertNull(feed.eventsAfter(feed.eventId(1)));
+        assertEquals(4, feed.eventsAfter(feed.eventId(2)).size());
+    }
+
+    @Test
+    void whenSequenceIsAheadOfFeed_thenResyncIsRequired() {
+        feed.publish(1L, VenueStatus.CLOSED);
+
+        assertNull(feed.eventsAfter(feed.eventId(42)));
+    }
+
+    @Test
+    void whenEventIdIsFromAnotherEpoch_thenResyncIsRequired() {
+        feed.publish(1L, VenueStatus.CLOSED);
+        feed.publish(2L, VenueStatus.CLOSED);
+
+        // e.g. a client resuming with an ID issued before a restart
+        assertNull(feed.eventsAfter("previousrun-1"));
+        assertNull(feed.eventsAfter("1"));
+        assertNull(feed.eventsAfter(feed.epoch() + "-x"));
+        assertEquals(1, feed.eventsAfter(feed.epoch() + "-1").size());
+    }
+}
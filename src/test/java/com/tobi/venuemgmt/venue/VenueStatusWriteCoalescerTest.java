@@ -0,0 +1,138 @@
+package com.tobi.venuemgmt.venue;
+
+import com.tobi.venuemgmt.common.datasource.ReadRouting;
+import com.tobi.venuemgmt.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class VenueStatusWriteCoalescerTest {
+
+    // Long enough that every change in a test lands in the same batch
+    private static final long WINDOW_MS = 200;
+
+    private final VenueService venueService = mock(VenueService.class);
+
+    private VenueStatusWriteCoalescer coalescer;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (coalescer != null) {
+            coalescer.destroy();
+        }
+        // update marks this thread as having written
+        ReadRouting.reset();
+    }
+
+    private void start(long windowMs) {
+        start(windowMs, 5_000);
+    }
+
+    private void start(long windowMs, long timeoutMs) {
+        coalescer = new VenueStatusWriteCoalescer(venueService, new SimpleMeterRegistry(), windowMs, 5000, timeoutMs);
+        coalescer.afterPropertiesSet();
+    }
+
+    private static Map<Long, VenueSummary> written(Map<Long, VenueStatus> statuses) {
+        Map<Long, VenueSummary> venues = new HashMap<>();
+        statuses.forEach((id, status) -> venues.put(id, new VenueSummary(id, "Venue " + id, "London",
+                VenueType.RM, status)));
+        return venues;
+    }
+
+    @Test
+    void whenVenueFlipsWithinWindow_thenOnlyLastStatusIsWritten() throws Exception {
+        when(venueService.updateVenueStatuses(any())).thenAnswer(invocation -> written(invocation.getArgument(0)));
+        start(WINDOW_MS);
+
+        List<CompletableFuture<VenueSummary>> futures = new ArrayList<>();
+        futures.add(coalescer.submit(1L, VenueStatus.CLOSED));
+        futures.add(coalescer.submit(1L, VenueStatus.OPEN));
+        futures.add(coalescer.submit(2L, VenueStatus.CLOSED));
+        futures.add(coalescer.submit(1L, VenueStatus.CLOSED));
+
+        for (CompletableFuture<VenueSummary> future : futures) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+        verify(venueService, times(1)).updateVenueStatuses(Map.of(1L, VenueStatus.CLOSED, 2L, VenueStatus.CLOSED));
+        assertEquals(VenueStatus.CLOSED, futures.get(1).get().status());
+    }
+
+    @Test
+    void whenVenueIsUnknown_thenOnlyItsChangeFails() throws Exception {
+        when(venueService.updateVenueStatuses(any())).thenReturn(written(Map.of(1L, VenueStatus.CLOSED)));
+        start(WINDOW_MS);
+
+        CompletableFuture<VenueSummary> known = coalescer.submit(1L, VenueStatus.CLOSED);
+
+        assertThrows(ResourceNotFoundException.class, () -> coalescer.update(9L, VenueStatus.CLOSED));
+        assertEquals(1L, known.get(5, TimeUnit.SECONDS).id());
+    }
+
+    @Test
+    void whenBatchFails_thenEveryChangeInItFails() {
+        when(venueService.updateVenueStatuses(any())).thenThrow(new IllegalStateException("database down"));
+        start(WINDOW_MS);
+
+        CompletableFuture<VenueSummary> first = coalescer.submit(1L, VenueStatus.CLOSED);
+        CompletableFuture<VenueSummary> second = coalescer.submit(2L, VenueStatus.OPEN);
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+        assertTrue(first.isCompletedExceptionally());
+    }
+
+    @Test
+    void whenWriterHitsAnError_thenItsChangesFailAndLaterChangesAreStillWritten() throws Exception {
+        when(venueService.updateVenueStatuses(any()))
+                .thenThrow(new StackOverflowError())
+                .thenAnswer(invocation -> written(invocation.getArgument(0)));
+        start(WINDOW_MS);
+
+        CompletableFuture<VenueSummary> failed = coalescer.submit(1L, VenueStatus.CLOSED);
+        ExecutionException e = assertThrows(ExecutionException.class, () -> failed.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(StackOverflowError.class, e.getCause());
+
+        assertEquals(VenueStatus.OPEN, coalescer.submit(1L, VenueStatus.OPEN).get(5, TimeUnit.SECONDS).status());
+    }
+
+    @Test
+    void whenWriteTakesLongerThanTimeout_thenUpdateGivesUp() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(venueService.updateVenueStatuses(any())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return written(invocation.getArgument(0));
+        });
+        start(1, 50);
+
+        try {
+            assertThrows(IllegalStateException.class, () -> coalescer.update(1L, VenueStatus.CLOSED));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void whenWindowIsZero_thenChangeIsWrittenOnCallerThread() {
+        when(venueService.updateVenueStatuses(Map.of(1L, VenueStatus.OPEN)))
+                .thenReturn(written(Map.of(1L, VenueStatus.OPEN)));
+        start(0);
+
+        VenueSummary venue = coalescer.update(1L, VenueStatus.OPEN);
+
+        assertEquals(VenueStatus.OPEN, venue.status());
+    }
+}